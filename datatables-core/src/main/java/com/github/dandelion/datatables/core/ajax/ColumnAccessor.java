@@ -0,0 +1,121 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+import org.apache.commons.beanutils.NestedNullException;
+
+import com.github.dandelion.core.utils.StringUtils;
+import com.github.dandelion.datatables.core.exception.DataSetProcessingException;
+import com.github.dandelion.datatables.core.util.PropertyAccessor;
+
+/**
+ * <p>
+ * Reads the value of a column from a row, using the column name as a
+ * property path (see {@link PropertyAccessor}), or as an index when the
+ * row is an array or a list.
+ * 
+ * @since 0.10.2
+ */
+class ColumnAccessor {
+
+	private final String name;
+	private final int index;
+	private final boolean readable;
+
+	ColumnAccessor(String name) {
+		this(name, true);
+	}
+
+	/**
+	 * @param readable
+	 *            Whether the column can be read from the rows. A column that
+	 *            can't be read has a {@code null} value in every row.
+	 */
+	ColumnAccessor(String name, boolean readable) {
+		this.name = name;
+		this.index = parseIndex(name);
+		this.readable = readable;
+	}
+
+	/**
+	 * @return the index of the column when its name is a number, {@code -1}
+	 *         otherwise.
+	 */
+	int getIndex() {
+		return index;
+	}
+
+	Object getValue(Object row) {
+		if (row == null || !readable || StringUtils.isBlank(name)) {
+			return null;
+		}
+		if (index != -1) {
+			if (row instanceof Object[]) {
+				Object[] array = (Object[]) row;
+				return index < array.length ? array[index] : null;
+			}
+			if (row instanceof List) {
+				List<?> list = (List<?>) row;
+				return index < list.size() ? list.get(index) : null;
+			}
+		}
+
+		try {
+			return PropertyAccessor.getNestedProperty(row, name);
+		}
+		catch (NestedNullException e) {
+			return null;
+		}
+		catch (IllegalAccessException e) {
+			throw new DataSetProcessingException("Unable to read the column '" + name + "'", e);
+		}
+		catch (InvocationTargetException e) {
+			throw new DataSetProcessingException("Unable to read the column '" + name + "'", e);
+		}
+		catch (NoSuchMethodException e) {
+			throw new DataSetProcessingException("Unable to read the column '" + name + "'", e);
+		}
+	}
+
+	private static int parseIndex(String name) {
+		if (name == null || name.length() == 0 || name.length() > 9) {
+			return -1;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			if (!Character.isDigit(name.charAt(i))) {
+				return -1;
+			}
+		}
+		return Integer.parseInt(name);
+	}
+}
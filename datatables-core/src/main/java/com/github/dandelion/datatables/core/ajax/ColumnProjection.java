@@ -0,0 +1,418 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.json.simple.JSONValue;
+
+import com.github.dandelion.core.utils.StringUtils;
+import com.github.dandelion.datatables.core.exception.DataSetProcessingException;
+import com.github.dandelion.datatables.core.exception.InvalidCriteriasException;
+
+/**
+ * <p>
+ * Projection of the rows on the columns displayed by DataTables, used to send
+ * back only the requested columns instead of whole objects, which may hold
+ * many unused properties and lazy associations.
+ * 
+ * <p>
+ * A projection is created either:
+ * <ul>
+ * <li>with {@link #of(DatatablesCriterias, String...)}, on the columns
+ * requested by DataTables, i.e. on the {@code mDataProp} of each column,
+ * among the paths allowed by the server. Since the column names are sent by
+ * the client, a requested column whose path isn't allowed is never read,
+ * neither its getters called nor its associations loaded, and its value is
+ * {@code null}. The column names are compiled once into a tree of properties, and each row is projected on a
+ * map only holding the requested paths, nested the way DataTables reads them:
+ * the columns {@code id} and {@code address.town.name} give
+ * {@code {"id":1,"address":{"town":{"name":"Paris"}}}}. When all the column
+ * names are indexes, the rows are arrays or lists and are projected on lists
+ * holding the requested indexes, which must be lower than the number of
+ * columns.</li>
+ * <li>with {@link #ofPaths(String...)}, on the passed property paths. Each row
+ * is projected on a list holding the values of the paths, in order, for the
+ * tables whose columns use indexes as {@code mDataProp}.</li>
+ * </ul>
+ * 
+ * <p>
+ * A projection can be shared between threads.
+ * 
+ * @since 0.10.2
+ * @see DatatablesResponse#build(DataSet, DatatablesCriterias, ColumnProjection)
+ */
+public final class ColumnProjection {
+
+	private final Node root = new Node(null);
+	private final ColumnAccessor[] arrayColumns;
+
+	private ColumnProjection(Collection<String> names, boolean array, int columnCount, Set<String> allowedPaths) {
+		List<ColumnAccessor> accessors = new ArrayList<ColumnAccessor>(names.size());
+		boolean indexed = !names.isEmpty();
+		int maxIndex = -1;
+		for (String name : names) {
+			ColumnAccessor accessor = new ColumnAccessor(name, allowedPaths == null || allowedPaths.contains(name));
+			accessors.add(accessor);
+			indexed &= accessor.getIndex() != -1;
+			maxIndex = Math.max(maxIndex, accessor.getIndex());
+			root.add(name.split("\\."), 0, accessor);
+		}
+
+		if (array) {
+			arrayColumns = accessors.toArray(new ColumnAccessor[accessors.size()]);
+		}
+		else if (indexed) {
+			if (maxIndex >= columnCount) {
+				throw new InvalidCriteriasException("The column index " + maxIndex + " exceeds the number of columns ("
+						+ columnCount + ")");
+			}
+			arrayColumns = new ColumnAccessor[maxIndex + 1];
+			for (ColumnAccessor accessor : accessors) {
+				arrayColumns[accessor.getIndex()] = accessor;
+			}
+		}
+		else {
+			arrayColumns = null;
+		}
+	}
+
+	/**
+	 * @param criterias
+	 *            The criterias sent by DataTables.
+	 * @param allowedPaths
+	 *            The paths of the columns that can be read from the rows, e.g.
+	 *            {@code address.town.name}, or their indexes when the rows are
+	 *            arrays or lists.
+	 * @return the projection of the rows on maps holding the columns requested
+	 *         by DataTables, the columns whose path isn't allowed being
+	 *         {@code null}. If no column has been requested, the rows are left
+	 *         untouched.
+	 * @throws InvalidCriteriasException
+	 *             if the columns are indexes and one of them isn't lower than
+	 *             the number of columns.
+	 */
+	public static ColumnProjection of(DatatablesCriterias criterias, String... allowedPaths) {
+		Set<String> names = new LinkedHashSet<String>();
+		int columnCount = 0;
+		if (criterias.getColumnDefs() != null) {
+			columnCount = criterias.getColumnDefs().size();
+			for (ColumnDef columnDef : criterias.getColumnDefs()) {
+				if (StringUtils.isNotBlank(columnDef.getName())) {
+					names.add(columnDef.getName());
+				}
+			}
+		}
+		return new ColumnProjection(names, false, columnCount, new HashSet<String>(Arrays.asList(allowedPaths)));
+	}
+
+	/**
+	 * @param paths
+	 *            The property paths of the columns, e.g.
+	 *            {@code address.town.name}, in the order of the columns.
+	 * @return the projection of the rows on lists holding the values of the
+	 *         paths.
+	 */
+	public static ColumnProjection ofPaths(String... paths) {
+		for (String path : paths) {
+			if (StringUtils.isBlank(path)) {
+				throw new IllegalArgumentException("The paths of the columns can't be blank");
+			}
+		}
+		return new ColumnProjection(Arrays.asList(paths), true, paths.length, null);
+	}
+
+	/**
+	 * @param row
+	 *            A row of the data set.
+	 * @return the projection of the row, i.e. a {@link Map} or a {@link List}
+	 *         only holding the projected columns, or the row itself if there
+	 *         is no column to project on.
+	 * @throws DataSetProcessingException
+	 *             if a column can't be read.
+	 */
+	public Object project(Object row) {
+		if (isEmpty()) {
+			return row;
+		}
+		if (arrayColumns != null) {
+			List<Object> values = new ArrayList<Object>(arrayColumns.length);
+			for (ColumnAccessor column : arrayColumns) {
+				values.add(column != null ? column.getValue(row) : null);
+			}
+			return values;
+		}
+		return root.project(row);
+	}
+
+	/**
+	 * @param rows
+	 *            The rows of the data set.
+	 * @return the projections of the rows.
+	 * @see #project(Object)
+	 */
+	public List<Object> projectAll(Collection<?> rows) {
+		List<Object> projections = new ArrayList<Object>(rows.size());
+		for (Object row : rows) {
+			projections.add(project(row));
+		}
+		return projections;
+	}
+
+	/**
+	 * @return {@code true} if there is no column to project on.
+	 */
+	boolean isEmpty() {
+		return root.children.isEmpty();
+	}
+
+	/**
+	 * Writes the projection of the row as JSON, without building it.
+	 */
+	void write(Object row, Writer writer) throws IOException {
+		if (isEmpty()) {
+			writeRow(row, writer);
+		}
+		else if (arrayColumns != null) {
+			writer.write('[');
+			for (int i = 0; i < arrayColumns.length; i++) {
+				if (i > 0) {
+					writer.write(',');
+				}
+				writeValue(arrayColumns[i] != null ? arrayColumns[i].getValue(row) : null, writer);
+			}
+			writer.write(']');
+		}
+		else {
+			root.write(row, writer);
+		}
+	}
+
+	/**
+	 * Writes a row that isn't projected as JSON. A bean is written as an
+	 * object holding its readable properties.
+	 */
+	static void writeRow(Object row, Writer writer) throws IOException {
+		if (row == null || isJsonValue(row)) {
+			writeValue(row, writer);
+			return;
+		}
+		PropertyDescriptor[] properties;
+		try {
+			properties = Introspector.getBeanInfo(row.getClass(), Object.class).getPropertyDescriptors();
+		}
+		catch (IntrospectionException e) {
+			throw new DataSetProcessingException("Unable to read the properties of " + row.getClass(), e);
+		}
+		writer.write('{');
+		boolean first = true;
+		for (PropertyDescriptor property : properties) {
+			Method getter = property.getReadMethod();
+			if (getter == null) {
+				continue;
+			}
+			Object value;
+			try {
+				value = getter.invoke(row);
+			}
+			catch (IllegalAccessException e) {
+				throw new DataSetProcessingException("Unable to read the property '" + property.getName() + "'", e);
+			}
+			catch (InvocationTargetException e) {
+				throw new DataSetProcessingException("Unable to read the property '" + property.getName() + "'", e);
+			}
+			if (!first) {
+				writer.write(',');
+			}
+			writeKey(property.getName(), writer);
+			writeValue(value, writer);
+			first = false;
+		}
+		writer.write('}');
+	}
+
+	/**
+	 * Writes a value read from a row as JSON. The maps, collections and arrays
+	 * are written recursively, the dates as milliseconds since the epoch, and
+	 * the values that are neither numbers nor booleans as strings.
+	 */
+	static void writeValue(Object value, Writer writer) throws IOException {
+		if (value == null) {
+			writer.write("null");
+		}
+		else if (value instanceof Double && (((Double) value).isNaN() || ((Double) value).isInfinite())
+				|| value instanceof Float && (((Float) value).isNaN() || ((Float) value).isInfinite())) {
+			writer.write("null");
+		}
+		else if (value instanceof Number || value instanceof Boolean) {
+			writer.write(value.toString());
+		}
+		else if (value instanceof Date) {
+			writer.write(String.valueOf(((Date) value).getTime()));
+		}
+		else if (value instanceof Calendar) {
+			writer.write(String.valueOf(((Calendar) value).getTimeInMillis()));
+		}
+		else if (value instanceof Map) {
+			writer.write('{');
+			boolean first = true;
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				if (!first) {
+					writer.write(',');
+				}
+				writeKey(String.valueOf(entry.getKey()), writer);
+				writeValue(entry.getValue(), writer);
+				first = false;
+			}
+			writer.write('}');
+		}
+		else if (value instanceof Collection) {
+			writeArray((Collection<?>) value, writer);
+		}
+		else if (value instanceof Object[]) {
+			writeArray(Arrays.asList((Object[]) value), writer);
+		}
+		else {
+			writer.write('"');
+			writer.write(JSONValue.escape(value.toString()));
+			writer.write('"');
+		}
+	}
+
+	private static void writeArray(Collection<?> values, Writer writer) throws IOException {
+		writer.write('[');
+		boolean first = true;
+		for (Object value : values) {
+			if (!first) {
+				writer.write(',');
+			}
+			writeValue(value, writer);
+			first = false;
+		}
+		writer.write(']');
+	}
+
+	private static void writeKey(String key, Writer writer) throws IOException {
+		writer.write('"');
+		writer.write(JSONValue.escape(key));
+		writer.write("\":");
+	}
+
+	/**
+	 * @return {@code true} if the value is written by
+	 *         {@link #writeValue(Object, Writer)} as is, {@code false} if it's
+	 *         a bean.
+	 */
+	private static boolean isJsonValue(Object value) {
+		return value instanceof Number || value instanceof Boolean || value instanceof CharSequence
+				|| value instanceof Character || value instanceof Enum || value instanceof Date
+				|| value instanceof Calendar || value instanceof Map || value instanceof Collection
+				|| value instanceof Object[] || value.getClass().isPrimitive();
+	}
+
+	/**
+	 * A property of the projection, either read from the row if it's a
+	 * requested column, or written as an object holding its children.
+	 */
+	private static class Node {
+
+		private final String name;
+		private final List<Node> children = new ArrayList<Node>();
+		private ColumnAccessor accessor;
+
+		Node(String name) {
+			this.name = name;
+		}
+
+		void add(String[] path, int depth, ColumnAccessor accessor) {
+			if (depth == path.length) {
+				this.accessor = accessor;
+				return;
+			}
+			Node child = null;
+			for (Node node : children) {
+				if (node.name.equals(path[depth])) {
+					child = node;
+					break;
+				}
+			}
+			if (child == null) {
+				child = new Node(path[depth]);
+				children.add(child);
+			}
+			child.add(path, depth + 1, accessor);
+		}
+
+		Map<String, Object> project(Object row) {
+			Map<String, Object> projection = new LinkedHashMap<String, Object>();
+			for (Node child : children) {
+				projection.put(child.name, child.children.isEmpty() ? child.accessor.getValue(row) : child
+						.project(row));
+			}
+			return projection;
+		}
+
+		void write(Object row, Writer writer) throws IOException {
+			writer.write('{');
+			for (int i = 0; i < children.size(); i++) {
+				Node child = children.get(i);
+				if (i > 0) {
+					writer.write(',');
+				}
+				writeKey(child.name, writer);
+				// A requested parent of other columns is written as an object
+				if (child.children.isEmpty()) {
+					writeValue(child.accessor.getValue(row), writer);
+				}
+				else {
+					child.write(row, writer);
+				}
+			}
+			writer.write('}');
+		}
+	}
+}
@@ -44,11 +44,22 @@ public final class DataSet<T> {
 	private final List<T> rows;
 	private final Long totalDisplayRecords;
 	private final Long totalRecords;
+	private final PageCursor cursor;
 
 	public DataSet(List<T> rows, Long totalRecords, Long totalDisplayRecords) {
+		this(rows, totalRecords, totalDisplayRecords, null);
+	}
+
+	/**
+	 * @param cursor
+	 *            The cursor pointing after the last row, used to seek the next
+	 *            page.
+	 */
+	public DataSet(List<T> rows, Long totalRecords, Long totalDisplayRecords, PageCursor cursor) {
 		this.rows = rows;
 		this.totalRecords = totalRecords;
 		this.totalDisplayRecords = totalDisplayRecords;
+		this.cursor = cursor;
 	}
 
 	public List<T> getRows() {
@@ -62,4 +73,8 @@ public final class DataSet<T> {
 	public Long getTotalRecords() {
 		return totalRecords;
 	}
+
+	public PageCursor getCursor() {
+		return cursor;
+	}
 }
\ No newline at end of file
@@ -30,15 +30,12 @@
 package com.github.dandelion.datatables.core.ajax;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 
 import com.github.dandelion.core.utils.StringUtils;
-import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
-import com.github.dandelion.datatables.core.constants.DTConstants;
+import com.github.dandelion.datatables.core.exception.InvalidCriteriasException;
 
 /**
  * <p>
@@ -52,6 +49,8 @@ import com.github.dandelion.datatables.core.constants.DTConstants;
 public class DatatablesCriterias implements Serializable {
 
 	private static final long serialVersionUID = 8661357461501153387L;
+
+	private static final DatatablesCriteriasParser DEFAULT_PARSER = new DatatablesCriteriasParser();
 	
 	private String search;
 	private Integer displayStart;
@@ -59,6 +58,26 @@ public class DatatablesCriterias implements Serializable {
 	private List<ColumnDef> columnDefs;
 	private List<ColumnDef> sortingColumnDefs;
 	private Integer internalCounter;
+	private PageCursor cursor;
+	private Protocol protocol;
+
+	/**
+	 * Protocol used by DataTables to send the criterias, which is also the one
+	 * expected in the response.
+	 */
+	public enum Protocol {
+		/**
+		 * Hungarian notation parameters, e.g. {@code sEcho} or
+		 * {@code iDisplayStart}, used up to DataTables 1.9.
+		 */
+		LEGACY,
+
+		/**
+		 * Parameters introduced in DataTables 1.10, e.g. {@code draw} or
+		 * {@code columns[0][data]}.
+		 */
+		V1_10
+	}
 
 	public DatatablesCriterias() {
 	}
@@ -73,6 +92,28 @@ public class DatatablesCriterias implements Serializable {
 		this.internalCounter = internalCounter;
 	}
 
+	/**
+	 * @param cursor
+	 *            The cursor sent back by the client, which is only kept if it
+	 *            applies to these criterias.
+	 * @see PageCursor#matches(DatatablesCriterias)
+	 */
+	public DatatablesCriterias(String search, Integer displayStart, Integer displaySize, List<ColumnDef> columnDefs,
+			List<ColumnDef> sortingColumnDefs, Integer internalCounter, PageCursor cursor) {
+		this(search, displayStart, displaySize, columnDefs, sortingColumnDefs, internalCounter);
+		this.cursor = cursor != null && cursor.matches(this) ? cursor : null;
+	}
+
+	/**
+	 * @param protocol
+	 *            The protocol used by DataTables to send the criterias.
+	 */
+	public DatatablesCriterias(String search, Integer displayStart, Integer displaySize, List<ColumnDef> columnDefs,
+			List<ColumnDef> sortingColumnDefs, Integer internalCounter, PageCursor cursor, Protocol protocol) {
+		this(search, displayStart, displaySize, columnDefs, sortingColumnDefs, internalCounter, cursor);
+		this.protocol = protocol;
+	}
+
 	public Integer getDisplayStart() {
 		return displayStart;
 	}
@@ -97,6 +138,24 @@ public class DatatablesCriterias implements Serializable {
 		return sortingColumnDefs;
 	}
 
+	/**
+	 * @return the cursor pointing just before the requested page, which can
+	 *         be used to seek the page instead of skipping
+	 *         {@code displayStart} rows, or {@code null} if the client sent no
+	 *         cursor applying to these criterias.
+	 */
+	public PageCursor getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * @return the protocol used by DataTables to send the criterias,
+	 *         {@link Protocol#LEGACY} by default.
+	 */
+	public Protocol getProtocol() {
+		return protocol != null ? protocol : Protocol.LEGACY;
+	}
+
 	/**
 	 * @return true if a column is filterable, false otherwise.
 	 */
@@ -135,84 +194,20 @@ public class DatatablesCriterias implements Serializable {
 	 * @param request
 	 *            The request sent by Datatables containing all the parameters.
 	 * @return a DatatablesCriterias bean.
+	 * @throws InvalidCriteriasException
+	 *             if the request declares more than
+	 *             {@link DatatablesCriteriasParser#DEFAULT_MAX_COLUMNS}
+	 *             columns.
+	 * @see DatatablesCriteriasParser
 	 */
 	public static DatatablesCriterias getFromRequest(HttpServletRequest request) {
-
-		if (request != null) {
-
-			String sSearch = request.getParameter(DTConstants.DT_S_SEARCH);
-			String sEcho = request.getParameter(DTConstants.DT_S_ECHO);
-			String sDisplayStart = request.getParameter(DTConstants.DT_I_DISPLAY_START);
-			String sDisplayLength = request.getParameter(DTConstants.DT_I_DISPLAY_LENGTH);
-			String sColNumber = request.getParameter(DTConstants.DT_I_COLUMNS);
-			String sSortingColNumber = request.getParameter(DTConstants.DT_I_SORTING_COLS);
-
-			Integer iEcho = StringUtils.isNotBlank(sEcho) ? Integer.parseInt(sEcho) : -1;
-			Integer iDisplayStart = StringUtils.isNotBlank(sDisplayStart) ? Integer.parseInt(sDisplayStart) : -1;
-			Integer iDisplayLength = StringUtils.isNotBlank(sDisplayLength) ? Integer.parseInt(sDisplayLength) : -1;
-			Integer colNumber = StringUtils.isNotBlank(sColNumber) ? Integer.parseInt(sColNumber) : -1;
-			Integer sortingColNumber = StringUtils.isNotBlank(sSortingColNumber) ? Integer.parseInt(sSortingColNumber)
-					: -1;
-
-			List<ColumnDef> columnDefs = new ArrayList<ColumnDef>();
-			List<ColumnDef> sortingColumnDefs = new LinkedList<ColumnDef>();
-
-			for (int i = 0; i < colNumber; i++) {
-
-				ColumnDef columnDef = new ColumnDef();
-
-				columnDef.setName(request.getParameter(DTConstants.DT_M_DATA_PROP + i));
-				columnDef.setFilterable(Boolean.parseBoolean(request.getParameter(DTConstants.DT_B_SEARCHABLE + i)));
-				columnDef.setSortable(Boolean.parseBoolean(request.getParameter(DTConstants.DT_B_SORTABLE + i)));
-				
-				String columnSearch = request.getParameter(DTConstants.DT_S_COLUMN_SEARCH + i);
-				if(StringUtils.isNotBlank(columnSearch)) {
-					String[] splittedSearch = columnSearch.split("~");
-					if("~".equals(columnSearch)) {
-						columnDef.setSearch("");
-					}
-					else if(columnSearch.startsWith("~")) {
-						columnDef.setSearchTo(splittedSearch[1]);
-					}
-					else if(columnSearch.endsWith("~")) {
-						columnDef.setSearchFrom(splittedSearch[0]);
-					}
-					else if(columnSearch.contains("~")){
-						columnDef.setSearchFrom(splittedSearch[0]);
-						columnDef.setSearchTo(splittedSearch[1]);
-					}
-					else{
-						columnDef.setSearch(columnSearch);
-					}
-				}
-				
-				columnDefs.add(columnDef);
-			}
-
-			// Sorted column management
-			for (int i = 0; i < sortingColNumber; i++) {
-				String sSortingCol = request.getParameter(DTConstants.DT_I_SORT_COL + i);
-				Integer sortingCol = StringUtils.isNotBlank(sSortingCol) ? Integer.parseInt(sSortingCol) : -1;
-				ColumnDef sortedColumnDef = columnDefs.get(sortingCol);
-
-				String sortingColDirection = request.getParameter(DTConstants.DT_S_SORT_DIR + i);
-				if (StringUtils.isNotBlank(sortingColDirection)) {
-					sortedColumnDef.setSortDirection(SortDirection.valueOf(sortingColDirection.toUpperCase()));
-				}
-
-				sortingColumnDefs.add(sortedColumnDef);
-			}
-
-			return new DatatablesCriterias(sSearch, iDisplayStart, iDisplayLength, columnDefs, sortingColumnDefs, iEcho);
-		} else {
-			return null;
-		}
+		return DEFAULT_PARSER.parse(request);
 	}
 
 	@Override
 	public String toString() {
 		return "DatatablesCriterias [search=" + search + ", displayStart=" + displayStart + ", displaySize="
 				+ displaySize + ", columnDefs=" + columnDefs + ", sortingColumnDefs=" + sortingColumnDefs
-				+ ", internalCounter=" + internalCounter + "]";
+				+ ", internalCounter=" + internalCounter + ", cursor=" + cursor + ", protocol=" + getProtocol() + "]";
 	}
 }
\ No newline at end of file
@@ -0,0 +1,349 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias.Protocol;
+import com.github.dandelion.datatables.core.constants.DTConstants;
+import com.github.dandelion.datatables.core.exception.InvalidCriteriasException;
+
+/**
+ * <p>
+ * Parses the parameters sent by DataTables when server-side processing is
+ * enabled into {@link DatatablesCriterias}.
+ * 
+ * <p>
+ * Both the Hungarian notation parameters of DataTables 1.9 (e.g.
+ * {@code iDisplayStart} or {@code mDataProp_0}) and the ones of DataTables 1.10
+ * (e.g. {@code start} or {@code columns[0][data]}) are supported. The latter
+ * are used as soon as the {@code draw} parameter is sent, and the protocol is
+ * kept in the criterias so that the response can use the same one.
+ * 
+ * <p>
+ * The parameter map of the request is read once, using parameter names
+ * computed once per parser for all the allowed column indexes. The numbers
+ * are parsed without intermediate objects, and the invalid ones are read as
+ * absent ({@code -1}).
+ * 
+ * <p>
+ * Since the number of columns and of sorted columns comes from the client,
+ * both are checked against a maximum, so that a hostile request can't force
+ * the allocation of an arbitrary number of columns. The sorted columns
+ * referring to unknown columns are ignored.
+ * 
+ * <p>
+ * A parser can be shared between threads.
+ * 
+ * @since 0.10.2
+ */
+public class DatatablesCriteriasParser {
+
+	/**
+	 * Default maximum number of columns.
+	 */
+	public static final int DEFAULT_MAX_COLUMNS = 100;
+
+	private final int maxColumns;
+
+	// Parameter names indexed by column
+	private final String[] dataProps;
+	private final String[] searchables;
+	private final String[] sortables;
+	private final String[] columnSearches;
+	private final String[] sortCols;
+	private final String[] sortDirs;
+
+	// Same for DataTables 1.10, whose number of columns isn't sent. The arrays
+	// used to count them hold one more name, whose presence exceeds the maximum
+	private final String[] columnDatas;
+	private final String[] columnNames;
+	private final String[] columnSearchables;
+	private final String[] columnOrderables;
+	private final String[] columnSearchValues;
+	private final String[] orderColumns;
+	private final String[] orderDirs;
+
+	public DatatablesCriteriasParser() {
+		this(DEFAULT_MAX_COLUMNS);
+	}
+
+	/**
+	 * @param maxColumns
+	 *            The maximum number of columns (and sorted columns) of a
+	 *            request.
+	 */
+	public DatatablesCriteriasParser(int maxColumns) {
+		if (maxColumns <= 0) {
+			throw new IllegalArgumentException("The maximum number of columns must be positive");
+		}
+		this.maxColumns = maxColumns;
+		this.dataProps = names(DTConstants.DT_M_DATA_PROP, maxColumns);
+		this.searchables = names(DTConstants.DT_B_SEARCHABLE, maxColumns);
+		this.sortables = names(DTConstants.DT_B_SORTABLE, maxColumns);
+		this.columnSearches = names(DTConstants.DT_S_COLUMN_SEARCH, maxColumns);
+		this.sortCols = names(DTConstants.DT_I_SORT_COL, maxColumns);
+		this.sortDirs = names(DTConstants.DT_S_SORT_DIR, maxColumns);
+		this.columnDatas = names(DTConstants.DT_COLUMNS + "[", "][data]", maxColumns + 1);
+		this.columnNames = names(DTConstants.DT_COLUMNS + "[", "][name]", maxColumns);
+		this.columnSearchables = names(DTConstants.DT_COLUMNS + "[", "][searchable]", maxColumns);
+		this.columnOrderables = names(DTConstants.DT_COLUMNS + "[", "][orderable]", maxColumns);
+		this.columnSearchValues = names(DTConstants.DT_COLUMNS + "[", "][search][value]", maxColumns);
+		this.orderColumns = names(DTConstants.DT_ORDER + "[", "][column]", maxColumns + 1);
+		this.orderDirs = names(DTConstants.DT_ORDER + "[", "][dir]", maxColumns);
+	}
+
+	/**
+	 * @param request
+	 *            The request sent by DataTables.
+	 * @return the criterias, or {@code null} if the request is {@code null}.
+	 * @throws InvalidCriteriasException
+	 *             if the request declares more columns or sorted columns than
+	 *             allowed.
+	 */
+	@SuppressWarnings("unchecked")
+	public DatatablesCriterias parse(HttpServletRequest request) {
+		return request != null ? parse((Map<String, String[]>) request.getParameterMap()) : null;
+	}
+
+	/**
+	 * @param parameters
+	 *            The parameters sent by DataTables.
+	 * @return the criterias.
+	 * @throws InvalidCriteriasException
+	 *             if the parameters declare more columns or sorted columns
+	 *             than allowed.
+	 */
+	public DatatablesCriterias parse(Map<String, String[]> parameters) {
+		return parameters.containsKey(DTConstants.DT_DRAW) ? parseV1_10(parameters) : parseLegacy(parameters);
+	}
+
+	private DatatablesCriterias parseLegacy(Map<String, String[]> parameters) {
+		int echo = parseInt(get(parameters, DTConstants.DT_S_ECHO));
+		int displayStart = parseInt(get(parameters, DTConstants.DT_I_DISPLAY_START));
+		int displayLength = parseInt(get(parameters, DTConstants.DT_I_DISPLAY_LENGTH));
+		int columnCount = checkCount(parseInt(get(parameters, DTConstants.DT_I_COLUMNS)), DTConstants.DT_I_COLUMNS);
+		int sortingCount = checkCount(parseInt(get(parameters, DTConstants.DT_I_SORTING_COLS)),
+				DTConstants.DT_I_SORTING_COLS);
+
+		List<ColumnDef> columnDefs = new ArrayList<ColumnDef>(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			ColumnDef columnDef = new ColumnDef();
+			columnDef.setName(get(parameters, dataProps[i]));
+			columnDef.setFilterable("true".equalsIgnoreCase(get(parameters, searchables[i])));
+			columnDef.setSortable("true".equalsIgnoreCase(get(parameters, sortables[i])));
+			parseColumnSearch(get(parameters, columnSearches[i]), columnDef);
+			columnDefs.add(columnDef);
+		}
+
+		List<ColumnDef> sortingColumnDefs = new ArrayList<ColumnDef>(sortingCount);
+		for (int i = 0; i < sortingCount; i++) {
+			int sortCol = parseInt(get(parameters, sortCols[i]));
+			if (sortCol < 0 || sortCol >= columnCount) {
+				continue;
+			}
+			ColumnDef sortedColumnDef = columnDefs.get(sortCol);
+			SortDirection sortDirection = parseSortDirection(get(parameters, sortDirs[i]));
+			if (sortDirection != null) {
+				sortedColumnDef.setSortDirection(sortDirection);
+			}
+			sortingColumnDefs.add(sortedColumnDef);
+		}
+
+		PageCursor cursor = PageCursor.decode(get(parameters, DTConstants.DT_S_CURSOR));
+
+		return new DatatablesCriterias(get(parameters, DTConstants.DT_S_SEARCH), displayStart, displayLength,
+				columnDefs, sortingColumnDefs, echo, cursor, Protocol.LEGACY);
+	}
+
+	private DatatablesCriterias parseV1_10(Map<String, String[]> parameters) {
+		int draw = parseInt(get(parameters, DTConstants.DT_DRAW));
+		int start = parseInt(get(parameters, DTConstants.DT_START));
+		int length = parseInt(get(parameters, DTConstants.DT_LENGTH));
+		int columnCount = count(parameters, columnDatas, DTConstants.DT_COLUMNS);
+		int orderCount = count(parameters, orderColumns, DTConstants.DT_ORDER);
+
+		List<ColumnDef> columnDefs = new ArrayList<ColumnDef>(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			ColumnDef columnDef = new ColumnDef();
+			String data = get(parameters, columnDatas[i]);
+			columnDef.setName(data != null && data.length() > 0 ? data : get(parameters, columnNames[i]));
+			columnDef.setFilterable("true".equalsIgnoreCase(get(parameters, columnSearchables[i])));
+			columnDef.setSortable("true".equalsIgnoreCase(get(parameters, columnOrderables[i])));
+			parseColumnSearch(get(parameters, columnSearchValues[i]), columnDef);
+			columnDefs.add(columnDef);
+		}
+
+		List<ColumnDef> sortingColumnDefs = new ArrayList<ColumnDef>(orderCount);
+		for (int i = 0; i < orderCount; i++) {
+			int orderColumn = parseInt(get(parameters, orderColumns[i]));
+			if (orderColumn < 0 || orderColumn >= columnCount) {
+				continue;
+			}
+			ColumnDef sortedColumnDef = columnDefs.get(orderColumn);
+			SortDirection sortDirection = parseSortDirection(get(parameters, orderDirs[i]));
+			if (sortDirection != null) {
+				sortedColumnDef.setSortDirection(sortDirection);
+			}
+			sortingColumnDefs.add(sortedColumnDef);
+		}
+
+		PageCursor cursor = PageCursor.decode(get(parameters, DTConstants.DT_CURSOR));
+
+		return new DatatablesCriterias(get(parameters, DTConstants.DT_SEARCH_VALUE), start, length, columnDefs,
+				sortingColumnDefs, draw, cursor, Protocol.V1_10);
+	}
+
+	/**
+	 * @return the maximum number of columns (and sorted columns) of a request.
+	 */
+	public int getMaxColumns() {
+		return maxColumns;
+	}
+
+	/**
+	 * Parses a column search, which is either a value, or a range whose bounds
+	 * are separated by a {@code ~}, e.g. {@code 10~20}, {@code 10~} or
+	 * {@code ~20}. A single {@code ~} is an empty search.
+	 */
+	static void parseColumnSearch(String search, ColumnDef columnDef) {
+		if (search == null || search.trim().length() == 0) {
+			return;
+		}
+		int separator = search.indexOf('~');
+		if (separator == -1) {
+			columnDef.setSearch(search);
+		}
+		else if (search.length() == 1) {
+			columnDef.setSearch("");
+		}
+		else {
+			int end = search.indexOf('~', separator + 1);
+			if (separator > 0) {
+				columnDef.setSearchFrom(search.substring(0, separator));
+			}
+			if (separator + 1 < (end == -1 ? search.length() : end)) {
+				columnDef.setSearchTo(search.substring(separator + 1, end == -1 ? search.length() : end));
+			}
+		}
+	}
+
+	/**
+	 * @return the direction, or {@code null} if the value is neither
+	 *         {@code asc} nor {@code desc}.
+	 */
+	static SortDirection parseSortDirection(String value) {
+		if ("asc".equalsIgnoreCase(value)) {
+			return SortDirection.ASC;
+		}
+		if ("desc".equalsIgnoreCase(value)) {
+			return SortDirection.DESC;
+		}
+		return null;
+	}
+
+	/**
+	 * Parses a non-negative decimal integer.
+	 * 
+	 * @return the integer, or {@code -1} if the value is {@code null}, empty,
+	 *         negative, too large or not a number.
+	 */
+	static int parseInt(String value) {
+		if (value == null) {
+			return -1;
+		}
+		int start = 0;
+		int end = value.length();
+		while (start < end && value.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && value.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start == end || end - start > 10) {
+			return -1;
+		}
+		long result = 0;
+		for (int i = start; i < end; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			result = result * 10 + (c - '0');
+		}
+		return result <= Integer.MAX_VALUE ? (int) result : -1;
+	}
+
+	private int checkCount(int count, String parameter) {
+		if (count > maxColumns) {
+			throw new InvalidCriteriasException("The parameter '" + parameter + "' exceeds the maximum of "
+					+ maxColumns + " columns");
+		}
+		return Math.max(count, 0);
+	}
+
+	/**
+	 * Counts the consecutive indexes for which a parameter is sent, e.g.
+	 * {@code columns[0][data]}, {@code columns[1][data]}...
+	 */
+	private int count(Map<String, String[]> parameters, String[] names, String parameter) {
+		int count = 0;
+		while (count < maxColumns && parameters.containsKey(names[count])) {
+			count++;
+		}
+		if (count == maxColumns && parameters.containsKey(names[maxColumns])) {
+			throw new InvalidCriteriasException("The parameter '" + parameter + "' exceeds the maximum of "
+					+ maxColumns + " columns");
+		}
+		return count;
+	}
+
+	private static String get(Map<String, String[]> parameters, String name) {
+		String[] values = parameters.get(name);
+		return values != null && values.length > 0 ? values[0] : null;
+	}
+
+	private static String[] names(String prefix, int count) {
+		return names(prefix, "", count);
+	}
+
+	private static String[] names(String prefix, String suffix, int count) {
+		String[] names = new String[count];
+		for (int i = 0; i < count; i++) {
+			names[i] = (prefix + i + suffix).intern();
+		}
+		return names;
+	}
+}
@@ -31,6 +31,8 @@ package com.github.dandelion.datatables.core.ajax;
 
 import java.util.List;
 
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias.Protocol;
+
 /**
  * <p>
  * Bean that wraps a response that must be sent back to Datatables to update the
@@ -38,6 +40,15 @@ import java.util.List;
  * <p>
  * Since Datatables only support JSON at the moment, this bean must be converted
  * to JSON by the server.
+ * <p>
+ * The response follows the protocol used by DataTables to send the
+ * criterias. Up to DataTables 1.9, it holds {@code sEcho},
+ * {@code iTotalRecords}, {@code iTotalDisplayRecords} and {@code aaData}. For
+ * DataTables 1.10, it is a {@link V1_10} response, which also holds
+ * {@code draw}, {@code recordsTotal}, {@code recordsFiltered} and
+ * {@code data}. DataTables 1.10 reads the legacy counts first when present,
+ * so a 1.10 response keeps them with the same values rather than
+ * {@code null}, while its rows are only held by {@code data}.
  * 
  * @author Thibault Duchateau
  * @since 0.8.2
@@ -48,12 +59,21 @@ public class DatatablesResponse<T> {
 	private final Long iTotalRecords;
 	private final Long iTotalDisplayRecords;
 	private final Integer sEcho;
+	private final String sCursor;
 
-	private DatatablesResponse(DataSet<T> dataSet, DatatablesCriterias criterias) {
-		this.aaData = dataSet.getRows();
+	private DatatablesResponse(List<T> rows, DataSet<?> dataSet, DatatablesCriterias criterias) {
+		this.aaData = rows;
 		this.iTotalRecords = dataSet.getTotalRecords();
 		this.iTotalDisplayRecords = dataSet.getTotalDisplayRecords();
 		this.sEcho = criterias.getInternalCounter();
+		this.sCursor = dataSet.getCursor() != null ? dataSet.getCursor().encode() : null;
+	}
+
+	private static <T> DatatablesResponse<T> create(List<T> rows, DataSet<?> dataSet, DatatablesCriterias criterias) {
+		if (criterias.getProtocol() == Protocol.LEGACY) {
+			return new DatatablesResponse<T>(rows, dataSet, criterias);
+		}
+		return new V1_10<T>(rows, dataSet, criterias);
 	}
 
 	public List<T> getAaData() {
@@ -72,7 +92,109 @@ public class DatatablesResponse<T> {
 		return sEcho;
 	}
 
+	/**
+	 * @return the encoded cursor pointing after the last row, to be sent back
+	 *         in the {@code sCursor} parameter of the request for the next
+	 *         page, or {@code null} if keyset pagination isn't used.
+	 * @see PageCursor
+	 */
+	public String getsCursor() {
+		return sCursor;
+	}
+
+	/**
+	 * Response sent to DataTables 1.10.
+	 */
+	public static class V1_10<T> extends DatatablesResponse<T> {
+
+		private final List<T> data;
+
+		private V1_10(List<T> rows, DataSet<?> dataSet, DatatablesCriterias criterias) {
+			super(null, dataSet, criterias);
+			this.data = rows;
+		}
+
+		/**
+		 * @return the rows of the page.
+		 */
+		public List<T> getData() {
+			return data;
+		}
+
+		/**
+		 * @return the total number of rows.
+		 */
+		public Long getRecordsTotal() {
+			return getiTotalRecords();
+		}
+
+		/**
+		 * @return the number of rows matching the searches.
+		 */
+		public Long getRecordsFiltered() {
+			return getiTotalDisplayRecords();
+		}
+
+		/**
+		 * @return the draw counter sent in the request.
+		 */
+		public Integer getDraw() {
+			return getsEcho();
+		}
+
+		/**
+		 * @return the encoded cursor pointing after the last row, or
+		 *         {@code null} if keyset pagination isn't used.
+		 * @see #getsCursor()
+		 */
+		public String getCursor() {
+			return getsCursor();
+		}
+	}
+
 	public static <T> DatatablesResponse<T> build(DataSet<T> dataSet, DatatablesCriterias criterias) {
-		return new DatatablesResponse<T>(dataSet, criterias);
+		return create(dataSet.getRows(), dataSet, criterias);
+	}
+
+	/**
+	 * Builds a response whose rows only hold the columns requested by
+	 * DataTables, i.e. the {@code mDataProp} of each column, among the allowed
+	 * paths. The requested columns whose path isn't allowed are {@code null}.
+	 * 
+	 * @see ColumnProjection#of(DatatablesCriterias, String...)
+	 */
+	public static DatatablesResponse<Object> buildProjection(DataSet<?> dataSet, DatatablesCriterias criterias,
+			String... allowedPaths) {
+		return build(dataSet, criterias, ColumnProjection.of(criterias, allowedPaths));
+	}
+
+	/**
+	 * Builds a response whose rows are projected, e.g. on maps only holding the
+	 * requested columns, so that the unused properties of the rows are neither
+	 * read nor serialized.
+	 * 
+	 * @param dataSet
+	 *            The data set to send back.
+	 * @param criterias
+	 *            The criterias sent by DataTables.
+	 * @param projection
+	 *            The projection applied to each row of the data set.
+	 * @return the response holding the projected rows.
+	 */
+	public static DatatablesResponse<Object> build(DataSet<?> dataSet, DatatablesCriterias criterias,
+			ColumnProjection projection) {
+		return create(projection.projectAll(dataSet.getRows()), dataSet, criterias);
+	}
+
+	/**
+	 * Builds a response whose rows are lists holding the values of the passed
+	 * property paths, for the tables whose columns use indexes as
+	 * {@code mDataProp}.
+	 * 
+	 * @see ColumnProjection#ofPaths(String...)
+	 */
+	public static DatatablesResponse<Object> build(DataSet<?> dataSet, DatatablesCriterias criterias,
+			String... columnPaths) {
+		return build(dataSet, criterias, ColumnProjection.ofPaths(columnPaths));
 	}
 }
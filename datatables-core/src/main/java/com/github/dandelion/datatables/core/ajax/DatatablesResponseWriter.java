@@ -0,0 +1,231 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Iterator;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.json.simple.JSONValue;
+
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias.Protocol;
+
+/**
+ * <p>
+ * Streams the response expected by DataTables when server-side processing is
+ * enabled, without building a {@link DatatablesResponse} to be serialized by
+ * a JSON library.
+ * 
+ * <p>
+ * The counts are written first, then the rows are read one by one from an
+ * {@link Iterator}, e.g. over a database cursor, and written directly to the
+ * output. Each row is projected on the columns requested by DataTables (i.e.
+ * the {@code mDataProp} of each column) among the paths allowed by the
+ * server, which are read with the same accessors as the ones used when
+ * rendering the tables. The requested columns whose path isn't allowed are
+ * written as {@code null}. When no column is requested, each row is written
+ * whole, a bean being written as an object holding its readable properties.
+ * 
+ * <pre>
+ * &#064;RequestMapping(value = &quot;/persons&quot;)
+ * public void findAll(&#064;DatatablesParams DatatablesCriterias criterias, HttpServletResponse response)
+ *       throws IOException {
+ *    DataSet&lt;Person&gt; dataSet = personService.findPersons(criterias);
+ *    new DatatablesResponseWriter(criterias, &quot;id&quot;, &quot;firstName&quot;, &quot;address.town.name&quot;).write(dataSet, response);
+ * }
+ * </pre>
+ * 
+ * <p>
+ * The response follows the protocol used by DataTables to send the criterias:
+ * {@code sEcho}, {@code iTotalRecords}, {@code iTotalDisplayRecords} and
+ * {@code aaData} up to DataTables 1.9, {@code draw}, {@code recordsTotal},
+ * {@code recordsFiltered} and {@code data} since DataTables 1.10.
+ * 
+ * <p>
+ * A writer compiles the requested columns once and can be used to write
+ * several responses to the same criterias.
+ * 
+ * @since 0.10.2
+ */
+public class DatatablesResponseWriter {
+
+	private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+	private final DatatablesCriterias criterias;
+	private final ColumnProjection projection;
+
+	/**
+	 * @param criterias
+	 *            The criterias sent by DataTables, giving the
+	 *            {@code sEcho}, the protocol and the columns to write.
+	 * @param allowedPaths
+	 *            The paths of the columns that can be read from the rows.
+	 * @see ColumnProjection#of(DatatablesCriterias, String...)
+	 */
+	public DatatablesResponseWriter(DatatablesCriterias criterias, String... allowedPaths) {
+		this(criterias, ColumnProjection.of(criterias, allowedPaths));
+	}
+
+	/**
+	 * @param criterias
+	 *            The criterias sent by DataTables, giving the {@code sEcho}
+	 *            and the protocol.
+	 * @param projection
+	 *            The projection of the rows, e.g. on the paths of the columns
+	 *            when their {@code mDataProp} are indexes.
+	 */
+	public DatatablesResponseWriter(DatatablesCriterias criterias, ColumnProjection projection) {
+		this.criterias = criterias;
+		this.projection = projection;
+	}
+
+	/**
+	 * Writes the data set to the response, as UTF-8 encoded JSON.
+	 * 
+	 * @param dataSet
+	 *            The data set to write.
+	 * @param response
+	 *            The response, which is not closed.
+	 * @throws IOException
+	 *             if the response can't be written.
+	 */
+	public void write(DataSet<?> dataSet, HttpServletResponse response) throws IOException {
+		response.setContentType(CONTENT_TYPE);
+		write(dataSet, response.getOutputStream());
+	}
+
+	/**
+	 * Writes the data set to the stream, as UTF-8 encoded JSON.
+	 * 
+	 * @param dataSet
+	 *            The data set to write.
+	 * @param outputStream
+	 *            The stream, which is flushed but not closed.
+	 * @throws IOException
+	 *             if the stream can't be written.
+	 */
+	public void write(DataSet<?> dataSet, OutputStream outputStream) throws IOException {
+		Writer writer = newWriter(outputStream);
+		write(dataSet, writer);
+		writer.flush();
+	}
+
+	/**
+	 * @param dataSet
+	 *            The data set to write.
+	 * @param writer
+	 *            The writer, which is neither flushed nor closed.
+	 * @throws IOException
+	 *             if the writer fails.
+	 */
+	public void write(DataSet<?> dataSet, Writer writer) throws IOException {
+		write(dataSet.getRows().iterator(), dataSet.getTotalRecords(), dataSet.getTotalDisplayRecords(),
+				dataSet.getCursor(), writer);
+	}
+
+	/**
+	 * Writes the rows to the stream, as UTF-8 encoded JSON.
+	 * 
+	 * @param rows
+	 *            The rows of the page, read only once.
+	 * @param totalRecords
+	 *            The total number of rows.
+	 * @param totalDisplayRecords
+	 *            The number of rows matching the searches.
+	 * @param outputStream
+	 *            The stream, which is flushed but not closed.
+	 * @throws IOException
+	 *             if the stream can't be written.
+	 */
+	public void write(Iterator<?> rows, Long totalRecords, Long totalDisplayRecords, OutputStream outputStream)
+			throws IOException {
+		Writer writer = newWriter(outputStream);
+		write(rows, totalRecords, totalDisplayRecords, null, writer);
+		writer.flush();
+	}
+
+	/**
+	 * @param rows
+	 *            The rows of the page, read only once.
+	 * @param totalRecords
+	 *            The total number of rows.
+	 * @param totalDisplayRecords
+	 *            The number of rows matching the searches.
+	 * @param cursor
+	 *            The cursor pointing after the last row, or {@code null}.
+	 * @param writer
+	 *            The writer, which is neither flushed nor closed.
+	 * @throws IOException
+	 *             if the writer fails.
+	 */
+	public void write(Iterator<?> rows, Long totalRecords, Long totalDisplayRecords, PageCursor cursor,
+			Writer writer) throws IOException {
+		boolean legacy = criterias.getProtocol() == Protocol.LEGACY;
+		writer.write(legacy ? "{\"sEcho\":" : "{\"draw\":");
+		writeNumber(criterias.getInternalCounter(), writer);
+		writer.write(legacy ? ",\"iTotalRecords\":" : ",\"recordsTotal\":");
+		writeNumber(totalRecords, writer);
+		writer.write(legacy ? ",\"iTotalDisplayRecords\":" : ",\"recordsFiltered\":");
+		writeNumber(totalDisplayRecords, writer);
+		if (cursor != null) {
+			writer.write(legacy ? ",\"sCursor\":\"" : ",\"cursor\":\"");
+			writer.write(JSONValue.escape(cursor.encode()));
+			writer.write('"');
+		}
+
+		writer.write(legacy ? ",\"aaData\":[" : ",\"data\":[");
+		boolean first = true;
+		while (rows.hasNext()) {
+			if (!first) {
+				writer.write(',');
+			}
+			projection.write(rows.next(), writer);
+			first = false;
+		}
+		writer.write("]}");
+	}
+
+	/**
+	 * Writes a number of the response, {@code 0} if it's missing, since
+	 * DataTables turns a {@code null} into {@code NaN}.
+	 */
+	private static void writeNumber(Number number, Writer writer) throws IOException {
+		writer.write(number != null ? number.toString() : "0");
+	}
+
+	private static Writer newWriter(OutputStream outputStream) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(outputStream, "UTF-8"));
+	}
+}
@@ -0,0 +1,628 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.github.dandelion.core.utils.StringUtils;
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.exception.DataSetProcessingException;
+import com.github.dandelion.datatables.core.util.SearchUtils;
+
+/**
+ * <p>
+ * Applies the {@link DatatablesCriterias} sent by DataTables to an in-memory
+ * collection, e.g. a cached list, and returns the requested page as a
+ * {@link DataSet}.
+ * 
+ * <p>
+ * The criterias are applied as follows:
+ * <ul>
+ * <li>the global search matches the rows where at least one filterable column
+ * contains the searched value, ignoring case</li>
+ * <li>an individual column search matches the rows where the column contains
+ * the searched value, ignoring case</li>
+ * <li>a range search ({@code searchFrom}/{@code searchTo}) matches the rows
+ * where the column is within the bounds, inclusive. Numbers are compared
+ * numerically. {@link Date} and {@link Calendar} values are compared with
+ * the bounds parsed by {@link SearchUtils#timeBound(String, boolean)}, like in
+ * the SQL and JPA queries, an upper bound without time including the whole
+ * day.
+ * A date column with an unparsable bound matches no row. Other values are
+ * compared using their string representation</li>
+ * <li>rows are sorted using the sorted columns, in order. {@code null} values
+ * come first in ascending order and strings are compared ignoring case</li>
+ * </ul>
+ * 
+ * <p>
+ * The column values are read using the column names (i.e. the
+ * {@code mDataProp} of each column) as property paths, or as indexes when the
+ * rows are arrays or lists.
+ * 
+ * <p>
+ * Filters are evaluated row by row and stop at the first mismatch. When a
+ * page is requested, only the first {@code displayStart + displaySize} rows
+ * are kept in a bounded heap instead of sorting all the matching rows.
+ * 
+ * <p>
+ * When an {@link ExecutorService} is provided, collections of at least
+ * {@code parallelismThreshold} rows are split into chunks filtered
+ * concurrently, each chunk keeping its own candidate rows for the requested
+ * page, which are then merged. The result, including the number of matching
+ * rows, is the same as with the sequential processing. The executor is
+ * neither created nor shut down by the engine, so that a single pool (e.g. a
+ * {@code ForkJoinPool} on Java 7+) can be shared between tables.
+ * 
+ * <p>
+ * An engine holds no state between queries and can be shared between
+ * threads.
+ * 
+ * @since 0.10.2
+ */
+public class InMemoryQueryEngine<T> {
+
+	/**
+	 * Default minimum number of rows above which the rows are processed in
+	 * parallel, when an executor is provided.
+	 */
+	public static final int DEFAULT_PARALLELISM_THRESHOLD = 50000;
+
+	private final ExecutorService executor;
+	private final int parallelismThreshold;
+	private final int parallelism;
+
+	/**
+	 * Creates an engine processing all the rows in the calling thread.
+	 */
+	public InMemoryQueryEngine() {
+		this(null, DEFAULT_PARALLELISM_THRESHOLD, 1);
+	}
+
+	/**
+	 * Creates an engine splitting the collections of at least
+	 * {@code parallelismThreshold} rows in as many chunks as available
+	 * processors.
+	 * 
+	 * @param executor
+	 *            The executor running the chunks.
+	 * @param parallelismThreshold
+	 *            The minimum number of rows to process them in parallel.
+	 */
+	public InMemoryQueryEngine(ExecutorService executor, int parallelismThreshold) {
+		this(executor, parallelismThreshold, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an engine splitting the collections of at least
+	 * {@code parallelismThreshold} rows in {@code parallelism} chunks.
+	 * 
+	 * @param executor
+	 *            The executor running the chunks.
+	 * @param parallelismThreshold
+	 *            The minimum number of rows to process them in parallel.
+	 * @param parallelism
+	 *            The number of chunks.
+	 */
+	public InMemoryQueryEngine(ExecutorService executor, int parallelismThreshold, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be positive");
+		}
+		this.executor = executor;
+		this.parallelismThreshold = parallelismThreshold;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * <p>
+	 * Filters, sorts and pages the passed data according to the criterias.
+	 * 
+	 * @param data
+	 *            All the rows, which are left untouched.
+	 * @param criterias
+	 *            The criterias sent by DataTables.
+	 * @return the requested page along with the total number of rows and the
+	 *         number of rows matching the filters.
+	 * @throws DataSetProcessingException
+	 *             if a column value can't be read from a row.
+	 */
+	public DataSet<T> query(Collection<T> data, DatatablesCriterias criterias) {
+
+		final Query query = new Query(criterias);
+		final int start = criterias.getDisplayStart() != null && criterias.getDisplayStart() > 0 ? criterias
+				.getDisplayStart() : 0;
+		final int size = criterias.getDisplaySize() != null ? criterias.getDisplaySize() : -1;
+
+		RowCollector<T> result;
+		if (executor != null && parallelism > 1 && data.size() >= parallelismThreshold) {
+			List<T> rows = data instanceof List && data instanceof RandomAccess ? (List<T>) data
+					: new ArrayList<T>(data);
+			int chunkSize = (rows.size() + parallelism - 1) / parallelism;
+
+			List<Future<RowCollector<T>>> futures = new ArrayList<Future<RowCollector<T>>>(parallelism);
+			for (int chunkStart = 0; chunkStart < rows.size(); chunkStart += chunkSize) {
+				final List<T> chunk = rows.subList(chunkStart, Math.min(chunkStart + chunkSize, rows.size()));
+				final int offset = chunkStart;
+				futures.add(executor.submit(new Callable<RowCollector<T>>() {
+
+					@Override
+					public RowCollector<T> call() {
+						return collect(query, chunk, offset, start, size);
+					}
+				}));
+			}
+
+			result = newCollector(query, start, size);
+			for (Future<RowCollector<T>> future : futures) {
+				result.addAll(getChunk(future, futures));
+			}
+		}
+		else {
+			result = collect(query, data, 0, start, size);
+		}
+
+		return new DataSet<T>(result.getPage(), (long) data.size(), (long) result.getCount());
+	}
+
+	private RowCollector<T> collect(Query query, Collection<T> rows, int offset, int start, int size) {
+		RowCollector<T> collector = newCollector(query, start, size);
+		int position = offset;
+		for (T row : rows) {
+			if (query.matches(row)) {
+				collector.add(row, position);
+			}
+			position++;
+		}
+		return collector;
+	}
+
+	private RowCollector<T> newCollector(Query query, int start, int size) {
+		return query.isSorted() ? new PageCollector<T>(query, start, size) : new OrderedRowCollector<T>(start, size);
+	}
+
+	private RowCollector<T> getChunk(Future<RowCollector<T>> future, List<Future<RowCollector<T>>> futures) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			cancel(futures);
+			Thread.currentThread().interrupt();
+			throw new DataSetProcessingException("Interrupted while processing the rows", e);
+		}
+		catch (ExecutionException e) {
+			cancel(futures);
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new DataSetProcessingException("Unable to process the rows", e.getCause());
+		}
+	}
+
+	private void cancel(List<Future<RowCollector<T>>> futures) {
+		for (Future<RowCollector<T>> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Criterias compiled once per query: column accessors, lower-cased
+	 * searches and parsed ranges.
+	 */
+	static class Query {
+
+		private final ColumnAccessor[] searchableColumns;
+		private final Filter[] filters;
+		private final ColumnAccessor[] sortedColumns;
+		private final boolean[] descending;
+		private final String search;
+
+		Query(DatatablesCriterias criterias) {
+			List<ColumnDef> columnDefs = criterias.getColumnDefs() != null ? criterias.getColumnDefs() : Collections
+					.<ColumnDef> emptyList();
+
+			List<ColumnAccessor> accessors = new ArrayList<ColumnAccessor>(columnDefs.size());
+			List<ColumnAccessor> searchable = new ArrayList<ColumnAccessor>();
+			List<Filter> columnFilters = new ArrayList<Filter>();
+			for (ColumnDef columnDef : columnDefs) {
+				ColumnAccessor accessor = new ColumnAccessor(columnDef.getName());
+				accessors.add(accessor);
+				if (columnDef.isFilterable()) {
+					searchable.add(accessor);
+				}
+				if (StringUtils.isNotBlank(columnDef.getSearch())) {
+					columnFilters.add(new ContainsFilter(accessor, columnDef.getSearch()));
+				}
+				if (StringUtils.isNotBlank(columnDef.getSearchFrom()) || StringUtils.isNotBlank(columnDef.getSearchTo())) {
+					columnFilters.add(new RangeFilter(accessor, columnDef.getSearchFrom(), columnDef.getSearchTo()));
+				}
+			}
+			this.searchableColumns = searchable.toArray(new ColumnAccessor[searchable.size()]);
+			this.filters = columnFilters.toArray(new Filter[columnFilters.size()]);
+			this.search = StringUtils.isNotBlank(criterias.getSearch()) ? criterias.getSearch().toLowerCase(
+					Locale.ENGLISH) : null;
+
+			List<ColumnDef> sortingColumnDefs = criterias.getSortingColumnDefs() != null ? criterias
+					.getSortingColumnDefs() : Collections.<ColumnDef> emptyList();
+			this.sortedColumns = new ColumnAccessor[sortingColumnDefs.size()];
+			this.descending = new boolean[sortingColumnDefs.size()];
+			for (int i = 0; i < sortedColumns.length; i++) {
+				ColumnDef sortingColumnDef = sortingColumnDefs.get(i);
+				int index = columnDefs.indexOf(sortingColumnDef);
+				this.sortedColumns[i] = index != -1 ? accessors.get(index) : new ColumnAccessor(
+						sortingColumnDef.getName());
+				this.descending[i] = sortingColumnDef.getSortDirection() == SortDirection.DESC;
+			}
+		}
+
+		boolean isSorted() {
+			return sortedColumns.length > 0;
+		}
+
+		boolean matches(Object row) {
+			for (Filter filter : filters) {
+				if (!filter.matches(row)) {
+					return false;
+				}
+			}
+			if (search != null) {
+				for (ColumnAccessor column : searchableColumns) {
+					if (containsIgnoreCase(column.getValue(row), search)) {
+						return true;
+					}
+				}
+				return false;
+			}
+			return true;
+		}
+
+		Object[] sortKeys(Object row) {
+			Object[] keys = new Object[sortedColumns.length];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = sortedColumns[i].getValue(row);
+			}
+			return keys;
+		}
+
+		int compareKeys(Object[] keys1, Object[] keys2) {
+			for (int i = 0; i < keys1.length; i++) {
+				int result = compareValues(keys1[i], keys2[i]);
+				if (result != 0) {
+					return descending[i] ? -result : result;
+				}
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Counts the matching rows and keeps the candidates for the requested
+	 * page, i.e. at most {@code start + size} rows.
+	 */
+	abstract static class RowCollector<T> {
+
+		protected final int start;
+		protected final int limit;
+		protected int count;
+
+		RowCollector(int start, int size) {
+			this.start = start;
+			// Saturated, as a huge page size must not make the limit negative
+			this.limit = size >= 0 ? (int) Math.min((long) start + size, Integer.MAX_VALUE) : -1;
+		}
+
+		/**
+		 * Pushes a matching row, {@code position} being its index in the
+		 * collection.
+		 */
+		abstract void add(T row, int position);
+
+		/**
+		 * Merges the rows collected from a following chunk.
+		 */
+		abstract void addAll(RowCollector<T> other);
+
+		abstract List<T> getPage();
+
+		int getCount() {
+			return count;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Keeps the first matching rows, pushed in their original order. They are
+	 * enough to extract the requested page, even after merging several
+	 * chunks in order.
+	 */
+	static class OrderedRowCollector<T> extends RowCollector<T> {
+
+		private final List<T> rows;
+
+		OrderedRowCollector(int start, int size) {
+			super(start, size);
+			this.rows = new ArrayList<T>(limit >= 0 ? Math.min(limit, 1024) : 16);
+		}
+
+		@Override
+		void add(T row, int position) {
+			count++;
+			if (limit < 0 || rows.size() < limit) {
+				rows.add(row);
+			}
+		}
+
+		@Override
+		void addAll(RowCollector<T> other) {
+			OrderedRowCollector<T> otherRows = (OrderedRowCollector<T>) other;
+			for (T row : otherRows.rows) {
+				if (limit >= 0 && rows.size() >= limit) {
+					break;
+				}
+				rows.add(row);
+			}
+			count += otherRows.count;
+		}
+
+		@Override
+		List<T> getPage() {
+			if (start >= rows.size()) {
+				return new ArrayList<T>(0);
+			}
+			return new ArrayList<T>(rows.subList(start, rows.size()));
+		}
+	}
+
+	/**
+	 * <p>
+	 * Keeps the rows of the requested page while the matching rows are
+	 * pushed, along with their sort keys.
+	 * <p>
+	 * If a page is requested, a heap bounded to {@code start + size} rows
+	 * keeps the smallest rows seen so far, its head being the largest of
+	 * them. Otherwise, all rows are kept and sorted at the end. The position
+	 * of each row in the collection is used as the last sort key, so that the
+	 * result is the same as a stable sort, however the chunks are merged.
+	 */
+	static class PageCollector<T> extends RowCollector<T> {
+
+		private final Query query;
+		private final Comparator<SortedRow<T>> comparator;
+		private final PriorityQueue<SortedRow<T>> heap;
+		private final List<SortedRow<T>> all;
+
+		PageCollector(final Query query, int start, int size) {
+			super(start, size);
+			this.query = query;
+			this.comparator = new Comparator<SortedRow<T>>() {
+
+				@Override
+				public int compare(SortedRow<T> row1, SortedRow<T> row2) {
+					int result = query.compareKeys(row1.keys, row2.keys);
+					return result != 0 ? result : (row1.position < row2.position ? -1
+							: (row1.position == row2.position ? 0 : 1));
+				}
+			};
+			if (limit >= 0) {
+				this.heap = new PriorityQueue<SortedRow<T>>(Math.max(1, Math.min(limit, 1024)),
+						Collections.reverseOrder(comparator));
+				this.all = null;
+			}
+			else {
+				this.heap = null;
+				this.all = new ArrayList<SortedRow<T>>();
+			}
+		}
+
+		@Override
+		void add(T row, int position) {
+			count++;
+			offer(new SortedRow<T>(row, query.sortKeys(row), position));
+		}
+
+		@Override
+		void addAll(RowCollector<T> other) {
+			PageCollector<T> otherPage = (PageCollector<T>) other;
+			for (SortedRow<T> sortedRow : otherPage.heap != null ? otherPage.heap : otherPage.all) {
+				offer(sortedRow);
+			}
+			count += otherPage.count;
+		}
+
+		private void offer(SortedRow<T> sortedRow) {
+			if (heap == null) {
+				all.add(sortedRow);
+			}
+			else if (heap.size() < limit) {
+				heap.add(sortedRow);
+			}
+			else if (limit > 0 && comparator.compare(sortedRow, heap.peek()) < 0) {
+				heap.poll();
+				heap.add(sortedRow);
+			}
+		}
+
+		@Override
+		List<T> getPage() {
+			List<SortedRow<T>> sorted = heap != null ? new ArrayList<SortedRow<T>>(heap) : all;
+			Collections.sort(sorted, comparator);
+
+			List<T> page = new ArrayList<T>(Math.max(0, sorted.size() - start));
+			for (int i = start; i < sorted.size(); i++) {
+				page.add(sorted.get(i).row);
+			}
+			return page;
+		}
+	}
+
+	static class SortedRow<T> {
+
+		private final T row;
+		private final Object[] keys;
+		private final int position;
+
+		SortedRow(T row, Object[] keys, int position) {
+			this.row = row;
+			this.keys = keys;
+			this.position = position;
+		}
+	}
+
+	interface Filter {
+
+		boolean matches(Object row);
+	}
+
+	static class ContainsFilter implements Filter {
+
+		private final ColumnAccessor column;
+		private final String search;
+
+		ContainsFilter(ColumnAccessor column, String search) {
+			this.column = column;
+			this.search = search.toLowerCase(Locale.ENGLISH);
+		}
+
+		@Override
+		public boolean matches(Object row) {
+			return containsIgnoreCase(column.getValue(row), search);
+		}
+	}
+
+	static class RangeFilter implements Filter {
+
+		private final ColumnAccessor column;
+		private final String from;
+		private final String to;
+		private final Double numericFrom;
+		private final Double numericTo;
+		private final SearchUtils.Bound timeFrom;
+		private final SearchUtils.Bound timeTo;
+
+		RangeFilter(ColumnAccessor column, String from, String to) {
+			this.column = column;
+			this.from = StringUtils.isNotBlank(from) ? from.trim() : null;
+			this.to = StringUtils.isNotBlank(to) ? to.trim() : null;
+			this.numericFrom = parseDouble(this.from);
+			this.numericTo = parseDouble(this.to);
+			this.timeFrom = SearchUtils.timeBound(this.from, false);
+			this.timeTo = SearchUtils.timeBound(this.to, true);
+		}
+
+		@Override
+		public boolean matches(Object row) {
+			Object value = column.getValue(row);
+			if (value == null) {
+				return false;
+			}
+
+			if (value instanceof Number && (from == null || numericFrom != null) && (to == null || numericTo != null)) {
+				double number = ((Number) value).doubleValue();
+				return (numericFrom == null || number >= numericFrom) && (numericTo == null || number <= numericTo);
+			}
+
+			if (value instanceof Date || value instanceof Calendar) {
+				if ((from != null && timeFrom == null) || (to != null && timeTo == null)) {
+					return false;
+				}
+				long time = value instanceof Date ? ((Date) value).getTime() : ((Calendar) value).getTimeInMillis();
+				return (timeFrom == null || time >= (Long) timeFrom.getValue())
+						&& (timeTo == null || (timeTo.isInclusive() ? time <= (Long) timeTo.getValue()
+								: time < (Long) timeTo.getValue()));
+			}
+
+			String string = value.toString();
+			return (from == null || string.compareTo(from) >= 0) && (to == null || string.compareTo(to) <= 0);
+		}
+
+		private static Double parseDouble(String value) {
+			if (value == null) {
+				return null;
+			}
+			try {
+				return Double.valueOf(value);
+			}
+			catch (NumberFormatException e) {
+				return null;
+			}
+		}
+	}
+
+	static boolean containsIgnoreCase(Object value, String lowerCaseSearch) {
+		if (value == null) {
+			return false;
+		}
+		String string = value.toString();
+		int length = lowerCaseSearch.length();
+		int max = string.length() - length;
+		for (int i = 0; i <= max; i++) {
+			if (string.regionMatches(true, i, lowerCaseSearch, 0, length)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static int compareValues(Object value1, Object value2) {
+		if (value1 == value2) {
+			return 0;
+		}
+		if (value1 == null) {
+			return -1;
+		}
+		if (value2 == null) {
+			return 1;
+		}
+		if (value1 instanceof String && value2 instanceof String) {
+			return ((String) value1).compareToIgnoreCase((String) value2);
+		}
+		if (value1 instanceof Number && value2 instanceof Number && value1.getClass() != value2.getClass()) {
+			return Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+		}
+		if (value1 instanceof Comparable && value1.getClass().isInstance(value2)) {
+			return ((Comparable) value1).compareTo(value2);
+		}
+		return value1.toString().compareToIgnoreCase(value2.toString());
+	}
+}
@@ -0,0 +1,233 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+
+/**
+ * <p>
+ * Opaque cursor pointing after the last row of a page, used to select the
+ * next page with keyset (a.k.a. seek) pagination instead of an
+ * {@code OFFSET}.
+ * 
+ * <p>
+ * A cursor holds the values of the sort keys of the last row of a page, the
+ * position of the next page, and a signature of the searches and sorting it
+ * was built for. It is sent to the client in the {@code sCursor} property of
+ * the {@link DatatablesResponse}, and must be sent back in the
+ * {@code sCursor} parameter of the next request, e.g. using
+ * {@code fnServerParams}. The cursor only applies if the next request has
+ * the same searches and sorting and asks for the rows just after it (i.e. its
+ * {@code iDisplayStart} is the position of the cursor). In any other case,
+ * e.g. when jumping to the last page, the page is selected using the
+ * {@code OFFSET} as usual.
+ * 
+ * <p>
+ * The key values are held as strings and converted back to the type of their
+ * column by the query adapters. As any other request parameter, a cursor can
+ * be tampered with: the key values are always bound as parameters, and a
+ * cursor that can't be decoded is ignored.
+ * 
+ * @since 0.10.2
+ */
+public final class PageCursor implements Serializable {
+
+	private static final long serialVersionUID = -3287604582165718377L;
+
+	private static final char SEPARATOR = '|';
+	private static final char ESCAPE = '\\';
+
+	private final int position;
+	private final String signature;
+	private final List<String> keys;
+
+	private PageCursor(int position, String signature, List<String> keys) {
+		this.position = position;
+		this.signature = signature;
+		this.keys = Collections.unmodifiableList(keys);
+	}
+
+	/**
+	 * @param position
+	 *            The position of the row following the cursor, i.e. the
+	 *            {@code iDisplayStart} of the next page.
+	 * @param criterias
+	 *            The criterias the page was selected with.
+	 * @param keyValues
+	 *            The values of the sort keys of the last row of the page, in
+	 *            the sorting order.
+	 * @return the cursor, or {@code null} if one of the values is
+	 *         {@code null}, since {@code null} values can't be sought.
+	 */
+	public static PageCursor create(int position, DatatablesCriterias criterias, List<?> keyValues) {
+		List<String> keys = new ArrayList<String>(keyValues.size());
+		for (Object keyValue : keyValues) {
+			if (keyValue == null) {
+				return null;
+			}
+			keys.add(keyValue.toString());
+		}
+		return new PageCursor(position, signature(criterias), keys);
+	}
+
+	/**
+	 * @param cursor
+	 *            An encoded cursor, as returned by {@link #encode()}.
+	 * @return the decoded cursor, or {@code null} if the passed string is
+	 *         blank or is not a valid cursor.
+	 */
+	public static PageCursor decode(String cursor) {
+		if (cursor == null || cursor.length() == 0) {
+			return null;
+		}
+
+		List<String> parts = new ArrayList<String>();
+		StringBuilder part = new StringBuilder();
+		for (int i = 0; i < cursor.length(); i++) {
+			char c = cursor.charAt(i);
+			if (c == ESCAPE) {
+				if (++i == cursor.length()) {
+					return null;
+				}
+				part.append(cursor.charAt(i));
+			}
+			else if (c == SEPARATOR) {
+				parts.add(part.toString());
+				part.setLength(0);
+			}
+			else {
+				part.append(c);
+			}
+		}
+		parts.add(part.toString());
+
+		if (parts.size() < 3) {
+			return null;
+		}
+		try {
+			int position = Integer.parseInt(parts.get(0));
+			return position > 0 ? new PageCursor(position, parts.get(1), new ArrayList<String>(
+					parts.subList(2, parts.size()))) : null;
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the cursor encoded as a string, which can be decoded with
+	 *         {@link #decode(String)}.
+	 */
+	public String encode() {
+		StringBuilder cursor = new StringBuilder().append(position).append(SEPARATOR).append(signature);
+		for (String key : keys) {
+			cursor.append(SEPARATOR);
+			for (int i = 0; i < key.length(); i++) {
+				char c = key.charAt(i);
+				if (c == SEPARATOR || c == ESCAPE) {
+					cursor.append(ESCAPE);
+				}
+				cursor.append(c);
+			}
+		}
+		return cursor.toString();
+	}
+
+	/**
+	 * @param criterias
+	 *            The criterias of a request.
+	 * @return {@code true} if the cursor applies to the request, i.e. if the
+	 *         request has the same searches and sorting as the one the cursor
+	 *         was built for, and asks for the rows just after the cursor.
+	 */
+	public boolean matches(DatatablesCriterias criterias) {
+		return criterias.getDisplayStart() != null && criterias.getDisplayStart() == position
+				&& signature.equals(signature(criterias));
+	}
+
+	/**
+	 * @return the position of the row following the cursor.
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return the values of the sort keys of the row preceding the cursor.
+	 */
+	public List<String> getKeys() {
+		return keys;
+	}
+
+	/**
+	 * Hashes the searches and the sorting of the criterias, using the 64-bit
+	 * FNV-1a hash.
+	 */
+	private static String signature(DatatablesCriterias criterias) {
+		long hash = 0xcbf29ce484222325L;
+		hash = hash(hash, criterias.getSearch());
+		if (criterias.getColumnDefs() != null) {
+			for (ColumnDef columnDef : criterias.getColumnDefs()) {
+				hash = hash(hash, columnDef.getName());
+				hash = hash(hash, columnDef.isFilterable() ? "f" : null);
+				hash = hash(hash, columnDef.getSearch());
+				hash = hash(hash, columnDef.getSearchFrom());
+				hash = hash(hash, columnDef.getSearchTo());
+			}
+		}
+		if (criterias.getSortingColumnDefs() != null) {
+			for (ColumnDef sortingColumnDef : criterias.getSortingColumnDefs()) {
+				hash = hash(hash, sortingColumnDef.getName());
+				hash = hash(hash, sortingColumnDef.getSortDirection() == SortDirection.DESC ? "d" : "a");
+			}
+		}
+		return Long.toHexString(hash);
+	}
+
+	private static long hash(long hash, String value) {
+		if (value != null) {
+			for (int i = 0; i < value.length(); i++) {
+				hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+			}
+		}
+		// Separates the values, and null from the empty string
+		return (hash ^ (value == null ? 0x1ffff : 0x10000)) * 0x100000001b3L;
+	}
+
+	@Override
+	public String toString() {
+		return "PageCursor [position=" + position + ", keys=" + keys + "]";
+	}
+}
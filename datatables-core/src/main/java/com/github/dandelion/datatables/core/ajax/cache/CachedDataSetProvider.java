@@ -0,0 +1,165 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.dandelion.datatables.core.ajax.DataSet;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
+
+/**
+ * <p>
+ * {@link DataSetProvider} caching the data sets produced by another provider,
+ * so that paging back and forth or sorting the table again doesn't run the
+ * same queries again.
+ * 
+ * <p>
+ * The data sets are stored in a {@link DataSetCache} under the id of the table
+ * and the {@link CriteriasKey} of the requested page. The provider counts the
+ * hits and misses of the cache, which can be exposed for monitoring.
+ * 
+ * <pre>
+ * CachedDataSetProvider&lt;Person&gt; persons = new CachedDataSetProvider&lt;Person&gt;(&quot;persons&quot;,
+ *       new DataSetProvider&lt;Person&gt;() {
+ *          public DataSet&lt;Person&gt; getDataSet(DatatablesCriterias criterias) {
+ *             return personService.findPersons(criterias);
+ *          }
+ *       });
+ * ...
+ * DataSet&lt;Person&gt; dataSet = persons.getDataSet(criterias);
+ * ...
+ * // After the persons have been modified
+ * persons.invalidate();
+ * </pre>
+ * 
+ * <p>
+ * The cached data sets are shared between the requests, so their rows must
+ * not be modified.
+ * 
+ * @since 0.10.2
+ */
+public class CachedDataSetProvider<T> implements DataSetProvider<T> {
+
+	private final String tableId;
+	private final DataSetProvider<T> provider;
+	private final DataSetCache cache;
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * Caches the data sets in a new {@link LruDataSetCache}.
+	 */
+	public CachedDataSetProvider(String tableId, DataSetProvider<T> provider) {
+		this(tableId, provider, new LruDataSetCache());
+	}
+
+	/**
+	 * @param tableId
+	 *            The id of the table, under which the data sets are stored.
+	 * @param provider
+	 *            The provider of the data sets missing from the cache.
+	 * @param cache
+	 *            The cache, which can be shared with other tables.
+	 */
+	public CachedDataSetProvider(String tableId, DataSetProvider<T> provider, DataSetCache cache) {
+		if (tableId == null) {
+			throw new IllegalArgumentException("The table id can't be null");
+		}
+		this.tableId = tableId;
+		this.provider = provider;
+		this.cache = cache;
+	}
+
+	/**
+	 * @return the cached data set of the requested page, or the one produced
+	 *         by the underlying provider, which is then cached unless the
+	 *         table has been invalidated meanwhile.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public DataSet<T> getDataSet(DatatablesCriterias criterias) {
+		CriteriasKey key = CriteriasKey.of(criterias);
+		DataSet<T> dataSet = (DataSet<T>) cache.get(tableId, key);
+		if (dataSet != null) {
+			hitCount.incrementAndGet();
+			return dataSet;
+		}
+		missCount.incrementAndGet();
+		long currentGeneration = generation.get();
+		dataSet = provider.getDataSet(criterias);
+		if (dataSet != null && generation.get() == currentGeneration) {
+			cache.put(tableId, key, dataSet);
+			// An invalidation may have started between the check and the put,
+			// in which case the data set it may have missed is removed again
+			if (generation.get() != currentGeneration) {
+				cache.invalidate(tableId);
+			}
+		}
+		return dataSet;
+	}
+
+	/**
+	 * Removes all the cached data sets of the table, e.g. after its rows have
+	 * been inserted, updated or deleted. The data sets being produced at the
+	 * same time aren't cached, since they may hold the previous rows.
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		cache.invalidate(tableId);
+	}
+
+	/**
+	 * @return the number of data sets read from the cache.
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return the number of data sets produced by the underlying provider,
+	 *         since they were missing from the cache.
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * Resets the hit and miss counts.
+	 */
+	public void resetCounts() {
+		hitCount.set(0);
+		missCount.set(0);
+	}
+
+	public String getTableId() {
+		return tableId;
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.cache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef;
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
+
+/**
+ * <p>
+ * Canonical form of the {@link DatatablesCriterias} determining a page of
+ * rows, used to cache the {@link com.github.dandelion.datatables.core.ajax.DataSet}
+ * produced for them.
+ * 
+ * <p>
+ * The key holds the global search, the name and searches of each column, the
+ * sorted columns with their direction, and the paging. The draw counter
+ * ({@code sEcho}), the protocol and the cursor are left out, since they don't
+ * change the rows of the page. Two criterias sent by different draws of the
+ * same table therefore give equal keys.
+ * 
+ * @since 0.10.2
+ */
+public final class CriteriasKey implements Serializable {
+
+	private static final long serialVersionUID = 2476193452165091234L;
+
+	private final List<Object> values;
+	private final int hashCode;
+
+	private CriteriasKey(List<Object> values) {
+		this.values = values;
+		this.hashCode = values.hashCode();
+	}
+
+	/**
+	 * @param criterias
+	 *            The criterias sent by DataTables.
+	 * @return the key of the page requested by the criterias.
+	 */
+	public static CriteriasKey of(DatatablesCriterias criterias) {
+		List<ColumnDef> columnDefs = criterias.getColumnDefs();
+		List<ColumnDef> sortingColumnDefs = criterias.getSortingColumnDefs();
+		int columnCount = columnDefs != null ? columnDefs.size() : 0;
+		int sortingCount = sortingColumnDefs != null ? sortingColumnDefs.size() : 0;
+
+		List<Object> values = new ArrayList<Object>(5 + columnCount * 5 + sortingCount * 2);
+		values.add(criterias.getSearch());
+		values.add(criterias.getDisplayStart());
+		values.add(criterias.getDisplaySize());
+		values.add(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			ColumnDef columnDef = columnDefs.get(i);
+			values.add(columnDef.getName());
+			values.add(columnDef.isFilterable());
+			values.add(columnDef.getSearch());
+			values.add(columnDef.getSearchFrom());
+			values.add(columnDef.getSearchTo());
+		}
+		values.add(sortingCount);
+		for (int i = 0; i < sortingCount; i++) {
+			ColumnDef sortingColumnDef = sortingColumnDefs.get(i);
+			values.add(sortingColumnDef.getName());
+			values.add(sortingColumnDef.getSortDirection() == SortDirection.DESC);
+		}
+		return new CriteriasKey(values);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CriteriasKey)) {
+			return false;
+		}
+		CriteriasKey other = (CriteriasKey) obj;
+		return hashCode == other.hashCode && values.equals(other.values);
+	}
+
+	@Override
+	public String toString() {
+		return "CriteriasKey " + values;
+	}
+}
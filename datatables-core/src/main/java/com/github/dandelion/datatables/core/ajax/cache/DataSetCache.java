@@ -0,0 +1,84 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.cache;
+
+import com.github.dandelion.datatables.core.ajax.DataSet;
+
+/**
+ * <p>
+ * Cache of the {@link DataSet} produced for the pages of the tables, used by
+ * the {@link CachedDataSetProvider}.
+ * 
+ * <p>
+ * The data sets are stored by table id, so that a single cache can be shared
+ * between several tables and the data sets of one table can be invalidated
+ * when its rows change. The implementations must be thread-safe.
+ * 
+ * @since 0.10.2
+ * @see LruDataSetCache
+ */
+public interface DataSetCache {
+
+	/**
+	 * @param tableId
+	 *            The id of the table.
+	 * @param key
+	 *            The key of the page.
+	 * @return the data set stored for the page, or {@code null} if none has
+	 *         been stored or if it has expired.
+	 */
+	DataSet<?> get(String tableId, CriteriasKey key);
+
+	/**
+	 * Stores the data set of a page, replacing the one previously stored.
+	 * 
+	 * @param tableId
+	 *            The id of the table.
+	 * @param key
+	 *            The key of the page.
+	 * @param dataSet
+	 *            The data set to store.
+	 */
+	void put(String tableId, CriteriasKey key, DataSet<?> dataSet);
+
+	/**
+	 * Removes all the data sets of a table, e.g. after its rows have been
+	 * inserted, updated or deleted.
+	 * 
+	 * @param tableId
+	 *            The id of the table.
+	 */
+	void invalidate(String tableId);
+
+	/**
+	 * Removes all the data sets.
+	 */
+	void clear();
+}
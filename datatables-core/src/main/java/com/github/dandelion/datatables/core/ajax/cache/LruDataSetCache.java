@@ -0,0 +1,145 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.cache;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.dandelion.datatables.core.ajax.DataSet;
+
+/**
+ * <p>
+ * In-process {@link DataSetCache}, holding at most {@code maxSize} data sets,
+ * where each data set expires after a fixed time to live.
+ * 
+ * <p>
+ * When full, the least recently used data set is evicted. The expired data
+ * sets are evicted when read. The data sets may be stale for up to the time to
+ * live, unless their table is invalidated when its rows change.
+ * 
+ * @since 0.10.2
+ */
+public class LruDataSetCache implements DataSetCache {
+
+	/**
+	 * Default time to live of the data sets, in seconds.
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE = 60;
+
+	/**
+	 * Default maximum number of data sets held by the cache.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 500;
+
+	private final TtlCache<Key, DataSet<?>> dataSets;
+
+	public LruDataSetCache() {
+		this(DEFAULT_TIME_TO_LIVE, TimeUnit.SECONDS);
+	}
+
+	public LruDataSetCache(long timeToLive, TimeUnit unit) {
+		this(timeToLive, unit, DEFAULT_MAX_SIZE);
+	}
+
+	public LruDataSetCache(long timeToLive, TimeUnit unit, int maxSize) {
+		this.dataSets = new TtlCache<Key, DataSet<?>>(timeToLive, unit, maxSize) {
+
+			@Override
+			protected long currentTime() {
+				return LruDataSetCache.this.currentTime();
+			}
+		};
+	}
+
+	@Override
+	public DataSet<?> get(String tableId, CriteriasKey key) {
+		return dataSets.get(new Key(tableId, key));
+	}
+
+	@Override
+	public void put(String tableId, CriteriasKey key, DataSet<?> dataSet) {
+		dataSets.put(new Key(tableId, key), dataSet);
+	}
+
+	@Override
+	public void invalidate(String tableId) {
+		synchronized (dataSets) {
+			for (Key key : dataSets.keys()) {
+				if (key.tableId.equals(tableId)) {
+					dataSets.remove(key);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		dataSets.clear();
+	}
+
+	/**
+	 * @return the number of data sets currently held, including the expired
+	 *         ones not evicted yet.
+	 */
+	public int size() {
+		return dataSets.size();
+	}
+
+	/**
+	 * @return the current time, in nanoseconds.
+	 */
+	long currentTime() {
+		return System.nanoTime();
+	}
+
+	private static class Key {
+
+		private final String tableId;
+		private final CriteriasKey criteriasKey;
+
+		Key(String tableId, CriteriasKey criteriasKey) {
+			this.tableId = tableId;
+			this.criteriasKey = criteriasKey;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * tableId.hashCode() + criteriasKey.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return tableId.equals(other.tableId) && criteriasKey.equals(other.criteriasKey);
+		}
+	}
+}
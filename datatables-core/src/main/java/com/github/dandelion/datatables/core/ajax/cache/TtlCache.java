@@ -0,0 +1,164 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * In-process cache holding at most {@code maxSize} values, where each value
+ * expires after a fixed time to live.
+ * 
+ * <p>
+ * When full, the least recently used value is evicted. The expired values are
+ * evicted when read. A cache can be shared between threads: all its methods
+ * lock the cache itself, so that a sequence of calls can be made atomic by
+ * locking it too.
+ * 
+ * @param <K>
+ *            Type of the keys.
+ * @param <V>
+ *            Type of the values.
+ * 
+ * @since 0.10.2
+ */
+public class TtlCache<K, V> {
+
+	private final long timeToLive;
+	private final Map<K, Entry<V>> entries;
+
+	public TtlCache(long timeToLive, TimeUnit unit, final int maxSize) {
+		if (timeToLive < 0) {
+			throw new IllegalArgumentException("The time to live can't be negative");
+		}
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("The maximum size must be positive");
+		}
+		this.timeToLive = unit.toNanos(timeToLive);
+		this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 2811431404813523614L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @param key
+	 *            The key of the value.
+	 * @return the value stored under the key, or {@code null} if none has been
+	 *         stored or if it has expired.
+	 */
+	public synchronized V get(K key) {
+		Entry<V> entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.isExpired(currentTime())) {
+			entries.remove(key);
+			return null;
+		}
+		return entry.value;
+	}
+
+	/**
+	 * Stores a value, replacing the one previously stored under the same key.
+	 * 
+	 * @param key
+	 *            The key of the value.
+	 * @param value
+	 *            The value to store.
+	 */
+	public synchronized void put(K key, V value) {
+		entries.put(key, new Entry<V>(value, currentTime() + timeToLive));
+	}
+
+	/**
+	 * Removes the value stored under a key.
+	 * 
+	 * @param key
+	 *            The key of the value.
+	 */
+	public synchronized void remove(K key) {
+		entries.remove(key);
+	}
+
+	/**
+	 * @return a copy of the keys currently held, including those of the
+	 *         expired values not evicted yet.
+	 */
+	public synchronized List<K> keys() {
+		return new ArrayList<K>(entries.keySet());
+	}
+
+	/**
+	 * Removes all the values.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * @return the number of values currently held, including the expired ones
+	 *         not evicted yet.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the current time, in nanoseconds.
+	 */
+	protected long currentTime() {
+		return System.nanoTime();
+	}
+
+	private static class Entry<V> {
+
+		private final V value;
+		private final long expiresAt;
+
+		Entry(V value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(long now) {
+			return now - expiresAt >= 0;
+		}
+	}
+}
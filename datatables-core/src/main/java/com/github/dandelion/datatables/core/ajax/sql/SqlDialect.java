@@ -0,0 +1,121 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.sql;
+
+/**
+ * <p>
+ * SQL dialects supported by the {@link SqlQueryBuilder}, describing how a
+ * page is selected and whether the filtered count can be computed in the
+ * same query as the page, using {@code COUNT(*) OVER ()}.
+ * 
+ * @since 0.10.2
+ */
+public enum SqlDialect {
+
+	/**
+	 * SQL:2008 {@code OFFSET ... FETCH} paging with window functions.
+	 */
+	ANSI(false, true, false, true),
+
+	/**
+	 * H2 1.4.198 and later. The older versions don't support window functions
+	 * and can use the {@link #HSQLDB} dialect.
+	 */
+	H2(true, true, false, true),
+
+	/**
+	 * HSQLDB 2.x, which doesn't support window functions.
+	 */
+	HSQLDB(true, false, false, true),
+
+	/**
+	 * MySQL 5.x, which doesn't support window functions.
+	 */
+	MYSQL(true, false, false, true),
+
+	POSTGRESQL(true, true, false, true),
+
+	/**
+	 * Oracle 12c and later, which only accepts a qualified wildcard, e.g.
+	 * {@code p.*}, along with other columns.
+	 */
+	ORACLE(false, true, false, false),
+
+	/**
+	 * SQL Server 2012 and later, which requires an {@code ORDER BY} clause to
+	 * select a page.
+	 */
+	SQLSERVER(false, true, true, true);
+
+	private final boolean limitOffset;
+	private final boolean windowFunctions;
+	private final boolean orderByRequiredForPaging;
+	private final boolean wildcardWithOtherColumns;
+
+	private SqlDialect(boolean limitOffset, boolean windowFunctions, boolean orderByRequiredForPaging,
+			boolean wildcardWithOtherColumns) {
+		this.limitOffset = limitOffset;
+		this.windowFunctions = windowFunctions;
+		this.orderByRequiredForPaging = orderByRequiredForPaging;
+		this.wildcardWithOtherColumns = wildcardWithOtherColumns;
+	}
+
+	/**
+	 * @return {@code true} if a page is selected using
+	 *         {@code LIMIT ? OFFSET ?}, {@code false} if using
+	 *         {@code OFFSET ? ROWS FETCH NEXT ? ROWS ONLY}.
+	 */
+	public boolean isLimitOffset() {
+		return limitOffset;
+	}
+
+	/**
+	 * @return {@code true} if {@code COUNT(*) OVER ()} is supported.
+	 */
+	public boolean supportsWindowFunctions() {
+		return windowFunctions;
+	}
+
+	/**
+	 * @return {@code true} if a page can't be selected without an
+	 *         {@code ORDER BY} clause.
+	 */
+	public boolean isOrderByRequiredForPaging() {
+		return orderByRequiredForPaging;
+	}
+
+	/**
+	 * @return {@code true} if an unqualified {@code *} can be followed by
+	 *         other columns, e.g. {@code SELECT *, COUNT(*) OVER ()}.
+	 */
+	public boolean allowsWildcardWithOtherColumns() {
+		return wildcardWithOtherColumns;
+	}
+}
@@ -0,0 +1,615 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.dandelion.core.utils.StringUtils;
+import com.github.dandelion.datatables.core.ajax.ColumnDef;
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.ajax.DataSet;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
+import com.github.dandelion.datatables.core.ajax.PageCursor;
+import com.github.dandelion.datatables.core.exception.DataSetProcessingException;
+import com.github.dandelion.datatables.core.util.SearchUtils;
+
+/**
+ * <p>
+ * Builds parameterised SQL queries from the {@link DatatablesCriterias} sent
+ * by DataTables when server-side processing is enabled.
+ * 
+ * <p>
+ * Only the columns explicitly mapped with
+ * {@link #column(String, String, Class)} are used in the generated SQL: the
+ * names sent by DataTables (i.e. the {@code mDataProp} of each column) are
+ * never written into the SQL, and the criterias referring to unmapped
+ * columns are ignored. All the searched values are bound as parameters.
+ * 
+ * <pre>
+ * SqlQueryBuilder builder = new SqlQueryBuilder(SqlDialect.POSTGRESQL)
+ *       .select(&quot;p.id, p.first_name, t.name&quot;)
+ *       .from(&quot;person p left join town t on t.id = p.town_id&quot;)
+ *       .column(&quot;id&quot;, &quot;p.id&quot;, Long.class)
+ *       .column(&quot;firstName&quot;, &quot;p.first_name&quot;)
+ *       .column(&quot;address.town.name&quot;, &quot;t.name&quot;);
+ * 
+ * DataSet&lt;Person&gt; dataSet = builder.fetch(connection, criterias, personMapper);
+ * </pre>
+ * 
+ * <p>
+ * The criterias are translated as follows:
+ * <ul>
+ * <li>the global search is applied to the mapped filterable {@link String}
+ * columns, using {@code LOWER(column) LIKE ?}</li>
+ * <li>an individual column search uses {@code LOWER(column) LIKE ?} for
+ * {@link String} columns, and an equality with the converted value for the
+ * other types</li>
+ * <li>a range search ({@code searchFrom}/{@code searchTo}) uses
+ * {@code column >= ?} and {@code column <= ?}, with the bounds converted to
+ * the column type by {@link SearchUtils#rangeBound(String, Class, boolean)}, a
+ * date-only upper bound giving {@code column < ?} on the next day</li>
+ * <li>the sorted columns are translated into an {@code ORDER BY} clause</li>
+ * <li>the page is selected using the paging syntax of the {@link SqlDialect}
+ * </li>
+ * </ul>
+ * A searched value that can't be converted to the type of its column
+ * matches no row.
+ * 
+ * <p>
+ * When the dialect supports window functions, the page query also returns the
+ * number of rows matching the filters in the {@value #FILTERED_COUNT_COLUMN}
+ * column, so that no separate count query is needed. With a dialect that
+ * doesn't accept other columns after an unqualified {@code *}, such as
+ * {@link SqlDialect#ORACLE}, this requires a select list other than
+ * {@code *}, e.g. {@code p.*}.
+ * 
+ * <p>
+ * When a unique key is set with {@link #uniqueKey(String)}, the builder uses
+ * keyset pagination: the page query also selects the sort keys, the
+ * {@link DataSet} returned by {@link #fetch(Connection, DatatablesCriterias, RowMapper)}
+ * holds a {@link PageCursor} pointing after its last row, and the next page
+ * is then selected by seeking after the keys of the cursor rather than with
+ * an {@code OFFSET}, so that it costs the same as the first page. The other
+ * pages are still selected with an {@code OFFSET}. Since the sort keys are
+ * selected along with the select list, it can't be an unqualified {@code *}
+ * with a dialect such as {@link SqlDialect#ORACLE}.
+ * 
+ * <p>
+ * Once configured, a builder can be shared between threads.
+ * 
+ * @since 0.10.2
+ */
+public class SqlQueryBuilder {
+
+	/**
+	 * Label of the column holding the filtered count in the page query.
+	 */
+	public static final String FILTERED_COUNT_COLUMN = "dt_filtered_count";
+
+	/**
+	 * Prefix of the labels of the sort key columns in the page query, when
+	 * keyset pagination is enabled.
+	 */
+	public static final String SORT_KEY_COLUMN_PREFIX = "dt_sort_key_";
+
+	private final SqlDialect dialect;
+	private String select = "*";
+	private String from;
+	private String where;
+	private List<Object> whereParameters = Collections.emptyList();
+	private final Map<String, SqlColumn> columns = new LinkedHashMap<String, SqlColumn>();
+	private String uniqueKey;
+
+	public SqlQueryBuilder(SqlDialect dialect) {
+		if (dialect == null) {
+			throw new IllegalArgumentException("The dialect is mandatory");
+		}
+		this.dialect = dialect;
+	}
+
+	/**
+	 * @param select
+	 *            The select list, {@code *} by default.
+	 */
+	public SqlQueryBuilder select(String select) {
+		this.select = select;
+		return this;
+	}
+
+	/**
+	 * @param from
+	 *            The content of the {@code FROM} clause, e.g. a table name
+	 *            or joined tables.
+	 */
+	public SqlQueryBuilder from(String from) {
+		this.from = from;
+		return this;
+	}
+
+	/**
+	 * @param condition
+	 *            A condition always applied, e.g. {@code p.active = ?}, which
+	 *            doesn't count as a filter.
+	 * @param parameters
+	 *            The values bound to the placeholders of the condition.
+	 */
+	public SqlQueryBuilder where(String condition, Object... parameters) {
+		this.where = condition;
+		this.whereParameters = Arrays.asList(parameters);
+		return this;
+	}
+
+	/**
+	 * Maps a {@link String} column.
+	 * 
+	 * @see #column(String, String, Class)
+	 */
+	public SqlQueryBuilder column(String name, String expression) {
+		return column(name, expression, String.class);
+	}
+
+	/**
+	 * <p>
+	 * Maps a column of the table to an SQL expression.
+	 * 
+	 * @param name
+	 *            The name of the column sent by DataTables, i.e. its
+	 *            {@code mDataProp}.
+	 * @param expression
+	 *            The SQL expression of the column, e.g. {@code p.first_name}.
+	 * @param type
+	 *            The type the searched values are converted to, among the
+	 *            types supported by {@link SearchUtils#convert(String, Class)}
+	 *            except the enums, which JDBC can't bind.
+	 */
+	public SqlQueryBuilder column(String name, String expression, Class<?> type) {
+		if (!SearchUtils.isConvertible(type) || type.isEnum()) {
+			throw new IllegalArgumentException("Unsupported type " + type + " for the column '" + name + "'");
+		}
+		this.columns.put(name, new SqlColumn(expression, type));
+		return this;
+	}
+
+	/**
+	 * <p>
+	 * Enables keyset pagination.
+	 * <p>
+	 * The unique key is always added as the last sort key, so that the rows
+	 * are totally ordered and a page can be sought after the keys of the last
+	 * row of the previous page. The sorted columns shouldn't contain
+	 * {@code null} values, since no cursor is built when one of the keys of the
+	 * last row is {@code null}.
+	 * 
+	 * @param name
+	 *            The name of a mapped column whose values are unique, e.g.
+	 *            the primary key.
+	 * @see SqlDialect#allowsWildcardWithOtherColumns()
+	 */
+	public SqlQueryBuilder uniqueKey(String name) {
+		if (!columns.containsKey(name)) {
+			throw new IllegalArgumentException("The unique key '" + name + "' must be a mapped column");
+		}
+		this.uniqueKey = name;
+		return this;
+	}
+
+	/**
+	 * @return the query counting all the rows, only restricted by the
+	 *         {@link #where(String, Object...)} condition.
+	 */
+	public SqlQuery buildTotalCountQuery() {
+		StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ").append(from);
+		List<Object> parameters = new ArrayList<Object>();
+		appendWhere(sql, conditions(parameters, null));
+		return new SqlQuery(sql.toString(), parameters);
+	}
+
+	/**
+	 * @param criterias
+	 *            The criterias sent by DataTables.
+	 * @return the query counting the rows matching the filters.
+	 */
+	public SqlQuery buildFilteredCountQuery(DatatablesCriterias criterias) {
+		StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ").append(from);
+		List<Object> parameters = new ArrayList<Object>();
+		appendWhere(sql, conditions(parameters, criterias));
+		return new SqlQuery(sql.toString(), parameters);
+	}
+
+	/**
+	 * @param criterias
+	 *            The criterias sent by DataTables.
+	 * @return the query selecting the requested page, sorted and filtered. If
+	 *         the criterias hold a {@link PageCursor}, the page is sought
+	 *         after the keys of the cursor.
+	 * @throws IllegalStateException
+	 *             if a unique key is set while the select list is an
+	 *             unqualified {@code *} that the dialect doesn't accept along
+	 *             with other columns.
+	 */
+	public SqlQuery buildPageQuery(DatatablesCriterias criterias) {
+		if (uniqueKey != null && !acceptsOtherColumns()) {
+			throw new IllegalStateException("The " + dialect + " dialect requires a select list other than '*',"
+					+ " e.g. 't.*', to select the sort keys");
+		}
+		List<SortKey> sortKeys = sortKeys(criterias);
+		List<Object> seekValues = seekValues(criterias, sortKeys);
+
+		StringBuilder sql = new StringBuilder("SELECT ").append(select);
+		if (isFilteredCountInPage(seekValues)) {
+			sql.append(", COUNT(*) OVER () AS ").append(FILTERED_COUNT_COLUMN);
+		}
+		if (uniqueKey != null) {
+			for (int i = 0; i < sortKeys.size(); i++) {
+				sql.append(", ").append(sortKeys.get(i).column.expression).append(" AS ")
+						.append(SORT_KEY_COLUMN_PREFIX).append(i);
+			}
+		}
+		sql.append(" FROM ").append(from);
+
+		List<Object> parameters = new ArrayList<Object>();
+		List<String> conditions = conditions(parameters, criterias);
+		if (seekValues != null) {
+			conditions.add(seekCondition(sortKeys, seekValues, parameters));
+		}
+		appendWhere(sql, conditions);
+		appendOrderBy(sql, sortKeys);
+		appendPaging(sql, parameters, criterias, !sortKeys.isEmpty(), seekValues != null);
+		return new SqlQuery(sql.toString(), parameters);
+	}
+
+	/**
+	 * <p>
+	 * Executes the queries on the passed connection and maps the rows of the
+	 * requested page.
+	 * <p>
+	 * The filtered count is read from the page query when possible, and only
+	 * queried separately when the dialect doesn't support window functions,
+	 * when the page is sought or when the requested page is empty.
+	 * 
+	 * @param connection
+	 *            The connection, which is left open.
+	 * @param criterias
+	 *            The criterias sent by DataTables.
+	 * @param rowMapper
+	 *            The mapper converting each row of the page.
+	 * @return the requested page along with the total and filtered counts, and
+	 *         the cursor pointing after its last row if a unique key is set.
+	 * @throws DataSetProcessingException
+	 *             if one of the queries fails.
+	 */
+	public <T> DataSet<T> fetch(Connection connection, DatatablesCriterias criterias, RowMapper<T> rowMapper) {
+		try {
+			long totalCount = count(connection, buildTotalCountQuery());
+
+			List<SortKey> sortKeys = sortKeys(criterias);
+			boolean filteredCountInPage = isFilteredCountInPage(seekValues(criterias, sortKeys));
+			List<Object> lastKeys = new ArrayList<Object>(sortKeys.size());
+
+			List<T> rows = new ArrayList<T>();
+			Long filteredCount = null;
+			SqlQuery pageQuery = buildPageQuery(criterias);
+			PreparedStatement statement = connection.prepareStatement(pageQuery.getSql());
+			try {
+				pageQuery.bind(statement);
+				ResultSet resultSet = statement.executeQuery();
+				try {
+					while (resultSet.next()) {
+						if (filteredCount == null && filteredCountInPage) {
+							filteredCount = resultSet.getLong(FILTERED_COUNT_COLUMN);
+						}
+						if (uniqueKey != null) {
+							lastKeys.clear();
+							for (int i = 0; i < sortKeys.size(); i++) {
+								lastKeys.add(resultSet.getObject(SORT_KEY_COLUMN_PREFIX + i));
+							}
+						}
+						rows.add(rowMapper.mapRow(resultSet));
+					}
+				}
+				finally {
+					resultSet.close();
+				}
+			}
+			finally {
+				statement.close();
+			}
+
+			if (filteredCount == null) {
+				if (!hasFilters(criterias)) {
+					filteredCount = totalCount;
+				}
+				else if (!isPaged(criterias)) {
+					filteredCount = (long) rows.size();
+				}
+				else {
+					filteredCount = count(connection, buildFilteredCountQuery(criterias));
+				}
+			}
+
+			PageCursor cursor = null;
+			if (uniqueKey != null && isPaged(criterias) && !rows.isEmpty()) {
+				cursor = PageCursor.create(start(criterias) + rows.size(), criterias, lastKeys);
+			}
+
+			return new DataSet<T>(rows, totalCount, filteredCount, cursor);
+		}
+		catch (SQLException e) {
+			throw new DataSetProcessingException("Unable to fetch the rows", e);
+		}
+	}
+
+	private long count(Connection connection, SqlQuery query) throws SQLException {
+		PreparedStatement statement = connection.prepareStatement(query.getSql());
+		try {
+			query.bind(statement);
+			ResultSet resultSet = statement.executeQuery();
+			try {
+				return resultSet.next() ? resultSet.getLong(1) : 0;
+			}
+			finally {
+				resultSet.close();
+			}
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	private boolean hasFilters(DatatablesCriterias criterias) {
+		List<String> conditions = new ArrayList<String>();
+		appendFilters(conditions, new ArrayList<Object>(), criterias);
+		return !conditions.isEmpty();
+	}
+
+	private boolean isFilteredCountInPage(List<Object> seekValues) {
+		// The rows preceding the cursor are not counted by a sought page
+		return dialect.supportsWindowFunctions() && seekValues == null && acceptsOtherColumns();
+	}
+
+	private boolean acceptsOtherColumns() {
+		return dialect.allowsWildcardWithOtherColumns() || !"*".equals(select.trim());
+	}
+
+	private static int start(DatatablesCriterias criterias) {
+		return criterias.getDisplayStart() != null && criterias.getDisplayStart() > 0 ? criterias.getDisplayStart()
+				: 0;
+	}
+
+	private boolean isPaged(DatatablesCriterias criterias) {
+		return criterias.getDisplaySize() != null && criterias.getDisplaySize() >= 0;
+	}
+
+	private List<String> conditions(List<Object> parameters, DatatablesCriterias criterias) {
+		List<String> conditions = new ArrayList<String>();
+		if (StringUtils.isNotBlank(where)) {
+			conditions.add("(" + where + ")");
+			parameters.addAll(whereParameters);
+		}
+		if (criterias != null) {
+			appendFilters(conditions, parameters, criterias);
+		}
+		return conditions;
+	}
+
+	private static void appendWhere(StringBuilder sql, List<String> conditions) {
+		for (int i = 0; i < conditions.size(); i++) {
+			sql.append(i == 0 ? " WHERE " : " AND ").append(conditions.get(i));
+		}
+	}
+
+	private void appendFilters(List<String> conditions, List<Object> parameters, DatatablesCriterias criterias) {
+		List<ColumnDef> columnDefs = criterias.getColumnDefs() != null ? criterias.getColumnDefs() : Collections
+				.<ColumnDef> emptyList();
+
+		for (ColumnDef columnDef : columnDefs) {
+			SqlColumn column = columns.get(columnDef.getName());
+			if (column == null) {
+				continue;
+			}
+			if (StringUtils.isNotBlank(columnDef.getSearch())) {
+				if (column.type == String.class) {
+					conditions.add(column.like());
+					parameters.add(SearchUtils.likePattern(columnDef.getSearch()));
+				}
+				else {
+					appendComparison(conditions, parameters, column, "=", columnDef.getSearch());
+				}
+			}
+			if (StringUtils.isNotBlank(columnDef.getSearchFrom())) {
+				appendBound(conditions, parameters, column, columnDef.getSearchFrom(), false);
+			}
+			if (StringUtils.isNotBlank(columnDef.getSearchTo())) {
+				appendBound(conditions, parameters, column, columnDef.getSearchTo(), true);
+			}
+		}
+
+		if (StringUtils.isNotBlank(criterias.getSearch())) {
+			StringBuilder search = new StringBuilder();
+			for (ColumnDef columnDef : columnDefs) {
+				SqlColumn column = columns.get(columnDef.getName());
+				if (column != null && column.type == String.class && columnDef.isFilterable()) {
+					search.append(search.length() == 0 ? "(" : " OR ").append(column.like());
+					parameters.add(SearchUtils.likePattern(criterias.getSearch()));
+				}
+			}
+			conditions.add(search.length() != 0 ? search.append(')').toString() : "1 = 0");
+		}
+	}
+
+	private void appendComparison(List<String> conditions, List<Object> parameters, SqlColumn column,
+			String operator, String value) {
+		Object converted = SearchUtils.convert(value.trim(), column.type);
+		if (converted == null) {
+			conditions.add("1 = 0");
+		}
+		else {
+			conditions.add(column.expression + " " + operator + " ?");
+			parameters.add(converted);
+		}
+	}
+
+	private void appendBound(List<String> conditions, List<Object> parameters, SqlColumn column, String value,
+			boolean upper) {
+		SearchUtils.Bound bound = SearchUtils.rangeBound(value.trim(), column.type, upper);
+		if (bound == null) {
+			conditions.add("1 = 0");
+		}
+		else {
+			String operator = upper ? (bound.isInclusive() ? "<=" : "<") : (bound.isInclusive() ? ">=" : ">");
+			conditions.add(column.expression + " " + operator + " ?");
+			parameters.add(bound.getValue());
+		}
+	}
+
+	/**
+	 * @return the mapped sorted columns, followed by the unique key if any.
+	 */
+	private List<SortKey> sortKeys(DatatablesCriterias criterias) {
+		List<SortKey> sortKeys = new ArrayList<SortKey>();
+		List<String> names = new ArrayList<String>();
+		if (criterias.getSortingColumnDefs() != null) {
+			for (ColumnDef sortingColumnDef : criterias.getSortingColumnDefs()) {
+				SqlColumn column = columns.get(sortingColumnDef.getName());
+				if (column != null && !names.contains(sortingColumnDef.getName())) {
+					sortKeys.add(new SortKey(column, sortingColumnDef.getSortDirection() == SortDirection.DESC));
+					names.add(sortingColumnDef.getName());
+				}
+			}
+		}
+		if (uniqueKey != null && !names.contains(uniqueKey)) {
+			sortKeys.add(new SortKey(columns.get(uniqueKey), false));
+		}
+		return sortKeys;
+	}
+
+	/**
+	 * @return the keys of the cursor converted to the types of the sort keys,
+	 *         or {@code null} if the page can't be sought.
+	 */
+	private List<Object> seekValues(DatatablesCriterias criterias, List<SortKey> sortKeys) {
+		PageCursor cursor = criterias.getCursor();
+		if (uniqueKey == null || cursor == null || !isPaged(criterias) || cursor.getKeys().size() != sortKeys.size()) {
+			return null;
+		}
+		List<Object> seekValues = new ArrayList<Object>(sortKeys.size());
+		for (int i = 0; i < sortKeys.size(); i++) {
+			Object value = SearchUtils.convert(cursor.getKeys().get(i), sortKeys.get(i).column.type);
+			if (value == null) {
+				return null;
+			}
+			seekValues.add(value);
+		}
+		return seekValues;
+	}
+
+	/**
+	 * Builds the condition selecting the rows following the sought keys, e.g.
+	 * {@code (a > ?) OR (a = ? AND b < ?)} when sorting on {@code a ASC, b DESC}.
+	 */
+	private static String seekCondition(List<SortKey> sortKeys, List<Object> seekValues, List<Object> parameters) {
+		StringBuilder condition = new StringBuilder("(");
+		for (int i = 0; i < sortKeys.size(); i++) {
+			condition.append(i == 0 ? "(" : " OR (");
+			for (int j = 0; j < i; j++) {
+				condition.append(sortKeys.get(j).column.expression).append(" = ? AND ");
+				parameters.add(seekValues.get(j));
+			}
+			SortKey sortKey = sortKeys.get(i);
+			condition.append(sortKey.column.expression).append(sortKey.descending ? " < ?)" : " > ?)");
+			parameters.add(seekValues.get(i));
+		}
+		return condition.append(')').toString();
+	}
+
+	private static void appendOrderBy(StringBuilder sql, List<SortKey> sortKeys) {
+		for (int i = 0; i < sortKeys.size(); i++) {
+			sql.append(i == 0 ? " ORDER BY " : ", ").append(sortKeys.get(i).column.expression);
+			sql.append(sortKeys.get(i).descending ? " DESC" : " ASC");
+		}
+	}
+
+	private void appendPaging(StringBuilder sql, List<Object> parameters, DatatablesCriterias criterias,
+			boolean sorted, boolean sought) {
+		if (!isPaged(criterias)) {
+			return;
+		}
+		int start = sought ? 0 : start(criterias);
+
+		if (dialect.isLimitOffset()) {
+			sql.append(" LIMIT ? OFFSET ?");
+			parameters.add(criterias.getDisplaySize());
+			parameters.add(start);
+		}
+		else {
+			if (!sorted && dialect.isOrderByRequiredForPaging()) {
+				sql.append(" ORDER BY (SELECT NULL)");
+			}
+			sql.append(" OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+			parameters.add(start);
+			parameters.add(criterias.getDisplaySize());
+		}
+	}
+
+	private static class SortKey {
+
+		private final SqlColumn column;
+		private final boolean descending;
+
+		SortKey(SqlColumn column, boolean descending) {
+			this.column = column;
+			this.descending = descending;
+		}
+	}
+
+	private static class SqlColumn {
+
+		private final String expression;
+		private final Class<?> type;
+
+		SqlColumn(String expression, Class<?> type) {
+			this.expression = expression;
+			this.type = type;
+		}
+
+		String like() {
+			return "LOWER(" + expression + ") LIKE ? ESCAPE '" + SearchUtils.LIKE_ESCAPE + "'";
+		}
+	}
+}
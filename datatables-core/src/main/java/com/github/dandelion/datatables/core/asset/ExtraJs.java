@@ -63,4 +63,9 @@ public class ExtraJs {
 	public void setInsert(InsertMode insert) {
 		this.insert = insert;
 	}
-}
\ No newline at end of file
+
+	@Override
+	public String toString() {
+		return "ExtraJs [bundles=" + bundles + ", insert=" + insert + "]";
+	}
+}
@@ -82,6 +82,31 @@ public class JsResource {
 		this.processedId = tableId;
 		this.originalId = originalId;
 	}
+
+	/**
+	 * Copy constructor, used to hand out independent copies of a cached
+	 * {@link JsResource}.
+	 * 
+	 * @param original
+	 *            The {@link JsResource} to copy.
+	 * @since 0.10.2
+	 */
+	public JsResource(JsResource original) {
+		this.processedId = original.processedId;
+		this.originalId = original.originalId;
+		this.beforeAll = copy(original.beforeAll);
+		this.beforeStartDocumentReady = copy(original.beforeStartDocumentReady);
+		this.afterStartDocumentReady = copy(original.afterStartDocumentReady);
+		this.beforeEndDocumentReady = copy(original.beforeEndDocumentReady);
+		this.afterAll = copy(original.afterAll);
+		this.dataTablesConf = copy(original.dataTablesConf);
+		this.dataTablesExtra = copy(original.dataTablesExtra);
+		this.dataTablesExtraConf = copy(original.dataTablesExtraConf);
+	}
+
+	private static StringBuilder copy(StringBuilder original) {
+		return original != null ? new StringBuilder(original) : null;
+	}
 	
 	public StringBuilder getBeforeAll() {
 		return beforeAll;
@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import com.github.dandelion.datatables.core.configuration.ConfigToken.Family;
 import com.github.dandelion.datatables.core.constants.Direction;
 import com.github.dandelion.datatables.core.extension.Extension;
 import com.github.dandelion.datatables.core.extension.feature.FilterType;
@@ -61,32 +62,32 @@ import com.github.dandelion.datatables.core.processor.column.SortTypeProcessor;
  */
 public final class ColumnConfig {
 
-	public static ConfigToken<String> ID = new ConfigToken<String>("", new StringProcessor());
-	public static ConfigToken<String> TITLE = new ConfigToken<String>("", new StringProcessor());
-	public static ConfigToken<String> TITLEKEY = new ConfigToken<String>("", new StringProcessor());
-	public static ConfigToken<String> NAME = new ConfigToken<String>("", new StringProcessor());
-	public static ConfigToken<String> PROPERTY = new ConfigToken<String>("", new StringProcessor());
-	public static ConfigToken<String> DEFAULTVALUE = new ConfigToken<String>("", new EmptyStringProcessor());
-	public static ConfigToken<StringBuilder> CSSSTYLE = new ConfigToken<StringBuilder>("", new StringBuilderProcessor());
-	public static ConfigToken<StringBuilder> CSSCELLSTYLE = new ConfigToken<StringBuilder>("", new StringBuilderProcessor());
-	public static ConfigToken<StringBuilder> CSSCLASS = new ConfigToken<StringBuilder>("", new StringBuilderProcessor());
-	public static ConfigToken<StringBuilder> CSSCELLCLASS = new ConfigToken<StringBuilder>("", new StringBuilderProcessor());
-	public static ConfigToken<Boolean> SORTABLE = new ConfigToken<Boolean>("", new BooleanProcessor());
-	public static ConfigToken<List<Direction>> SORTDIRECTION = new ConfigToken<List<Direction>>("", new SortDirectionProcessor());
-	public static ConfigToken<String> SORTINITDIRECTION = new ConfigToken<String>("", new StringProcessor());
-	public static ConfigToken<Integer> SORTINITORDER = new ConfigToken<Integer>("", new IntegerProcessor());
-	public static ConfigToken<String> SORTTYPE = new ConfigToken<String>("", new SortTypeProcessor(true));
-	public static ConfigToken<Boolean> FILTERABLE = new ConfigToken<Boolean>("", new FilterableProcessor());
-	public static ConfigToken<Boolean> SEARCHABLE = new ConfigToken<Boolean>("", new BooleanProcessor());
-	public static ConfigToken<Boolean> VISIBLE = new ConfigToken<Boolean>("", new BooleanProcessor());
-	public static ConfigToken<FilterType> FILTERTYPE = new ConfigToken<FilterType>("", new FilterTypeProcessor());
-	public static ConfigToken<String> FILTERDATEFORMAT = new ConfigToken<String>("", new StringProcessor());
-	public static ConfigToken<String> FILTERVALUES = new ConfigToken<String>("", new StringProcessor(true));
-	public static ConfigToken<String> FILTERCSSCLASS = new ConfigToken<String>("", new StringProcessor());
-	public static ConfigToken<String> FILTERPLACEHOLDER = new ConfigToken<String>("", new StringProcessor());
-	public static ConfigToken<Integer> FILTERMINLENGTH = new ConfigToken<Integer>("", new IntegerProcessor());
-	public static ConfigToken<String> RENDERFUNCTION = new ConfigToken<String>("", new StringProcessor(true));
-	public static ConfigToken<String> SELECTOR = new ConfigToken<String>("", new StringProcessor());
+	public static ConfigToken<String> ID = new ConfigToken<String>("", new StringProcessor(), Family.COLUMN);
+	public static ConfigToken<String> TITLE = new ConfigToken<String>("", new StringProcessor(), Family.COLUMN);
+	public static ConfigToken<String> TITLEKEY = new ConfigToken<String>("", new StringProcessor(), Family.COLUMN);
+	public static ConfigToken<String> NAME = new ConfigToken<String>("", new StringProcessor(), Family.COLUMN);
+	public static ConfigToken<String> PROPERTY = new ConfigToken<String>("", new StringProcessor(), Family.COLUMN);
+	public static ConfigToken<String> DEFAULTVALUE = new ConfigToken<String>("", new EmptyStringProcessor(), Family.COLUMN);
+	public static ConfigToken<StringBuilder> CSSSTYLE = new ConfigToken<StringBuilder>("", new StringBuilderProcessor(), Family.COLUMN);
+	public static ConfigToken<StringBuilder> CSSCELLSTYLE = new ConfigToken<StringBuilder>("", new StringBuilderProcessor(), Family.COLUMN);
+	public static ConfigToken<StringBuilder> CSSCLASS = new ConfigToken<StringBuilder>("", new StringBuilderProcessor(), Family.COLUMN);
+	public static ConfigToken<StringBuilder> CSSCELLCLASS = new ConfigToken<StringBuilder>("", new StringBuilderProcessor(), Family.COLUMN);
+	public static ConfigToken<Boolean> SORTABLE = new ConfigToken<Boolean>("", new BooleanProcessor(), Family.COLUMN);
+	public static ConfigToken<List<Direction>> SORTDIRECTION = new ConfigToken<List<Direction>>("", new SortDirectionProcessor(), Family.COLUMN);
+	public static ConfigToken<String> SORTINITDIRECTION = new ConfigToken<String>("", new StringProcessor(), Family.COLUMN);
+	public static ConfigToken<Integer> SORTINITORDER = new ConfigToken<Integer>("", new IntegerProcessor(), Family.COLUMN);
+	public static ConfigToken<String> SORTTYPE = new ConfigToken<String>("", new SortTypeProcessor(true), Family.COLUMN);
+	public static ConfigToken<Boolean> FILTERABLE = new ConfigToken<Boolean>("", new FilterableProcessor(), Family.COLUMN);
+	public static ConfigToken<Boolean> SEARCHABLE = new ConfigToken<Boolean>("", new BooleanProcessor(), Family.COLUMN);
+	public static ConfigToken<Boolean> VISIBLE = new ConfigToken<Boolean>("", new BooleanProcessor(), Family.COLUMN);
+	public static ConfigToken<FilterType> FILTERTYPE = new ConfigToken<FilterType>("", new FilterTypeProcessor(), Family.COLUMN);
+	public static ConfigToken<String> FILTERDATEFORMAT = new ConfigToken<String>("", new StringProcessor(), Family.COLUMN);
+	public static ConfigToken<String> FILTERVALUES = new ConfigToken<String>("", new StringProcessor(true), Family.COLUMN);
+	public static ConfigToken<String> FILTERCSSCLASS = new ConfigToken<String>("", new StringProcessor(), Family.COLUMN);
+	public static ConfigToken<String> FILTERPLACEHOLDER = new ConfigToken<String>("", new StringProcessor(), Family.COLUMN);
+	public static ConfigToken<Integer> FILTERMINLENGTH = new ConfigToken<Integer>("", new IntegerProcessor(), Family.COLUMN);
+	public static ConfigToken<String> RENDERFUNCTION = new ConfigToken<String>("", new StringProcessor(true), Family.COLUMN);
+	public static ConfigToken<String> SELECTOR = new ConfigToken<String>("", new StringProcessor(), Family.COLUMN);
 	
 	/**
 	 * <p>
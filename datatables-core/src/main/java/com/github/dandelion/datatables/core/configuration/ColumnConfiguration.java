@@ -50,7 +50,7 @@ public class ColumnConfiguration {
 	private List<ColumnElement> columnElements;
 
 	public ColumnConfiguration() {
-		this.configurations = new HashMap<ConfigToken<?>, Object>();
+		this.configurations = new ConfigTokenMap();
 		this.stagingConfigurations = new HashMap<ConfigToken<?>, Object>();
 		this.setStagingExtension(new HashMap<ConfigToken<?>, Extension>());
 	}
@@ -29,7 +29,9 @@
  */
 package com.github.dandelion.datatables.core.configuration;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.github.dandelion.core.utils.StringUtils;
 import com.github.dandelion.datatables.core.html.HtmlTable;
@@ -40,6 +42,12 @@ import com.github.dandelion.datatables.core.processor.ConfigurationProcessor;
  * Token used to store a configuration, how to read it from properties and how
  * to process it.
  * 
+ * <p>
+ * Each token gets a dense ordinal within its {@link Family} when it is
+ * created, i.e. when {@link TableConfig} and {@link ColumnConfig} are
+ * initialized. This ordinal is used by {@link ConfigTokenMap} to store the
+ * values in a flat array, sized after the number of tokens of the family.
+ * 
  * @author Thibault Duchateau
  * @since 0.10.0
  * @see TableConfig
@@ -50,10 +58,85 @@ public class ConfigToken<T> {
 
 	private String propertyName;
 	private ConfigurationProcessor processor;
+	private final Family family;
+	private final int ordinal;
 
+	/**
+	 * Creates a token of the {@link Family#TABLE} family.
+	 */
 	public ConfigToken(String propertyName, ConfigurationProcessor processor) {
+		this(propertyName, processor, Family.TABLE);
+	}
+
+	public ConfigToken(String propertyName, ConfigurationProcessor processor, Family family) {
 		this.propertyName = propertyName;
 		this.processor = processor;
+		this.family = family;
+		this.ordinal = family.register(this);
+	}
+
+	/**
+	 * @return the ordinal of the token, unique among the tokens of its family.
+	 */
+	public int ordinal() {
+		return ordinal;
+	}
+
+	public Family getFamily() {
+		return family;
+	}
+
+	/**
+	 * <p>
+	 * Ordinal space shared by the tokens stored in the same configurations.
+	 * The table and column configurations never hold each other's tokens, so
+	 * each one only needs as many slots as its family has tokens.
+	 */
+	public static final class Family {
+
+		/**
+		 * Tokens of the table configurations, see {@link TableConfig}.
+		 */
+		public static final Family TABLE = new Family("table");
+
+		/**
+		 * Tokens of the column configurations, see {@link ColumnConfig}.
+		 */
+		public static final Family COLUMN = new Family("column");
+
+		private final String name;
+		private final List<ConfigToken<?>> tokens = new CopyOnWriteArrayList<ConfigToken<?>>();
+
+		private Family(String name) {
+			this.name = name;
+		}
+
+		private synchronized int register(ConfigToken<?> configToken) {
+			tokens.add(configToken);
+			return tokens.size() - 1;
+		}
+
+		/**
+		 * @return the number of tokens created so far in this family, i.e.
+		 *         the highest ordinal + 1.
+		 */
+		public int size() {
+			return tokens.size();
+		}
+
+		/**
+		 * @param ordinal
+		 *            the ordinal of the token to retrieve.
+		 * @return the token of this family with the given ordinal.
+		 */
+		public ConfigToken<?> get(int ordinal) {
+			return tokens.get(ordinal);
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
 	}
 
 	public String getPropertyName() {
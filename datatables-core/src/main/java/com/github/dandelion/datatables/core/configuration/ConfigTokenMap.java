@@ -0,0 +1,441 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.configuration;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>
+ * {@link Map} of configurations backed by a flat array indexed by
+ * {@link ConfigToken#ordinal()}, in the spirit of {@link java.util.EnumMap}.
+ * Lookups are simple array reads and no entry object is allocated per
+ * configuration.
+ * 
+ * <p>
+ * A map holds the tokens of a single {@link ConfigToken.Family}, the one of
+ * the first token stored in it, so that its array is sized after the number
+ * of tokens of that family only.
+ * 
+ * <p>
+ * A map can also be layered on top of an unmodifiable parent map, typically a
+ * prototype stored in the {@link ConfigurationStore}. Reads fall through to the
+ * parent while writes (including {@link java.util.Map.Entry#setValue(Object)}
+ * during an iteration) and removals are recorded in the child only, so that
+ * the prototype can be shared by all tables.
+ * 
+ * <p>
+ * Like {@link java.util.HashMap}, this class is not thread-safe. Unmodifiable
+ * maps can be read concurrently.
+ * 
+ * @since 0.10.2
+ */
+public class ConfigTokenMap extends AbstractMap<ConfigToken<?>, Object> {
+
+	/**
+	 * Marker of a configuration explicitly set to {@code null}
+	 */
+	private static final Object NULL = new Object();
+
+	/**
+	 * Marker of a configuration of the parent map removed in the child map
+	 */
+	private static final Object REMOVED = new Object();
+
+	private final ConfigTokenMap parent;
+	private final boolean unmodifiable;
+	private ConfigToken.Family family;
+	private Object[] slots;
+
+	/**
+	 * Ordinals whose value has been derived from the one of the parent
+	 */
+	private BitSet derived;
+
+	public ConfigTokenMap() {
+		this(null, false);
+	}
+
+	public ConfigTokenMap(Map<ConfigToken<?>, Object> configurations) {
+		this(null, false);
+		putAll(configurations);
+	}
+
+	private ConfigTokenMap(ConfigTokenMap parent, boolean unmodifiable) {
+		this.parent = parent;
+		this.unmodifiable = unmodifiable;
+		this.family = parent != null ? parent.family : null;
+	}
+
+	/**
+	 * <p>
+	 * Returns an unmodifiable copy of the passed configurations, which can be
+	 * shared between threads and used as parent by {@link #overlayOf(Map)}.
+	 * 
+	 * @param configurations
+	 *            The configurations to copy.
+	 * @return an unmodifiable {@link ConfigTokenMap}.
+	 */
+	public static ConfigTokenMap unmodifiableCopyOf(Map<ConfigToken<?>, Object> configurations) {
+		ConfigTokenMap copy = new ConfigTokenMap(null, true);
+		for (Entry<ConfigToken<?>, Object> entry : configurations.entrySet()) {
+			copy.bind(entry.getKey());
+			copy.store(entry.getKey().ordinal(), entry.getValue());
+		}
+		return copy;
+	}
+
+	/**
+	 * <p>
+	 * Returns a modifiable map initialized with the passed configurations. If
+	 * they are unmodifiable, they are not copied but used as parent of the
+	 * returned map.
+	 * 
+	 * @param configurations
+	 *            The configurations to start from.
+	 * @return a new modifiable {@link ConfigTokenMap}.
+	 */
+	public static ConfigTokenMap overlayOf(Map<ConfigToken<?>, Object> configurations) {
+		if (configurations instanceof ConfigTokenMap && ((ConfigTokenMap) configurations).unmodifiable) {
+			return new ConfigTokenMap((ConfigTokenMap) configurations, false);
+		}
+		return new ConfigTokenMap(configurations);
+	}
+
+	/**
+	 * @return the unmodifiable map this one is layered on top of, or
+	 *         {@code null} if it isn't an overlay.
+	 */
+	public ConfigTokenMap getParent() {
+		return parent;
+	}
+
+	/**
+	 * <p>
+	 * Returns the tokens set or removed in this map itself, as opposed to the
+	 * ones read from its parent.
+	 * 
+	 * <p>
+	 * A value replacing an inherited one through
+	 * {@link java.util.Map.Entry#setValue(Object)}, as the configuration
+	 * processors do when converting the values of the prototype, is considered
+	 * derived from the parent and its token is not returned.
+	 * 
+	 * @return the overridden tokens, in ascending ordinal order.
+	 */
+	public List<ConfigToken<?>> getOverriddenTokens() {
+		List<ConfigToken<?>> tokens = new ArrayList<ConfigToken<?>>();
+		if (slots != null) {
+			for (int i = 0; i < slots.length; i++) {
+				if (slots[i] != null && (derived == null || !derived.get(i))) {
+					tokens.add(family.get(i));
+				}
+			}
+		}
+		return tokens;
+	}
+
+	@Override
+	public Object get(Object key) {
+		return unmask(lookup(ordinalOf(key)));
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return isVisible(lookup(ordinalOf(key)));
+	}
+
+	@Override
+	public Object put(ConfigToken<?> key, Object value) {
+		checkModifiable();
+		bind(key);
+		int ordinal = key.ordinal();
+		Object previous = unmask(lookup(ordinal));
+		store(ordinal, value);
+		setDerived(ordinal, false);
+		return previous;
+	}
+
+	@Override
+	public Object remove(Object key) {
+		checkModifiable();
+		int ordinal = ordinalOf(key);
+		Object previous = unmask(lookup(ordinal));
+		if (ordinal >= 0) {
+			removeOrdinal(ordinal);
+		}
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		checkModifiable();
+		slots = null;
+		derived = null;
+		if (parent != null) {
+			for (int i = 0; i < capacity(); i++) {
+				if (isVisible(parent.lookup(i))) {
+					ensureCapacity(i);
+					slots[i] = REMOVED;
+				}
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (int i = 0; i < capacity(); i++) {
+			if (isVisible(lookup(i))) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public Set<Entry<ConfigToken<?>, Object>> entrySet() {
+		return new AbstractSet<Entry<ConfigToken<?>, Object>>() {
+
+			@Override
+			public Iterator<Entry<ConfigToken<?>, Object>> iterator() {
+				return new SlotIterator();
+			}
+
+			@Override
+			public int size() {
+				return ConfigTokenMap.this.size();
+			}
+		};
+	}
+
+	/**
+	 * @return the ordinal of the key, or -1 if it isn't a token of the family
+	 *         of this map.
+	 */
+	private int ordinalOf(Object key) {
+		if (key instanceof ConfigToken && ((ConfigToken<?>) key).getFamily() == family) {
+			return ((ConfigToken<?>) key).ordinal();
+		}
+		return -1;
+	}
+
+	/**
+	 * Binds this map to the family of the token if it isn't bound yet.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the token belongs to another family.
+	 */
+	private void bind(ConfigToken<?> key) {
+		if (family == null) {
+			family = key.getFamily();
+		}
+		else if (key.getFamily() != family) {
+			throw new IllegalArgumentException("This configuration map holds " + family + " tokens, not "
+					+ key.getFamily() + " ones");
+		}
+	}
+
+	/**
+	 * @return the number of ordinals of the family of this map.
+	 */
+	private int capacity() {
+		return family != null ? family.size() : 0;
+	}
+
+	private static boolean isVisible(Object slot) {
+		return slot != null && slot != REMOVED;
+	}
+
+	private static Object unmask(Object slot) {
+		return slot == NULL || slot == REMOVED ? null : slot;
+	}
+
+	/**
+	 * Returns the raw content of the slot, looking into the parent if the slot
+	 * is empty in this map.
+	 */
+	private Object lookup(int ordinal) {
+		if (ordinal < 0) {
+			return null;
+		}
+		if (slots != null && ordinal < slots.length && slots[ordinal] != null) {
+			return slots[ordinal];
+		}
+		return parent != null ? parent.lookup(ordinal) : null;
+	}
+
+	private void store(int ordinal, Object value) {
+		ensureCapacity(ordinal);
+		slots[ordinal] = value == null ? NULL : value;
+	}
+
+	private void removeOrdinal(int ordinal) {
+		setDerived(ordinal, false);
+		if (parent != null && isVisible(parent.lookup(ordinal))) {
+			ensureCapacity(ordinal);
+			slots[ordinal] = REMOVED;
+		} else if (slots != null && ordinal < slots.length) {
+			slots[ordinal] = null;
+		}
+	}
+
+	private boolean isInherited(int ordinal) {
+		return slots == null || ordinal >= slots.length || slots[ordinal] == null;
+	}
+
+	private boolean isDerived(int ordinal) {
+		return derived != null && derived.get(ordinal);
+	}
+
+	private void setDerived(int ordinal, boolean value) {
+		if (value) {
+			if (derived == null) {
+				derived = new BitSet();
+			}
+			derived.set(ordinal);
+		} else if (derived != null) {
+			derived.clear(ordinal);
+		}
+	}
+
+	private void ensureCapacity(int ordinal) {
+		if (slots == null) {
+			slots = new Object[Math.max(capacity(), ordinal + 1)];
+		} else if (ordinal >= slots.length) {
+			Object[] newSlots = new Object[Math.max(capacity(), ordinal + 1)];
+			System.arraycopy(slots, 0, newSlots, 0, slots.length);
+			slots = newSlots;
+		}
+	}
+
+	private void checkModifiable() {
+		if (unmodifiable) {
+			throw new UnsupportedOperationException("This configuration map is unmodifiable");
+		}
+	}
+
+	/**
+	 * Iterates over the ordinals in ascending order. Entries read and write
+	 * through the map, so that the map can be updated while iterating.
+	 */
+	private class SlotIterator implements Iterator<Entry<ConfigToken<?>, Object>> {
+
+		private int cursor = 0;
+		private int current = -1;
+
+		@Override
+		public boolean hasNext() {
+			int count = capacity();
+			while (cursor < count && !isVisible(lookup(cursor))) {
+				cursor++;
+			}
+			return cursor < count;
+		}
+
+		@Override
+		public Entry<ConfigToken<?>, Object> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			current = cursor++;
+			return new SlotEntry(family.get(current));
+		}
+
+		@Override
+		public void remove() {
+			if (current < 0) {
+				throw new IllegalStateException();
+			}
+			checkModifiable();
+			removeOrdinal(current);
+			current = -1;
+		}
+	}
+
+	/**
+	 * Entry reading and writing its value through the {@link ConfigTokenMap}.
+	 */
+	private class SlotEntry implements Entry<ConfigToken<?>, Object> {
+
+		private final ConfigToken<?> key;
+
+		SlotEntry(ConfigToken<?> key) {
+			this.key = key;
+		}
+
+		@Override
+		public ConfigToken<?> getKey() {
+			return key;
+		}
+
+		@Override
+		public Object getValue() {
+			return get(key);
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			int ordinal = key.ordinal();
+			boolean fromParent = isInherited(ordinal) || isDerived(ordinal);
+			Object previous = put(key, value);
+			setDerived(ordinal, fromParent);
+			return previous;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry<?, ?> e = (Entry<?, ?>) o;
+			Object value = getValue();
+			return key.equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			Object value = getValue();
+			return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + getValue();
+		}
+	}
+}
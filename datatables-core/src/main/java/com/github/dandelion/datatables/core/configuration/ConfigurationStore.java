@@ -29,9 +29,15 @@
  */
 package com.github.dandelion.datatables.core.configuration;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -41,12 +47,20 @@ import org.slf4j.LoggerFactory;
 import com.github.dandelion.core.Context;
 import com.github.dandelion.core.utils.StringUtils;
 import com.github.dandelion.core.web.WebConstants;
+import com.github.dandelion.datatables.core.exception.ConfigurationProcessingException;
 import com.github.dandelion.datatables.core.exception.UnkownGroupException;
 import com.github.dandelion.datatables.core.i18n.MessageResolver;
 
 /**
+ * <p>
  * Storage class for all configurations by Locale and group.
  * 
+ * <p>
+ * The store is safe for concurrent use: the configuration groups of a locale
+ * are resolved exactly once, by the first request using this locale, while
+ * the other requests wait for the result. Once resolved, the configurations
+ * are read without any locking.
+ * 
  * @author Thibault Duchateau
  * @since 0.9.0
  */
@@ -55,9 +69,16 @@ public class ConfigurationStore {
 	private static Logger LOGGER = LoggerFactory.getLogger(ConfigurationStore.class);
 
 	/**
-	 * Static map containing all configurations
+	 * Static map containing all configurations, wrapped in tasks so that each
+	 * locale is resolved only once
+	 */
+	private static final ConcurrentMap<Locale, FutureTask<Map<String, Map<ConfigToken<?>, Object>>>> configurationStore = new ConcurrentHashMap<Locale, FutureTask<Map<String, Map<ConfigToken<?>, Object>>>>();
+
+	/**
+	 * The {@link ConfigurationLoader} is stateful, so resolutions of different
+	 * locales must not run concurrently
 	 */
-	private static Map<Locale, Map<String, Map<ConfigToken<?>, Object>>> configurationStore = new HashMap<Locale, Map<String, Map<ConfigToken<?>, Object>>>();
+	private static final Object RESOLUTION_LOCK = new Object();
 
 	/**
 	 * <p>
@@ -93,49 +114,136 @@ public class ConfigurationStore {
 			clear();
 		}
 
-		if (!configurationStore.containsKey(locale)) {
-			resolveGroupsForLocale(locale, request);
-		}
+		Map<String, Map<ConfigToken<?>, Object>> groups = getGroupsForLocale(locale, request);
 
-		if (!configurationStore.get(locale).containsKey(group)) {
+		if (!groups.containsKey(group)) {
 			StringBuilder msg = new StringBuilder("The group '");
 			msg.append(group);
 			msg.append("' doesn't exist in your configuration files. Either create it or choose an existing one among ");
-			msg.append(configurationStore.get(locale).keySet());
+			msg.append(groups.keySet());
 			throw new UnkownGroupException(msg.toString());
 		}
 
 		MessageResolver messageResolver = DatatablesConfigurator.getMessageResolver(request);
 
-		return new TableConfiguration(configurationStore.get(locale).get(group), messageResolver, request);
+		return new TableConfiguration(groups.get(group), messageResolver, request);
+	}
+
+	/**
+	 * <p>
+	 * Returns the configuration groups of the given locale, resolving them if
+	 * needed.
+	 * 
+	 * <p>
+	 * Only the first thread asking for a locale resolves its configuration
+	 * groups. Other threads asking for the same locale meanwhile wait for the
+	 * result instead of resolving them again. If the resolution fails, the
+	 * locale is removed from the store so that the next request can try again.
+	 * 
+	 * @param locale
+	 *            The locale for which the configuration groups are needed.
+	 * @param request
+	 *            The request sent by the user.
+	 * @return a map of configurations, indexed by group name.
+	 */
+	public static Map<String, Map<ConfigToken<?>, Object>> getGroupsForLocale(final Locale locale,
+			final HttpServletRequest request) {
+
+		FutureTask<Map<String, Map<ConfigToken<?>, Object>>> task = configurationStore.get(locale);
+		if (task == null) {
+			FutureTask<Map<String, Map<ConfigToken<?>, Object>>> newTask = newResolutionTask(locale, request);
+			task = configurationStore.putIfAbsent(locale, newTask);
+			if (task == null) {
+				task = newTask;
+				task.run();
+			}
+		}
+
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ConfigurationProcessingException("Interrupted while resolving the configurations for the locale "
+					+ locale, e);
+		} catch (ExecutionException e) {
+			configurationStore.remove(locale, task);
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new ConfigurationProcessingException("Unable to resolve the configurations for the locale " + locale,
+					cause);
+		}
 	}
 
 	/**
 	 * Resolves configurations groups for the given locale and stores them in
-	 * the {@link ConfigurationStore}.
+	 * the {@link ConfigurationStore}, replacing any existing ones.
 	 * 
 	 * @param locale
 	 */
 	public static void resolveGroupsForLocale(Locale locale, HttpServletRequest request) {
+		FutureTask<Map<String, Map<ConfigToken<?>, Object>>> task = newResolutionTask(locale, request);
+		task.run();
+		configurationStore.put(locale, task);
+	}
+
+	private static FutureTask<Map<String, Map<ConfigToken<?>, Object>>> newResolutionTask(final Locale locale,
+			final HttpServletRequest request) {
+		return new FutureTask<Map<String, Map<ConfigToken<?>, Object>>>(
+				new Callable<Map<String, Map<ConfigToken<?>, Object>>>() {
+
+					@Override
+					public Map<String, Map<ConfigToken<?>, Object>> call() {
+						return resolveGroups(locale, request);
+					}
+				});
+	}
+
+	private static Map<String, Map<ConfigToken<?>, Object>> resolveGroups(Locale locale, HttpServletRequest request) {
 		Map<String, Map<ConfigToken<?>, Object>> map = new HashMap<String, Map<ConfigToken<?>, Object>>();
 
-		ConfigurationLoader confLoader = DatatablesConfigurator.getConfigurationLoader();
+		synchronized (RESOLUTION_LOCK) {
+			ConfigurationLoader confLoader = DatatablesConfigurator.getConfigurationLoader();
 
-		confLoader.loadDefaultConfiguration();
-		confLoader.loadUserConfiguration(locale);
-		confLoader.resolveGroups(locale);
-		confLoader.resolveConfigurations(map, locale, request);
+			confLoader.loadDefaultConfiguration();
+			confLoader.loadUserConfiguration(locale);
+			confLoader.resolveGroups(locale);
+			confLoader.resolveConfigurations(map, locale, request);
+		}
 
-		configurationStore.put(locale, map);
+		// The resolved configurations are shared by all tables and must not be
+		// modified, see TableConfiguration
+		for (Map.Entry<String, Map<ConfigToken<?>, Object>> entry : map.entrySet()) {
+			entry.setValue(ConfigTokenMap.unmodifiableCopyOf(entry.getValue()));
+		}
+
+		return Collections.unmodifiableMap(map);
 	}
 
 	/**
 	 * <b>FOR INTERNAL USE ONLY</b>
 	 * 
-	 * @return
+	 * @return a snapshot of the configurations that are already resolved.
 	 */
 	public static Map<Locale, Map<String, Map<ConfigToken<?>, Object>>> getConfigurationStore() {
-		return configurationStore;
+		Map<Locale, Map<String, Map<ConfigToken<?>, Object>>> snapshot = new HashMap<Locale, Map<String, Map<ConfigToken<?>, Object>>>();
+		for (Map.Entry<Locale, FutureTask<Map<String, Map<ConfigToken<?>, Object>>>> entry : configurationStore
+				.entrySet()) {
+			if (entry.getValue().isDone()) {
+				try {
+					snapshot.put(entry.getKey(), entry.getValue().get());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException e) {
+					// Failed resolutions are not part of the store
+				}
+			}
+		}
+		return snapshot;
 	}
 
 	/**
@@ -134,8 +134,14 @@ public class TableConfiguration {
 	}
 
 	/**
+	 * <p>
 	 * Private constructor used to build clones of TableConfiguration.
 	 * 
+	 * <p>
+	 * The configurations of the prototype are shared with the clone but never
+	 * modified: the clone writes its own values in a {@link ConfigTokenMap}
+	 * layered on top of them.
+	 * 
 	 * @param objectToClone
 	 *            Source object to clone.
 	 * @param request
@@ -146,9 +152,9 @@ public class TableConfiguration {
 		this.request = request;
 		this.tableId = tableId;
 		this.messageResolver = objectToClone.messageResolver;
-		this.configurations = objectToClone.configurations;
-		this.stagingConfiguration = objectToClone.stagingConfiguration;
-		this.exportConfiguration = objectToClone.exportConfiguration;
+		this.configurations = ConfigTokenMap.overlayOf(objectToClone.configurations);
+		this.stagingConfiguration = new HashMap<ConfigToken<?>, Object>(objectToClone.stagingConfiguration);
+		this.exportConfiguration = new LinkedHashMap<String, ExportConf>(objectToClone.exportConfiguration);
 
 		// Dandelion-Datatables parameters
 		this.extraJs = objectToClone.extraJs;
@@ -77,6 +77,16 @@ public final class DTConstants {
 	public static final String DT_S_SORT_DIR = "sSortDir_";
 	public static final String DT_I_SORTING_COLS = "iSortingCols";
 	public static final String DT_B_REGEX_COL = "bRegex_";
+	public static final String DT_S_CURSOR = "sCursor";
+
+	// AJAX URL parameters (DataTables 1.10)
+	public static final String DT_DRAW = "draw";
+	public static final String DT_START = "start";
+	public static final String DT_LENGTH = "length";
+	public static final String DT_SEARCH_VALUE = "search[value]";
+	public static final String DT_COLUMNS = "columns";
+	public static final String DT_ORDER = "order";
+	public static final String DT_CURSOR = "cursor";
 
 	// Advanced configuration
 	public static final String DT_PAGINATION_TYPE = "sPaginationType";
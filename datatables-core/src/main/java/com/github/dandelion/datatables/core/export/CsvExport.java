@@ -29,12 +29,14 @@
  */
 package com.github.dandelion.datatables.core.export;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
 
 import com.github.dandelion.datatables.core.exception.ExportException;
-import com.github.dandelion.datatables.core.html.HtmlColumn;
-import com.github.dandelion.datatables.core.html.HtmlRow;
 import com.github.dandelion.datatables.core.html.HtmlTable;
 
 /**
@@ -42,46 +44,54 @@ import com.github.dandelion.datatables.core.html.HtmlTable;
  * 
  * @author Thibault Duchateau
  */
-public class CsvExport implements DatatablesExport {
+public class CsvExport implements RowSourceExport {
 
 	private static final String SEPARATOR_CHAR = ";";
-	private HtmlTable table;
+	private ExportRowSource rowSource;
 	private ExportConf exportConf;
 
 	@Override
 	public void initExport(HtmlTable table) {
-		this.table = table;
-		this.exportConf = table.getTableConfiguration().getExportConfiguration().get(ReservedFormat.CSV);
+		initExport(new HtmlTableRowSource(table, ReservedFormat.CSV), table.getTableConfiguration()
+				.getExportConfiguration().get(ReservedFormat.CSV));
+	}
+
+	@Override
+	public void initExport(ExportRowSource rowSource, ExportConf exportConf) {
+		this.rowSource = rowSource;
+		this.exportConf = exportConf;
 	}
 
 	@Override
 	public void processExport(OutputStream output) {
-		StringBuilder buffer = new StringBuilder();
 
-		if (exportConf.getIncludeHeader()) {
-			for (HtmlRow row : table.getHeadRows()) {
-				for (HtmlColumn column : row.getColumns(ReservedFormat.ALL, ReservedFormat.CSV)) {
-					buffer.append(column.getContent()).append(SEPARATOR_CHAR);
+		// Rows are written one at a time so that the whole content never
+		// needs to be held in memory, which matters when the export is
+		// streamed
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output));
+
+		try {
+			if (exportConf.getIncludeHeader()) {
+				for (List<String> headerRow : rowSource.getHeaderRows()) {
+					for (String header : headerRow) {
+						writer.append(header).append(SEPARATOR_CHAR);
+					}
+					writer.append("\n");
 				}
-				buffer.append("\n");
 			}
-		}
-		for (HtmlRow row : table.getBodyRows()) {
-			for (HtmlColumn column : row.getColumns(ReservedFormat.ALL, ReservedFormat.CSV)) {
-				buffer.append(column.getContent()).append(SEPARATOR_CHAR);
+			while (rowSource.next()) {
+				for (int i = 0; i < rowSource.getColumnCount(); i++) {
+					writer.append(rowSource.getValue(i)).append(SEPARATOR_CHAR);
+				}
+				writer.append("\n");
 			}
-
-			buffer.append("\n");
-		}
-
-		try {
-			output.write(buffer.toString().getBytes());
+			writer.flush();
 		} catch (IOException e) {
 			StringBuilder sb = new StringBuilder("Something went wrong during the CSV generation of the table '");
-			sb.append(table.getOriginalId());
+			sb.append(rowSource.getId());
 			sb.append("' and with the following export configuration: ");
 			sb.append(exportConf.toString());
 			throw new ExportException(sb.toString(), e);
 		}
 	}
-}
\ No newline at end of file
+}
@@ -50,6 +50,7 @@ public class ExportConf {
 	public static final String DEFAULT_PDF_CLASS = "com.github.dandelion.datatables.extras.export.itext.PdfExport";
 	public static final String DEFAULT_XLS_CLASS = "com.github.dandelion.datatables.extras.export.poi.XlsExport";
 	public static final String DEFAULT_XLSX_CLASS = "com.github.dandelion.datatables.extras.export.poi.XlsxExport";
+	public static final String STREAMING_XLSX_CLASS = "com.github.dandelion.datatables.extras.export.poi.XlsxStreamingExport";
 	
 	private String format;
 	private String fileName;
@@ -62,6 +63,7 @@ public class ExportConf {
 	private String url;
 	private HttpMethod method;
 	private Boolean autoSize;
+	private Boolean streaming;
 	private Boolean hasCustomUrl = false;
 	private String exportClass;
 	private Orientation orientation;
@@ -114,6 +116,9 @@ public class ExportConf {
 		if (this.autoSize == null) {
 			this.autoSize = true;
 		}
+		if (this.streaming == null) {
+			this.streaming = false;
+		}
 		if (this.method == null) {
 			this.method = HttpMethod.GET;
 		}
@@ -185,6 +190,11 @@ public class ExportConf {
 		if (StringUtils.isNotBlank(autosize)) {
 			this.autoSize = Boolean.parseBoolean(autosize);
 		}
+		
+		String streaming = request.getParameter(ExportUtils.DDL_DT_REQUESTPARAM_EXPORT_STREAMING);
+		if (StringUtils.isNotBlank(streaming)) {
+			this.streaming = Boolean.parseBoolean(streaming);
+		}
 	}
 	
 	public void mergeWith(ExportConf exportConfToMergeFrom) {
@@ -194,6 +204,9 @@ public class ExportConf {
 		if (exportConfToMergeFrom.getAutoSize() != null) {
 			this.autoSize = exportConfToMergeFrom.getAutoSize();
 		}
+		if (exportConfToMergeFrom.getStreaming() != null) {
+			this.streaming = exportConfToMergeFrom.getStreaming();
+		}
 		if (StringUtils.isNotBlank(exportConfToMergeFrom.getFileExtension())) {
 			this.fileExtension = exportConfToMergeFrom.getFileExtension();
 		}
@@ -284,6 +297,26 @@ public class ExportConf {
 		this.autoSize = autoSize;
 	}
 
+	public Boolean getStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * <p>
+	 * Sets whether the export content should be written directly to the
+	 * response instead of being buffered in memory before.
+	 * 
+	 * <p>
+	 * When enabled, no <code>Content-Length</code> header is sent and the
+	 * servlet container falls back to chunked transfer encoding.
+	 * 
+	 * @param streaming
+	 *            {@code true} to stream the export, {@code false} otherwise.
+	 */
+	public void setStreaming(Boolean streaming) {
+		this.streaming = streaming;
+	}
+
 	public String getExportClass() {
 		return exportClass;
 	}
@@ -355,6 +388,11 @@ public class ExportConf {
 			return this;
 		}
 		
+		public Builder streaming(Boolean streaming) {
+			exportConf.setStreaming(streaming);
+			return this;
+		}
+		
 		public Builder exportClass(String exportClass) {
 			exportConf.setExportClass(exportClass);
 			return this;
@@ -388,7 +426,7 @@ public class ExportConf {
 		return "ExportConf [format=" + format + ", fileName=" + fileName + ", fileExtension=" + fileExtension
 				+ ", mimeType=" + mimeType + ", label=" + label + ", cssStyle=" + cssStyle + ", cssClass=" + cssClass
 				+ ", includeHeader=" + includeHeader + ", url=" + url + ", method=" + method + ", autoSize=" + autoSize
-				+ ", hasCustomUrl=" + hasCustomUrl + ", exportClass=" + exportClass + ", orientation=" + orientation
+				+ ", streaming=" + streaming + ", hasCustomUrl=" + hasCustomUrl + ", exportClass=" + exportClass + ", orientation=" + orientation
 				+ "]";
 	}
 }
\ No newline at end of file
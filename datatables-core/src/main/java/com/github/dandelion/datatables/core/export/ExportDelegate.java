@@ -30,9 +30,10 @@
 package com.github.dandelion.datatables.core.export;
 
 import java.io.ByteArrayOutputStream;
-import java.io.OutputStream;
+import java.io.IOException;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,12 +65,13 @@ public class ExportDelegate {
 	 * Prepares the export by processing the passed export class and setting
 	 * request attributes that will be used by the {@link DatatablesFilter} to
 	 * render the export.
+	 * 
+	 * <p>
+	 * If streaming is enabled in the {@link ExportConf}, the export content is
+	 * written directly to the original response instead of being buffered.
 	 */
 	public void prepareExport() {
 
-		// The stream containing the export content
-		OutputStream stream = new ByteArrayOutputStream();
-
 		// Get the current export type
 		String exportFormat = htmlTable.getTableConfiguration().getCurrentExportFormat();
 		ExportConf exportConf = htmlTable.getTableConfiguration().getExportConfiguration().get(exportFormat);
@@ -108,12 +110,34 @@ public class ExportDelegate {
 		}
 
 		((DatatablesExport) obj).initExport(htmlTable);
-		((DatatablesExport) obj).processExport(stream);
 
-		// Fill the request so that the filter will intercept it and
-		// override the response with the export content
-		request.setAttribute(ExportUtils.DDL_DT_REQUESTATTR_EXPORT_CONTENT,
-				((ByteArrayOutputStream) stream).toByteArray());
+		// The original response is only available when the export is
+		// intercepted by the filter
+		HttpServletResponse response = (HttpServletResponse) request
+				.getAttribute(ExportUtils.DDL_DT_REQUESTATTR_EXPORT_RESPONSE);
+
+		if (exportConf.getStreaming() && response != null) {
+
+			// The export content is directly written to the response, the
+			// filter just won't have anything left to do
+			logger.debug("Streaming the export content to the response");
+			try {
+				ExportUtils.streamToResponse(response, (DatatablesExport) obj, exportConf);
+			} catch (IOException e) {
+				throw new ExportException("Unable to write to response using the " + exportClassName, e);
+			}
+		}
+		else {
+
+			// The stream containing the export content
+			ByteArrayOutputStream stream = new ByteArrayOutputStream();
+			((DatatablesExport) obj).processExport(stream);
+
+			// Fill the request so that the filter will intercept it and
+			// override the response with the export content
+			request.setAttribute(ExportUtils.DDL_DT_REQUESTATTR_EXPORT_CONTENT, stream.toByteArray());
+		}
+
 		request.setAttribute(ExportUtils.DDL_DT_REQUESTATTR_EXPORT_CONF, exportConf);
 	}
 }
\ No newline at end of file
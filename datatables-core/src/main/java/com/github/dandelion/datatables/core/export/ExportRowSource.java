@@ -0,0 +1,114 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2014 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.export;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Pull-based cursor over the data to export.
+ * 
+ * <p>
+ * Contrary to an {@link com.github.dandelion.datatables.core.html.HtmlTable},
+ * a row source doesn't need to hold all rows in memory: cell values of the
+ * current row are computed lazily, every time the cursor is moved forward
+ * using {@link #next()}. Exporters only need O(columns) memory to consume it.
+ * 
+ * <p>
+ * Typical usage:
+ * 
+ * <pre>
+ * while (rowSource.next()) {
+ *    for (int i = 0; i &lt; rowSource.getColumnCount(); i++) {
+ *       write(rowSource.getValue(i));
+ *    }
+ * }
+ * rowSource.close();
+ * </pre>
+ * 
+ * @since 0.10.2
+ * @see RowSourceExport
+ * @see HtmlTableRowSource
+ * @see ResultSetRowSource
+ * @see HtmlTableBuilder
+ */
+public interface ExportRowSource {
+
+	/**
+	 * @return the identifier of the exported data, mainly used in error
+	 *         messages.
+	 */
+	public String getId();
+
+	/**
+	 * @return the type of the exported objects, used for example to name the
+	 *         XML elements.
+	 */
+	public String getObjectType();
+
+	/**
+	 * @return the titles of the exported columns, i.e. the last header row.
+	 */
+	public List<String> getHeaders();
+
+	/**
+	 * @return the titles of all the header rows, in order, the last one being
+	 *         {@link #getHeaders()}.
+	 */
+	public List<List<String>> getHeaderRows();
+
+	/**
+	 * @return the number of exported columns for the current row, or the
+	 *         number of headers if the cursor hasn't been moved yet.
+	 */
+	public int getColumnCount();
+
+	/**
+	 * Moves the cursor to the next row.
+	 * 
+	 * @return {@code true} if the new current row is valid, {@code false} if
+	 *         there are no more rows.
+	 */
+	public boolean next();
+
+	/**
+	 * Returns the value of the passed column for the current row.
+	 * 
+	 * @param columnIndex
+	 *            The index of the column, starting at 0.
+	 * @return the value to export, never {@code null}.
+	 */
+	public String getValue(int columnIndex);
+
+	/**
+	 * Releases the resources held by the row source, if any.
+	 */
+	public void close();
+}
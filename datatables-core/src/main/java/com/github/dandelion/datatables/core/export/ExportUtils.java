@@ -29,8 +29,10 @@
  */
 package com.github.dandelion.datatables.core.export;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
@@ -57,6 +59,9 @@ public final class ExportUtils {
 	// Export content
 	public static final String DDL_DT_REQUESTATTR_EXPORT_CONTENT = "ddl-dt-export-content";
 
+	// Original response, used when the export is streamed
+	public static final String DDL_DT_REQUESTATTR_EXPORT_RESPONSE = "ddl-dt-export-response";
+
 	/** Request parameters */
 
 	// Table is being exported
@@ -77,6 +82,10 @@ public final class ExportUtils {
 	public static final String DDL_DT_REQUESTPARAM_EXPORT_EXTENSION = "dte";
 	public static final String DDL_DT_REQUESTPARAM_EXPORT_NAME = "dtn";
 	public static final String DDL_DT_REQUESTPARAM_EXPORT_AUTOSIZE = "dts";
+	public static final String DDL_DT_REQUESTPARAM_EXPORT_STREAMING = "dtst";
+
+	// Size of the buffer used when streaming an export to the response
+	private static final int STREAMING_BUFFER_SIZE = 8192;
 	
 	/**
 	 * Renders the passed table by writing the data to the response.
@@ -90,7 +99,53 @@ public final class ExportUtils {
 	 */
 	public static void renderExport(HtmlTable table, ExportConf exportConf, HttpServletResponse response) {
 
-		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		DatatablesExport export = getExportInstance(exportConf);
+		export.initExport(table);
+		writeExport(export, exportConf, response);
+	}
+
+	/**
+	 * <p>
+	 * Renders the data provided by the passed {@link ExportRowSource} by
+	 * writing it to the response.
+	 * 
+	 * <p>
+	 * Contrary to {@link #renderExport(HtmlTable, ExportConf, HttpServletResponse)},
+	 * no {@link HtmlTable} is built: rows are pulled one by one from the row
+	 * source while being exported. The row source is closed once the export is
+	 * done.
+	 * 
+	 * @param rowSource
+	 *            The data to export.
+	 * @param exportConf
+	 *            The export configuration (e.g. the export class to use).
+	 * @param response
+	 *            The response to update.
+	 * @since 0.10.2
+	 */
+	public static void renderExport(ExportRowSource rowSource, ExportConf exportConf, HttpServletResponse response) {
+
+		DatatablesExport export = getExportInstance(exportConf);
+		if (!(export instanceof RowSourceExport)) {
+			throw new ExportException("The export class '" + exportConf.getExportClass()
+					+ "' must implement " + RowSourceExport.class.getSimpleName()
+					+ " in order to export a row source.");
+		}
+
+		try {
+			((RowSourceExport) export).initExport(rowSource, exportConf);
+			writeExport(export, exportConf, response);
+		} finally {
+			rowSource.close();
+		}
+	}
+
+	/**
+	 * Instantiates the export class configured in the passed export
+	 * configuration.
+	 */
+	private static DatatablesExport getExportInstance(ExportConf exportConf) {
+
 		String exportClass = exportConf.getExportClass();
 
 		// Check whether the class can be instantiated
@@ -99,11 +154,8 @@ public final class ExportUtils {
 					+ " format because the export class cannot be found. Did you forget to add an extra dependency?");
 		}
 
-		Class<?> klass = null;
-		DatatablesExport export = null;
 		try {
-			klass = ClassUtils.getClass(exportClass);
-			export = (DatatablesExport) ClassUtils.getNewInstance(klass);
+			return (DatatablesExport) ClassUtils.getNewInstance(ClassUtils.getClass(exportClass));
 		} catch (ClassNotFoundException e) {
 			throw new ExportException("Unable to load the class '" + exportClass + "'", e);
 		} catch (InstantiationException e) {
@@ -111,19 +163,64 @@ public final class ExportUtils {
 		} catch (IllegalAccessException e) {
 			throw new ExportException("Unable to access the class '" + exportClass + "'", e);
 		}
-		
-		export.initExport(table);
-		export.processExport(stream);
-				
+	}
+
+	/**
+	 * Processes the already initialized export and writes its content to the
+	 * response, either streamed or buffered depending on the export
+	 * configuration.
+	 */
+	private static void writeExport(DatatablesExport export, ExportConf exportConf, HttpServletResponse response) {
 		try {
-			writeToResponse(response, stream, exportConf.getFileName() + "." + exportConf.getFileExtension(),
-					exportConf.getMimeType());
+			if (exportConf.getStreaming()) {
+				streamToResponse(response, export, exportConf);
+			}
+			else {
+				ByteArrayOutputStream stream = new ByteArrayOutputStream();
+				export.processExport(stream);
+				writeToResponse(response, stream, exportConf.getFileName() + "." + exportConf.getFileExtension(),
+						exportConf.getMimeType());
+			}
 		} catch (IOException e) {
-			throw new ExportException(
-					"Unable to write to response using the " + exportClass.getClass().getSimpleName(), e);
+			throw new ExportException("Unable to write to response using the "
+					+ export.getClass().getSimpleName(), e);
 		}
 	}
 
+	/**
+	 * <p>
+	 * Processes the passed export by writing its content directly to the
+	 * response, as an attachment described by the passed export
+	 * configuration.
+	 * 
+	 * <p>
+	 * No <code>Content-Length</code> header is set, so that the servlet
+	 * container sends the content using chunked transfer encoding. This way,
+	 * the export content is never held in memory, whatever the number of
+	 * exported rows.
+	 * 
+	 * @param response
+	 *            current HTTP response
+	 * @param export
+	 *            the already initialized export class
+	 * @param exportConf
+	 *            the export configuration
+	 * 
+	 * @throws IOException
+	 *             if writing/flushing failed
+	 * @since 0.10.2
+	 */
+	public static void streamToResponse(HttpServletResponse response, DatatablesExport export, ExportConf exportConf)
+			throws IOException {
+		response.setContentType(exportConf.getMimeType());
+		response.setHeader("Content-Disposition", "attachment; filename=\"" + exportConf.getFileName() + "."
+				+ exportConf.getFileExtension() + "\"");
+
+		OutputStream out = new BufferedOutputStream(response.getOutputStream(), STREAMING_BUFFER_SIZE);
+		export.processExport(out);
+		out.flush();
+	}
+
 	/**
 	 * Write the given temporary OutputStream to the HTTP response as an
 	 * Attachment with the given title.
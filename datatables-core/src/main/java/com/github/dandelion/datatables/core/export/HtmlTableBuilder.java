@@ -29,15 +29,15 @@
  */
 package com.github.dandelion.datatables.core.export;
 
-import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,6 +46,8 @@ import com.github.dandelion.datatables.core.configuration.ColumnConfig;
 import com.github.dandelion.datatables.core.configuration.TableConfig;
 import com.github.dandelion.datatables.core.html.HtmlColumn;
 import com.github.dandelion.datatables.core.html.HtmlTable;
+import com.github.dandelion.datatables.core.util.MessageFormatCache;
+import com.github.dandelion.datatables.core.util.PropertyAccessor;
 
 /**
  * <p>
@@ -91,11 +93,27 @@ public class HtmlTableBuilder<T> {
 	private static Logger logger = LoggerFactory.getLogger(HtmlTableBuilder.class);
 
 	public ColumnStep newBuilder(String id, List<T> data, HttpServletRequest request) {
-		return new Steps<T>(id, data, request);
+		return new Steps<T>(id, data, null, request, null);
 	}
 
 	public ColumnStep newBuilder(String id, List<T> data, HttpServletRequest request, ExportConf exportConf) {
-		return new Steps<T>(id, data, request, exportConf);
+		return new Steps<T>(id, data, null, request, exportConf);
+	}
+
+	/**
+	 * <p>
+	 * Same as {@link #newBuilder(String, List, HttpServletRequest, ExportConf)}
+	 * but the data is read from an {@link Iterator}, which is typically backed
+	 * by a database cursor.
+	 * 
+	 * <p>
+	 * Combined with {@link BuildStep#buildRowSource()}, this allows to export
+	 * data that doesn't fit in memory.
+	 * 
+	 * @since 0.10.2
+	 */
+	public ColumnStep newBuilder(String id, Iterator<T> data, HttpServletRequest request, ExportConf exportConf) {
+		return new Steps<T>(id, null, data, request, exportConf);
 	}
 	
 	public static interface ColumnStep {
@@ -123,6 +141,7 @@ public class HtmlTableBuilder<T> {
 
 	public static interface BuildStep {
 		HtmlTable build();
+		ExportRowSource buildRowSource();
 		FirstContentStep column();
 	}
 
@@ -130,18 +149,21 @@ public class HtmlTableBuilder<T> {
 
 		private String id;
 		private List<T> data;
+		private Iterator<T> dataIterator;
 		private LinkedList<HtmlColumn> headerColumns = new LinkedList<HtmlColumn>();
 		private HttpServletRequest request;
 		private HttpServletResponse response;
 		private ExportConf exportConf;
 
-		public Steps(String id, List<T> data, HttpServletRequest request) {
-			this(id, data, request, null);
-		}
-
-		public Steps(String id, List<T> data, HttpServletRequest request, ExportConf exportConf) {
+		/**
+		 * The data is either a list, which can be read by each build, or an
+		 * iterator, which can only be read once.
+		 */
+		public Steps(String id, List<T> data, Iterator<T> dataIterator, HttpServletRequest request,
+				ExportConf exportConf) {
 			this.id = id;
 			this.data = data;
+			this.dataIterator = dataIterator;
 			this.request = request;
 			this.exportConf = new ExportConf(request);
 			if(exportConf != null) {
@@ -229,11 +251,7 @@ public class HtmlTableBuilder<T> {
 			
 			table.getTableConfiguration().getExportConfiguration().put(exportConf.getFormat(), exportConf);
 
-			if (data != null && data.size() > 0) {
-				TableConfig.INTERNAL_OBJECTTYPE.setIn(table.getTableConfiguration(), data.get(0).getClass().getSimpleName());
-			} else {
-				TableConfig.INTERNAL_OBJECTTYPE.setIn(table.getTableConfiguration(), "???");
-			}
+			String objectType = "???";
 
 			table.addHeaderRow();
 
@@ -247,44 +265,148 @@ public class HtmlTableBuilder<T> {
 				table.getLastHeaderRow().addColumn(column);
 			}
 
-			if (data != null) {
+			Iterator<T> iterator = dataIterator();
+			if (iterator != null) {
 
-				for (T o : data) {
+				while (iterator.hasNext()) {
+					T o = iterator.next();
+					if (table.getBodyRows().isEmpty()) {
+						objectType = o.getClass().getSimpleName();
+					}
 
 					table.addRow();
 					for (HtmlColumn column : headerColumns) {
-
-						String content = "";
-						for (ColumnElement columnElement : column.getColumnConfiguration().getColumnElements()) {
-
-							if (StringUtils.isNotBlank(columnElement.getPropertyName())) {
-								try {
-									Object tmpObject = PropertyUtils.getNestedProperty(o, columnElement
-											.getPropertyName().trim());
-
-									if (StringUtils.isNotBlank(columnElement.getPattern())) {
-										MessageFormat messageFormat = new MessageFormat(columnElement.getPattern());
-										content += messageFormat.format(new Object[] { tmpObject });
-									} else {
-										content += String.valueOf(tmpObject);
-									}
-								} catch (Exception e) {
-									logger.warn("Something went wrong with the property {}. Check that an accessor method for this property exists in the bean.");
-									content += columnElement.getDefaultValue();
-								}
-							} else if (columnElement.getContent() != null) {
-								content += columnElement.getContent();
-							} else {
-								content += columnElement.getDefaultValue();
-							}
-						}
-
-						table.getLastBodyRow().addColumn(String.valueOf(content));
+						table.getLastBodyRow().addColumn(getColumnContent(o, column));
 					}
 				}
 			}
 
+			TableConfig.INTERNAL_OBJECTTYPE.setIn(table.getTableConfiguration(), objectType);
+
 			return table;
 		}
+
+		/**
+		 * <p>
+		 * Builds a lazy {@link ExportRowSource} instead of a full
+		 * {@link HtmlTable}: the content of each cell is computed only when the
+		 * row is being exported.
+		 * 
+		 * @since 0.10.2
+		 */
+		public ExportRowSource buildRowSource() {
+			return new BeanRowSource<T>(id, dataIterator(), headerColumns);
+		}
+
+		private Iterator<T> dataIterator() {
+			return data != null ? data.iterator() : dataIterator;
+		}
+	}
+
+	/**
+	 * Computes the content of the passed column for the passed bean, using the
+	 * {@link ColumnElement}s of the column.
+	 */
+	private static String getColumnContent(Object o, HtmlColumn column) {
+
+		String content = "";
+		for (ColumnElement columnElement : column.getColumnConfiguration().getColumnElements()) {
+
+			if (StringUtils.isNotBlank(columnElement.getPropertyName())) {
+				try {
+					Object tmpObject = PropertyAccessor.getNestedProperty(o, columnElement.getPropertyName().trim());
+
+					if (StringUtils.isNotBlank(columnElement.getPattern())) {
+						content += MessageFormatCache.format(columnElement.getPattern(), new Object[] { tmpObject });
+					} else {
+						content += String.valueOf(tmpObject);
+					}
+				} catch (Exception e) {
+					logger.warn("Something went wrong with the property {}. Check that an accessor method for this property exists in the bean.");
+					content += columnElement.getDefaultValue();
+				}
+			} else if (columnElement.getContent() != null) {
+				content += columnElement.getContent();
+			} else {
+				content += columnElement.getDefaultValue();
+			}
+		}
+
+		return content;
+	}
+
+	/**
+	 * {@link ExportRowSource} that pulls the beans one by one from an
+	 * {@link Iterator} and computes the cell values on demand.
+	 */
+	private static class BeanRowSource<T> implements ExportRowSource {
+
+		private String id;
+		private Iterator<T> data;
+		private List<HtmlColumn> headerColumns;
+		private List<String> headers;
+		private String objectType;
+		private T current;
+
+		public BeanRowSource(String id, Iterator<T> data, List<HtmlColumn> headerColumns) {
+			this.id = id;
+			this.data = data;
+			this.headerColumns = headerColumns;
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public String getObjectType() {
+			return objectType != null ? objectType : "???";
+		}
+
+		@Override
+		public List<String> getHeaders() {
+			if (headers == null) {
+				headers = new ArrayList<String>(headerColumns.size());
+				for (HtmlColumn column : headerColumns) {
+					String title = ColumnConfig.TITLE.valueFrom(column.getColumnConfiguration());
+					headers.add(StringUtils.isNotBlank(title) ? title : "");
+				}
+			}
+			return headers;
+		}
+
+		@Override
+		public List<List<String>> getHeaderRows() {
+			return Collections.singletonList(getHeaders());
+		}
+
+		@Override
+		public int getColumnCount() {
+			return headerColumns.size();
+		}
+
+		@Override
+		public boolean next() {
+			if (data != null && data.hasNext()) {
+				current = data.next();
+				if (objectType == null) {
+					objectType = current.getClass().getSimpleName();
+				}
+				return true;
+			}
+			current = null;
+			return false;
+		}
+
+		@Override
+		public String getValue(int columnIndex) {
+			return getColumnContent(current, headerColumns.get(columnIndex));
+		}
+
+		@Override
+		public void close() {
+			// The iterator is owned by the caller
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,185 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2014 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.export;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.github.dandelion.datatables.core.configuration.TableConfig;
+import com.github.dandelion.datatables.core.html.HtmlColumn;
+import com.github.dandelion.datatables.core.html.HtmlRow;
+import com.github.dandelion.datatables.core.html.HtmlTable;
+
+/**
+ * <p>
+ * {@link ExportRowSource} backed by an already built {@link HtmlTable}.
+ * 
+ * <p>
+ * Only the columns enabled for the given export format are exposed. All the
+ * header rows of the table are exposed, the column titles being read from the
+ * last one.
+ * 
+ * <p>
+ * The positions of the enabled columns are computed once from the header and
+ * reused for all the body rows having the same layout, i.e. as many cells,
+ * all of them enabled for any format. The other rows (e.g. with cells
+ * replaced by format-specific ones) are projected using the display types of
+ * their own cells, written into an array reused for all of them.
+ * 
+ * @since 0.10.2
+ */
+public class HtmlTableRowSource implements ExportRowSource {
+
+	private HtmlTable table;
+	private String format;
+	private List<String> headers;
+	private List<List<String>> headerRows;
+	private Iterator<HtmlRow> rowIterator;
+	private int[] projection;
+	private int headerColumnCount = -1;
+	private boolean formatSpecificHeader;
+	private List<HtmlColumn> currentColumns;
+	private int[] currentIndexes;
+	private int[] rowIndexes = new int[0];
+	private int currentColumnCount = -1;
+
+	public HtmlTableRowSource(HtmlTable table, String format) {
+		this.table = table;
+		this.format = format;
+		this.rowIterator = table.getBodyRows().iterator();
+
+		HtmlRow headerRow = table.getLastHeaderRow();
+		if (headerRow != null) {
+			this.headerColumnCount = headerRow.getColumns().size();
+			this.formatSpecificHeader = headerRow.hasFormatSpecificColumns();
+			int[] indexes = new int[headerColumnCount];
+			int count = headerRow.getColumnIndexes(format, indexes);
+			this.projection = new int[count];
+			System.arraycopy(indexes, 0, this.projection, 0, count);
+		}
+	}
+
+	@Override
+	public String getId() {
+		return table.getOriginalId();
+	}
+
+	@Override
+	public String getObjectType() {
+		return TableConfig.INTERNAL_OBJECTTYPE.valueFrom(table.getTableConfiguration());
+	}
+
+	@Override
+	public List<String> getHeaders() {
+		if (headers == null) {
+			if (projection == null) {
+				headers = Collections.emptyList();
+			}
+			else {
+				List<HtmlColumn> headerColumns = table.getLastHeaderRow().getColumns();
+				headers = new ArrayList<String>(projection.length);
+				for (int index : projection) {
+					headers.add(String.valueOf(headerColumns.get(index).getContent()));
+				}
+			}
+		}
+		return headers;
+	}
+
+	@Override
+	public List<List<String>> getHeaderRows() {
+		if (headerRows == null) {
+			headerRows = new ArrayList<List<String>>(table.getHeadRows().size());
+			for (HtmlRow row : table.getHeadRows()) {
+				List<String> titles = new ArrayList<String>();
+				for (HtmlColumn column : row.getColumns(ReservedFormat.ALL, format)) {
+					titles.add(String.valueOf(column.getContent()));
+				}
+				headerRows.add(titles);
+			}
+		}
+		return headerRows;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return currentColumns != null ? currentColumnCount : getHeaders().size();
+	}
+
+	@Override
+	public boolean next() {
+		if (rowIterator.hasNext()) {
+			HtmlRow row = rowIterator.next();
+			currentColumns = row.getColumns();
+			if (hasHeaderLayout(row)) {
+				currentIndexes = projection;
+				currentColumnCount = projection.length;
+			}
+			else {
+				if (rowIndexes.length < currentColumns.size()) {
+					rowIndexes = new int[currentColumns.size()];
+				}
+				currentIndexes = rowIndexes;
+				currentColumnCount = row.getColumnIndexes(format, rowIndexes);
+			}
+			return true;
+		}
+		currentColumns = null;
+		currentColumnCount = -1;
+		return false;
+	}
+
+	/**
+	 * @return whether the row can be projected like the header row.
+	 */
+	private boolean hasHeaderLayout(HtmlRow row) {
+		return projection != null && !formatSpecificHeader && !row.hasFormatSpecificColumns()
+				&& row.getColumns().size() == headerColumnCount;
+	}
+
+	/**
+	 * @return whether the current row is projected like the header row.
+	 */
+	boolean isHeaderLayout() {
+		return currentColumns != null && currentIndexes == projection;
+	}
+
+	@Override
+	public String getValue(int columnIndex) {
+		return String.valueOf(currentColumns.get(currentIndexes[columnIndex]).getContent());
+	}
+
+	@Override
+	public void close() {
+		// Nothing to release
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2014 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.export;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.dandelion.core.utils.StringUtils;
+import com.github.dandelion.datatables.core.exception.ExportException;
+
+/**
+ * <p>
+ * {@link ExportRowSource} backed by a JDBC {@link ResultSet}.
+ * 
+ * <p>
+ * All columns of the result set are exported, using their labels as headers.
+ * Rows are read one by one from the result set, so that the memory footprint
+ * doesn't depend on the number of exported rows, provided that the JDBC driver
+ * itself doesn't fetch everything up front (see
+ * {@link java.sql.Statement#setFetchSize(int)}).
+ * 
+ * <p>
+ * Note that {@link #close()} closes the underlying {@link ResultSet}, but
+ * neither its statement nor its connection.
+ * 
+ * @since 0.10.2
+ */
+public class ResultSetRowSource implements ExportRowSource {
+
+	private static final String DEFAULT_OBJECT_TYPE = "row";
+
+	private String id;
+	private ResultSet resultSet;
+	private String objectType;
+	private List<String> headers;
+
+	public ResultSetRowSource(String id, ResultSet resultSet) {
+		this(id, resultSet, null);
+	}
+
+	public ResultSetRowSource(String id, ResultSet resultSet, String objectType) {
+		this.id = id;
+		this.resultSet = resultSet;
+		this.objectType = objectType;
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public String getObjectType() {
+		if (objectType == null) {
+			try {
+				String tableName = resultSet.getMetaData().getTableName(1);
+				objectType = StringUtils.isNotBlank(tableName) ? tableName : DEFAULT_OBJECT_TYPE;
+			} catch (SQLException e) {
+				objectType = DEFAULT_OBJECT_TYPE;
+			}
+		}
+		return objectType;
+	}
+
+	@Override
+	public List<String> getHeaders() {
+		if (headers == null) {
+			try {
+				ResultSetMetaData metaData = resultSet.getMetaData();
+				headers = new ArrayList<String>(metaData.getColumnCount());
+				for (int i = 1; i <= metaData.getColumnCount(); i++) {
+					headers.add(metaData.getColumnLabel(i));
+				}
+			} catch (SQLException e) {
+				throw new ExportException("Unable to read the columns of the result set used to export '" + id
+						+ "'", e);
+			}
+		}
+		return headers;
+	}
+
+	@Override
+	public List<List<String>> getHeaderRows() {
+		return Collections.singletonList(getHeaders());
+	}
+
+	@Override
+	public int getColumnCount() {
+		return getHeaders().size();
+	}
+
+	@Override
+	public boolean next() {
+		try {
+			return resultSet.next();
+		} catch (SQLException e) {
+			throw new ExportException("Unable to read the next row of the result set used to export '" + id + "'", e);
+		}
+	}
+
+	@Override
+	public String getValue(int columnIndex) {
+		try {
+			String value = resultSet.getString(columnIndex + 1);
+			return value != null ? value : "";
+		} catch (SQLException e) {
+			throw new ExportException("Unable to read the column " + columnIndex
+					+ " of the result set used to export '" + id + "'", e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			resultSet.close();
+		} catch (SQLException e) {
+			throw new ExportException("Unable to close the result set used to export '" + id + "'", e);
+		}
+	}
+}
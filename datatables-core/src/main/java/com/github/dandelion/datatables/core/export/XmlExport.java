@@ -38,10 +38,7 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
 import com.github.dandelion.core.utils.StringUtils;
-import com.github.dandelion.datatables.core.configuration.TableConfig;
 import com.github.dandelion.datatables.core.exception.ExportException;
-import com.github.dandelion.datatables.core.html.HtmlColumn;
-import com.github.dandelion.datatables.core.html.HtmlRow;
 import com.github.dandelion.datatables.core.html.HtmlTable;
 
 /**
@@ -49,15 +46,21 @@ import com.github.dandelion.datatables.core.html.HtmlTable;
  *
  * @author Thibault Duchateau
  */
-public class XmlExport implements DatatablesExport {
+public class XmlExport implements RowSourceExport {
 
-	private HtmlTable table;
+	private ExportRowSource rowSource;
 	private ExportConf exportConf;
 	
 	@Override
 	public void initExport(HtmlTable table) {
-		this.table = table;
-		this.exportConf = table.getTableConfiguration().getExportConfiguration().get(ReservedFormat.XML);
+		initExport(new HtmlTableRowSource(table, ReservedFormat.XML), table.getTableConfiguration()
+				.getExportConfiguration().get(ReservedFormat.XML));
+	}
+
+	@Override
+	public void initExport(ExportRowSource rowSource, ExportConf exportConf) {
+		this.rowSource = rowSource;
+		this.exportConf = exportConf;
 	}
 
 	@Override
@@ -66,32 +69,34 @@ public class XmlExport implements DatatablesExport {
 		// Build headers list for attributes name
 		List<String> headers = new ArrayList<String>();
 		
-		for(HtmlRow row : table.getHeadRows()){
-			for(HtmlColumn column : row.getColumns(ReservedFormat.ALL, ReservedFormat.XML)){
-				headers.add(StringUtils.uncapitalize(column.getContent().toString()));
+		for (List<String> headerRow : rowSource.getHeaderRows()) {
+			for (String header : headerRow) {
+				headers.add(StringUtils.uncapitalize(header));
 			}
 		}
 
 		XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
 		XMLStreamWriter writer = null;
-		String objectType = TableConfig.INTERNAL_OBJECTTYPE.valueFrom(table.getTableConfiguration()).toLowerCase();
 		
 		try {
+			// The object type may only be known once the first row is read
+			boolean hasNext = rowSource.next();
+			String objectType = rowSource.getObjectType().toLowerCase();
+
 			writer = outputFactory.createXMLStreamWriter(output);
 			writer.writeStartDocument("1.0");
 			
 			writer.writeStartElement(objectType + "s");
 
-			for (HtmlRow row : table.getBodyRows()) {
+			while (hasNext) {
 				writer.writeStartElement(objectType);
 
-				int i = 0;
-				for (HtmlColumn column : row.getColumns(ReservedFormat.ALL, ReservedFormat.XML)) {
-					writer.writeAttribute(headers.get(i), column.getContent().toString());
-					i++;
+				for (int i = 0; i < rowSource.getColumnCount(); i++) {
+					writer.writeAttribute(headers.get(i), rowSource.getValue(i));
 				}
 
 				writer.writeEndElement();
+				hasNext = rowSource.next();
 			}
 
 			writer.writeEndElement();
@@ -100,21 +105,23 @@ public class XmlExport implements DatatablesExport {
 
 		} catch (XMLStreamException e) {
 			StringBuilder sb = new StringBuilder("Something went wrong during the XML generation of the table '");
-			sb.append(table.getOriginalId());
+			sb.append(rowSource.getId());
 			sb.append("' and with the following export configuration: ");
 			sb.append(exportConf.toString());
 			throw new ExportException(sb.toString(), e);
 		} 
 		finally {
 			try {
-				writer.close();
+				if (writer != null) {
+					writer.close();
+				}
 			} catch (XMLStreamException e) {
 				StringBuilder sb = new StringBuilder("Something went wrong during the XML generation of the table '");
-				sb.append(table.getOriginalId());
+				sb.append(rowSource.getId());
 				sb.append("' and with the following export configuration: ");
 				sb.append(exportConf.toString());
 				throw new ExportException(sb.toString(), e);
 			}
 		}
 	}
-}
\ No newline at end of file
+}
@@ -30,6 +30,7 @@
 package com.github.dandelion.datatables.core.extension;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -76,6 +77,8 @@ public abstract class AbstractExtension implements Extension {
 	private AbstractConfigurationGenerator configGenerator;
 	private String function;
 	private HtmlTable table;
+	private List<DatatableBundles> bundles;
+	private Map<String, Map<String, Object>> bundleParameters;
 
 	public AbstractExtension() {
 		this.name = getName();
@@ -174,11 +177,40 @@ public abstract class AbstractExtension implements Extension {
 	 */
 	public void addBundle(DatatableBundles bundle) {
 		AssetRequestContext.get(table.getTableConfiguration().getRequest()).addBundles(bundle);
+		if (this.bundles == null) {
+			this.bundles = new ArrayList<DatatableBundles>();
+		}
+		this.bundles.add(bundle);
 	}
 
 	public void addBundleParameter(String assetName, String paramName, Object paramValue) {
 		AssetRequestContext.get(table.getTableConfiguration().getRequest()).addParameter(assetName, paramName,
 				paramValue);
+		if (this.bundleParameters == null) {
+			this.bundleParameters = new LinkedHashMap<String, Map<String, Object>>();
+		}
+		Map<String, Object> assetParameters = this.bundleParameters.get(assetName);
+		if (assetParameters == null) {
+			assetParameters = new LinkedHashMap<String, Object>();
+			this.bundleParameters.put(assetName, assetParameters);
+		}
+		assetParameters.put(paramName, paramValue);
+	}
+
+	/**
+	 * @return the bundles added to the request by this extension, or
+	 *         {@code null} if none has been added.
+	 */
+	public List<DatatableBundles> getBundles() {
+		return bundles;
+	}
+
+	/**
+	 * @return the parameters added to the request by this extension, indexed
+	 *         by asset name, or {@code null} if none has been added.
+	 */
+	public Map<String, Map<String, Object>> getBundleParameters() {
+		return bundleParameters;
 	}
 
 	/**
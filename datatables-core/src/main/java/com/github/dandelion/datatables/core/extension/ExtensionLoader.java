@@ -30,12 +30,15 @@
 package com.github.dandelion.datatables.core.extension;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +54,13 @@ import com.github.dandelion.datatables.core.util.ClassUtils;
  * <p>
  * Loader for all extensions : features, plugins, themes.
  * <p>
+ * The classpath is scanned only once per package and per classloader, in order
+ * to build a registry of the extension classes indexed by name. Each time a
+ * table is rendered, only the extensions it enables are instanciated.
+ * <p>
+ * The registries only hold weak references to the classloaders and to the
+ * extension classes, so that they don't prevent a redeployed web application
+ * from being garbage collected.
  * 
  * @author Thibault Duchateau
  */
@@ -59,6 +69,16 @@ public class ExtensionLoader {
 	// Logger
 	private static Logger logger = LoggerFactory.getLogger(ExtensionLoader.class);
 
+	private static final String[] BUILTIN_EXTENSION_PACKAGES = new String[] {
+			"com.github.dandelion.datatables.core.extension.plugin",
+			"com.github.dandelion.datatables.core.extension.theme" };
+
+	/**
+	 * Extension registries already built, by classloader and package name.
+	 * Guarded by itself.
+	 */
+	private static final Map<ClassLoader, Map<String, ExtensionRegistry>> extensionRegistries = new WeakHashMap<ClassLoader, Map<String, ExtensionRegistry>>();
+
 	private HtmlTable table;
 
 	/**
@@ -94,34 +114,33 @@ public class ExtensionLoader {
 	}
 	
 	/**
-	 * Add custom extensions (for now features and plugins) to the current table
-	 * if they're activated.
+	 * Add built-in extensions (for now plugins and themes) to the current
+	 * table if they're activated.
 	 * 
 	 * @param table
-	 *            the HtmlTable to update with custom extensions.
+	 *            the HtmlTable to update with built-in extensions.
 	 */
 	private void registerBuiltInExtensions(HtmlTable table) {
 
-		logger.debug("Scanning built-in extensions...");
+		Set<String> extensionNames = TableConfig.MAIN_EXTENSION_NAMES.valueFrom(table);
+		if (extensionNames == null || extensionNames.isEmpty()) {
+			return;
+		}
 
-		// Scanning built-in extensions
-		List<Extension> builtinExtensions = scanForExtensions(
-				"com.github.dandelion.datatables.core.extension.plugin",
-				"com.github.dandelion.datatables.core.extension.theme");
+		logger.debug("Registering built-in extensions...");
 
-		// Load built-in extension if some are enabled
-		Set<String> extensionNames = TableConfig.MAIN_EXTENSION_NAMES.valueFrom(table);
-		if (builtinExtensions != null && !builtinExtensions.isEmpty() && extensionNames != null && !extensionNames.isEmpty()) {
-			for (String extensionToRegister : extensionNames) {
-				for (Extension extension : builtinExtensions) {
-					if (extensionToRegister.equalsIgnoreCase(extension.getName())) {
-						table.getTableConfiguration().registerExtension(extension);
-						logger.debug("Built-in extension {} registered", extension.getName());
-						continue;
-					}
+		// Only the enabled extensions are instanciated
+		for (String extensionToRegister : extensionNames) {
+			for (String packageName : BUILTIN_EXTENSION_PACKAGES) {
+				Class<? extends AbstractExtension> extensionClass = getExtensionRegistry(packageName).get(
+						extensionToRegister);
+				if (extensionClass != null) {
+					Extension extension = newExtension(extensionClass);
+					table.getTableConfiguration().registerExtension(extension);
+					logger.debug("Built-in extension {} registered", extension.getName());
 				}
 			}
-		} 
+		}
 	}
 	
 	/**
@@ -136,20 +155,21 @@ public class ExtensionLoader {
 		String packageToScan = TableConfig.MAIN_EXTENSION_PACKAGE.valueFrom(table);
 		if (StringUtils.isNotBlank(packageToScan)) {
 
-			logger.debug("Scanning custom extensions...");
+			logger.debug("Registering custom extensions...");
 
-			// Scanning custom extension based on the base.package property
-			List<Extension> customExtensions = scanForExtensions(packageToScan);
+			// Custom extensions are looked for in the base.package property
+			ExtensionRegistry customExtensions = getExtensionRegistry(packageToScan);
 
 			// Load custom extension if some are enabled
 			Set<String> extensionNames = TableConfig.MAIN_EXTENSION_NAMES.valueFrom(table);
-			if (customExtensions != null && !customExtensions.isEmpty() && extensionNames != null && !extensionNames.isEmpty()) {
-				for (String extensionToRegister : extensionNames) {
-					for (Extension customExtension : customExtensions) {
-						if (extensionToRegister.equals(customExtension.getName().toLowerCase())) {
+			if (!customExtensions.isEmpty()) {
+				if (extensionNames != null) {
+					for (String extensionToRegister : extensionNames) {
+						Class<? extends AbstractExtension> extensionClass = customExtensions.get(extensionToRegister);
+						if (extensionClass != null) {
+							Extension customExtension = newExtension(extensionClass);
 							table.getTableConfiguration().registerExtension(customExtension);
 							logger.debug("Custom extension '{}' registered", customExtension.getName());
-							continue;
 						}
 					}
 				}
@@ -159,44 +179,116 @@ public class ExtensionLoader {
 			}
 		}
 	}
-	
-	private List<Extension> scanForExtensions(String... packageNames) {
-		List<Extension> extensions = new ArrayList<Extension>();
-		for(String packageName : packageNames){
-			extensions.addAll(scanForExtensions(packageName));
+
+	/**
+	 * <p>
+	 * Returns the registry of the extensions of the given package, i.e. the
+	 * extension classes indexed by their lowercased name.
+	 * 
+	 * <p>
+	 * The registry is built only the first time the package is requested with
+	 * the current thread's classloader: the classpath is scanned and each
+	 * extension is instanciated once to read its name. The scan happens outside
+	 * the lock, so two threads may build the same registry concurrently, in
+	 * which case the first one stored is kept.
+	 * 
+	 * @param packageName
+	 *            The package to scan.
+	 * @return the extension classes of the package, indexed by name.
+	 */
+	static ExtensionRegistry getExtensionRegistry(String packageName) {
+
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		ExtensionRegistry registry;
+		synchronized (extensionRegistries) {
+			Map<String, ExtensionRegistry> registriesByPackage = extensionRegistries.get(classLoader);
+			registry = registriesByPackage != null ? registriesByPackage.get(packageName) : null;
+		}
+		if (registry != null) {
+			return registry;
 		}
-		return extensions;
+
+		ExtensionRegistry newRegistry = new ExtensionRegistry(buildExtensionRegistry(packageName));
+		synchronized (extensionRegistries) {
+			Map<String, ExtensionRegistry> registriesByPackage = extensionRegistries.get(classLoader);
+			if (registriesByPackage == null) {
+				registriesByPackage = new HashMap<String, ExtensionRegistry>();
+				extensionRegistries.put(classLoader, registriesByPackage);
+			}
+			registry = registriesByPackage.get(packageName);
+			if (registry == null) {
+				registry = newRegistry;
+				registriesByPackage.put(packageName, registry);
+			}
+		}
+		return registry;
 	}
-	
-	private List<Extension> scanForExtensions(String packageName) {
 
-		// Init return value
-		List<Extension> retval = new ArrayList<Extension>();
+	@SuppressWarnings("unchecked")
+	private static Map<String, Class<? extends AbstractExtension>> buildExtensionRegistry(String packageName) {
 
-		List<Class<?>> customExtensionClassList = null;
-		
+		logger.debug("Scanning the package '{}' for extensions", packageName);
+
+		List<Class<?>> extensionClassList = null;
 		try {
-			customExtensionClassList = ClassUtils.getSubClassesInPackage(packageName, AbstractExtension.class);
+			extensionClassList = ClassUtils.getSubClassesInPackage(packageName, AbstractExtension.class);
 		} catch (ClassNotFoundException e) {
 			throw new ExtensionLoadingException("Unable to load extensions", e);
 		} catch (IOException e) {
 			throw new ExtensionLoadingException("Unable to access the package '" + packageName + "'", e);
 		}
-		
-		// Instanciate all found classes
-		for (Class<?> clazz : customExtensionClassList) {
-
-			try {
-				retval.add((AbstractExtension) ClassUtils.getClass(clazz.getName()).newInstance());
-			} catch (InstantiationException e) {
-				throw new ExtensionLoadingException("Unable to instanciate the class " + clazz.getName(), e);
-			} catch (IllegalAccessException e) {
-				throw new ExtensionLoadingException("Unable to access the class " + clazz.getName(), e);
-			} catch (ClassNotFoundException e) {
-				throw new ExtensionLoadingException("Unable to load the class " + clazz.getName(), e);
+
+		Map<String, Class<? extends AbstractExtension>> registry = new LinkedHashMap<String, Class<? extends AbstractExtension>>();
+		for (Class<?> clazz : extensionClassList) {
+			Class<? extends AbstractExtension> extensionClass = (Class<? extends AbstractExtension>) clazz;
+			String name = newExtension(extensionClass).getName();
+			if (name != null) {
+				registry.put(name.toLowerCase(), extensionClass);
+			}
+		}
+		return registry;
+	}
+
+	private static Extension newExtension(Class<? extends AbstractExtension> extensionClass) {
+		try {
+			return extensionClass.newInstance();
+		} catch (InstantiationException e) {
+			throw new ExtensionLoadingException("Unable to instanciate the class " + extensionClass.getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ExtensionLoadingException("Unable to access the class " + extensionClass.getName(), e);
+		}
+	}
+
+	/**
+	 * Extension classes of a package, indexed by their lowercased name. The
+	 * classes are weakly referenced: a class strongly references its
+	 * classloader, which would otherwise never be released from the
+	 * {@link WeakHashMap} of the registries.
+	 */
+	static final class ExtensionRegistry {
+
+		private final Map<String, WeakReference<Class<? extends AbstractExtension>>> extensionClasses;
+
+		ExtensionRegistry(Map<String, Class<? extends AbstractExtension>> extensionClasses) {
+			this.extensionClasses = new HashMap<String, WeakReference<Class<? extends AbstractExtension>>>();
+			for (Map.Entry<String, Class<? extends AbstractExtension>> entry : extensionClasses.entrySet()) {
+				this.extensionClasses.put(entry.getKey(), new WeakReference<Class<? extends AbstractExtension>>(
+						entry.getValue()));
 			}
 		}
 
-		return retval;
+		/**
+		 * @param name
+		 *            The lowercased name of the extension.
+		 * @return the extension class, or {@code null} if none has this name.
+		 */
+		Class<? extends AbstractExtension> get(String name) {
+			WeakReference<Class<? extends AbstractExtension>> reference = extensionClasses.get(name);
+			return reference != null ? reference.get() : null;
+		}
+
+		boolean isEmpty() {
+			return extensionClasses.isEmpty();
+		}
 	}
 }
\ No newline at end of file
@@ -33,11 +33,9 @@ import static com.github.dandelion.datatables.core.util.JavascriptUtils.INDENT;
 import static com.github.dandelion.datatables.core.util.JavascriptUtils.NEWLINE;
 
 import java.io.IOException;
-import java.io.Writer;
 import java.util.Collection;
 import java.util.Map;
 
-import org.json.simple.JSONValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,7 +45,7 @@ import com.github.dandelion.datatables.core.asset.JsResource;
 import com.github.dandelion.datatables.core.asset.Parameter;
 import com.github.dandelion.datatables.core.exception.ExtensionLoadingException;
 import com.github.dandelion.datatables.core.html.HtmlTable;
-import com.github.dandelion.datatables.core.util.JsonIndentingWriter;
+import com.github.dandelion.datatables.core.util.JsonUtils;
 
 /**
  * Processor used to execute a processor against an {@link Extension}.
@@ -131,18 +129,18 @@ public class ExtensionProcessor {
 			logger.debug("Custom configuration generator used: {}", extension.getConfigGenerator().getClass()
 					.getSimpleName());
 
-			Writer writer = new JsonIndentingWriter();
-
 			Map<String, Object> conf = extension.getConfigGenerator().generateConfig(table);
 
-			// Allways pretty prints the JSON
+			// The JSON is only pretty printed in development mode
+			String json = null;
 			try {
-				JSONValue.writeJSONString(conf, writer);
+				json = JsonUtils.toJson(conf,
+						JsonUtils.isPrettyPrintEnabled(table.getTableConfiguration().getRequest()));
 			} catch (IOException e) {
 				throw new ExtensionLoadingException("Unable to convert the configuration into JSON", e);
 			}
 
-			mainJsFile.appendToDataTablesExtraConf(writer.toString());
+			mainJsFile.appendToDataTablesExtraConf(json);
 		}
 	}
 
@@ -0,0 +1,458 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.generator;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.dandelion.core.web.AssetRequestContext;
+import com.github.dandelion.datatables.core.asset.JsResource;
+import com.github.dandelion.datatables.core.configuration.ConfigToken;
+import com.github.dandelion.datatables.core.configuration.ConfigTokenMap;
+import com.github.dandelion.datatables.core.configuration.DatatableBundles;
+import com.github.dandelion.datatables.core.configuration.TableConfig;
+import com.github.dandelion.datatables.core.configuration.TableConfiguration;
+import com.github.dandelion.datatables.core.extension.AbstractExtension;
+import com.github.dandelion.datatables.core.extension.Extension;
+import com.github.dandelion.datatables.core.html.HtmlColumn;
+import com.github.dandelion.datatables.core.html.HtmlTable;
+
+/**
+ * <p>
+ * Bounded cache of the {@link JsResource}s generated by the
+ * {@link WebResourceGenerator}, keyed by a {@link Fingerprint} of the table
+ * definition.
+ * 
+ * <p>
+ * The configurations shared by all the tables of a group are immutable, so
+ * the fingerprint refers to them by identity and only describes what the
+ * current table adds: its ids and dynamic attributes, the configurations it
+ * overrides, the localized messages, the callbacks, the export
+ * configurations, the registered extensions and the configuration of each
+ * header column. Two tables with the same fingerprint produce the same
+ * {@link JsResource}.
+ * 
+ * <p>
+ * A configuration value whose content can't be reliably represented (i.e. an
+ * object that doesn't override {@link Object#toString()}) makes the table
+ * uncacheable, so that a wrong {@link JsResource} is never served.
+ * 
+ * <p>
+ * Along with the {@link JsResource}, the cache keeps what the extensions
+ * changed outside of it (the bundles and bundle parameters added to the
+ * request, the CSS class and style of the table), so that it can be replayed
+ * without setting the extensions up again. As only the side effects of the
+ * built-in extensions are known, a table using another extension is not
+ * cached.
+ * 
+ * <p>
+ * When full, the least recently used entry is evicted.
+ * 
+ * @since 0.10.2
+ */
+public class JsResourceCache {
+
+	/**
+	 * Default maximum number of {@link JsResource}s kept in the cache
+	 */
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	private static final String BUILTIN_EXTENSION_PACKAGE = "com.github.dandelion.datatables.core.extension.";
+
+	private static final ConcurrentMap<Class<?>, Boolean> DESCRIPTIVE_CLASSES = new ConcurrentHashMap<Class<?>, Boolean>();
+
+	private final Map<Fingerprint, CachedResources> entries;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public JsResourceCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	public JsResourceCache(final int maxSize) {
+		this.entries = Collections.synchronizedMap(new LinkedHashMap<Fingerprint, CachedResources>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<Fingerprint, CachedResources> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/**
+	 * <p>
+	 * Looks up the resources generated for the fingerprint and, if found,
+	 * applies the side effects of the extensions to the passed table and its
+	 * request.
+	 * 
+	 * @param fingerprint
+	 *            The fingerprint of the table.
+	 * @param table
+	 *            The table being rendered.
+	 * @return a copy of the cached {@link JsResource}, or {@code null} if none
+	 *         is cached for this fingerprint.
+	 */
+	public JsResource get(Fingerprint fingerprint, HtmlTable table) {
+		CachedResources cachedResources = entries.get(fingerprint);
+		if (cachedResources == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		cachedResources.applyTo(table);
+		return new JsResource(cachedResources.jsResource);
+	}
+
+	/**
+	 * <p>
+	 * Stores a copy of the passed {@link JsResource}, along with the side
+	 * effects of the extensions set up on the table during the generation.
+	 * 
+	 * @param fingerprint
+	 *            The fingerprint of the table, computed before the generation.
+	 * @param jsResource
+	 *            The generated {@link JsResource}.
+	 * @param table
+	 *            The table the {@link JsResource} has been generated for.
+	 * @return {@code true} if the resources have been cached, {@code false} if
+	 *         the table uses an extension whose side effects aren't known.
+	 */
+	public boolean put(Fingerprint fingerprint, JsResource jsResource, HtmlTable table) {
+		Set<Extension> extensions = new LinkedHashSet<Extension>();
+		if (table.getTableConfiguration().getInternalExtensions() != null) {
+			extensions.addAll(table.getTableConfiguration().getInternalExtensions());
+		}
+		Extension theme = TableConfig.CSS_THEME.valueFrom(table);
+		if (theme != null) {
+			extensions.add(theme);
+		}
+
+		Set<DatatableBundles> bundles = new LinkedHashSet<DatatableBundles>();
+		Map<String, Map<String, Object>> bundleParameters = new LinkedHashMap<String, Map<String, Object>>();
+		for (Extension extension : extensions) {
+			if (!(extension instanceof AbstractExtension)
+					|| !extension.getClass().getName().startsWith(BUILTIN_EXTENSION_PACKAGE)) {
+				return false;
+			}
+			AbstractExtension builtInExtension = (AbstractExtension) extension;
+			if (builtInExtension.getBundles() != null) {
+				bundles.addAll(builtInExtension.getBundles());
+			}
+			if (builtInExtension.getBundleParameters() != null) {
+				for (Entry<String, Map<String, Object>> entry : builtInExtension.getBundleParameters().entrySet()) {
+					Map<String, Object> assetParameters = bundleParameters.get(entry.getKey());
+					if (assetParameters == null) {
+						assetParameters = new LinkedHashMap<String, Object>();
+						bundleParameters.put(entry.getKey(), assetParameters);
+					}
+					assetParameters.putAll(entry.getValue());
+				}
+			}
+		}
+
+		entries.put(fingerprint, new CachedResources(new JsResource(jsResource), bundles, bundleParameters,
+				toString(TableConfig.CSS_CLASS.valueFrom(table)), toString(TableConfig.CSS_STYLE.valueFrom(table))));
+		return true;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * <p>
+	 * Computes the fingerprint of the passed table. Must be called before the
+	 * generation, which updates the table.
+	 * 
+	 * @param table
+	 *            The table to fingerprint.
+	 * @return the fingerprint, or {@code null} if the table can't be cached.
+	 */
+	public static Fingerprint fingerprint(HtmlTable table) {
+		StringBuilder fingerprint = new StringBuilder(256);
+		TableConfiguration tableConfiguration = table.getTableConfiguration();
+
+		// The configurations of the group are immutable and shared: only the
+		// overridden ones need to be described
+		Map<ConfigToken<?>, Object> configurations = tableConfiguration.getConfigurations();
+		ConfigTokenMap prototype = configurations instanceof ConfigTokenMap ? ((ConfigTokenMap) configurations)
+				.getParent() : null;
+
+		boolean cacheable = append(fingerprint, table.getId())
+				&& append(fingerprint, table.getOriginalId())
+				&& append(fingerprint, table.getDynamicAttributes())
+				&& (prototype != null ? appendOverrides(fingerprint, (ConfigTokenMap) configurations)
+						: appendConfigurations(fingerprint, configurations))
+				&& append(fingerprint, tableConfiguration.getMessages())
+				&& append(fingerprint, tableConfiguration.getCallbacks())
+				&& append(fingerprint, tableConfiguration.getExtraJs())
+				&& append(fingerprint, tableConfiguration.getExtraHtmlSnippets())
+				&& append(fingerprint, tableConfiguration.getExportConfiguration())
+				&& append(fingerprint, tableConfiguration.getInternalExtensions());
+
+		if (cacheable && table.getLastHeaderRow() != null) {
+			for (HtmlColumn column : table.getLastHeaderRow().getColumns()) {
+				cacheable = cacheable && append(fingerprint, column.getEnabledDisplayTypes())
+						&& appendConfigurations(fingerprint, column.getColumnConfiguration().getConfigurations());
+			}
+		}
+
+		return cacheable ? new Fingerprint(prototype, fingerprint.toString()) : null;
+	}
+
+	private static boolean appendOverrides(StringBuilder fingerprint, ConfigTokenMap configurations) {
+		fingerprint.append('{');
+		for (ConfigToken<?> token : configurations.getOverriddenTokens()) {
+			fingerprint.append(token.ordinal());
+			if (configurations.containsKey(token)) {
+				fingerprint.append('=');
+				if (!append(fingerprint, configurations.get(token))) {
+					return false;
+				}
+			}
+			else {
+				// Removed from the overlay
+				fingerprint.append('!');
+			}
+		}
+		fingerprint.append('}');
+		return true;
+	}
+
+	private static boolean appendConfigurations(StringBuilder fingerprint, Map<ConfigToken<?>, Object> configurations) {
+		if (configurations == null) {
+			fingerprint.append('-');
+			return true;
+		}
+		fingerprint.append('{');
+		for (Entry<ConfigToken<?>, Object> entry : configurations.entrySet()) {
+			fingerprint.append(entry.getKey().ordinal()).append('=');
+			if (!append(fingerprint, entry.getValue())) {
+				return false;
+			}
+		}
+		fingerprint.append('}');
+		return true;
+	}
+
+	/**
+	 * Appends an unambiguous representation of the value. Strings are prefixed
+	 * with their length so that separators inside values can't be confused
+	 * with the structure.
+	 */
+	private static boolean append(StringBuilder fingerprint, Object value) {
+		if (value == null) {
+			fingerprint.append('-');
+		}
+		else if (value instanceof Extension) {
+			// Extensions are stateless until they are set up
+			appendString(fingerprint, value.getClass().getName());
+		}
+		else if (value instanceof Map) {
+			// Sort the entries so that equal maps give equal fingerprints
+			Map<String, Object> sorted = new TreeMap<String, Object>();
+			for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+			}
+			if (sorted.size() != ((Map<?, ?>) value).size()) {
+				// Distinct keys with the same string representation
+				return false;
+			}
+			fingerprint.append('{');
+			for (Entry<String, Object> entry : sorted.entrySet()) {
+				appendString(fingerprint, entry.getKey());
+				if (!append(fingerprint, entry.getValue())) {
+					return false;
+				}
+			}
+			fingerprint.append('}');
+		}
+		else if (value instanceof Collection) {
+			List<String> elements = new ArrayList<String>();
+			for (Object element : (Collection<?>) value) {
+				StringBuilder elementFingerprint = new StringBuilder();
+				if (!append(elementFingerprint, element)) {
+					return false;
+				}
+				elements.add(elementFingerprint.toString());
+			}
+			// Sets of extensions have no stable order
+			if (!(value instanceof List)) {
+				Collections.sort(elements);
+			}
+			fingerprint.append('[');
+			for (String element : elements) {
+				fingerprint.append(element);
+			}
+			fingerprint.append(']');
+		}
+		else if (isDescriptive(value.getClass())) {
+			appendString(fingerprint, value.getClass().getName());
+			appendString(fingerprint, value.toString());
+		}
+		else {
+			return false;
+		}
+		return true;
+	}
+
+	private static void appendString(StringBuilder fingerprint, String value) {
+		fingerprint.append(value.length()).append(':').append(value);
+	}
+
+	/**
+	 * @return {@code true} if the class overrides {@link Object#toString()}.
+	 */
+	private static boolean isDescriptive(Class<?> clazz) {
+		Boolean descriptive = DESCRIPTIVE_CLASSES.get(clazz);
+		if (descriptive == null) {
+			try {
+				Method toString = clazz.getMethod("toString");
+				descriptive = toString.getDeclaringClass() != Object.class;
+			} catch (NoSuchMethodException e) {
+				descriptive = false;
+			}
+			DESCRIPTIVE_CLASSES.putIfAbsent(clazz, descriptive);
+		}
+		return descriptive;
+	}
+
+	private static String toString(Object value) {
+		return value != null ? value.toString() : null;
+	}
+
+	/**
+	 * <p>
+	 * Fingerprint of a table definition: the shared configurations, compared
+	 * by identity, and the description of everything else.
+	 */
+	public static final class Fingerprint {
+
+		private final Object sharedConfigurations;
+		private final String description;
+
+		Fingerprint(Object sharedConfigurations, String description) {
+			this.sharedConfigurations = sharedConfigurations;
+			this.description = description;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(sharedConfigurations) + description.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Fingerprint)) {
+				return false;
+			}
+			Fingerprint other = (Fingerprint) obj;
+			return sharedConfigurations == other.sharedConfigurations && description.equals(other.description);
+		}
+
+		@Override
+		public String toString() {
+			return description;
+		}
+	}
+
+	/**
+	 * A generated {@link JsResource} and the side effects of the extensions
+	 * set up to generate it.
+	 */
+	private static final class CachedResources {
+
+		private final JsResource jsResource;
+		private final Set<DatatableBundles> bundles;
+		private final Map<String, Map<String, Object>> bundleParameters;
+		private final String cssClass;
+		private final String cssStyle;
+
+		private CachedResources(JsResource jsResource, Set<DatatableBundles> bundles,
+				Map<String, Map<String, Object>> bundleParameters, String cssClass, String cssStyle) {
+			this.jsResource = jsResource;
+			this.bundles = bundles;
+			this.bundleParameters = bundleParameters;
+			this.cssClass = cssClass;
+			this.cssStyle = cssStyle;
+		}
+
+		private void applyTo(HtmlTable table) {
+			if (!bundles.isEmpty() || !bundleParameters.isEmpty()) {
+				AssetRequestContext assetRequestContext = AssetRequestContext.get(table.getTableConfiguration()
+						.getRequest());
+				for (DatatableBundles bundle : bundles) {
+					assetRequestContext.addBundles(bundle);
+				}
+				for (Entry<String, Map<String, Object>> assetParameters : bundleParameters.entrySet()) {
+					for (Entry<String, Object> parameter : assetParameters.getValue().entrySet()) {
+						assetRequestContext.addParameter(assetParameters.getKey(), parameter.getKey(),
+								parameter.getValue());
+					}
+				}
+			}
+			if (cssClass != null) {
+				TableConfig.CSS_CLASS.setIn(table.getTableConfiguration(), new StringBuilder(cssClass));
+			}
+			if (cssStyle != null) {
+				TableConfig.CSS_STYLE.setIn(table.getTableConfiguration(), new StringBuilder(cssStyle));
+			}
+		}
+	}
+}
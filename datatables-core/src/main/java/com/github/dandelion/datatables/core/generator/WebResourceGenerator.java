@@ -30,27 +30,37 @@
 package com.github.dandelion.datatables.core.generator;
 
 import java.io.IOException;
-import java.io.Writer;
 import java.util.Map;
 
-import org.json.simple.JSONValue;
+import javax.servlet.http.HttpServletRequest;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.web.WebConstants;
 import com.github.dandelion.datatables.core.asset.JsResource;
 import com.github.dandelion.datatables.core.exception.WebResourceGenerationException;
 import com.github.dandelion.datatables.core.extension.ExtensionLoader;
 import com.github.dandelion.datatables.core.generator.configuration.DatatablesGenerator;
 import com.github.dandelion.datatables.core.html.HtmlTable;
-import com.github.dandelion.datatables.core.util.JsonIndentingWriter;
+import com.github.dandelion.datatables.core.util.JsonUtils;
 
 /**
  * <p>
  * Class in charge of web resources generation.
  * 
  * <p>
- * The generated JSON (DataTables configuration) is pretty printed using a
- * custom writer written by Elad Tabak.
+ * In development mode, the generated JSON (DataTables configuration) is pretty
+ * printed using a custom writer written by Elad Tabak. Otherwise, it is
+ * written compact.
+ * 
+ * <p>
+ * Except in development mode, the generated {@link JsResource}s are kept in a
+ * {@link JsResourceCache}. When a table with the same definition is rendered
+ * again, the cached {@link JsResource} is reused and the changes the
+ * extensions made to the table and to the assets of the request are replayed,
+ * without loading the extensions.
  * 
  * @author Thibault Duchateau
  */
@@ -65,6 +75,11 @@ public class WebResourceGenerator {
 	 * The DataTables configuration generator.
 	 */
 	private static DatatablesGenerator configGenerator;
+
+	/**
+	 * The cache of already generated web resources.
+	 */
+	private static final JsResourceCache jsResourceCache = new JsResourceCache();
 	
 	public WebResourceGenerator(HtmlTable table){
 		this.table = table;
@@ -83,6 +98,17 @@ public class WebResourceGenerator {
 	 */
 	public JsResource generateWebResources() {
 
+		// The fingerprint must be computed before the generation, which
+		// updates the table
+		JsResourceCache.Fingerprint fingerprint = isCacheEnabled() ? JsResourceCache.fingerprint(table) : null;
+		if (fingerprint != null) {
+			JsResource cachedJsFile = jsResourceCache.get(fingerprint, table);
+			if (cachedJsFile != null) {
+				logger.debug("Reusing the web resources already generated for the table {}", table.getId());
+				return cachedJsFile;
+			}
+		}
+
 		/**
 		 * Main configuration file building
 		 */
@@ -104,15 +130,34 @@ public class WebResourceGenerator {
 		 * Main configuration generation
 		 */
 		logger.debug("Transforming configuration to JSON...");
-		// Allways pretty prints the JSON
+		// The JSON is only pretty printed in development mode
 		try {
-			Writer writer = new JsonIndentingWriter();
-			JSONValue.writeJSONString(mainConf, writer);
-			mainJsFile.appendToDataTablesConf(writer.toString());
+			boolean prettyPrint = JsonUtils.isPrettyPrintEnabled(table.getTableConfiguration().getRequest());
+			mainJsFile.appendToDataTablesConf(JsonUtils.toJson(mainConf, prettyPrint));
 		} catch (IOException e) {
 			throw new WebResourceGenerationException("Unable to generate the JSON configuration", e);
 		}
 
+		if (fingerprint != null) {
+			jsResourceCache.put(fingerprint, mainJsFile, table);
+		}
+
 		return mainJsFile;
 	}
+
+	private boolean isCacheEnabled() {
+		HttpServletRequest request = table.getTableConfiguration().getRequest();
+		Context context = request != null ? (Context) request.getAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE)
+				: null;
+		return context != null && !context.isDevModeEnabled();
+	}
+
+	/**
+	 * <b>FOR INTERNAL USE ONLY</b>
+	 * 
+	 * @return the cache of the generated web resources.
+	 */
+	public static JsResourceCache getJsResourceCache() {
+		return jsResourceCache;
+	}
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.github.dandelion.datatables.core.html;
 
+import java.io.IOException;
+
 public class HtmlCaption extends HtmlTagWithContent {
 
 	private String title;
@@ -17,9 +19,8 @@ public class HtmlCaption extends HtmlTagWithContent {
 	}
 
 	@Override
-	protected StringBuilder getHtmlAttributes() {
-		StringBuilder html = super.getHtmlAttributes();
-		html.append(writeAttribute("title", this.title));
-		return html;
+	protected void renderAttributes(Appendable out) throws IOException {
+		super.renderAttributes(out);
+		renderAttribute(out, "title", this.title);
 	}
 }
\ No newline at end of file
@@ -29,6 +29,7 @@
  */
 package com.github.dandelion.datatables.core.html;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -114,21 +115,19 @@ public class HtmlColumn extends HtmlTagWithContent {
 	}
 	
 	@Override
-	protected StringBuilder getHtmlAttributes() {
-		StringBuilder html = new StringBuilder();
+	protected void renderAttributes(Appendable out) throws IOException {
 		if (this.isHeaderColumn) {
-			html.append(writeAttribute("class", ColumnConfig.CSSCLASS.valueFrom(this.getColumnConfiguration())));
-			html.append(writeAttribute("style", ColumnConfig.CSSSTYLE.valueFrom(this.getColumnConfiguration())));
+			renderAttribute(out, "class", ColumnConfig.CSSCLASS.valueFrom(this.getColumnConfiguration()));
+			renderAttribute(out, "style", ColumnConfig.CSSSTYLE.valueFrom(this.getColumnConfiguration()));
 			
 			String columnId = ColumnConfig.ID.valueFrom(this.getColumnConfiguration());
 			if (StringUtils.isNotBlank(columnId)) {
-				html.append(writeAttribute("id", columnId));
+				renderAttribute(out, "id", columnId);
 			}
 		} else {
-			html.append(writeAttribute("class", this.cssCellClass));
-			html.append(writeAttribute("style", this.cssCellStyle));
+			renderAttribute(out, "class", this.cssCellClass);
+			renderAttribute(out, "style", this.cssCellStyle);
 		}
-		return html;
 	}
 
 	private void setHeaderColumn(Boolean isHeaderColumn) {
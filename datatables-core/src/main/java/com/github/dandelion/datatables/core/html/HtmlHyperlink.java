@@ -29,6 +29,8 @@
  */
 package com.github.dandelion.datatables.core.html;
 
+import java.io.IOException;
+
 import com.github.dandelion.core.utils.StringUtils;
 
 
@@ -62,15 +64,14 @@ public class HtmlHyperlink extends HtmlTagWithContent {
 	}
 
 	@Override
-	protected StringBuilder getHtmlAttributes() {
-		StringBuilder html = super.getHtmlAttributes();
+	protected void renderAttributes(Appendable out) throws IOException {
+		super.renderAttributes(out);
 		if(StringUtils.isNotBlank(this.href)){
-			html.append(writeAttribute("href", this.href));
+			renderAttribute(out, "href", this.href);
 		}
 		if(StringUtils.isNotBlank(this.onclick)){
-			html.append(writeAttribute("onclick", this.onclick));
+			renderAttribute(out, "onclick", this.onclick);
 		}
-		return html;
 	}
 
 	public String getHref() {
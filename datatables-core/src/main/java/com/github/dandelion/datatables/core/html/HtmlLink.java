@@ -29,6 +29,8 @@
  */
 package com.github.dandelion.datatables.core.html;
 
+import java.io.IOException;
+
 /**
  * Plain old HTML <code>link</code> tag.
  * 
@@ -52,11 +54,10 @@ public class HtmlLink extends HtmlTag {
 	}
 
 	@Override
-	protected StringBuilder getHtmlAttributes() {
-		StringBuilder html = super.getHtmlAttributes();
-		html.append(writeAttribute("rel", "stylesheet"));
-		html.append(writeAttribute("href", this.href));
-		return html;
+	protected void renderAttributes(Appendable out) throws IOException {
+		super.renderAttributes(out);
+		renderAttribute(out, "rel", "stylesheet");
+		renderAttribute(out, "href", this.href);
 	}
 	
 	public String getHref() {
@@ -29,9 +29,9 @@
  */
 package com.github.dandelion.datatables.core.html;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -50,7 +50,12 @@ public class HtmlRow extends HtmlTag {
 	 * List of columns (<code>td</code> tag) inside the row (<code>tr</code>
 	 * tag)
 	 */
-	private List<HtmlColumn> columns = new LinkedList<HtmlColumn>();
+	private List<HtmlColumn> columns = new ArrayList<HtmlColumn>();
+
+	/**
+	 * Whether one of the columns isn't enabled for all the formats.
+	 */
+	private boolean formatSpecificColumns;
 
 	public HtmlRow() {
 		this.tag = "tr";
@@ -65,22 +70,75 @@ public class HtmlRow extends HtmlTag {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public StringBuilder toHtml() {
-		StringBuilder html = new StringBuilder();
-		html.append(getHtmlOpeningTag());
-		html.append(getHtmlColumns());
-		html.append(getHtmlClosingTag());
-		return html;
+	public void render(Appendable out) throws IOException {
+		renderOpeningTag(out);
+		renderColumns(out);
+		renderClosingTag(out);
 	}
 	
-	private StringBuilder getHtmlColumns() {
-		StringBuilder html = new StringBuilder();
+	private void renderColumns(Appendable out) throws IOException {
 		for (HtmlColumn column : this.columns) {
-			if (CollectionUtils.containsAny(column.getEnabledDisplayTypes(), ReservedFormat.ALL, ReservedFormat.HTML)) {
-				html.append(column.toHtml());
+			if (isEnabled(column, ReservedFormat.HTML)) {
+				column.render(out);
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Writes the indexes of the columns enabled for the passed format, i.e.
+	 * the columns whose enabled display types contain either
+	 * {@link ReservedFormat#ALL} or the format, into the passed array.
+	 * <p>
+	 * The indexes are computed from the current state of the columns on each
+	 * call. Exporters can reuse the same array for all the rows of a table, so
+	 * that iterating over the visible cells doesn't allocate anything.
+	 * 
+	 * @param format
+	 *            The format used to filter the columns.
+	 * @param indexes
+	 *            The array to fill, at least as long as the number of columns
+	 *            of the row.
+	 * @return the number of enabled columns, i.e. of indexes written, in the
+	 *         order of the row, at the beginning of the array.
+	 */
+	public int getColumnIndexes(String format, int[] indexes) {
+		int count = 0;
+		for (int i = 0; i < this.columns.size(); i++) {
+			if (isEnabled(this.columns.get(i), format)) {
+				indexes[count++] = i;
 			}
 		}
-		return html;
+		return count;
+	}
+
+	private static boolean isEnabled(HtmlColumn column, String format) {
+		return CollectionUtils.containsAny(column.getEnabledDisplayTypes(), ReservedFormat.ALL, format);
+	}
+
+	/**
+	 * <p>
+	 * Tells whether one of the columns of the row is only enabled for some
+	 * formats, i.e. whether its enabled display types don't contain
+	 * {@link ReservedFormat#ALL}.
+	 * <p>
+	 * When it returns {@code false}, all the columns are enabled for any
+	 * format and exporters don't need to call
+	 * {@link #getColumnIndexes(String, int[])}. Only the columns passed to the
+	 * methods of this row are taken into account, with the display types they
+	 * had at that time.
+	 * 
+	 * @return {@code true} if one of the columns is format-specific.
+	 */
+	public boolean hasFormatSpecificColumns() {
+		return this.formatSpecificColumns;
+	}
+
+	private HtmlColumn track(HtmlColumn column) {
+		if (!column.getEnabledDisplayTypes().contains(ReservedFormat.ALL)) {
+			this.formatSpecificColumns = true;
+		}
+		return column;
 	}
 
 	/**
@@ -88,19 +146,19 @@ public class HtmlRow extends HtmlTag {
 	 * Returns a filtered list of {@link HtmlColumn} for this current
 	 * {@link HtmlRow}.
 	 * <p>
-	 * The columns are filtering using the enabled format.
+	 * The columns are filtering using the enabled format. Each column is
+	 * returned at most once, even if several of the passed formats are
+	 * enabled.
 	 * 
 	 * @param enabledFormats
 	 *            The enabled formats used to filter the columns.
 	 * @return a filtered list of {@link HtmlColumn}.
 	 */
 	public List<HtmlColumn> getColumns(String... enabledFormats) {
-		List<HtmlColumn> result = new ArrayList<HtmlColumn>();
+		List<HtmlColumn> result = new ArrayList<HtmlColumn>(this.columns.size());
 		for(HtmlColumn column : this.columns){
-			for(String enabledFormat : enabledFormats){
-				if(column.getEnabledDisplayTypes().contains(enabledFormat)){
-					result.add(column);
-				}
+			if(CollectionUtils.containsAny(column.getEnabledDisplayTypes(), (Object[]) enabledFormats)){
+				result.add(column);
 			}
 		}
 		return result;
@@ -112,10 +170,16 @@ public class HtmlRow extends HtmlTag {
 
 	public void setColumns(List<HtmlColumn> columns) {
 		this.columns = columns;
+		this.formatSpecificColumns = false;
+		if (columns != null) {
+			for (HtmlColumn column : columns) {
+				track(column);
+			}
+		}
 	}
 
 	public HtmlColumn addHeaderColumn(HtmlColumn headerColumn){
-		this.columns.add(headerColumn);
+		this.columns.add(track(headerColumn));
 		return headerColumn;
 	}
 	
@@ -126,7 +190,7 @@ public class HtmlRow extends HtmlTag {
 	}
 
 	public HtmlColumn addColumn(HtmlColumn column) {
-		this.columns.add(column);
+		this.columns.add(track(column));
 		return column;
 	}
 
@@ -141,7 +205,7 @@ public class HtmlRow extends HtmlTag {
 		Set<String> enabledDisplayTypes = new HashSet<String>();
 		enabledDisplayTypes.add(displayFormat.trim().toLowerCase());
 		newColumn.setEnabledDisplayTypes(enabledDisplayTypes);
-		this.columns.add(newColumn);
+		this.columns.add(track(newColumn));
 		return newColumn;
 	}
 	
@@ -170,7 +234,7 @@ public class HtmlRow extends HtmlTag {
 	}
 	
 	public HtmlColumn getLastColumn() {
-		return ((LinkedList<HtmlColumn>) this.columns).getLast();
+		return this.columns.isEmpty() ? null : this.columns.get(this.columns.size() - 1);
 	}
 
 	@Override
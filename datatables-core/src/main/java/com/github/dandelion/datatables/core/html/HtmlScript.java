@@ -29,6 +29,8 @@
  */
 package com.github.dandelion.datatables.core.html;
 
+import java.io.IOException;
+
 /**
  * Plain old HTML <code>script</code> tag.
  * 
@@ -52,10 +54,9 @@ public class HtmlScript extends HtmlTag {
 	}
 
 	@Override
-	protected StringBuilder getHtmlAttributes() {
-		StringBuilder html = super.getHtmlAttributes();
-		html.append(writeAttribute("src", this.src));
-		return html;
+	protected void renderAttributes(Appendable out) throws IOException {
+		super.renderAttributes(out);
+		renderAttribute(out, "src", this.src);
 	}
 	
 	public String getSrc() {
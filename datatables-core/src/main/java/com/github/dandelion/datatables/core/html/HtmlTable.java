@@ -28,7 +28,8 @@
  */
 package com.github.dandelion.datatables.core.html;
 
-import java.util.LinkedList;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -49,9 +50,9 @@ public class HtmlTable extends HtmlTag {
 	// Internal attributes
 	private String originalId;
 	private HtmlCaption caption;
-	private List<HtmlRow> head = new LinkedList<HtmlRow>();
-	private List<HtmlRow> body = new LinkedList<HtmlRow>();
-	private List<HtmlRow> foot = new LinkedList<HtmlRow>();
+	private List<HtmlRow> head = new ArrayList<HtmlRow>();
+	private List<HtmlRow> body = new ArrayList<HtmlRow>();
+	private List<HtmlRow> foot = new ArrayList<HtmlRow>();
 	private TableConfiguration tableConfiguration;
 
 	public HtmlTable(String id, HttpServletRequest request, HttpServletResponse response) {
@@ -74,58 +75,49 @@ public class HtmlTable extends HtmlTag {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public StringBuilder toHtml() {
-		StringBuilder html = new StringBuilder();
-		html.append(getHtmlOpeningTag());
-		html.append(getHtmlHeader());
-		html.append(getHtmlBody());
-		html.append(getHtmlFooter());
-		html.append(getHtmlClosingTag());
-		return html;
-	}
-
-	private StringBuilder getHtmlHeader() {
-		StringBuilder html = new StringBuilder();
+	public void render(Appendable out) throws IOException {
+		renderOpeningTag(out);
+		renderHeader(out);
+		renderBody(out);
+		renderFooter(out);
+		renderClosingTag(out);
+	}
+
+	private void renderHeader(Appendable out) throws IOException {
 		if (this.caption != null) {
-			html.append(this.caption.toHtml());
+			this.caption.render(out);
 		}
-		html.append("<thead>");
+		out.append("<thead>");
 		for (HtmlRow row : this.head) {
-			html.append(row.toHtml());
+			row.render(out);
 		}
-		html.append("</thead>");
-		return html;
+		out.append("</thead>");
 	}
 
-	private StringBuilder getHtmlBody() {
-		StringBuilder html = new StringBuilder();
-		html.append("<tbody>");
+	private void renderBody(Appendable out) throws IOException {
+		out.append("<tbody>");
 		for (HtmlRow row : this.body) {
-			html.append(row.toHtml());
+			row.render(out);
 		}
-		html.append("</tbody>");
-		return html;
+		out.append("</tbody>");
 	}
 
-	private StringBuilder getHtmlFooter() {
-		StringBuilder html = new StringBuilder();
+	private void renderFooter(Appendable out) throws IOException {
 		if (!this.foot.isEmpty()) {
-			html.append("<tfoot>");
+			out.append("<tfoot>");
 			for (HtmlRow row : this.foot) {
-				html.append(row.toHtml());
+				row.render(out);
 			}
 
-			html.append("</tfoot>");
+			out.append("</tfoot>");
 		}
-		return html;
 	}
 
-	protected StringBuilder getHtmlAttributes() {
-		StringBuilder html = new StringBuilder();
-		html.append(writeAttribute("id", this.id));
-		html.append(writeAttribute("class", TableConfig.CSS_CLASS.valueFrom(this.tableConfiguration)));
-		html.append(writeAttribute("style", TableConfig.CSS_STYLE.valueFrom(this.tableConfiguration)));
-		return html;
+	@Override
+	protected void renderAttributes(Appendable out) throws IOException {
+		renderAttribute(out, "id", this.id);
+		renderAttribute(out, "class", TableConfig.CSS_CLASS.valueFrom(this.tableConfiguration));
+		renderAttribute(out, "style", TableConfig.CSS_STYLE.valueFrom(this.tableConfiguration));
 	}
 
 	public HtmlCaption getCaption() {
@@ -176,19 +168,19 @@ public class HtmlTable extends HtmlTag {
 	}
 
 	public HtmlRow getLastFooterRow() {
-		return ((LinkedList<HtmlRow>) this.foot).getLast();
+		return this.foot.isEmpty() ? null : this.foot.get(this.foot.size() - 1);
 	}
 
 	public HtmlRow getFirstHeaderRow() {
-		return ((LinkedList<HtmlRow>) this.head).getFirst();
+		return this.head.isEmpty() ? null : this.head.get(0);
 	}
 	
 	public HtmlRow getLastHeaderRow() {
-		return ((LinkedList<HtmlRow>) this.head).getLast();
+		return this.head.isEmpty() ? null : this.head.get(this.head.size() - 1);
 	}
 
 	public HtmlRow getLastBodyRow() {
-		return ((LinkedList<HtmlRow>) this.body).getLast();
+		return this.body.isEmpty() ? null : this.body.get(this.body.size() - 1);
 	}
 
 	public void addCssStyle(String cssStyle) {
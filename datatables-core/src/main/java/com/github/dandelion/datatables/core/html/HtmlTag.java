@@ -29,6 +29,7 @@
  */
 package com.github.dandelion.datatables.core.html;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -67,67 +68,79 @@ public abstract class HtmlTag {
 	 */
 	protected Map<String, String> dynamicAttributes;
 
-        /**
+	/**
 	 * Render the tag in HTML code.
 	 * 
 	 * @return the HTML code corresponding to the tag.
 	 */
 	public StringBuilder toHtml() {
 		StringBuilder html = new StringBuilder();
-		html.append(getHtmlOpeningTag());
-		html.append(getHtmlClosingTag());
+		try {
+			render(html);
+		}
+		catch (IOException e) {
+			// Never thrown by a StringBuilder
+			throw new IllegalStateException(e);
+		}
 		return html;
 	}
 
-	protected StringBuilder getHtmlOpeningTag() {
-		StringBuilder html = new StringBuilder();
-		html.append('<');
-		html.append(this.tag);
-		html.append(getHtmlAttributes());
-		html.append(getDynamicHtmlAttributes());
-		html.append('>');
-		return html;
+	/**
+	 * <p>
+	 * Render the tag in HTML code directly into the passed {@link Appendable},
+	 * e.g. the JSP writer, without building intermediate strings.
+	 * 
+	 * @param out
+	 *            The destination of the HTML code.
+	 * @throws IOException
+	 *             if the HTML code can't be written.
+	 */
+	public void render(Appendable out) throws IOException {
+		renderOpeningTag(out);
+		renderClosingTag(out);
 	}
 
-	protected StringBuilder getHtmlAttributes() {
-		StringBuilder html = new StringBuilder();
-		html.append(writeAttribute("id", this.id));
-		html.append(writeAttribute("class", this.cssClass));
-		html.append(writeAttribute("style", this.cssStyle));
-		return html;
+	protected void renderOpeningTag(Appendable out) throws IOException {
+		out.append('<');
+		out.append(this.tag);
+		renderAttributes(out);
+		renderDynamicAttributes(out);
+		out.append('>');
 	}
 
-	protected StringBuilder getDynamicHtmlAttributes() {
+	protected void renderAttributes(Appendable out) throws IOException {
+		renderAttribute(out, "id", this.id);
+		renderAttribute(out, "class", this.cssClass);
+		renderAttribute(out, "style", this.cssStyle);
+	}
 
-		// If no dynamicAttributes set, return empty StringBuilder
-		if(dynamicAttributes == null) {
-			return new StringBuilder();
+	protected void renderDynamicAttributes(Appendable out) throws IOException {
+		if(dynamicAttributes != null) {
+			for(Map.Entry<String, String> attribute : dynamicAttributes.entrySet()) {
+				renderAttribute(out, attribute.getKey(), attribute.getValue());
+			}
 		}
-		StringBuilder html = new StringBuilder();
-		for(Map.Entry<String, String> attribute : dynamicAttributes.entrySet()) {
-			html.append(writeAttribute(attribute.getKey(), attribute.getValue()));
-		}
-		return html;
 	}
 	
-	protected static StringBuilder writeAttribute(String name, Object data) {
-		StringBuilder html = new StringBuilder();
+	protected static void renderAttribute(Appendable out, String name, Object data) throws IOException {
 		if(data != null) {
-			html.append(' ');
-			html.append(name);
-			html.append("=\"");
-			html.append(data.toString());
-			html.append('"');
+			out.append(' ');
+			out.append(name);
+			out.append("=\"");
+			if(data instanceof CharSequence) {
+				out.append((CharSequence) data);
+			}
+			else {
+				out.append(data.toString());
+			}
+			out.append('"');
 		}
-		return html;
 	}
 
-	protected StringBuilder getHtmlClosingTag() {
-		StringBuilder html = new StringBuilder();
-		html.append("</");
-		html.append(this.tag);
-		html.append('>');
-		return html;
+	protected void renderClosingTag(Appendable out) throws IOException {
+		out.append("</");
+		out.append(this.tag);
+		out.append('>');
 	}
 
 	public String getTag() {
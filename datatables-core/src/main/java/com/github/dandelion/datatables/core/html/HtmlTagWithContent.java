@@ -29,6 +29,8 @@
  */
 package com.github.dandelion.datatables.core.html;
 
+import java.io.IOException;
+
 /**
  * Abstract superclass for all HTML tags with embedded content.
  * 
@@ -42,17 +44,13 @@ public abstract class HtmlTagWithContent extends HtmlTag {
 	protected StringBuilder content = new StringBuilder();
 
 	/**
-	 * Render the tag in HTML code.
-	 * 
-	 * @return the HTML code corresponding to the tag.
+	 * {@inheritDoc}
 	 */
 	@Override
-	public StringBuilder toHtml() {
-		StringBuilder html = new StringBuilder();
-		html.append(getHtmlOpeningTag());
-		html.append(this.content);
-		html.append(getHtmlClosingTag());
-		return html;
+	public void render(Appendable out) throws IOException {
+		renderOpeningTag(out);
+		out.append(this.content);
+		renderClosingTag(out);
 	}
 
 	public StringBuilder getContent() {
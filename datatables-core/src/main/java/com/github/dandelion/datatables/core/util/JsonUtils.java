@@ -0,0 +1,141 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.json.simple.JSONValue;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.web.WebConstants;
+
+/**
+ * <p>
+ * Helper class used to serialize the generated configurations to JSON.
+ * 
+ * <p>
+ * In development mode, the JSON is pretty printed using the
+ * {@link JsonIndentingWriter}. Otherwise, it is written compact in one pass
+ * into an unsynchronized buffer.
+ * 
+ * @since 0.10.2
+ */
+public final class JsonUtils {
+
+	/**
+	 * <p>
+	 * Converts the passed value (usually a configuration map) to JSON.
+	 * 
+	 * @param value
+	 *            The value to convert.
+	 * @param prettyPrint
+	 *            Whether the JSON must be indented or compact.
+	 * @return the JSON string.
+	 * @throws IOException
+	 *             if the value can't be written.
+	 */
+	public static String toJson(Object value, boolean prettyPrint) throws IOException {
+
+		if (prettyPrint) {
+			Writer writer = new JsonIndentingWriter();
+			JSONValue.writeJSONString(value, writer);
+			return writer.toString();
+		}
+
+		Writer writer = new StringBuilderWriter();
+		JSONValue.writeJSONString(value, writer);
+		return writer.toString();
+	}
+
+	/**
+	 * <p>
+	 * Tells whether the generated JSON must be pretty printed, i.e. whether
+	 * Dandelion runs in development mode.
+	 * 
+	 * @param request
+	 *            The current request.
+	 * @return {@code true} if the JSON must be indented.
+	 */
+	public static boolean isPrettyPrintEnabled(HttpServletRequest request) {
+		Context context = request != null ? (Context) request.getAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE)
+				: null;
+		return context == null || context.isDevModeEnabled();
+	}
+
+	/**
+	 * Unsynchronized {@link Writer} backed by a {@link StringBuilder}.
+	 */
+	private static class StringBuilderWriter extends Writer {
+
+		private final StringBuilder builder = new StringBuilder(1024);
+
+		@Override
+		public void write(int c) {
+			builder.append((char) c);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			builder.append(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str) {
+			builder.append(str);
+		}
+
+		@Override
+		public void write(String str, int off, int len) {
+			builder.append(str, off, off + len);
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public String toString() {
+			return builder.toString();
+		}
+	}
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private JsonUtils() {
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.util;
+
+import java.text.MessageFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>
+ * Cache of parsed {@link MessageFormat}s, used to format the content of the
+ * cells.
+ * 
+ * <p>
+ * Each (pattern, locale) pair is parsed only once. Since {@link MessageFormat}
+ * is not thread-safe, the cached instance is only used as a prototype and
+ * callers always get a clone of it, which is much cheaper than parsing the
+ * pattern again.
+ * 
+ * <p>
+ * Since patterns may be computed per row, e.g. by an EL expression, the cache
+ * only keeps the {@value #MAX_SIZE} most recently used ones.
+ * 
+ * @since 0.10.2
+ */
+public final class MessageFormatCache {
+
+	/**
+	 * Maximum number of cached (pattern, locale) pairs.
+	 */
+	static final int MAX_SIZE = 256;
+
+	private static final Map<String, MessageFormat> PROTOTYPES = new LinkedHashMap<String, MessageFormat>(16, 0.75f,
+			true) {
+
+		private static final long serialVersionUID = 3547914734406934874L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, MessageFormat> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	/**
+	 * <p>
+	 * Formats the arguments using the pattern and the default locale, just
+	 * like {@code new MessageFormat(pattern).format(arguments)}.
+	 * 
+	 * @param pattern
+	 *            the {@link MessageFormat} pattern.
+	 * @param arguments
+	 *            the objects to format.
+	 * @return the formatted string.
+	 * @throws IllegalArgumentException
+	 *             if the pattern is invalid or if an argument can't be
+	 *             formatted.
+	 */
+	public static String format(String pattern, Object... arguments) {
+		return getMessageFormat(pattern, Locale.getDefault()).format(arguments);
+	}
+
+	/**
+	 * <p>
+	 * Returns a {@link MessageFormat} for the pattern and locale, which can be
+	 * freely used by the calling thread.
+	 * 
+	 * @param pattern
+	 *            the {@link MessageFormat} pattern.
+	 * @param locale
+	 *            the locale to use.
+	 * @return a new {@link MessageFormat}, cloned from the cached one.
+	 * @throws IllegalArgumentException
+	 *             if the pattern is invalid.
+	 */
+	public static MessageFormat getMessageFormat(String pattern, Locale locale) {
+		String key = locale + "|" + pattern;
+		MessageFormat prototype;
+		synchronized (PROTOTYPES) {
+			prototype = PROTOTYPES.get(key);
+		}
+		if (prototype == null) {
+			prototype = new MessageFormat(pattern, locale);
+			synchronized (PROTOTYPES) {
+				PROTOTYPES.put(key, prototype);
+			}
+		}
+		return (MessageFormat) prototype.clone();
+	}
+
+	/**
+	 * @return the number of cached (pattern, locale) pairs.
+	 */
+	static int size() {
+		synchronized (PROTOTYPES) {
+			return PROTOTYPES.size();
+		}
+	}
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private MessageFormatCache() {
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.util;
+
+import java.beans.PropertyDescriptor;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.NestedNullException;
+import org.apache.commons.beanutils.PropertyUtils;
+
+/**
+ * <p>
+ * Cached alternative to
+ * {@link PropertyUtils#getNestedProperty(Object, String)}, used when rendering
+ * the content of each cell.
+ * 
+ * <p>
+ * Property paths are parsed once and the getter of each (class, property)
+ * pair is resolved once, then reused across rows and requests. Maps and
+ * {@link DynaBean}s are navigated as commons-beanutils does, and paths using
+ * indexed or mapped expressions (e.g. {@code addresses[0].town} or
+ * {@code labels(en)}) are delegated to {@link PropertyUtils}.
+ * 
+ * <p>
+ * Since paths may come from the request, only the {@value #MAX_PATHS} most
+ * recently used paths that could be resolved are kept. Getters are cached per
+ * class without preventing the class, and its class loader, from being
+ * garbage collected, e.g. when a web application is redeployed.
+ * 
+ * <p>
+ * A {@code null} intermediate value raises a {@link NestedNullException},
+ * exactly like {@link PropertyUtils#getNestedProperty(Object, String)}.
+ * 
+ * @since 0.10.2
+ */
+public final class PropertyAccessor {
+
+	/**
+	 * Marker for property paths that can't be split on dots and must be
+	 * handled by {@link PropertyUtils}.
+	 */
+	private static final String[] COMPLEX_PATH = new String[0];
+
+	/**
+	 * Maximum number of cached property paths.
+	 */
+	static final int MAX_PATHS = 256;
+
+	private static final Map<String, String[]> PATHS = new LinkedHashMap<String, String[]>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = -6418713307462514935L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+			return size() > MAX_PATHS;
+		}
+	};
+
+	/**
+	 * Getters by class and property name. The classes are weakly referenced
+	 * and the getters softly referenced, since a {@link Method} strongly
+	 * references its declaring class.
+	 */
+	private static final Map<Class<?>, Map<String, Reference<Method>>> GETTERS = new WeakHashMap<Class<?>, Map<String, Reference<Method>>>();
+
+	/**
+	 * <p>
+	 * Returns the value of the (possibly nested) property of the bean.
+	 * 
+	 * @param bean
+	 *            the bean whose property is to be extracted.
+	 * @param path
+	 *            the property path, e.g. {@code address.town.name}.
+	 * @return the value of the property, which may be {@code null}.
+	 * @throws IllegalAccessException
+	 *             if the caller doesn't have access to the getter.
+	 * @throws InvocationTargetException
+	 *             if the getter throws an exception.
+	 * @throws NoSuchMethodException
+	 *             if no getter exists for one of the properties.
+	 * @throws NestedNullException
+	 *             if an intermediate property is {@code null}.
+	 */
+	public static Object getNestedProperty(Object bean, String path) throws IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException {
+
+		if (bean == null) {
+			throw new IllegalArgumentException("No bean specified");
+		}
+		if (path == null) {
+			throw new IllegalArgumentException("No name specified for bean class '" + bean.getClass() + "'");
+		}
+
+		String[] segments;
+		synchronized (PATHS) {
+			segments = PATHS.get(path);
+		}
+		boolean cached = segments != null;
+		if (!cached) {
+			segments = split(path);
+		}
+
+		Object current;
+		if (segments == COMPLEX_PATH) {
+			current = PropertyUtils.getNestedProperty(bean, path);
+		} else {
+			current = bean;
+			for (int i = 0; i < segments.length; i++) {
+				if (current == null) {
+					throw new NestedNullException("Null property value for '" + segments[i - 1]
+							+ "' on bean class '" + bean.getClass() + "'");
+				}
+				current = getSimpleProperty(current, segments[i]);
+			}
+		}
+
+		// Only reached once the whole path has been resolved
+		if (!cached) {
+			synchronized (PATHS) {
+				PATHS.put(path, segments);
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Splits the property path on dots, or returns {@link #COMPLEX_PATH} if
+	 * the path contains indexed/mapped expressions or empty segments.
+	 */
+	private static String[] split(String path) {
+		if (path.indexOf('[') != -1 || path.indexOf('(') != -1) {
+			return COMPLEX_PATH;
+		}
+		String[] segments = path.split("\\.", -1);
+		for (String segment : segments) {
+			if (segment.length() == 0) {
+				return COMPLEX_PATH;
+			}
+		}
+		return segments;
+	}
+
+	private static Object getSimpleProperty(Object bean, String name) throws IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException {
+
+		if (bean instanceof Map) {
+			return ((Map<?, ?>) bean).get(name);
+		}
+		if (bean instanceof DynaBean) {
+			return PropertyUtils.getSimpleProperty(bean, name);
+		}
+
+		return getGetter(bean, name).invoke(bean);
+	}
+
+	private static Method getGetter(Object bean, String name) throws IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException {
+
+		Class<?> beanClass = bean.getClass();
+		Reference<Method> reference = null;
+		synchronized (GETTERS) {
+			Map<String, Reference<Method>> getters = GETTERS.get(beanClass);
+			if (getters != null) {
+				reference = getters.get(name);
+			}
+		}
+
+		Method getter = reference != null ? reference.get() : null;
+		if (getter == null) {
+			PropertyDescriptor descriptor = PropertyUtils.getPropertyDescriptor(bean, name);
+			if (descriptor != null) {
+				getter = PropertyUtils.getReadMethod(descriptor);
+			}
+			if (getter == null) {
+				throw new NoSuchMethodException("Unknown property '" + name + "' on class '" + beanClass + "'");
+			}
+			synchronized (GETTERS) {
+				Map<String, Reference<Method>> getters = GETTERS.get(beanClass);
+				if (getters == null) {
+					getters = new HashMap<String, Reference<Method>>();
+					GETTERS.put(beanClass, getters);
+				}
+				getters.put(name, new SoftReference<Method>(getter));
+			}
+		}
+		return getter;
+	}
+
+	/**
+	 * @return the number of cached property paths.
+	 */
+	static int cachedPaths() {
+		synchronized (PATHS) {
+			return PATHS.size();
+		}
+	}
+
+	/**
+	 * @return whether the property path is cached.
+	 */
+	static boolean isCached(String path) {
+		synchronized (PATHS) {
+			return PATHS.containsKey(path);
+		}
+	}
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private PropertyAccessor() {
+	}
+}
@@ -0,0 +1,281 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>
+ * Helper class used to translate the values searched in DataTables into
+ * query parameters, shared by the SQL and JPA query builders so that a search
+ * matches the same rows whatever the storage.
+ * 
+ * @since 0.10.2
+ */
+public final class SearchUtils {
+
+	/**
+	 * Escape character of the patterns built by {@link #likePattern(String)}.
+	 */
+	public static final char LIKE_ESCAPE = '!';
+
+	private static final List<Class<?>> CONVERTIBLE_TYPES = Arrays.<Class<?>> asList(String.class, Integer.class,
+			int.class, Long.class, long.class, Short.class, short.class, Byte.class, byte.class, Double.class,
+			double.class, Float.class, float.class, BigDecimal.class, BigInteger.class, Boolean.class,
+			boolean.class, java.sql.Date.class, Timestamp.class, java.util.Date.class);
+
+	/**
+	 * <p>
+	 * Builds a case insensitive {@code LIKE} pattern matching the values
+	 * containing the searched value, where {@code %}, {@code _} and the
+	 * escape character are escaped with {@link #LIKE_ESCAPE}.
+	 * 
+	 * @param search
+	 *            The searched value.
+	 * @return the pattern, to be compared with the lower-cased values.
+	 */
+	public static String likePattern(String search) {
+		String lowerCase = search.toLowerCase(Locale.ENGLISH);
+		StringBuilder pattern = new StringBuilder(lowerCase.length() + 2).append('%');
+		for (int i = 0; i < lowerCase.length(); i++) {
+			char c = lowerCase.charAt(i);
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				pattern.append(LIKE_ESCAPE);
+			}
+			pattern.append(c);
+		}
+		return pattern.append('%').toString();
+	}
+
+	/**
+	 * @param type
+	 *            A type.
+	 * @return {@code true} if {@link #convert(String, Class)} can convert the
+	 *         searched values to this type.
+	 */
+	public static boolean isConvertible(Class<?> type) {
+		return CONVERTIBLE_TYPES.contains(type) || type.isEnum();
+	}
+
+	/**
+	 * <p>
+	 * Converts a searched value to the given type. The numbers, booleans and
+	 * enums are converted from their usual string representation, and the
+	 * dates as parsed by {@link #timeBound(String, boolean)}. A
+	 * {@link java.util.Date} is converted to a {@link Timestamp}.
+	 * 
+	 * @param value
+	 *            The searched value.
+	 * @param type
+	 *            The type of the column or attribute.
+	 * @return the converted value, or {@code null} if the value can't be
+	 *         converted.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static Object convert(String value, Class<?> type) {
+		try {
+			if (type == String.class) {
+				return value;
+			}
+			if (type == Integer.class || type == int.class) {
+				return Integer.valueOf(value);
+			}
+			if (type == Long.class || type == long.class) {
+				return Long.valueOf(value);
+			}
+			if (type == Short.class || type == short.class) {
+				return Short.valueOf(value);
+			}
+			if (type == Byte.class || type == byte.class) {
+				return Byte.valueOf(value);
+			}
+			if (type == Double.class || type == double.class) {
+				return Double.valueOf(value);
+			}
+			if (type == Float.class || type == float.class) {
+				return Float.valueOf(value);
+			}
+			if (type == BigDecimal.class) {
+				return new BigDecimal(value);
+			}
+			if (type == BigInteger.class) {
+				return new BigInteger(value);
+			}
+			if (type == Boolean.class || type == boolean.class) {
+				return "true".equalsIgnoreCase(value) ? Boolean.TRUE : "false".equalsIgnoreCase(value) ? Boolean.FALSE
+						: null;
+			}
+			if (type.isEnum()) {
+				return Enum.valueOf((Class<? extends Enum>) type, value);
+			}
+			if (isTemporal(type)) {
+				Bound time = timeBound(value, false);
+				return time != null ? toTemporal((Long) time.value, type) : null;
+			}
+		}
+		catch (IllegalArgumentException e) {
+			// NumberFormatException included
+		}
+		return null;
+	}
+
+	/**
+	 * <p>
+	 * Converts a bound of a range search ({@code searchFrom}/{@code searchTo})
+	 * to the given type. The date bounds are parsed by
+	 * {@link #timeBound(String, boolean)}, so that a date-only upper bound
+	 * includes the whole day, and the other bounds are converted by
+	 * {@link #convert(String, Class)}.
+	 * 
+	 * @param value
+	 *            The bound.
+	 * @param type
+	 *            The type of the column or attribute.
+	 * @param upper
+	 *            Whether the bound is the upper one.
+	 * @return the converted bound, or {@code null} if the value can't be
+	 *         converted.
+	 */
+	public static Bound rangeBound(String value, Class<?> type, boolean upper) {
+		if (isTemporal(type)) {
+			Bound time = timeBound(value, upper);
+			return time != null ? new Bound(toTemporal((Long) time.value, type), time.inclusive) : null;
+		}
+		Object converted = convert(value, type);
+		return converted != null ? new Bound(converted, true) : null;
+	}
+
+	/**
+	 * <p>
+	 * Parses a bound of a date range, given either as milliseconds since the
+	 * epoch or as an ISO 8601 date, e.g. {@code 2014-03-01} or
+	 * {@code 2014-03-01T12:30:00} (a space is also accepted as separator, and
+	 * fractional seconds are allowed). A date-only upper bound is exclusive at
+	 * the start of the next day, so that the whole day is included.
+	 * 
+	 * @param value
+	 *            The bound.
+	 * @param upper
+	 *            Whether the bound is the upper one.
+	 * @return the bound in milliseconds since the epoch, or {@code null} if
+	 *         it can't be parsed.
+	 */
+	public static Bound timeBound(String value, boolean upper) {
+		if (value == null) {
+			return null;
+		}
+		String trimmed = value.trim();
+		try {
+			return new Bound(Long.valueOf(trimmed), true);
+		}
+		catch (NumberFormatException e) {
+			// Not a timestamp
+		}
+		try {
+			if (trimmed.length() > 10) {
+				String dateTime = trimmed.replace('T', ' ');
+				if (dateTime.length() == 19) {
+					return new Bound(strictFormat("yyyy-MM-dd HH:mm:ss").parse(dateTime).getTime(), true);
+				}
+				return new Bound(Timestamp.valueOf(dateTime).getTime(), true);
+			}
+			Calendar calendar = Calendar.getInstance();
+			calendar.setTime(strictFormat("yyyy-MM-dd").parse(trimmed));
+			if (upper) {
+				calendar.add(Calendar.DAY_OF_MONTH, 1);
+				return new Bound(calendar.getTimeInMillis(), false);
+			}
+			return new Bound(calendar.getTimeInMillis(), true);
+		}
+		catch (ParseException e) {
+			return null;
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static boolean isTemporal(Class<?> type) {
+		return java.util.Date.class.isAssignableFrom(type);
+	}
+
+	private static Object toTemporal(long time, Class<?> type) {
+		return type == java.sql.Date.class ? new java.sql.Date(time) : new Timestamp(time);
+	}
+
+	private static SimpleDateFormat strictFormat(String pattern) {
+		SimpleDateFormat format = new SimpleDateFormat(pattern);
+		format.setLenient(false);
+		return format;
+	}
+
+	/**
+	 * A converted bound of a range search.
+	 */
+	public static final class Bound {
+
+		private final Object value;
+		private final boolean inclusive;
+
+		Bound(Object value, boolean inclusive) {
+			this.value = value;
+			this.inclusive = inclusive;
+		}
+
+		/**
+		 * @return the converted value of the bound.
+		 */
+		public Object getValue() {
+			return value;
+		}
+
+		/**
+		 * @return {@code true} if the values equal to the bound are in the
+		 *         range.
+		 */
+		public boolean isInclusive() {
+			return inclusive;
+		}
+	}
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private SearchUtils() {
+	}
+}
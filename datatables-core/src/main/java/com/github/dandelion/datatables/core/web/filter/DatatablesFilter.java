@@ -85,8 +85,18 @@ public class DatatablesFilter implements Filter {
 				HttpServletResponse response = (HttpServletResponse) servletResponse;
 				DatatablesResponseWrapper resWrapper = new DatatablesResponseWrapper(response);
 
+				// Exposes the original response in case of streamed export
+				request.setAttribute(ExportUtils.DDL_DT_REQUESTATTR_EXPORT_RESPONSE, response);
+
 				chain.doFilter(request, resWrapper);
 
+				byte[] content = (byte[]) servletRequest.getAttribute(ExportUtils.DDL_DT_REQUESTATTR_EXPORT_CONTENT);
+
+				// The export content has already been streamed to the response
+				if (content == null) {
+					return;
+				}
+
 				ExportConf exportConf = (ExportConf) request
 						.getAttribute(ExportUtils.DDL_DT_REQUESTATTR_EXPORT_CONF);
 
@@ -94,8 +104,6 @@ public class DatatablesFilter implements Filter {
 				response.setHeader("Content-Disposition", "attachment; filename=\"" + finalFileName + "\"");
 				response.setContentType(exportConf.getMimeType());
 
-				byte[] content = (byte[]) servletRequest.getAttribute(ExportUtils.DDL_DT_REQUESTATTR_EXPORT_CONTENT);
-
 				response.setContentLength(content.length);
 	            OutputStream out = response.getOutputStream();
 	            out.write(content);
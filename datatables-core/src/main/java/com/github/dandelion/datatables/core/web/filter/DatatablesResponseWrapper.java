@@ -64,4 +64,26 @@ public class DatatablesResponseWrapper extends HttpServletResponseWrapper {
 		stream = createOutputStream();
 		return new PrintWriter(stream);
 	}
+
+	/**
+	 * <p>
+	 * Resets the original response only if it hasn't been committed yet.
+	 * 
+	 * <p>
+	 * When the export is streamed, the content has already been written to the
+	 * original response, which can't be reset anymore.
+	 */
+	@Override
+	public void reset() {
+		if (!originalResponse.isCommitted()) {
+			super.reset();
+		}
+	}
+
+	@Override
+	public void resetBuffer() {
+		if (!originalResponse.isCommitted()) {
+			super.resetBuffer();
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias.Protocol;
+import com.github.dandelion.datatables.core.constants.DTConstants;
+import com.github.dandelion.datatables.core.exception.InvalidCriteriasException;
+
+/**
+ * <p>
+ * Test the bounds and the error handling of {@link DatatablesCriteriasParser}.
+ */
+public class DatatablesCriteriasParserTest {
+
+	private MockHttpServletRequest request;
+	private DatatablesCriteriasParser parser;
+
+	@Before
+	public void setup() {
+		request = new MockHttpServletRequest();
+		parser = new DatatablesCriteriasParser(3);
+	}
+
+	@Test(expected = InvalidCriteriasException.class)
+	public void should_reject_too_many_columns() {
+		request.addParameter(DTConstants.DT_I_COLUMNS, "4");
+
+		parser.parse(request);
+	}
+
+	@Test(expected = InvalidCriteriasException.class)
+	public void should_reject_too_many_sorted_columns() {
+		request.addParameter(DTConstants.DT_I_COLUMNS, "2");
+		request.addParameter(DTConstants.DT_I_SORTING_COLS, "4");
+
+		parser.parse(request);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_reject_non_positive_maximum() {
+		new DatatablesCriteriasParser(0);
+	}
+
+	@Test
+	public void should_accept_the_maximum_number_of_columns() {
+		request.addParameter(DTConstants.DT_I_COLUMNS, "3");
+		request.addParameter(DTConstants.DT_M_DATA_PROP + 2, "mail");
+
+		DatatablesCriterias criterias = parser.parse(request);
+
+		assertThat(criterias.getColumnDefs()).hasSize(3);
+		assertThat(criterias.getColumnDefs().get(2).getName()).isEqualTo("mail");
+	}
+
+	@Test
+	public void should_ignore_out_of_range_sorted_columns() {
+		request.addParameter(DTConstants.DT_I_COLUMNS, "2");
+		request.addParameter(DTConstants.DT_M_DATA_PROP + 0, "id");
+		request.addParameter(DTConstants.DT_M_DATA_PROP + 1, "firstName");
+		request.addParameter(DTConstants.DT_I_SORTING_COLS, "3");
+		request.addParameter(DTConstants.DT_I_SORT_COL + 0, "5");
+		request.addParameter(DTConstants.DT_I_SORT_COL + 1, "1");
+		request.addParameter(DTConstants.DT_S_SORT_DIR + 1, "desc");
+		request.addParameter(DTConstants.DT_I_SORT_COL + 2, "-1");
+
+		DatatablesCriterias criterias = parser.parse(request);
+
+		assertThat(criterias.getSortingColumnDefs()).hasSize(1);
+		assertThat(criterias.getSortingColumnDefs().get(0).getName()).isEqualTo("firstName");
+		assertThat(criterias.getSortingColumnDefs().get(0).getSortDirection()).isEqualTo(SortDirection.DESC);
+	}
+
+	@Test
+	public void should_ignore_invalid_numbers_and_directions() {
+		request.addParameter(DTConstants.DT_S_ECHO, "abc");
+		request.addParameter(DTConstants.DT_I_DISPLAY_START, "99999999999");
+		request.addParameter(DTConstants.DT_I_DISPLAY_LENGTH, " 10 ");
+		request.addParameter(DTConstants.DT_I_COLUMNS, "1");
+		request.addParameter(DTConstants.DT_I_SORTING_COLS, "1");
+		request.addParameter(DTConstants.DT_I_SORT_COL + 0, "0");
+		request.addParameter(DTConstants.DT_S_SORT_DIR + 0, "sideways");
+
+		DatatablesCriterias criterias = parser.parse(request);
+
+		assertThat(criterias.getInternalCounter()).isEqualTo(-1);
+		assertThat(criterias.getDisplayStart()).isEqualTo(-1);
+		assertThat(criterias.getDisplaySize()).isEqualTo(10);
+		assertThat(criterias.getSortingColumnDefs()).hasSize(1);
+		assertThat(criterias.getSortingColumnDefs().get(0).getSortDirection()).isNull();
+	}
+
+	@Test
+	public void should_parse_the_datatables_1_10_parameters() {
+		request.addParameter(DTConstants.DT_DRAW, "4");
+		request.addParameter(DTConstants.DT_START, "20");
+		request.addParameter(DTConstants.DT_LENGTH, "10");
+		request.addParameter(DTConstants.DT_SEARCH_VALUE, "foo");
+		request.addParameter("search[regex]", "false");
+		request.addParameter("columns[0][data]", "id");
+		request.addParameter("columns[0][searchable]", "true");
+		request.addParameter("columns[0][orderable]", "true");
+		request.addParameter("columns[0][search][value]", "1~5");
+		request.addParameter("columns[1][data]", "");
+		request.addParameter("columns[1][name]", "firstName");
+		request.addParameter("columns[1][orderable]", "false");
+		request.addParameter("order[0][column]", "0");
+		request.addParameter("order[0][dir]", "desc");
+		request.addParameter("order[1][column]", "2");
+
+		DatatablesCriterias criterias = parser.parse(request);
+
+		assertThat(criterias.getProtocol()).isEqualTo(Protocol.V1_10);
+		assertThat(criterias.getInternalCounter()).isEqualTo(4);
+		assertThat(criterias.getDisplayStart()).isEqualTo(20);
+		assertThat(criterias.getDisplaySize()).isEqualTo(10);
+		assertThat(criterias.getSearch()).isEqualTo("foo");
+		assertThat(criterias.getColumnDefs()).hasSize(2);
+		ColumnDef id = criterias.getColumnDefs().get(0);
+		assertThat(id.getName()).isEqualTo("id");
+		assertThat(id.isFilterable()).isTrue();
+		assertThat(id.isSortable()).isTrue();
+		assertThat(id.getSearchFrom()).isEqualTo("1");
+		assertThat(id.getSearchTo()).isEqualTo("5");
+		assertThat(criterias.getColumnDefs().get(1).getName()).isEqualTo("firstName");
+		assertThat(criterias.getColumnDefs().get(1).isSortable()).isFalse();
+		assertThat(criterias.getSortingColumnDefs()).containsExactly(id);
+		assertThat(id.getSortDirection()).isEqualTo(SortDirection.DESC);
+	}
+
+	@Test
+	public void should_keep_the_legacy_protocol_without_draw() {
+		request.addParameter(DTConstants.DT_S_ECHO, "1");
+
+		assertThat(parser.parse(request).getProtocol()).isEqualTo(Protocol.LEGACY);
+	}
+
+	@Test(expected = InvalidCriteriasException.class)
+	public void should_reject_too_many_datatables_1_10_columns() {
+		request.addParameter(DTConstants.DT_DRAW, "1");
+		for (int i = 0; i < 4; i++) {
+			request.addParameter("columns[" + i + "][data]", "c" + i);
+		}
+
+		parser.parse(request);
+	}
+
+	@Test(expected = InvalidCriteriasException.class)
+	public void should_reject_too_many_datatables_1_10_orders() {
+		request.addParameter(DTConstants.DT_DRAW, "1");
+		request.addParameter("columns[0][data]", "id");
+		for (int i = 0; i < 4; i++) {
+			request.addParameter("order[" + i + "][column]", "0");
+		}
+
+		parser.parse(request);
+	}
+
+	@Test
+	public void should_parse_column_search_ranges() {
+		ColumnDef columnDef = new ColumnDef();
+		DatatablesCriteriasParser.parseColumnSearch("~~", columnDef);
+		assertThat(columnDef.getSearch()).isNull();
+		assertThat(columnDef.getSearchFrom()).isNull();
+		assertThat(columnDef.getSearchTo()).isNull();
+
+		columnDef = new ColumnDef();
+		DatatablesCriteriasParser.parseColumnSearch("10~20", columnDef);
+		assertThat(columnDef.getSearchFrom()).isEqualTo("10");
+		assertThat(columnDef.getSearchTo()).isEqualTo("20");
+
+		columnDef = new ColumnDef();
+		DatatablesCriteriasParser.parseColumnSearch("~", columnDef);
+		assertThat(columnDef.getSearch()).isEqualTo("");
+	}
+
+	@Test
+	public void should_parse_integers() {
+		assertThat(DatatablesCriteriasParser.parseInt("0")).isEqualTo(0);
+		assertThat(DatatablesCriteriasParser.parseInt("2147483647")).isEqualTo(Integer.MAX_VALUE);
+		assertThat(DatatablesCriteriasParser.parseInt("2147483648")).isEqualTo(-1);
+		assertThat(DatatablesCriteriasParser.parseInt("-3")).isEqualTo(-1);
+		assertThat(DatatablesCriteriasParser.parseInt("")).isEqualTo(-1);
+		assertThat(DatatablesCriteriasParser.parseInt(null)).isEqualTo(-1);
+	}
+}
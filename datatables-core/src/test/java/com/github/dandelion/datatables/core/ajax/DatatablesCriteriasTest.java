@@ -31,6 +31,8 @@ package com.github.dandelion.datatables.core.ajax;
 
 import static org.fest.assertions.Assertions.assertThat;
 
+import java.util.Collections;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -299,4 +301,22 @@ public class DatatablesCriteriasTest {
 		assertThat(criterias.getColumnDefs().get(0).getSearchFrom()).isNull();
 		assertThat(criterias.getColumnDefs().get(0).getSearchTo()).isNull();
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void should_parse_the_cursor_of_the_next_page() {
+		request.addParameter(DTConstants.DT_I_COLUMNS, "1");
+		request.addParameter(DTConstants.DT_I_DISPLAY_START, "10");
+		request.addParameter(DTConstants.DT_I_DISPLAY_LENGTH, "10");
+		request.addParameter(DTConstants.DT_M_DATA_PROP + 0, "prop1");
+		PageCursor cursor = PageCursor.create(10, DatatablesCriterias.getFromRequest(request),
+				Collections.singletonList("value"));
+		request.addParameter(DTConstants.DT_S_CURSOR, cursor.encode());
+
+		DatatablesCriterias criterias = DatatablesCriterias.getFromRequest(request);
+
+		assertThat(criterias.getCursor().getKeys()).containsExactly("value");
+
+		request.setParameter(DTConstants.DT_I_DISPLAY_START, "20");
+		assertThat(DatatablesCriterias.getFromRequest(request).getCursor()).isNull();
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias.Protocol;
+import com.github.dandelion.datatables.core.exception.InvalidCriteriasException;
+import com.github.dandelion.datatables.core.mock.Mock;
+import com.github.dandelion.datatables.core.mock.Person;
+
+/**
+ * Test the projection of the rows in the {@link DatatablesResponse}.
+ */
+public class DatatablesResponseTest {
+
+	private final DataSet<Person> dataSet = new DataSet<Person>(Mock.persons.subList(0, 2), 1000L, 2L);
+
+	@Test
+	public void should_keep_the_rows_without_projection() {
+		DatatablesResponse<Person> response = DatatablesResponse.build(dataSet, criterias("id"));
+
+		assertThat(response.getAaData()).isSameAs(dataSet.getRows());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void should_project_the_rows_on_the_requested_columns() {
+		DatatablesResponse<Object> response = DatatablesResponse.buildProjection(dataSet,
+				criterias("id", "address.town.name", "firstName", "address.street"), "id", "address.town.name",
+				"firstName", "address.street");
+
+		Map<String, Object> town = new LinkedHashMap<String, Object>();
+		town.put("name", "Denny");
+		Map<String, Object> address = new LinkedHashMap<String, Object>();
+		address.put("town", town);
+		address.put("street", "947-3605 Feugiat. St.");
+		Map<String, Object> expected = new LinkedHashMap<String, Object>();
+		expected.put("id", 2L);
+		expected.put("address", address);
+		expected.put("firstName", "Vanna");
+
+		assertThat(response.getAaData()).hasSize(2);
+		assertThat(response.getAaData().get(1)).isEqualTo(expected);
+		assertThat(new ArrayList<String>(((Map<String, Object>) response.getAaData().get(1)).keySet()))
+				.containsExactly("id", "address", "firstName");
+		assertThat(response.getiTotalRecords()).isEqualTo(1000L);
+		assertThat(response.getiTotalDisplayRecords()).isEqualTo(2L);
+		assertThat(response.getsEcho()).isEqualTo(5);
+	}
+
+	@Test
+	public void should_not_read_the_columns_that_are_not_allowed() {
+		DatatablesResponse<Object> response = DatatablesResponse.buildProjection(dataSet,
+				criterias("id", "class.classLoader", "address.town.name"), "id");
+
+		Map<String, Object> expected = new LinkedHashMap<String, Object>();
+		expected.put("id", 2L);
+		expected.put("class", Collections.singletonMap("classLoader", null));
+		expected.put("address", Collections.singletonMap("town", Collections.singletonMap("name", null)));
+		assertThat(response.getAaData().get(1)).isEqualTo(expected);
+	}
+
+	@Test
+	public void should_project_the_rows_on_lists_of_the_passed_paths() {
+		DatatablesResponse<Object> response = DatatablesResponse.build(dataSet, criterias("0", "1"),
+				"lastName", "address.town.name");
+
+		assertThat(response.getAaData()).containsExactly(Arrays.asList("Maldonado", null),
+				Arrays.asList("Salas", "Denny"));
+	}
+
+	@Test
+	public void should_project_array_rows_on_the_requested_indexes() {
+		List<Object[]> rows = new ArrayList<Object[]>();
+		rows.add(new Object[] { 1, "a", "b" });
+
+		DatatablesResponse<Object> response = DatatablesResponse.buildProjection(
+				new DataSet<Object[]>(rows, 1L, 1L), criterias("2", "0", null), "0", "2");
+
+		assertThat(response.getAaData()).containsExactly(Arrays.asList(1, null, "b"));
+	}
+
+	@Test(expected = InvalidCriteriasException.class)
+	public void should_reject_an_index_beyond_the_columns() {
+		ColumnProjection.of(criterias("0", "999999999"), "0", "999999999");
+	}
+
+	@Test
+	public void should_use_the_datatables_1_10_properties() {
+		DatatablesResponse<Person> response = DatatablesResponse.build(dataSet, criteriasV1_10("id"));
+
+		assertThat(response).isInstanceOf(DatatablesResponse.V1_10.class);
+		DatatablesResponse.V1_10<Person> v1_10 = (DatatablesResponse.V1_10<Person>) response;
+		assertThat(v1_10.getData()).isSameAs(dataSet.getRows());
+		assertThat(v1_10.getRecordsTotal()).isEqualTo(1000L);
+		assertThat(v1_10.getRecordsFiltered()).isEqualTo(2L);
+		assertThat(v1_10.getDraw()).isEqualTo(2);
+		assertThat(v1_10.getAaData()).isNull();
+		assertThat(v1_10.getiTotalRecords()).isEqualTo(1000L);
+		assertThat(v1_10.getiTotalDisplayRecords()).isEqualTo(2L);
+		assertThat(v1_10.getsEcho()).isEqualTo(2);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void should_serialize_the_same_counts_under_both_protocol_names() throws Exception {
+		List<Object[]> rows = new ArrayList<Object[]>();
+		rows.add(new Object[] { 1, "a" });
+		DataSet<Object[]> arrays = new DataSet<Object[]>(rows, 10L, 1L);
+		ObjectMapper mapper = new ObjectMapper();
+
+		Map<String, Object> legacy = mapper.readValue(
+				mapper.writeValueAsString(DatatablesResponse.buildProjection(arrays, criterias("0", "1"), "0", "1")), Map.class);
+		Map<String, Object> v1_10 = mapper.readValue(
+				mapper.writeValueAsString(DatatablesResponse.buildProjection(arrays, criteriasV1_10("0", "1"), "0", "1")),
+				Map.class);
+
+		assertThat(legacy.keySet()).containsOnly("aaData", "iTotalRecords", "iTotalDisplayRecords", "sEcho",
+				"sCursor");
+		assertThat(legacy.get("iTotalRecords")).isEqualTo(10);
+		assertThat(v1_10.get("recordsTotal")).isEqualTo(10);
+		assertThat(v1_10.get("iTotalRecords")).isEqualTo(v1_10.get("recordsTotal"));
+		assertThat(v1_10.get("iTotalDisplayRecords")).isEqualTo(v1_10.get("recordsFiltered"));
+		assertThat(v1_10.get("sEcho")).isEqualTo(v1_10.get("draw"));
+		assertThat(v1_10.get("aaData")).isNull();
+		assertThat(v1_10.get("data")).isEqualTo(Arrays.asList(Arrays.asList(1, "a")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_reject_blank_paths() {
+		ColumnProjection.ofPaths("id", " ");
+	}
+
+	private DatatablesCriterias criteriasV1_10(String... names) {
+		DatatablesCriterias legacy = criterias(names);
+		return new DatatablesCriterias(null, 0, 10, legacy.getColumnDefs(), legacy.getSortingColumnDefs(), 2, null,
+				Protocol.V1_10);
+	}
+
+	private DatatablesCriterias criterias(String... names) {
+		List<ColumnDef> columnDefs = new ArrayList<ColumnDef>();
+		for (String name : names) {
+			ColumnDef columnDef = new ColumnDef();
+			columnDef.setName(name);
+			columnDefs.add(columnDef);
+		}
+		return new DatatablesCriterias(null, 0, 10, columnDefs, new ArrayList<ColumnDef>(), 5);
+	}
+}
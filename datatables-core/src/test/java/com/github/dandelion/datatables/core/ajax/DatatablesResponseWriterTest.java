@@ -0,0 +1,200 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.simple.JSONValue;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias.Protocol;
+import com.github.dandelion.datatables.core.mock.Mock;
+import com.github.dandelion.datatables.core.mock.Person;
+import com.github.dandelion.datatables.core.mock.Town;
+
+/**
+ * Test the {@link DatatablesResponseWriter}.
+ */
+public class DatatablesResponseWriterTest {
+
+	@Test
+	public void should_write_the_requested_columns_only() throws Exception {
+		DataSet<Person> dataSet = new DataSet<Person>(Mock.persons.subList(0, 2), 1000L, 2L);
+		StringWriter writer = new StringWriter();
+
+		new DatatablesResponseWriter(criterias("id", "firstName", "address.town.name", "address.street", "", "id"),
+				"id", "firstName", "address.town.name", "address.street").write(dataSet, writer);
+
+		assertThat(writer.toString()).isEqualTo(
+				"{\"sEcho\":3,\"iTotalRecords\":1000,\"iTotalDisplayRecords\":2,\"aaData\":["
+						+ "{\"id\":1,\"firstName\":\"Selma\",\"address\":{\"town\":{\"name\":null},\"street\":null}},"
+						+ "{\"id\":2,\"firstName\":\"Vanna\",\"address\":{\"town\":{\"name\":\"Denny\"},"
+						+ "\"street\":\"947-3605 Feugiat. St.\"}}]}");
+	}
+
+	@Test
+	public void should_not_read_the_columns_that_are_not_allowed() throws Exception {
+		DataSet<Person> dataSet = new DataSet<Person>(Mock.persons.subList(1, 2), 1L, 1L);
+		StringWriter writer = new StringWriter();
+
+		new DatatablesResponseWriter(criterias("id", "class.name", "address.town.name"), "id").write(dataSet, writer);
+
+		assertThat(writer.toString()).endsWith(
+				"\"aaData\":[{\"id\":2,\"class\":{\"name\":null},\"address\":{\"town\":{\"name\":null}}}]}");
+	}
+
+	@Test
+	public void should_write_arrays_when_the_columns_are_indexes() throws Exception {
+		List<Object[]> rows = new ArrayList<Object[]>();
+		rows.add(new Object[] { 1, "a\"b", 2.5, true });
+		StringWriter writer = new StringWriter();
+
+		new DatatablesResponseWriter(criterias("0", "1", "3", null), "0", "1", "3").write(rows.iterator(), 1L, 1L,
+				null, writer);
+
+		assertThat(writer.toString()).endsWith("\"aaData\":[[1,\"a\\\"b\",null,true]]}");
+	}
+
+	@Test
+	public void should_write_the_whole_rows_when_no_column_is_requested() throws Exception {
+		Map<String, Object> row = new LinkedHashMap<String, Object>();
+		row.put("name", "Selma");
+		row.put("tags", Arrays.asList("a", "b"));
+		StringWriter writer = new StringWriter();
+
+		new DatatablesResponseWriter(criterias()).write(Collections.singletonList(row).iterator(), 1L, 1L, null,
+				writer);
+
+		assertThat(writer.toString()).endsWith("\"aaData\":[{\"name\":\"Selma\",\"tags\":[\"a\",\"b\"]}]}");
+	}
+
+	@Test
+	public void should_write_the_properties_of_the_beans_when_no_column_is_requested() throws Exception {
+		Town town = new Town("Paris");
+		town.setId(1L);
+		StringWriter writer = new StringWriter();
+
+		new DatatablesResponseWriter(criterias()).write(Collections.singletonList(town).iterator(), 1L, 1L, null,
+				writer);
+
+		assertThat(writer.toString()).endsWith("\"aaData\":[{\"id\":1,\"name\":\"Paris\",\"postcode\":null}]}");
+	}
+
+	@Test
+	public void should_write_the_elements_of_the_collections_as_json() throws Exception {
+		Town town = new Town("Paris");
+		Map<String, Object> row = new LinkedHashMap<String, Object>();
+		row.put("values", Arrays.asList(Protocol.V1_10, new Date(0L), town, Double.NaN,
+				Collections.singletonMap("a", new Object[] { "b\"", 1 })));
+		StringWriter writer = new StringWriter();
+
+		new DatatablesResponseWriter(criterias("values"), "values").write(Collections.singletonList(row).iterator(),
+				1L, 1L, null, writer);
+
+		String json = writer.toString();
+		assertThat(json).endsWith(
+				"\"aaData\":[{\"values\":[\"V1_10\",0,\"" + town + "\",null,{\"a\":[\"b\\\"\",1]}]}]}");
+		assertThat(JSONValue.parse(json)).isNotNull();
+	}
+
+	@Test
+	public void should_write_zero_when_the_echo_is_missing() throws Exception {
+		DatatablesCriterias criterias = new DatatablesCriterias(null, 0, 10, new ArrayList<ColumnDef>(),
+				new ArrayList<ColumnDef>(), null);
+		StringWriter writer = new StringWriter();
+
+		new DatatablesResponseWriter(criterias).write(new DataSet<Person>(new ArrayList<Person>(), 0L, 0L), writer);
+
+		assertThat(writer.toString()).startsWith("{\"sEcho\":0,");
+	}
+
+	@Test
+	public void should_write_the_cursor_and_encode_in_utf8() throws Exception {
+		DatatablesCriterias criterias = criterias("name");
+		Map<String, Object> row = Collections.<String, Object> singletonMap("name", "Château");
+		PageCursor cursor = PageCursor.create(10, criterias, Collections.singletonList("Château"));
+		DataSet<Map<String, Object>> dataSet = new DataSet<Map<String, Object>>(Collections.singletonList(row), 1L,
+				1L, cursor);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		new DatatablesResponseWriter(criterias, "name").write(dataSet, output);
+
+		assertThat(output.toString("UTF-8")).isEqualTo(
+				"{\"sEcho\":3,\"iTotalRecords\":1,\"iTotalDisplayRecords\":1,\"sCursor\":\"" + cursor.encode()
+						+ "\",\"aaData\":[{\"name\":\"Château\"}]}");
+	}
+
+	@Test
+	public void should_set_the_content_type_of_the_response() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		new DatatablesResponseWriter(criterias("id"), "id").write(
+				new DataSet<Person>(new ArrayList<Person>(), 0L, 0L), response);
+
+		assertThat(response.getContentType()).startsWith("application/json");
+		assertThat(response.getContentAsString()).isEqualTo(
+				"{\"sEcho\":3,\"iTotalRecords\":0,\"iTotalDisplayRecords\":0,\"aaData\":[]}");
+	}
+
+	@Test
+	public void should_write_the_datatables_1_10_form() throws Exception {
+		DatatablesCriterias legacy = criterias("id");
+		DatatablesCriterias criterias = new DatatablesCriterias(null, 0, 10, legacy.getColumnDefs(),
+				legacy.getSortingColumnDefs(), 7, null, Protocol.V1_10);
+		StringWriter writer = new StringWriter();
+
+		new DatatablesResponseWriter(criterias, "id").write(
+				new DataSet<Person>(Mock.persons.subList(0, 1), 50L, 1L), writer);
+
+		assertThat(writer.toString()).isEqualTo(
+				"{\"draw\":7,\"recordsTotal\":50,\"recordsFiltered\":1,\"data\":[{\"id\":1}]}");
+	}
+
+	private DatatablesCriterias criterias(String... names) {
+		List<ColumnDef> columnDefs = new ArrayList<ColumnDef>();
+		for (String name : names) {
+			ColumnDef columnDef = new ColumnDef();
+			columnDef.setName(name);
+			columnDefs.add(columnDef);
+		}
+		return new DatatablesCriterias(null, 0, 10, columnDefs, new ArrayList<ColumnDef>(), 3);
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.exception.DataSetProcessingException;
+import com.github.dandelion.datatables.core.mock.Mock;
+import com.github.dandelion.datatables.core.mock.Person;
+
+/**
+ * Test the {@link InMemoryQueryEngine}.
+ */
+public class InMemoryQueryEngineTest {
+
+	private InMemoryQueryEngine<Person> engine = new InMemoryQueryEngine<Person>();
+
+	@Test
+	public void should_return_a_page_of_unsorted_rows() {
+		DataSet<Person> dataSet = engine.query(Mock.persons, criterias(null, 10, 5, columns("id", "firstName")));
+
+		assertThat(dataSet.getRows()).isEqualTo(Mock.persons.subList(10, 15));
+		assertThat(dataSet.getTotalRecords()).isEqualTo(Mock.persons.size());
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(Mock.persons.size());
+	}
+
+	@Test
+	public void should_return_all_rows_when_no_page_size_is_requested() {
+		DataSet<Person> dataSet = engine.query(Mock.persons, criterias(null, 0, -1, columns("id")));
+
+		assertThat(dataSet.getRows()).isEqualTo(Mock.persons);
+	}
+
+	@Test
+	public void should_filter_using_the_global_search_on_filterable_columns() {
+		List<ColumnDef> columnDefs = columns("firstName", "lastName", "mail");
+		columnDefs.get(2).setFilterable(false);
+
+		// The mail of the person 16 contains "pena" but isn't filterable
+		DataSet<Person> dataSet = engine.query(Mock.persons.subList(0, 50), criterias("PENA", 0, 10, columnDefs));
+
+		assertThat(ids(dataSet.getRows())).containsExactly(14L, 17L);
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(2);
+		assertThat(dataSet.getTotalRecords()).isEqualTo(50);
+	}
+
+	@Test
+	public void should_filter_using_nested_properties_and_null_intermediate_values() {
+		List<ColumnDef> columnDefs = columns("id", "address.town.name");
+		columnDefs.get(1).setSearch("cambridge");
+
+		// The person 1 has no address
+		DataSet<Person> dataSet = engine.query(Mock.persons.subList(0, 50), criterias(null, 0, 10, columnDefs));
+
+		assertThat(ids(dataSet.getRows())).containsExactly(28L, 29L);
+	}
+
+	@Test
+	public void should_filter_using_a_numeric_range() {
+		List<ColumnDef> columnDefs = columns("id", "firstName");
+		columnDefs.get(0).setSearchFrom("5");
+		columnDefs.get(0).setSearchTo("7");
+
+		assertThat(ids(engine.query(Mock.persons, criterias(null, 0, 10, columnDefs)).getRows())).containsExactly(5L,
+				6L, 7L);
+
+		columnDefs.get(0).setSearchTo(null);
+		assertThat(engine.query(Mock.persons, criterias(null, 0, 10, columnDefs)).getTotalDisplayRecords()).isEqualTo(
+				Mock.persons.size() - 4);
+	}
+
+	@Test
+	public void should_filter_using_a_date_range() throws Exception {
+		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+		List<Person> persons = new ArrayList<Person>();
+		for (String birthDate : new String[] { "1999-12-31 23:00", "2000-01-01 10:00", "2000-01-31 18:00",
+				"2000-02-01 00:00" }) {
+			Person person = new Person();
+			person.setId((long) persons.size());
+			person.setBirthDate(format.parse(birthDate));
+			persons.add(person);
+		}
+		List<ColumnDef> columnDefs = columns("id", "birthDate");
+		columnDefs.get(1).setSearchFrom("2000-01-01");
+		columnDefs.get(1).setSearchTo("2000-01-31");
+
+		// Compared as strings, "Sat Jan 01 ..." wouldn't be within the bounds
+		assertThat(ids(engine.query(persons, criterias(null, 0, 10, columnDefs)).getRows())).containsExactly(1L, 2L);
+
+		columnDefs.get(1).setSearchFrom(String.valueOf(format.parse("2000-01-31 18:00").getTime()));
+		columnDefs.get(1).setSearchTo("2000-02-01T00:00:00");
+		assertThat(ids(engine.query(persons, criterias(null, 0, 10, columnDefs)).getRows())).containsExactly(2L, 3L);
+
+		columnDefs.get(1).setSearchTo("31/01/2000");
+		assertThat(engine.query(persons, criterias(null, 0, 10, columnDefs)).getRows()).isEmpty();
+	}
+
+	@Test
+	public void should_not_overflow_with_a_huge_page_size() {
+		DataSet<Person> dataSet = engine.query(Mock.persons,
+				criterias(null, 10, Integer.MAX_VALUE, columns("id", "firstName")));
+
+		assertThat(dataSet.getRows()).isEqualTo(Mock.persons.subList(10, Mock.persons.size()));
+	}
+
+	@Test
+	public void should_sort_and_page_like_a_full_sort() {
+		List<ColumnDef> columnDefs = columns("lastName", "firstName");
+		columnDefs.get(0).setSortDirection(SortDirection.DESC);
+		columnDefs.get(1).setSortDirection(SortDirection.ASC);
+
+		List<Person> expected = new ArrayList<Person>(Mock.persons);
+		Collections.sort(expected, new Comparator<Person>() {
+
+			@Override
+			public int compare(Person p1, Person p2) {
+				int result = p2.getLastName().compareToIgnoreCase(p1.getLastName());
+				return result != 0 ? result : p1.getFirstName().compareToIgnoreCase(p2.getFirstName());
+			}
+		});
+
+		DataSet<Person> dataSet = engine.query(Mock.persons,
+				criterias(null, 5, 10, columnDefs, columnDefs.get(0), columnDefs.get(1)));
+
+		assertThat(dataSet.getRows()).isEqualTo(expected.subList(5, 15));
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(Mock.persons.size());
+	}
+
+	@Test
+	public void should_keep_the_original_order_of_equal_rows() {
+		List<Object[]> rows = new ArrayList<Object[]>();
+		Random random = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			rows.add(new Object[] { random.nextInt(10), i });
+		}
+		List<ColumnDef> columnDefs = columns("0", "1");
+		columnDefs.get(0).setSortDirection(SortDirection.ASC);
+
+		List<Object[]> expected = new ArrayList<Object[]>(rows);
+		Collections.sort(expected, new Comparator<Object[]>() {
+
+			@Override
+			public int compare(Object[] row1, Object[] row2) {
+				return ((Integer) row1[0]).compareTo((Integer) row2[0]);
+			}
+		});
+
+		DataSet<Object[]> dataSet = new InMemoryQueryEngine<Object[]>().query(rows,
+				criterias(null, 90, 20, columnDefs, columnDefs.get(0)));
+
+		assertThat(dataSet.getRows()).isEqualTo(expected.subList(90, 110));
+	}
+
+	@Test
+	public void should_return_an_empty_page_after_the_last_row() {
+		List<ColumnDef> columnDefs = columns("id");
+		columnDefs.get(0).setSortDirection(SortDirection.ASC);
+
+		DataSet<Person> dataSet = engine.query(Mock.persons,
+				criterias(null, Mock.persons.size(), 10, columnDefs, columnDefs.get(0)));
+
+		assertThat(dataSet.getRows()).isEmpty();
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(Mock.persons.size());
+	}
+
+	@Test(expected = DataSetProcessingException.class)
+	public void should_throw_an_exception_when_a_column_is_unknown() {
+		List<ColumnDef> columnDefs = columns("unknownProperty");
+		columnDefs.get(0).setSearch("foo");
+
+		engine.query(Mock.persons, criterias(null, 0, 10, columnDefs));
+	}
+
+	@Test
+	public void should_return_the_same_results_in_parallel() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			InMemoryQueryEngine<Person> parallelEngine = new InMemoryQueryEngine<Person>(executor, 10, 7);
+
+			List<ColumnDef> columnDefs = columns("lastName", "firstName", "address.town.name");
+			assertSameResults(parallelEngine, criterias(null, 20, 10, columnDefs));
+			assertSameResults(parallelEngine, criterias("an", 3, 25, columnDefs));
+			assertSameResults(parallelEngine, criterias("an", 0, -1, columnDefs));
+
+			columnDefs.get(2).setSortDirection(SortDirection.DESC);
+			assertSameResults(parallelEngine, criterias(null, 40, 10, columnDefs, columnDefs.get(2)));
+			assertSameResults(parallelEngine, criterias("an", 0, 100, columnDefs, columnDefs.get(2)));
+			assertSameResults(parallelEngine, criterias("an", 5, -1, columnDefs, columnDefs.get(2)));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = DataSetProcessingException.class)
+	public void should_rethrow_the_exception_of_a_chunk() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<ColumnDef> columnDefs = columns("unknownProperty");
+			columnDefs.get(0).setSearch("foo");
+
+			new InMemoryQueryEngine<Person>(executor, 10, 2).query(Mock.persons, criterias(null, 0, 10, columnDefs));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	private void assertSameResults(InMemoryQueryEngine<Person> parallelEngine, DatatablesCriterias criterias) {
+		DataSet<Person> expected = engine.query(Mock.persons, criterias);
+		DataSet<Person> actual = parallelEngine.query(Mock.persons, criterias);
+
+		assertThat(actual.getRows()).isEqualTo(expected.getRows());
+		assertThat(actual.getTotalDisplayRecords()).isEqualTo(expected.getTotalDisplayRecords());
+		assertThat(actual.getTotalRecords()).isEqualTo(expected.getTotalRecords());
+	}
+
+	private List<ColumnDef> columns(String... names) {
+		List<ColumnDef> columnDefs = new ArrayList<ColumnDef>();
+		for (String name : names) {
+			ColumnDef columnDef = new ColumnDef();
+			columnDef.setName(name);
+			columnDef.setFilterable(true);
+			columnDef.setSortable(true);
+			columnDefs.add(columnDef);
+		}
+		return columnDefs;
+	}
+
+	private DatatablesCriterias criterias(String search, int start, int size, List<ColumnDef> columnDefs,
+			ColumnDef... sortingColumnDefs) {
+		return new DatatablesCriterias(search, start, size, columnDefs, Arrays.asList(sortingColumnDefs), 1);
+	}
+
+	private List<Long> ids(List<Person> persons) {
+		List<Long> ids = new ArrayList<Long>();
+		for (Person person : persons) {
+			ids.add(person.getId());
+		}
+		return ids;
+	}
+}
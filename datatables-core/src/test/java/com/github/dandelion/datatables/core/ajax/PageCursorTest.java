@@ -0,0 +1,119 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+
+/**
+ * Test the {@link PageCursor}.
+ */
+public class PageCursorTest {
+
+	private List<ColumnDef> columnDefs;
+	private DatatablesCriterias criterias;
+
+	@Before
+	public void createCriterias() {
+		columnDefs = new ArrayList<ColumnDef>();
+		for (String name : new String[] { "id", "name" }) {
+			ColumnDef columnDef = new ColumnDef();
+			columnDef.setName(name);
+			columnDef.setFilterable(true);
+			columnDefs.add(columnDef);
+		}
+		columnDefs.get(1).setSortDirection(SortDirection.DESC);
+		criterias = criterias("jo", 10);
+	}
+
+	@Test
+	public void should_decode_an_encoded_cursor() {
+		PageCursor cursor = PageCursor.create(20, criterias, Arrays.asList("a|b\\c", 42L, ""));
+
+		PageCursor decoded = PageCursor.decode(cursor.encode());
+
+		assertThat(decoded.getPosition()).isEqualTo(20);
+		assertThat(decoded.getKeys()).containsExactly("a|b\\c", "42", "");
+		assertThat(decoded.matches(criterias("jo", 20))).isTrue();
+	}
+
+	@Test
+	public void should_not_create_a_cursor_with_null_keys() {
+		assertThat(PageCursor.create(20, criterias, Arrays.asList("a", null))).isNull();
+	}
+
+	@Test
+	public void should_only_match_the_next_page_of_the_same_criterias() {
+		PageCursor cursor = PageCursor.create(20, criterias, Collections.singletonList("a"));
+
+		assertThat(cursor.matches(criterias("jo", 20))).isTrue();
+		assertThat(cursor.matches(criterias("jo", 30))).isFalse();
+		assertThat(cursor.matches(criterias("joe", 20))).isFalse();
+
+		columnDefs.get(1).setSortDirection(SortDirection.ASC);
+		assertThat(cursor.matches(criterias("jo", 20))).isFalse();
+	}
+
+	@Test
+	public void should_ignore_invalid_cursors() {
+		assertThat(PageCursor.decode(null)).isNull();
+		assertThat(PageCursor.decode("")).isNull();
+		assertThat(PageCursor.decode("20")).isNull();
+		assertThat(PageCursor.decode("abc|0|a")).isNull();
+		assertThat(PageCursor.decode("-1|0|a")).isNull();
+		assertThat(PageCursor.decode("20|0|a\\")).isNull();
+	}
+
+	@Test
+	public void should_drop_a_cursor_that_doesnt_apply_to_the_criterias() {
+		PageCursor cursor = PageCursor.create(20, criterias, Collections.singletonList("a"));
+
+		assertThat(new DatatablesCriterias("jo", 20, 10, columnDefs, sorting(), 1, cursor).getCursor()).isEqualTo(
+				cursor);
+		assertThat(new DatatablesCriterias("jo", 0, 10, columnDefs, sorting(), 1, cursor).getCursor()).isNull();
+	}
+
+	private DatatablesCriterias criterias(String search, int start) {
+		return new DatatablesCriterias(search, start, 10, columnDefs, sorting(), 1);
+	}
+
+	private List<ColumnDef> sorting() {
+		return Collections.singletonList(columnDefs.get(1));
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.cache;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.ajax.DataSet;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias.Protocol;
+
+/**
+ * Test the {@link CachedDataSetProvider}.
+ */
+public class CachedDataSetProviderTest {
+
+	private int calls;
+
+	private final DataSetProvider<String> provider = new DataSetProvider<String>() {
+		@Override
+		public DataSet<String> getDataSet(DatatablesCriterias criterias) {
+			calls++;
+			return new DataSet<String>(Collections.singletonList("row" + calls), 1L, 1L);
+		}
+	};
+
+	@Test
+	public void should_read_the_same_page_from_the_cache() {
+		CachedDataSetProvider<String> cached = new CachedDataSetProvider<String>("persons", provider);
+
+		DataSet<String> dataSet = cached.getDataSet(criterias(0, 1));
+
+		assertThat(cached.getDataSet(criterias(0, 2))).isSameAs(dataSet);
+		assertThat(cached.getDataSet(criterias(10, 3))).isNotSameAs(dataSet);
+		assertThat(cached.getDataSet(criterias(0, 4))).isSameAs(dataSet);
+		assertThat(calls).isEqualTo(2);
+		assertThat(cached.getHitCount()).isEqualTo(2);
+		assertThat(cached.getMissCount()).isEqualTo(2);
+
+		cached.resetCounts();
+		assertThat(cached.getHitCount()).isEqualTo(0);
+		assertThat(cached.getMissCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void should_produce_the_page_again_after_invalidation() {
+		LruDataSetCache cache = new LruDataSetCache();
+		CachedDataSetProvider<String> persons = new CachedDataSetProvider<String>("persons", provider, cache);
+		CachedDataSetProvider<String> towns = new CachedDataSetProvider<String>("towns", provider, cache);
+		persons.getDataSet(criterias(0, 1));
+		towns.getDataSet(criterias(0, 1));
+
+		persons.invalidate();
+
+		assertThat(persons.getDataSet(criterias(0, 2)).getRows()).containsExactly("row3");
+		assertThat(towns.getDataSet(criterias(0, 2)).getRows()).containsExactly("row2");
+		assertThat(calls).isEqualTo(3);
+	}
+
+	@Test
+	public void should_not_cache_a_page_produced_while_invalidating() {
+		LruDataSetCache cache = new LruDataSetCache();
+		final List<CachedDataSetProvider<String>> persons = new ArrayList<CachedDataSetProvider<String>>();
+		persons.add(new CachedDataSetProvider<String>("persons", new DataSetProvider<String>() {
+			@Override
+			public DataSet<String> getDataSet(DatatablesCriterias criterias) {
+				DataSet<String> dataSet = provider.getDataSet(criterias);
+				// The rows change while the first page is produced
+				if (calls == 1) {
+					persons.get(0).invalidate();
+				}
+				return dataSet;
+			}
+		}, cache));
+
+		persons.get(0).getDataSet(criterias(0, 1));
+		assertThat(cache.size()).isEqualTo(0);
+
+		persons.get(0).getDataSet(criterias(0, 2));
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_reject_null_table_id() {
+		new CachedDataSetProvider<String>(null, provider);
+	}
+
+	private static DatatablesCriterias criterias(int displayStart, int echo) {
+		return CriteriasKeyTest.criterias("foo", displayStart, echo, "a", SortDirection.ASC, Protocol.LEGACY);
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.cache;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef;
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias.Protocol;
+
+/**
+ * Test the {@link CriteriasKey}.
+ */
+public class CriteriasKeyTest {
+
+	@Test
+	public void should_ignore_the_draw_counter_and_the_protocol() {
+		CriteriasKey key = CriteriasKey.of(criterias("foo", 0, 1, "a", SortDirection.ASC, Protocol.LEGACY));
+		CriteriasKey other = CriteriasKey.of(criterias("foo", 0, 2, "a", SortDirection.ASC, Protocol.V1_10));
+
+		assertThat(key).isEqualTo(other);
+		assertThat(key.hashCode()).isEqualTo(other.hashCode());
+	}
+
+	@Test
+	public void should_differ_by_search_paging_and_sort() {
+		CriteriasKey key = CriteriasKey.of(criterias("foo", 0, 1, "a", SortDirection.ASC, Protocol.LEGACY));
+
+		assertThat(key).isNotEqualTo(CriteriasKey.of(criterias("bar", 0, 1, "a", SortDirection.ASC, Protocol.LEGACY)));
+		assertThat(key).isNotEqualTo(CriteriasKey.of(criterias("foo", 10, 1, "a", SortDirection.ASC, Protocol.LEGACY)));
+		assertThat(key).isNotEqualTo(CriteriasKey.of(criterias("foo", 0, 1, "a", SortDirection.DESC, Protocol.LEGACY)));
+		assertThat(key).isNotEqualTo(CriteriasKey.of(criterias("foo", 0, 1, "b", SortDirection.ASC, Protocol.LEGACY)));
+		assertThat(key).isNotEqualTo(CriteriasKey.of(criterias("foo", 0, 1, "a", null, Protocol.LEGACY)));
+	}
+
+	@Test
+	public void should_differ_by_column_search() {
+		DatatablesCriterias criterias = criterias(null, 0, 1, "a", null, Protocol.LEGACY);
+		CriteriasKey key = CriteriasKey.of(criterias);
+
+		criterias.getColumnDefs().get(0).setSearchFrom("10");
+
+		assertThat(CriteriasKey.of(criterias)).isNotEqualTo(key);
+	}
+
+	static DatatablesCriterias criterias(String search, int displayStart, int echo, String sortedColumn,
+			SortDirection sortDirection, Protocol protocol) {
+		List<ColumnDef> columnDefs = new ArrayList<ColumnDef>();
+		List<ColumnDef> sortingColumnDefs = new ArrayList<ColumnDef>();
+		for (String name : new String[] { "a", "b" }) {
+			ColumnDef columnDef = new ColumnDef();
+			columnDef.setName(name);
+			columnDef.setFilterable(true);
+			if (sortDirection != null && name.equals(sortedColumn)) {
+				columnDef.setSortDirection(sortDirection);
+				sortingColumnDefs.add(columnDef);
+			}
+			columnDefs.add(columnDef);
+		}
+		return new DatatablesCriterias(search, displayStart, 10, columnDefs, sortingColumnDefs, echo, null, protocol);
+	}
+}
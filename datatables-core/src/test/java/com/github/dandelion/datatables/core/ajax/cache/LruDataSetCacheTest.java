@@ -0,0 +1,110 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.cache;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.ajax.DataSet;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias.Protocol;
+
+/**
+ * Test the {@link LruDataSetCache}.
+ */
+public class LruDataSetCacheTest {
+
+	private long now;
+	private LruDataSetCache cache;
+
+	@Before
+	public void setup() {
+		cache = new LruDataSetCache(10, TimeUnit.NANOSECONDS, 2) {
+			@Override
+			long currentTime() {
+				return now;
+			}
+		};
+	}
+
+	@Test
+	public void should_expire_the_data_sets() {
+		DataSet<String> dataSet = dataSet();
+		cache.put("persons", key(0), dataSet);
+
+		now = 9;
+		assertThat(cache.get("persons", key(0))).isSameAs(dataSet);
+		now = 10;
+		assertThat(cache.get("persons", key(0))).isNull();
+		assertThat(cache.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void should_evict_the_least_recently_used_data_set() {
+		cache.put("persons", key(0), dataSet());
+		cache.put("persons", key(10), dataSet());
+		cache.get("persons", key(0));
+
+		cache.put("persons", key(20), dataSet());
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.get("persons", key(0))).isNotNull();
+		assertThat(cache.get("persons", key(10))).isNull();
+		assertThat(cache.get("persons", key(20))).isNotNull();
+	}
+
+	@Test
+	public void should_invalidate_a_single_table() {
+		cache.put("persons", key(0), dataSet());
+		cache.put("towns", key(0), dataSet());
+
+		cache.invalidate("persons");
+
+		assertThat(cache.get("persons", key(0))).isNull();
+		assertThat(cache.get("towns", key(0))).isNotNull();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_reject_non_positive_maximum_size() {
+		new LruDataSetCache(10, TimeUnit.SECONDS, 0);
+	}
+
+	private static CriteriasKey key(int displayStart) {
+		return CriteriasKey.of(CriteriasKeyTest.criterias(null, displayStart, 1, null, null, Protocol.LEGACY));
+	}
+
+	private static DataSet<String> dataSet() {
+		return new DataSet<String>(Collections.singletonList("row"), 1L, 1L);
+	}
+}
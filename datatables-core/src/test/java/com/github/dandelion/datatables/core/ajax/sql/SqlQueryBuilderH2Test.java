@@ -0,0 +1,186 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.sql;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef;
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.ajax.DataSet;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
+import com.github.dandelion.datatables.core.ajax.PageCursor;
+
+/**
+ * Test the {@link SqlQueryBuilder} against an embedded H2 database.
+ * <p>
+ * The tests run on H2 1.3, which still supports Java 6 but not window
+ * functions, hence the {@link SqlDialect#HSQLDB} dialect.
+ */
+public class SqlQueryBuilderH2Test {
+
+	private Connection connection;
+	private List<ColumnDef> columnDefs;
+
+	@Before
+	public void createDatabase() throws SQLException {
+		connection = DriverManager.getConnection("jdbc:h2:mem:datatables");
+		Statement statement = connection.createStatement();
+		statement.execute("CREATE TABLE person (id BIGINT PRIMARY KEY, first_name VARCHAR(50), birth_date DATE)");
+		statement.execute("INSERT INTO person VALUES (1, 'Anna', DATE '1980-03-01'), (2, 'Paul', DATE '1975-07-12'),"
+				+ " (3, 'Joanna', DATE '1990-11-23'), (4, 'John', DATE '1985-01-30'), (5, '50%_Off', NULL)");
+		statement.close();
+
+		columnDefs = new ArrayList<ColumnDef>();
+		for (String name : new String[] { "id", "firstName", "birthDate" }) {
+			ColumnDef columnDef = new ColumnDef();
+			columnDef.setName(name);
+			columnDef.setFilterable(true);
+			columnDefs.add(columnDef);
+		}
+	}
+
+	@After
+	public void dropDatabase() throws SQLException {
+		connection.close();
+	}
+
+	@Test
+	public void should_fetch_a_filtered_and_sorted_page() {
+		columnDefs.get(1).setSortDirection(SortDirection.DESC);
+
+		DataSet<String> dataSet = builder(SqlDialect.HSQLDB).fetch(connection, criterias("n", 1, 2, columnDefs.get(1)),
+				new NameMapper());
+
+		assertThat(dataSet.getRows()).containsExactly("Joanna", "Anna");
+		assertThat(dataSet.getTotalRecords()).isEqualTo(5L);
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(3L);
+	}
+
+	@Test
+	public void should_count_the_filtered_rows_separately_without_window_functions() {
+		columnDefs.get(0).setSortDirection(SortDirection.ASC);
+		columnDefs.get(2).setSearchFrom("1980-01-01");
+
+		DataSet<String> dataSet = builder(SqlDialect.HSQLDB).fetch(connection,
+				criterias(null, 0, 2, columnDefs.get(0)), new NameMapper());
+
+		assertThat(dataSet.getRows()).containsExactly("Anna", "Joanna");
+		assertThat(dataSet.getTotalRecords()).isEqualTo(5L);
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(3L);
+	}
+
+	@Test
+	public void should_include_the_whole_day_of_a_date_only_upper_bound() {
+		columnDefs.get(0).setSortDirection(SortDirection.ASC);
+		columnDefs.get(2).setSearchFrom(String.valueOf(Date.valueOf("1980-03-01").getTime()));
+		columnDefs.get(2).setSearchTo("1985-01-30");
+
+		DataSet<String> dataSet = builder(SqlDialect.HSQLDB).fetch(connection, criterias(null, 0, 10, columnDefs.get(0)),
+				new NameMapper());
+
+		assertThat(dataSet.getRows()).containsExactly("Anna", "John");
+	}
+
+	@Test
+	public void should_escape_the_wildcards_of_the_search() {
+		DataSet<String> dataSet = builder(SqlDialect.HSQLDB).fetch(connection, criterias("%_o", 0, 10), new NameMapper());
+
+		assertThat(dataSet.getRows()).containsExactly("50%_Off");
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(1L);
+	}
+
+	@Test
+	public void should_return_an_empty_page_when_a_value_cant_be_converted() {
+		columnDefs.get(0).setSearch("abc");
+
+		DataSet<String> dataSet = builder(SqlDialect.HSQLDB).fetch(connection, criterias(null, 0, 10), new NameMapper());
+
+		assertThat(dataSet.getRows()).isEmpty();
+		assertThat(dataSet.getTotalRecords()).isEqualTo(5L);
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(0L);
+	}
+
+	@Test
+	public void should_seek_the_next_pages_using_the_cursors() throws SQLException {
+		Statement statement = connection.createStatement();
+		statement.execute("INSERT INTO person VALUES (6, 'Anna', DATE '1970-05-05')");
+		statement.close();
+		columnDefs.get(1).setSortDirection(SortDirection.DESC);
+		SqlQueryBuilder builder = builder(SqlDialect.HSQLDB).uniqueKey("id");
+
+		List<String> names = new ArrayList<String>();
+		PageCursor cursor = null;
+		for (int start = 0; start < 6; start += 2) {
+			DatatablesCriterias criterias = new DatatablesCriterias(null, start, 2, columnDefs,
+					Arrays.asList(columnDefs.get(1)), 1, cursor);
+			assertThat(criterias.getCursor() != null).isEqualTo(start > 0);
+
+			DataSet<String> dataSet = builder.fetch(connection, criterias, new NameMapper());
+			assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(6L);
+			names.addAll(dataSet.getRows());
+			cursor = PageCursor.decode(dataSet.getCursor().encode());
+		}
+
+		assertThat(names).containsExactly("Paul", "John", "Joanna", "Anna", "Anna", "50%_Off");
+		assertThat(cursor.getPosition()).isEqualTo(6);
+	}
+
+	private SqlQueryBuilder builder(SqlDialect dialect) {
+		return new SqlQueryBuilder(dialect).select("p.id, p.first_name").from("person p")
+				.column("id", "p.id", Long.class).column("firstName", "p.first_name")
+				.column("birthDate", "p.birth_date", Date.class);
+	}
+
+	private DatatablesCriterias criterias(String search, int start, int size, ColumnDef... sortingColumnDefs) {
+		return new DatatablesCriterias(search, start, size, columnDefs, Arrays.asList(sortingColumnDefs), 1);
+	}
+
+	private static class NameMapper implements RowMapper<String> {
+
+		@Override
+		public String mapRow(ResultSet resultSet) throws SQLException {
+			return resultSet.getString(2);
+		}
+	}
+}
@@ -0,0 +1,375 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.ajax.sql;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef;
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.ajax.DataSet;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
+import com.github.dandelion.datatables.core.ajax.PageCursor;
+
+/**
+ * Test the {@link SqlQueryBuilder}.
+ */
+public class SqlQueryBuilderTest {
+
+	private SqlQueryBuilder builder;
+	private List<ColumnDef> columnDefs;
+
+	@Before
+	public void createBuilder() {
+		builder = new SqlQueryBuilder(SqlDialect.H2).select("p.id, p.first_name").from("person p")
+				.column("id", "p.id", Long.class).column("firstName", "p.first_name")
+				.column("birthDate", "p.birth_date", Date.class);
+		columnDefs = columns("id", "firstName", "birthDate", "unmapped");
+	}
+
+	@Test
+	public void should_build_a_page_query_without_criterias() {
+		SqlQuery query = builder.buildPageQuery(criterias(null, 20, 10));
+
+		assertThat(query.getSql()).isEqualTo(
+				"SELECT p.id, p.first_name, COUNT(*) OVER () AS dt_filtered_count FROM person p LIMIT ? OFFSET ?");
+		assertThat(query.getParameters()).containsExactly(10, 20);
+	}
+
+	@Test
+	public void should_not_page_when_all_rows_are_requested() {
+		SqlQuery query = builder.buildPageQuery(criterias(null, 0, -1));
+
+		assertThat(query.getSql()).doesNotContain("LIMIT");
+		assertThat(query.getParameters()).isEmpty();
+	}
+
+	@Test
+	public void should_apply_the_global_search_to_filterable_string_columns_only() {
+		columnDefs.get(3).setSearch("ignored");
+		SqlQuery query = builder.where("p.active = ?", true).buildFilteredCountQuery(criterias("50%_Off", 0, 10));
+
+		assertThat(query.getSql()).isEqualTo(
+				"SELECT COUNT(*) FROM person p WHERE (p.active = ?) AND (LOWER(p.first_name) LIKE ? ESCAPE '!')");
+		assertThat(query.getParameters()).containsExactly(true, "%50!%!_off%");
+	}
+
+	@Test
+	public void should_convert_column_searches_to_the_column_type() {
+		columnDefs.get(0).setSearch("42");
+		columnDefs.get(1).setSearch("Jo");
+		columnDefs.get(2).setSearchFrom("2013-01-01");
+		columnDefs.get(2).setSearchTo("2013-12-31");
+
+		SqlQuery query = builder.buildFilteredCountQuery(criterias(null, 0, 10));
+
+		assertThat(query.getSql()).isEqualTo(
+				"SELECT COUNT(*) FROM person p WHERE p.id = ? AND LOWER(p.first_name) LIKE ? ESCAPE '!'"
+						+ " AND p.birth_date >= ? AND p.birth_date < ?");
+		assertThat(query.getParameters()).containsExactly(42L, "%jo%", Date.valueOf("2013-01-01"),
+				Date.valueOf("2014-01-01"));
+	}
+
+	@Test
+	public void should_match_no_row_when_a_value_cant_be_converted() {
+		columnDefs.get(0).setSearchFrom("abc");
+
+		SqlQuery query = builder.buildFilteredCountQuery(criterias(null, 0, 10));
+
+		assertThat(query.getSql()).isEqualTo("SELECT COUNT(*) FROM person p WHERE 1 = 0");
+		assertThat(query.getParameters()).isEmpty();
+	}
+
+	@Test
+	public void should_sort_using_the_mapped_columns_only() {
+		columnDefs.get(1).setSortDirection(SortDirection.DESC);
+		columnDefs.get(0).setSortDirection(SortDirection.ASC);
+
+		SqlQuery query = builder.buildPageQuery(criterias(null, 0, 10, columnDefs.get(1), columnDefs.get(3),
+				columnDefs.get(0)));
+
+		assertThat(query.getSql()).endsWith(" FROM person p ORDER BY p.first_name DESC, p.id ASC LIMIT ? OFFSET ?");
+	}
+
+	@Test
+	public void should_use_the_paging_syntax_of_the_dialect() {
+		SqlQuery query = new SqlQueryBuilder(SqlDialect.SQLSERVER).from("person").buildPageQuery(
+				criterias(null, 20, 10));
+
+		assertThat(query.getSql()).isEqualTo(
+				"SELECT *, COUNT(*) OVER () AS dt_filtered_count FROM person ORDER BY (SELECT NULL)"
+						+ " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+		assertThat(query.getParameters()).containsExactly(20, 10);
+
+		query = new SqlQueryBuilder(SqlDialect.MYSQL).from("person").buildPageQuery(criterias(null, 20, 10));
+
+		assertThat(query.getSql()).isEqualTo("SELECT * FROM person LIMIT ? OFFSET ?");
+	}
+
+	@Test
+	public void should_only_count_in_the_page_query_with_a_qualified_select_for_oracle() {
+		SqlQuery query = new SqlQueryBuilder(SqlDialect.ORACLE).from("person").buildPageQuery(
+				criterias(null, 20, 10));
+
+		assertThat(query.getSql()).isEqualTo("SELECT * FROM person OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+		assertThat(query.getParameters()).containsExactly(20, 10);
+
+		query = new SqlQueryBuilder(SqlDialect.ORACLE).select("p.*").from("person p").buildPageQuery(
+				criterias(null, 20, 10));
+
+		assertThat(query.getSql()).isEqualTo(
+				"SELECT p.*, COUNT(*) OVER () AS dt_filtered_count FROM person p OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void should_reject_a_unique_key_with_an_unqualified_select_for_oracle() {
+		new SqlQueryBuilder(SqlDialect.ORACLE).from("person p").column("id", "p.id", Long.class).uniqueKey("id")
+				.buildPageQuery(criterias(null, 0, 10));
+	}
+
+	@Test
+	public void should_select_the_sort_keys_when_a_unique_key_is_set() {
+		SqlQuery query = builder.uniqueKey("id").buildPageQuery(criterias(null, 20, 10));
+
+		assertThat(query.getSql()).isEqualTo(
+				"SELECT p.id, p.first_name, COUNT(*) OVER () AS dt_filtered_count, p.id AS dt_sort_key_0"
+						+ " FROM person p ORDER BY p.id ASC LIMIT ? OFFSET ?");
+		assertThat(query.getParameters()).containsExactly(10, 20);
+	}
+
+	@Test
+	public void should_seek_the_page_following_the_cursor() {
+		columnDefs.get(1).setSortDirection(SortDirection.DESC);
+		DatatablesCriterias previous = criterias(null, 10, 10, columnDefs.get(1));
+		PageCursor cursor = PageCursor.create(20, previous, Arrays.asList("Jo", 42L));
+
+		SqlQuery query = builder.uniqueKey("id").buildPageQuery(
+				new DatatablesCriterias(null, 20, 10, columnDefs, Arrays.asList(columnDefs.get(1)), 2, cursor));
+
+		assertThat(query.getSql()).isEqualTo(
+				"SELECT p.id, p.first_name, p.first_name AS dt_sort_key_0, p.id AS dt_sort_key_1 FROM person p"
+						+ " WHERE ((p.first_name < ?) OR (p.first_name = ? AND p.id > ?))"
+						+ " ORDER BY p.first_name DESC, p.id ASC LIMIT ? OFFSET ?");
+		assertThat(query.getParameters()).containsExactly("Jo", "Jo", 42L, 10, 0);
+	}
+
+	@Test
+	public void should_use_the_offset_when_the_cursor_keys_cant_be_converted() {
+		PageCursor cursor = PageCursor.create(20, criterias(null, 10, 10), Arrays.asList("abc"));
+
+		SqlQuery query = builder.uniqueKey("id").buildPageQuery(
+				new DatatablesCriterias(null, 20, 10, columnDefs, new ArrayList<ColumnDef>(), 2, cursor));
+
+		assertThat(query.getSql()).doesNotContain("WHERE");
+		assertThat(query.getParameters()).containsExactly(10, 20);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_reject_an_unmapped_unique_key() {
+		builder.uniqueKey("unmapped");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_reject_unsupported_column_types() {
+		builder.column("address", "p.address", Object.class);
+	}
+
+	@Test
+	public void should_read_the_filtered_count_from_the_page_query() {
+		columnDefs.get(1).setSearch("a");
+		FakeDatabase database = new FakeDatabase();
+		database.addResult(new Object[] { 100L });
+		database.addResult(new Object[] { 1L, "Anna", 42L }, new Object[] { 2L, "Paul", 42L });
+
+		DataSet<String> dataSet = builder.fetch(database.getConnection(), criterias(null, 0, 2), new NameMapper());
+
+		assertThat(dataSet.getRows()).containsExactly("Anna", "Paul");
+		assertThat(dataSet.getTotalRecords()).isEqualTo(100L);
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(42L);
+		assertThat(database.getExecutedQueries()).hasSize(2);
+		assertThat(database.getBoundParameters().get(1)).containsExactly("%a%", 2, 0);
+	}
+
+	@Test
+	public void should_query_the_filtered_count_when_window_functions_are_not_supported() {
+		columnDefs.get(1).setSearch("a");
+		FakeDatabase database = new FakeDatabase();
+		database.addResult(new Object[] { 100L });
+		database.addResult(new Object[] { 1L, "Anna" });
+		database.addResult(new Object[] { 42L });
+
+		DataSet<String> dataSet = new SqlQueryBuilder(SqlDialect.HSQLDB).from("person p")
+				.column("firstName", "p.first_name").fetch(database.getConnection(), criterias(null, 0, 1),
+						new NameMapper());
+
+		assertThat(dataSet.getRows()).containsExactly("Anna");
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(42L);
+		assertThat(database.getExecutedQueries().get(2)).isEqualTo(
+				"SELECT COUNT(*) FROM person p WHERE LOWER(p.first_name) LIKE ? ESCAPE '!'");
+	}
+
+	@Test
+	public void should_not_count_again_without_filters() {
+		FakeDatabase database = new FakeDatabase();
+		database.addResult(new Object[] { 100L });
+		database.addResult(new Object[] { 1L, "Anna" });
+
+		DataSet<String> dataSet = new SqlQueryBuilder(SqlDialect.MYSQL).from("person p")
+				.column("firstName", "p.first_name").fetch(database.getConnection(), criterias(null, 0, 1),
+						new NameMapper());
+
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(100L);
+		assertThat(database.getExecutedQueries()).hasSize(2);
+	}
+
+	private List<ColumnDef> columns(String... names) {
+		List<ColumnDef> columnDefs = new ArrayList<ColumnDef>();
+		for (String name : names) {
+			ColumnDef columnDef = new ColumnDef();
+			columnDef.setName(name);
+			columnDef.setFilterable(true);
+			columnDefs.add(columnDef);
+		}
+		return columnDefs;
+	}
+
+	private DatatablesCriterias criterias(String search, int start, int size, ColumnDef... sortingColumnDefs) {
+		return new DatatablesCriterias(search, start, size, columnDefs, Arrays.asList(sortingColumnDefs), 1);
+	}
+
+	private static class NameMapper implements RowMapper<String> {
+
+		@Override
+		public String mapRow(ResultSet resultSet) throws SQLException {
+			return resultSet.getString(2);
+		}
+	}
+
+	/**
+	 * Minimal JDBC stub returning the registered results in order. The third
+	 * column of the rows, if any, is returned as the filtered count.
+	 */
+	private static class FakeDatabase {
+
+		private final List<List<Object[]>> results = new ArrayList<List<Object[]>>();
+		private final List<String> executedQueries = new ArrayList<String>();
+		private final List<List<Object>> boundParameters = new ArrayList<List<Object>>();
+
+		void addResult(Object[]... rows) {
+			results.add(Arrays.asList(rows));
+		}
+
+		List<String> getExecutedQueries() {
+			return executedQueries;
+		}
+
+		List<List<Object>> getBoundParameters() {
+			return boundParameters;
+		}
+
+		Connection getConnection() {
+			return proxy(Connection.class, new InvocationHandler() {
+
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					if (method.getName().equals("prepareStatement")) {
+						return prepareStatement((String) args[0]);
+					}
+					return null;
+				}
+			});
+		}
+
+		private PreparedStatement prepareStatement(final String sql) {
+			final List<Object> parameters = new ArrayList<Object>();
+			return proxy(PreparedStatement.class, new InvocationHandler() {
+
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					if (method.getName().equals("setObject")) {
+						parameters.add(args[1]);
+					}
+					else if (method.getName().equals("executeQuery")) {
+						executedQueries.add(sql);
+						boundParameters.add(parameters);
+						return resultSet(results.get(executedQueries.size() - 1).iterator());
+					}
+					return null;
+				}
+			});
+		}
+
+		private ResultSet resultSet(final Iterator<Object[]> rows) {
+			return proxy(ResultSet.class, new InvocationHandler() {
+
+				private Object[] current;
+
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if (name.equals("next")) {
+						current = rows.hasNext() ? rows.next() : null;
+						return current != null;
+					}
+					if (name.equals("getLong") && args[0] instanceof String) {
+						return current[2];
+					}
+					if (name.equals("getLong")) {
+						return current[(Integer) args[0] - 1];
+					}
+					if (name.equals("getString")) {
+						return current[(Integer) args[0] - 1];
+					}
+					return null;
+				}
+			});
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+			return (T) Proxy.newProxyInstance(FakeDatabase.class.getClassLoader(), new Class<?>[] { type }, handler);
+		}
+	}
+}
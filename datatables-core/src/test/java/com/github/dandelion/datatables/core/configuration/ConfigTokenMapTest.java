@@ -0,0 +1,191 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.configuration;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link ConfigTokenMap}, alone and layered on top of a prototype.
+ */
+public class ConfigTokenMapTest {
+
+	private ConfigTokenMap prototype;
+	private ConfigTokenMap overlay;
+
+	@Before
+	public void setup() {
+		Map<ConfigToken<?>, Object> map = new HashMap<ConfigToken<?>, Object>();
+		map.put(TableConfig.FEATURE_INFO, "true");
+		map.put(TableConfig.FEATURE_PAGEABLE, "false");
+		prototype = ConfigTokenMap.unmodifiableCopyOf(map);
+		overlay = ConfigTokenMap.overlayOf(prototype);
+	}
+
+	@Test
+	public void should_assign_distinct_ordinals_to_tokens() {
+		assertThat(TableConfig.FEATURE_INFO.ordinal()).isNotEqualTo(TableConfig.FEATURE_PAGEABLE.ordinal());
+		assertThat(ColumnConfig.TITLE.getFamily().get(ColumnConfig.TITLE.ordinal())).isSameAs(ColumnConfig.TITLE);
+	}
+
+	@Test
+	public void should_give_each_family_its_own_ordinals() {
+		assertThat(TableConfig.FEATURE_INFO.getFamily()).isSameAs(ConfigToken.Family.TABLE);
+		assertThat(ColumnConfig.TITLE.getFamily()).isSameAs(ConfigToken.Family.COLUMN);
+
+		for (int i = 0; i < ConfigToken.Family.COLUMN.size(); i++) {
+			assertThat(ConfigToken.Family.COLUMN.get(i).ordinal()).isEqualTo(i);
+		}
+		assertThat(ColumnConfig.TITLE.ordinal()).isLessThan(ConfigToken.Family.COLUMN.size());
+	}
+
+	@Test
+	public void should_ignore_the_tokens_of_another_family() {
+		ConfigTokenMap map = new ConfigTokenMap();
+		map.put(ColumnConfig.TITLE, "title");
+
+		assertThat(map.containsKey(TableConfig.FEATURE_INFO)).isFalse();
+		assertThat(map.get(TableConfig.FEATURE_INFO)).isNull();
+		assertThat(overlay.containsKey(ColumnConfig.TITLE)).isFalse();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_not_mix_families() {
+		ConfigTokenMap map = new ConfigTokenMap();
+		map.put(ColumnConfig.TITLE, "title");
+		map.put(TableConfig.FEATURE_INFO, "true");
+	}
+
+	@Test
+	public void should_behave_like_a_map() {
+		ConfigTokenMap map = new ConfigTokenMap();
+		map.put(ColumnConfig.TITLE, "title");
+		map.put(ColumnConfig.CSSCLASS, null);
+
+		assertThat(map.get(ColumnConfig.TITLE)).isEqualTo("title");
+		assertThat(map.containsKey(ColumnConfig.CSSCLASS)).isTrue();
+		assertThat(map.get(ColumnConfig.CSSCLASS)).isNull();
+		assertThat(map.containsKey(ColumnConfig.SORTABLE)).isFalse();
+		assertThat(map.get("foo")).isNull();
+		assertThat(map).hasSize(2);
+
+		map.remove(ColumnConfig.TITLE);
+		assertThat(map.keySet()).containsOnly(ColumnConfig.CSSCLASS);
+
+		Map<ConfigToken<?>, Object> expected = new HashMap<ConfigToken<?>, Object>();
+		expected.put(ColumnConfig.CSSCLASS, null);
+		assertThat(map).isEqualTo(expected);
+	}
+
+	@Test
+	public void should_read_through_to_the_prototype() {
+		assertThat(overlay.get(TableConfig.FEATURE_INFO)).isEqualTo("true");
+		assertThat(overlay.containsKey(TableConfig.FEATURE_PAGEABLE)).isTrue();
+		assertThat(overlay).hasSize(2);
+	}
+
+	@Test
+	public void should_write_in_the_overlay_only() {
+		overlay.put(TableConfig.FEATURE_INFO, Boolean.FALSE);
+		overlay.put(TableConfig.FEATURE_FILTERABLE, Boolean.TRUE);
+		overlay.remove(TableConfig.FEATURE_PAGEABLE);
+
+		assertThat(overlay.get(TableConfig.FEATURE_INFO)).isEqualTo(Boolean.FALSE);
+		assertThat(overlay.get(TableConfig.FEATURE_FILTERABLE)).isEqualTo(Boolean.TRUE);
+		assertThat(overlay.containsKey(TableConfig.FEATURE_PAGEABLE)).isFalse();
+		assertThat(overlay).hasSize(2);
+		assertThat(prototype).hasSize(2);
+		assertThat(prototype.get(TableConfig.FEATURE_INFO)).isEqualTo("true");
+		assertThat(prototype.get(TableConfig.FEATURE_PAGEABLE)).isEqualTo("false");
+	}
+
+	@Test
+	public void should_set_entry_values_while_iterating() {
+		for (Entry<ConfigToken<?>, Object> entry : overlay.entrySet()) {
+			entry.setValue(Boolean.valueOf(entry.getValue().toString()));
+		}
+
+		assertThat(overlay.get(TableConfig.FEATURE_INFO)).isEqualTo(Boolean.TRUE);
+		assertThat(overlay.get(TableConfig.FEATURE_PAGEABLE)).isEqualTo(Boolean.FALSE);
+		assertThat(prototype.get(TableConfig.FEATURE_INFO)).isEqualTo("true");
+	}
+
+	@Test
+	public void should_remove_entries_through_the_iterator() {
+		Iterator<Entry<ConfigToken<?>, Object>> iterator = overlay.entrySet().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().getKey() == TableConfig.FEATURE_INFO) {
+				iterator.remove();
+			}
+		}
+
+		assertThat(overlay.keySet()).containsOnly(TableConfig.FEATURE_PAGEABLE);
+		assertThat(prototype).hasSize(2);
+	}
+
+	@Test
+	public void should_clear_the_overlay_only() {
+		overlay.clear();
+
+		assertThat(overlay).isEmpty();
+		assertThat(prototype).hasSize(2);
+	}
+
+	@Test
+	public void should_report_the_overridden_tokens_only() {
+		overlay.put(TableConfig.FEATURE_DOM, "lfrtip");
+		overlay.remove(TableConfig.FEATURE_PAGEABLE);
+		for (Entry<ConfigToken<?>, Object> entry : overlay.entrySet()) {
+			if (entry.getKey() == TableConfig.FEATURE_INFO) {
+				// Converted from the value of the prototype
+				entry.setValue(Boolean.TRUE);
+			}
+		}
+
+		assertThat(overlay.getParent()).isSameAs(prototype);
+		assertThat(overlay.getOverriddenTokens()).containsOnly(TableConfig.FEATURE_DOM, TableConfig.FEATURE_PAGEABLE);
+
+		overlay.put(TableConfig.FEATURE_INFO, Boolean.FALSE);
+
+		assertThat(overlay.getOverriddenTokens()).contains(TableConfig.FEATURE_INFO);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void should_not_allow_modifications_of_an_unmodifiable_map() {
+		prototype.put(TableConfig.FEATURE_INFO, Boolean.FALSE);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.configuration;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Test the concurrent behaviour of the {@link ConfigurationStore}.
+ */
+public class ConfigurationStoreTest {
+
+	private HttpServletRequest request;
+
+	@Before
+	public void setup() {
+		ConfigurationStore.clear();
+		request = new MockHttpServletRequest();
+	}
+
+	@After
+	public void after() {
+		ConfigurationStore.clear();
+	}
+
+	@Test
+	public void should_resolve_the_groups_once_per_locale() {
+		Map<String, Map<ConfigToken<?>, Object>> groups = ConfigurationStore.getGroupsForLocale(Locale.ENGLISH, request);
+
+		assertThat(groups).isNotNull();
+		assertThat(groups.keySet()).contains(ConfigurationLoader.DEFAULT_GROUP_NAME);
+		assertThat(ConfigurationStore.getGroupsForLocale(Locale.ENGLISH, request)).isSameAs(groups);
+		assertThat(ConfigurationStore.getConfigurationStore().get(Locale.ENGLISH)).isSameAs(groups);
+	}
+
+	@Test
+	public void should_share_the_same_groups_between_concurrent_requests() throws Exception {
+		int threads = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			List<Future<Map<String, Map<ConfigToken<?>, Object>>>> results = new ArrayList<Future<Map<String, Map<ConfigToken<?>, Object>>>>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(new Callable<Map<String, Map<ConfigToken<?>, Object>>>() {
+
+					@Override
+					public Map<String, Map<ConfigToken<?>, Object>> call() throws Exception {
+						start.await();
+						return ConfigurationStore.getGroupsForLocale(Locale.FRENCH, request);
+					}
+				}));
+			}
+			start.countDown();
+
+			Map<String, Map<ConfigToken<?>, Object>> groups = results.get(0).get();
+			for (Future<Map<String, Map<ConfigToken<?>, Object>>> result : results) {
+				assertThat(result.get()).isSameAs(groups);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.configuration;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockPageContext;
+import org.springframework.mock.web.MockServletContext;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.web.WebConstants;
+
+/**
+ * Test the isolation of the {@link TableConfiguration}s built from the same
+ * prototype.
+ */
+public class TableConfigurationTest {
+
+	private HttpServletRequest request;
+
+	@Before
+	public void setup() {
+		MockPageContext mockPageContext = new MockPageContext(new MockServletContext());
+		request = (HttpServletRequest) mockPageContext.getRequest();
+		request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, new Context(new MockFilterConfig()));
+	}
+
+	@After
+	public void after() {
+		ConfigurationStore.clear();
+	}
+
+	@Test
+	public void should_not_leak_table_configuration_into_the_prototype() {
+		TableConfiguration conf1 = TableConfiguration.getInstance("table1", request);
+		TableConfiguration conf2 = TableConfiguration.getInstance("table2", request);
+		Object initialValue = TableConfig.FEATURE_INFO.valueFrom(conf2);
+
+		conf1.set(TableConfig.FEATURE_INFO, Boolean.FALSE);
+		conf1.getStagingConfiguration().put(TableConfig.FEATURE_PAGEABLE, Boolean.FALSE);
+
+		assertThat(TableConfig.FEATURE_INFO.valueFrom(conf1)).isFalse();
+		assertThat((Object) TableConfig.FEATURE_INFO.valueFrom(conf2)).isEqualTo(initialValue);
+		assertThat(conf2.getStagingConfiguration()).isEmpty();
+		assertThat((Object) TableConfig.FEATURE_INFO.valueFrom(TableConfiguration.getInstance("table3", request)))
+				.isEqualTo(initialValue);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void should_not_allow_modifications_of_the_stored_configurations() {
+		ConfigurationStore.getGroupsForLocale(request.getLocale(), request)
+				.get(ConfigurationLoader.DEFAULT_GROUP_NAME).put(TableConfig.FEATURE_INFO, Boolean.FALSE);
+	}
+}
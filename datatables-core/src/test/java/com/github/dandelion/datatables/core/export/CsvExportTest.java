@@ -36,7 +36,9 @@ import java.util.Scanner;
 import org.junit.Test;
 import org.springframework.util.StringUtils;
 
+import com.github.dandelion.datatables.core.html.HtmlTable;
 import com.github.dandelion.datatables.core.mock.Mock;
+import com.github.dandelion.datatables.core.mock.Person;
 
 /**
  * Test the CSV export.
@@ -85,4 +87,60 @@ public class CsvExportTest extends ExportTest {
 		String firstLine = new Scanner(new String(baos.toByteArray())).nextLine();
 		assertThat(StringUtils.countOccurrencesOf(firstLine, ";")).isEqualTo(4);
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void should_stream_table_to_response() throws Exception {
+		
+		initDefaultTable();
+		ExportConf exportConf = new ExportConf.Builder("csv").header(true).streaming(true).build();
+		configureExport(exportConf);
+		ExportUtils.renderExport(table, exportConf, response);
+		
+		// No content length must be sent when streaming
+		assertThat(response.getHeader("Content-Length")).isNull();
+		assertThat(response.getContentType()).isEqualTo("text/csv");
+		assertThat(response.getContentAsString().split("\n")).hasSize(Mock.persons.size() + 1);
+	}
+	
+	@Test
+	public void should_export_a_row_source() throws Exception {
+		
+		ExportConf exportConf = new ExportConf.Builder("csv").header(true).build();
+		ExportRowSource rowSource = new HtmlTableBuilder<Person>()
+				.newBuilder("dummyId", Mock.persons.iterator(), request, exportConf)
+				.column().fillWithProperty("id").title("Id")
+				.column().fillWithProperty("firstName").title("FirstName")
+				.buildRowSource();
+		ExportUtils.renderExport(rowSource, exportConf, response);
+		
+		String[] lines = response.getContentAsString().split("\n");
+		assertThat(lines).hasSize(Mock.persons.size() + 1);
+		assertThat(lines[0]).isEqualTo("Id;FirstName;");
+		assertThat(lines[1]).isEqualTo("1;" + Mock.persons.get(0).getFirstName() + ";");
+	}
+
+	@Test
+	public void should_export_all_the_header_rows() {
+		
+		table = new HtmlTable("dummyId", request, response);
+		table.addHeaderRow().addHeaderColumns("Person", "Address");
+		table.addHeaderRow().addHeaderColumns("Name", "City");
+		table.addRow().addColumns("Selma", "Denny");
+		configureExport(new ExportConf.Builder("csv").header(true).build());
+		processExport(new CsvExport());
+		
+		assertThat(new String(baos.toByteArray()).split("\n")).containsOnly("Person;Address;", "Name;City;",
+				"Selma;Denny;");
+	}
+	
+	@Test
+	public void should_build_a_table_several_times_from_a_list() {
+		
+		HtmlTableBuilder.BuildStep builder = new HtmlTableBuilder<Person>()
+				.newBuilder("dummyId", Mock.persons, request)
+				.column().fillWithProperty("id").title("Id");
+		
+		assertThat(builder.build().getBodyRows()).hasSize(Mock.persons.size());
+		assertThat(builder.build().getBodyRows()).hasSize(Mock.persons.size());
+	}
+}
@@ -57,14 +57,15 @@ public class ExportTest {
 	protected ByteArrayOutputStream baos;
 	private MockServletContext mockServletContext;
 	private MockPageContext mockPageContext;
-	private HttpServletRequest request;
-	private MockHttpServletResponse response;
+	protected HttpServletRequest request;
+	protected MockHttpServletResponse response;
 
 	@Before
 	public void setup() {
 		mockServletContext = new MockServletContext();
 		mockPageContext = new MockPageContext(mockServletContext);
 		request = (HttpServletRequest) mockPageContext.getRequest();
+		response = new MockHttpServletResponse();
 		request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, new Context(new MockFilterConfig()));
 	}
 
@@ -0,0 +1,161 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.export;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockPageContext;
+import org.springframework.mock.web.MockServletContext;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.web.WebConstants;
+import com.github.dandelion.datatables.core.html.HtmlColumn;
+import com.github.dandelion.datatables.core.html.HtmlRow;
+import com.github.dandelion.datatables.core.html.HtmlTable;
+
+/**
+ * Test the {@link HtmlTableRowSource}.
+ */
+public class HtmlTableRowSourceTest {
+
+	private HtmlTable table;
+
+	@Before
+	public void createHtmlTable() {
+		MockPageContext mockPageContext = new MockPageContext(new MockServletContext());
+		HttpServletRequest request = (HttpServletRequest) mockPageContext.getRequest();
+		request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, new Context(new MockFilterConfig()));
+		table = new HtmlTable("tableId", request, (HttpServletResponse) mockPageContext.getResponse());
+	}
+
+	@Test
+	public void should_only_expose_the_columns_enabled_for_the_format() {
+		HtmlRow header = table.addHeaderRow();
+		header.addHeaderColumn("Id");
+		header.addHeaderColumn(new HtmlColumn(true, "Name", null, "csv"));
+		header.addHeaderColumn(new HtmlColumn(true, "Mail", null, "pdf"));
+		table.addRow().addColumn(new HtmlColumn(false, "1", null, null));
+		table.getLastBodyRow().addColumn(new HtmlColumn(false, "John", null, "csv"));
+		table.getLastBodyRow().addColumn(new HtmlColumn(false, "john@mail.com", null, "pdf"));
+
+		HtmlTableRowSource rowSource = new HtmlTableRowSource(table, ReservedFormat.CSV);
+
+		assertThat(rowSource.getHeaders()).containsExactly("Id", "Name");
+		assertThat(readRows(rowSource)).containsExactly("1|John");
+	}
+
+	@Test
+	public void should_project_rows_having_their_own_layout() {
+		table.addHeaderRow().addHeaderColumns("Id", "Name");
+		table.addRow().addColumns("1", "John");
+		HtmlRow row = table.addRow();
+		row.addColumn("2");
+		row.addColumn("Jane (csv)", ReservedFormat.CSV);
+		row.addColumn("Jane (xml)", ReservedFormat.XML);
+
+		assertThat(readRows(new HtmlTableRowSource(table, ReservedFormat.CSV))).containsExactly("1|John",
+				"2|Jane (csv)");
+		assertThat(readRows(new HtmlTableRowSource(table, ReservedFormat.XML))).containsExactly("1|John",
+				"2|Jane (xml)");
+	}
+
+	@Test
+	public void should_not_export_a_cell_replaced_by_a_format_specific_one() {
+		table.addHeaderRow().addHeaderColumns("Id", "Name");
+		table.addRow().addColumns("1", "John");
+		// Same number of cells as the header, the second one being CSV only
+		HtmlRow row = table.addRow();
+		row.addColumn("2");
+		row.addColumn("Jane (csv)", ReservedFormat.CSV);
+
+		assertThat(readRows(new HtmlTableRowSource(table, ReservedFormat.CSV))).containsExactly("1|John",
+				"2|Jane (csv)");
+		assertThat(readRows(new HtmlTableRowSource(table, ReservedFormat.XML))).containsExactly("1|John", "2");
+	}
+
+	@Test
+	public void should_only_recompute_the_projection_of_the_rows_having_their_own_layout() {
+		table.addHeaderRow().addHeaderColumns("Id", "Name");
+		table.addRow().addColumns("1", "John");
+		HtmlRow row = table.addRow();
+		row.addColumn("2");
+		row.addColumn("Jane (csv)", ReservedFormat.CSV);
+		table.addRow().addColumns("3", "Jim");
+
+		HtmlTableRowSource rowSource = new HtmlTableRowSource(table, ReservedFormat.XML);
+
+		assertThat(rowSource.next()).isTrue();
+		assertThat(rowSource.isHeaderLayout()).isTrue();
+		assertThat(rowSource.getColumnCount()).isEqualTo(2);
+		assertThat(rowSource.getValue(1)).isEqualTo("John");
+		assertThat(rowSource.next()).isTrue();
+		assertThat(rowSource.isHeaderLayout()).isFalse();
+		assertThat(rowSource.getColumnCount()).isEqualTo(1);
+		assertThat(rowSource.getValue(0)).isEqualTo("2");
+		assertThat(rowSource.next()).isTrue();
+		assertThat(rowSource.isHeaderLayout()).isTrue();
+		assertThat(rowSource.getValue(1)).isEqualTo("Jim");
+		assertThat(rowSource.next()).isFalse();
+	}
+
+	@Test
+	public void should_expose_no_header_without_header_row() {
+		table.addRow().addColumns("1", "John");
+
+		HtmlTableRowSource rowSource = new HtmlTableRowSource(table, ReservedFormat.CSV);
+
+		assertThat(rowSource.getHeaders()).isEmpty();
+		assertThat(readRows(rowSource)).containsExactly("1|John");
+	}
+
+	private List<String> readRows(ExportRowSource rowSource) {
+		List<String> rows = new ArrayList<String>();
+		while (rowSource.next()) {
+			StringBuilder row = new StringBuilder();
+			for (int i = 0; i < rowSource.getColumnCount(); i++) {
+				if (i > 0) {
+					row.append('|');
+				}
+				row.append(rowSource.getValue(i));
+			}
+			rows.add(row.toString());
+		}
+		return rows;
+	}
+}
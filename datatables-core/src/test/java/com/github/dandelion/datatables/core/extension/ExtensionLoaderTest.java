@@ -0,0 +1,95 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.extension;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.extension.ExtensionLoader.ExtensionRegistry;
+import com.github.dandelion.datatables.core.extension.plugin.ScrollerPlugin;
+import com.github.dandelion.datatables.core.extension.theme.JQueryUITheme;
+
+/**
+ * Test the extension registries built by the {@link ExtensionLoader}.
+ */
+public class ExtensionLoaderTest {
+
+	@Test
+	public void should_build_the_registry_of_a_package_only_once() {
+		ExtensionRegistry registry = ExtensionLoader
+				.getExtensionRegistry("com.github.dandelion.datatables.core.extension.plugin");
+
+		assertThat(registry.get("scroller")).isEqualTo(ScrollerPlugin.class);
+		assertThat(ExtensionLoader.getExtensionRegistry("com.github.dandelion.datatables.core.extension.plugin"))
+				.isSameAs(registry);
+	}
+
+	@Test
+	public void should_index_extensions_by_lowercased_name() {
+		ExtensionRegistry registry = ExtensionLoader
+				.getExtensionRegistry("com.github.dandelion.datatables.core.extension.theme");
+
+		assertThat(registry.get("jqueryui")).isEqualTo(JQueryUITheme.class);
+		assertThat(registry.get("jQueryUI")).isNull();
+	}
+
+	@Test
+	public void should_return_an_empty_registry_for_a_package_without_extensions() {
+		assertThat(ExtensionLoader.getExtensionRegistry("com.github.dandelion.datatables.core.constants").isEmpty())
+				.isTrue();
+	}
+
+	@Test
+	public void should_not_retain_the_classloaders() throws Exception {
+		ClassLoader previous = Thread.currentThread().getContextClassLoader();
+		ClassLoader classLoader = new ClassLoader(previous) {
+		};
+		WeakReference<ClassLoader> reference = new WeakReference<ClassLoader>(classLoader);
+
+		Thread.currentThread().setContextClassLoader(classLoader);
+		try {
+			assertThat(ExtensionLoader.getExtensionRegistry("com.github.dandelion.datatables.core.extension.plugin")
+					.get("scroller")).isEqualTo(ScrollerPlugin.class);
+		}
+		finally {
+			Thread.currentThread().setContextClassLoader(previous);
+		}
+		classLoader = null;
+
+		for (int i = 0; i < 20 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertThat(reference.get()).isNull();
+	}
+}
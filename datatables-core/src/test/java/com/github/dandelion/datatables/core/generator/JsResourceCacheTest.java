@@ -0,0 +1,185 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.generator;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.DandelionMode;
+import com.github.dandelion.core.config.DandelionConfig;
+import com.github.dandelion.core.web.AssetRequestContext;
+import com.github.dandelion.core.web.WebConstants;
+import com.github.dandelion.datatables.core.asset.JsResource;
+import com.github.dandelion.datatables.core.configuration.ConfigurationStore;
+import com.github.dandelion.datatables.core.configuration.TableConfig;
+import com.github.dandelion.datatables.core.extension.Extension;
+import com.github.dandelion.datatables.core.html.HtmlTable;
+
+/**
+ * Test the caching of the generated {@link JsResource}s.
+ */
+public class JsResourceCacheTest {
+
+	private MockHttpServletRequest request;
+	private MockHttpServletResponse response;
+	private String previousMode;
+
+	@Before
+	public void setup() {
+		previousMode = System.getProperty(DandelionConfig.DANDELION_MODE.getName());
+		System.setProperty(DandelionConfig.DANDELION_MODE.getName(), DandelionMode.PRODUCTION.toString());
+		request = new MockHttpServletRequest();
+		request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, new Context(new MockFilterConfig()));
+		response = new MockHttpServletResponse();
+		WebResourceGenerator.getJsResourceCache().clear();
+	}
+
+	@After
+	public void after() {
+		if (previousMode != null) {
+			System.setProperty(DandelionConfig.DANDELION_MODE.getName(), previousMode);
+		} else {
+			System.clearProperty(DandelionConfig.DANDELION_MODE.getName());
+		}
+		WebResourceGenerator.getJsResourceCache().clear();
+		ConfigurationStore.clear();
+	}
+
+	private HtmlTable newTable(String id) {
+		HtmlTable table = new HtmlTable(id, request, response);
+		table.addHeaderRow();
+		table.getLastHeaderRow().addHeaderColumn("column1");
+		table.getLastHeaderRow().addHeaderColumn("column2");
+		return table;
+	}
+
+	@Test
+	public void should_give_the_same_fingerprint_to_identical_tables() {
+		assertThat(JsResourceCache.fingerprint(newTable("myTable"))).isNotNull().isEqualTo(
+				JsResourceCache.fingerprint(newTable("myTable")));
+	}
+
+	@Test
+	public void should_give_different_fingerprints_to_different_tables() {
+		HtmlTable table = newTable("myTable");
+		JsResourceCache.Fingerprint fingerprint = JsResourceCache.fingerprint(table);
+
+		TableConfig.FEATURE_INFO.setIn(table.getTableConfiguration(), false);
+
+		assertThat(JsResourceCache.fingerprint(newTable("otherTable"))).isNotEqualTo(fingerprint);
+		assertThat(JsResourceCache.fingerprint(table)).isNotEqualTo(fingerprint);
+	}
+
+	@Test
+	public void should_only_describe_the_overridden_configurations() {
+		HtmlTable table = newTable("myTable");
+		TableConfig.FEATURE_INFO.setIn(table.getTableConfiguration(), false);
+
+		String description = JsResourceCache.fingerprint(table).toString();
+
+		assertThat(description).contains(TableConfig.FEATURE_INFO.ordinal() + "=");
+		assertThat(description).excludes(TableConfig.FEATURE_PAGEABLE.ordinal() + "=");
+	}
+
+	@Test
+	public void should_not_cache_a_table_with_an_undescribable_configuration() {
+		HtmlTable table = newTable("myTable");
+		table.getTableConfiguration().getConfigurations().put(TableConfig.FEATURE_INFO, new Object());
+
+		assertThat(JsResourceCache.fingerprint(table)).isNull();
+	}
+
+	@Test
+	public void should_evict_the_least_recently_used_entry() {
+		HtmlTable table = newTable("a");
+		JsResourceCache.Fingerprint a = JsResourceCache.fingerprint(table);
+		JsResourceCache.Fingerprint b = JsResourceCache.fingerprint(newTable("b"));
+		JsResourceCache.Fingerprint c = JsResourceCache.fingerprint(newTable("c"));
+
+		JsResourceCache cache = new JsResourceCache(2);
+		cache.put(a, new JsResource("a", "a"), table);
+		cache.put(b, new JsResource("b", "b"), table);
+		cache.get(a, table);
+		cache.put(c, new JsResource("c", "c"), table);
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.get(a, table)).isNotNull();
+		assertThat(cache.get(b, table)).isNull();
+		assertThat(cache.get(c, table)).isNotNull();
+	}
+
+	@Test
+	public void should_reuse_the_generated_resources_of_an_identical_table() {
+		JsResourceCache cache = WebResourceGenerator.getJsResourceCache();
+
+		long hits = cache.getHitCount();
+		JsResource first = new WebResourceGenerator(newTable("myTable")).generateWebResources();
+		JsResource second = new WebResourceGenerator(newTable("myTable")).generateWebResources();
+
+		assertThat(cache.getHitCount()).isEqualTo(hits + 1);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getDataTablesConf().toString()).isEqualTo(first.getDataTablesConf().toString());
+	}
+
+	@Test
+	public void should_replay_the_side_effects_of_the_extensions() {
+		HtmlTable first = newTable("myTable");
+		first.getTableConfiguration().set(TableConfig.FEATURE_APPEAR, "fadein");
+		first.getTableConfiguration().set(TableConfig.FEATURE_PAGINATIONTYPE, "input");
+		TableConfig.processConfiguration(first);
+		new WebResourceGenerator(first).generateWebResources();
+		String[] bundles = AssetRequestContext.get(request).getBundles(false);
+
+		request = new MockHttpServletRequest();
+		request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, new Context(new MockFilterConfig()));
+		HtmlTable second = newTable("myTable");
+		second.getTableConfiguration().set(TableConfig.FEATURE_APPEAR, "fadein");
+		second.getTableConfiguration().set(TableConfig.FEATURE_PAGINATIONTYPE, "input");
+		TableConfig.processConfiguration(second);
+		long hits = WebResourceGenerator.getJsResourceCache().getHitCount();
+		new WebResourceGenerator(second).generateWebResources();
+
+		assertThat(WebResourceGenerator.getJsResourceCache().getHitCount()).isEqualTo(hits + 1);
+		for (Extension extension : second.getTableConfiguration().getInternalExtensions()) {
+			// Not set up again
+			assertThat(extension.getBeforeEndDocumentReady()).isNull();
+		}
+		assertThat(AssetRequestContext.get(request).getBundles(false)).isEqualTo(bundles);
+		assertThat(TableConfig.CSS_STYLE.valueFrom(second).toString()).isEqualTo(
+				TableConfig.CSS_STYLE.valueFrom(first).toString());
+	}
+}
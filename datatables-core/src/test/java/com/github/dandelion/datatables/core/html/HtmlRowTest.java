@@ -31,6 +31,8 @@ package com.github.dandelion.datatables.core.html;
 
 import static org.fest.assertions.Assertions.assertThat;
 
+import java.util.ArrayList;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -102,6 +104,75 @@ public class HtmlRowTest {
 		assertThat(row.getLastColumn()).isEqualTo(column2);
 	}
 
+	@Test
+	public void should_get_indexes_of_the_columns_enabled_for_a_format() {
+		row.addColumn("ColumnContent1");
+		row.addColumn(new HtmlColumn(ReservedFormat.CSV));
+		row.addColumn(new HtmlColumn(ReservedFormat.PDF));
+
+		assertThat(indexes(ReservedFormat.CSV)).isEqualTo(new int[] { 0, 1 });
+		assertThat(indexes(ReservedFormat.PDF)).isEqualTo(new int[] { 0, 2 });
+		assertThat(indexes(ReservedFormat.HTML)).isEqualTo(new int[] { 0 });
+	}
+
+	@Test
+	public void should_recompute_the_indexes_when_a_column_is_added() {
+		row.addColumn("ColumnContent1");
+		assertThat(indexes(ReservedFormat.CSV)).isEqualTo(new int[] { 0 });
+
+		row.addColumn(new HtmlColumn(ReservedFormat.CSV));
+		row.getColumns().add(new HtmlColumn(ReservedFormat.CSV));
+		assertThat(indexes(ReservedFormat.CSV)).isEqualTo(new int[] { 0, 1, 2 });
+		assertThat(indexes(ReservedFormat.XML)).isEqualTo(new int[] { 0 });
+	}
+
+	@Test
+	public void should_recompute_the_indexes_when_a_column_changes() {
+		populateColumns();
+		assertThat(indexes(ReservedFormat.CSV)).isEqualTo(new int[] { 0, 1, 2 });
+
+		row.getColumns().get(1).getEnabledDisplayTypes().clear();
+		row.getColumns().get(1).getEnabledDisplayTypes().add(ReservedFormat.PDF);
+		row.getColumns().set(2, new HtmlColumn(ReservedFormat.XML));
+
+		assertThat(indexes(ReservedFormat.CSV)).isEqualTo(new int[] { 0 });
+		assertThat(indexes(ReservedFormat.PDF)).isEqualTo(new int[] { 0, 1 });
+	}
+
+	private int[] indexes(String format) {
+		int[] indexes = new int[row.getColumns().size()];
+		int count = row.getColumnIndexes(format, indexes);
+		int[] result = new int[count];
+		System.arraycopy(indexes, 0, result, 0, count);
+		return result;
+	}
+
+	@Test
+	public void should_tell_whether_a_column_is_format_specific() {
+		row.addColumns("1", "John");
+		assertThat(row.hasFormatSpecificColumns()).isFalse();
+
+		row.addColumn("John (csv)", ReservedFormat.CSV);
+		assertThat(row.hasFormatSpecificColumns()).isTrue();
+
+		row.setColumns(new ArrayList<HtmlColumn>());
+		assertThat(row.hasFormatSpecificColumns()).isFalse();
+	}
+
+	@Test
+	public void should_get_each_enabled_column_once() {
+		HtmlColumn column = new HtmlColumn(ReservedFormat.CSV);
+		column.getEnabledDisplayTypes().add(ReservedFormat.ALL);
+		row.addColumn(column);
+
+		assertThat(row.getColumns(ReservedFormat.ALL, ReservedFormat.CSV)).containsExactly(column);
+	}
+
+	@Test
+	public void should_not_get_a_last_column_in_an_empty_row() {
+		assertThat(row.getLastColumn()).isNull();
+	}
+
 	private void populateColumns() {
 		headerColumn = new HtmlColumn(true, "ColumnHeaderContent");
 		column1 = new HtmlColumn(false, "ColumnContent1");
@@ -43,6 +43,7 @@ import com.github.dandelion.core.Context;
 import com.github.dandelion.core.web.WebConstants;
 import com.github.dandelion.datatables.core.export.CsvExport;
 import com.github.dandelion.datatables.core.export.ExportConf;
+import com.github.dandelion.datatables.core.export.ExportRowSource;
 import com.github.dandelion.datatables.core.export.HtmlTableBuilder;
 import com.github.dandelion.datatables.core.mock.Mock;
 import com.github.dandelion.datatables.core.mock.Person;
@@ -130,4 +131,26 @@ public class HtmlTableBuilderTest {
 		assertThat(table.getHeadRows().get(0).getColumns().get(0).getContent().toString()).isEqualTo("Id");
 		assertThat(table.getHeadRows().get(0).getColumns().get(1).getContent().toString()).isEqualTo("FirstName");
 	}
+	
+	@Test
+	public void should_build_a_lazy_row_source(){
+		ExportRowSource rowSource = new HtmlTableBuilder<Person>().newBuilder("tableId", Mock.persons.iterator(), request, fakeExportConf)
+				.column().fillWithProperty("id", "=> {0}").title("Id")
+				.column().fillWithProperty("firstName").title("FirstName")
+				.buildRowSource();
+		
+		assertThat(rowSource.getHeaders()).containsExactly("Id", "FirstName");
+		assertThat(rowSource.getColumnCount()).isEqualTo(2);
+		
+		assertThat(rowSource.next()).isTrue();
+		assertThat(rowSource.getValue(0)).isEqualTo("=> 1");
+		assertThat(rowSource.getValue(1)).isEqualTo(Mock.persons.get(0).getFirstName());
+		
+		int rowCount = 1;
+		while (rowSource.next()) {
+			rowCount++;
+		}
+		assertThat(rowCount).isEqualTo(Mock.persons.size());
+		assertThat(rowSource.getObjectType()).isEqualTo("Person");
+	}
 }
\ No newline at end of file
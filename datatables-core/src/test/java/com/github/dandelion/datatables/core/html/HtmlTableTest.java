@@ -31,6 +31,9 @@ package com.github.dandelion.datatables.core.html;
 
 import static org.fest.assertions.Assertions.assertThat;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -173,6 +176,24 @@ public class HtmlTableTest {
 				"</table>");
 	}
 	
+	@Test
+	public void should_render_the_same_markup_into_a_writer() throws IOException {
+		table = new HtmlTable("tableId", request, response);
+		table.addCssClass("aClass");
+		table.addHeaderRow().addHeaderColumns("col1", "col2");
+		for (int i = 0; i < 100; i++) {
+			table.addRow("row" + i).addColumns("value" + i, "other" + i);
+		}
+		table.addFooterRow().addColumns("foot1", "foot2");
+
+		StringWriter writer = new StringWriter();
+		table.render(writer);
+
+		assertThat(writer.toString()).isEqualTo(table.toHtml().toString());
+		assertThat(writer.toString()).startsWith("<table id=\"tableId\" class=\"aClass\"><thead><tr><th>col1</th>");
+		assertThat(writer.toString()).contains("<tr id=\"row99\"><td>value99</td><td>other99</td></tr></tbody>");
+	}
+	
 	@Test
 	public void should_get_last_rows(){
 		table = new HtmlTable("tableId", request, response);
@@ -0,0 +1,82 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Test the {@link JsonUtils}.
+ */
+public class JsonUtilsTest {
+
+	@Test
+	public void should_write_compact_json() throws Exception {
+		assertThat(JsonUtils.toJson(conf(), false)).isEqualTo("{\"bPaginate\":true,\"aoColumns\":[\"a\",\"b\"]}");
+	}
+
+	@Test
+	public void should_write_indented_json() throws Exception {
+		String json = JsonUtils.toJson(conf(), true);
+
+		assertThat(json).contains("\n");
+		assertThat(json.replaceAll("\\s", "")).isEqualTo("{\"bPaginate\":true,\"aoColumns\":[\"a\",\"b\"]}");
+	}
+
+	@Test
+	public void should_not_leak_previous_content_between_calls() throws Exception {
+		JsonUtils.toJson(conf(), false);
+
+		assertThat(JsonUtils.toJson("foo", false)).isEqualTo("\"foo\"");
+	}
+
+	@Test
+	public void should_enable_pretty_print_without_dandelion_context() {
+		assertThat(JsonUtils.isPrettyPrintEnabled(null)).isTrue();
+		assertThat(JsonUtils.isPrettyPrintEnabled(new MockHttpServletRequest())).isTrue();
+	}
+
+	private Map<String, Object> conf() {
+		Map<String, Object> conf = new LinkedHashMap<String, Object>();
+		conf.put("bPaginate", true);
+		List<String> columns = new ArrayList<String>();
+		columns.add("a");
+		columns.add("b");
+		conf.put("aoColumns", columns);
+		return conf;
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Test the {@link MessageFormatCache}.
+ */
+public class MessageFormatCacheTest {
+
+	@Test
+	public void should_format_like_a_new_message_format() {
+		String pattern = "Value: {0}";
+
+		assertThat(MessageFormatCache.format(pattern, new Object[] { "foo" })).isEqualTo(
+				new MessageFormat(pattern).format(new Object[] { "foo" }));
+		assertThat(MessageFormatCache.format(pattern, new Object[] { "bar" })).isEqualTo("Value: bar");
+	}
+
+	@Test
+	public void should_return_a_distinct_instance_on_each_call() {
+		MessageFormat first = MessageFormatCache.getMessageFormat("{0}", Locale.FRENCH);
+		MessageFormat second = MessageFormatCache.getMessageFormat("{0}", Locale.FRENCH);
+
+		assertThat(first).isNotSameAs(second);
+		assertThat(first.getLocale()).isEqualTo(Locale.FRENCH);
+	}
+
+	@Test
+	public void should_use_the_locale_of_the_message_format() {
+		assertThat(MessageFormatCache.getMessageFormat("{0,number,#.##}", Locale.FRENCH).format(new Object[] { 1.5 }))
+				.isEqualTo("1,5");
+		assertThat(MessageFormatCache.getMessageFormat("{0,number,#.##}", Locale.ENGLISH).format(new Object[] { 1.5 }))
+				.isEqualTo("1.5");
+	}
+
+	@Test
+	public void should_keep_a_bounded_number_of_patterns() {
+		for (int i = 0; i < MessageFormatCache.MAX_SIZE * 2; i++) {
+			MessageFormatCache.format("Row " + i + ": {0}", new Object[] { "foo" });
+		}
+
+		assertThat(MessageFormatCache.size()).isEqualTo(MessageFormatCache.MAX_SIZE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_throw_an_exception_when_the_pattern_is_invalid() {
+		MessageFormatCache.format("{0", new Object[] { "foo" });
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.beanutils.NestedNullException;
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.mock.Address;
+import com.github.dandelion.datatables.core.mock.Person;
+import com.github.dandelion.datatables.core.mock.Town;
+
+/**
+ * Test the {@link PropertyAccessor}, which must behave like
+ * {@code PropertyUtils.getNestedProperty()}.
+ */
+public class PropertyAccessorTest {
+
+	@Test
+	public void should_return_simple_and_nested_properties() throws Exception {
+		Person person = new Person(1L, "Selma", "Doyle", "selma@doyle.com", new Address("Main Street", new Town("Paris")));
+
+		assertThat(PropertyAccessor.getNestedProperty(person, "firstName")).isEqualTo("Selma");
+		assertThat(PropertyAccessor.getNestedProperty(person, "address.town.name")).isEqualTo("Paris");
+		// Second call served by the cache
+		assertThat(PropertyAccessor.getNestedProperty(person, "address.town.name")).isEqualTo("Paris");
+	}
+
+	@Test
+	public void should_return_null_when_last_property_is_null() throws Exception {
+		Person person = new Person(1L, "Selma", "Doyle", null);
+
+		assertThat(PropertyAccessor.getNestedProperty(person, "mail")).isNull();
+	}
+
+	@Test(expected = NestedNullException.class)
+	public void should_throw_an_exception_when_an_intermediate_property_is_null() throws Exception {
+		Person person = new Person(1L, "Selma", "Doyle", "selma@doyle.com");
+
+		PropertyAccessor.getNestedProperty(person, "address.town.name");
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void should_throw_an_exception_when_the_property_does_not_exist() throws Exception {
+		Person person = new Person(1L, "Selma", "Doyle", "selma@doyle.com");
+
+		PropertyAccessor.getNestedProperty(person, "unknown");
+	}
+
+	@Test
+	public void should_navigate_through_maps() throws Exception {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("person", new Person(1L, "Selma", "Doyle", "selma@doyle.com"));
+
+		assertThat(PropertyAccessor.getNestedProperty(map, "person.lastName")).isEqualTo("Doyle");
+		assertThat(PropertyAccessor.getNestedProperty(map, "missing")).isNull();
+	}
+
+	@Test
+	public void should_not_cache_a_path_that_does_not_resolve() throws Exception {
+		Person person = new Person(1L, "Selma", "Doyle", "selma@doyle.com", new Address("Main Street", new Town("Paris")));
+
+		try {
+			PropertyAccessor.getNestedProperty(person, "address.town.unknown");
+		} catch (NoSuchMethodException e) {
+			// expected
+		}
+
+		assertThat(PropertyAccessor.isCached("address.town.unknown")).isFalse();
+		PropertyAccessor.getNestedProperty(person, "address.street");
+		assertThat(PropertyAccessor.isCached("address.street")).isTrue();
+	}
+
+	@Test
+	public void should_keep_a_bounded_number_of_paths() throws Exception {
+		Map<String, Object> map = new HashMap<String, Object>();
+		for (int i = 0; i < PropertyAccessor.MAX_PATHS * 2; i++) {
+			PropertyAccessor.getNestedProperty(map, "key" + i);
+		}
+
+		assertThat(PropertyAccessor.cachedPaths()).isEqualTo(PropertyAccessor.MAX_PATHS);
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.core.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Test the {@link SearchUtils}.
+ */
+public class SearchUtilsTest {
+
+	@Test
+	public void should_escape_the_like_wildcards() {
+		assertThat(SearchUtils.likePattern("100%_Off!")).isEqualTo("%100!%!_off!!%");
+	}
+
+	@Test
+	public void should_convert_to_the_wrappers_and_the_primitives() {
+		assertThat(SearchUtils.convert("42", Integer.class)).isEqualTo(42);
+		assertThat(SearchUtils.convert("42", int.class)).isEqualTo(42);
+		assertThat(SearchUtils.convert("42", long.class)).isEqualTo(42L);
+		assertThat(SearchUtils.convert("42", byte.class)).isEqualTo((byte) 42);
+		assertThat(SearchUtils.convert("TRUE", boolean.class)).isEqualTo(Boolean.TRUE);
+		assertThat(SearchUtils.convert("1.5", BigDecimal.class)).isEqualTo(new BigDecimal("1.5"));
+	}
+
+	@Test
+	public void should_convert_to_an_enum() {
+		assertThat(SearchUtils.convert("SECONDS", TimeUnit.class)).isEqualTo(TimeUnit.SECONDS);
+		assertThat(SearchUtils.convert("seconds", TimeUnit.class)).isNull();
+	}
+
+	@Test
+	public void should_convert_the_dates_to_timestamps() {
+		assertThat(SearchUtils.convert("2014-03-01", java.util.Date.class)).isEqualTo(
+				Timestamp.valueOf("2014-03-01 00:00:00"));
+		assertThat(SearchUtils.convert("2014-03-01", java.sql.Date.class)).isEqualTo(
+				java.sql.Date.valueOf("2014-03-01"));
+	}
+
+	@Test
+	public void should_make_a_date_only_upper_bound_exclusive_at_the_next_day() {
+		SearchUtils.Bound lower = SearchUtils.rangeBound("2014-03-01", java.sql.Date.class, false);
+		SearchUtils.Bound upper = SearchUtils.rangeBound("2014-03-01", Timestamp.class, true);
+
+		assertThat(lower.getValue()).isEqualTo(java.sql.Date.valueOf("2014-03-01"));
+		assertThat(lower.isInclusive()).isTrue();
+		assertThat(upper.getValue()).isEqualTo(Timestamp.valueOf("2014-03-02 00:00:00"));
+		assertThat(upper.isInclusive()).isFalse();
+	}
+
+	@Test
+	public void should_parse_the_time_bounds() {
+		long time = Timestamp.valueOf("2014-03-01 12:30:00").getTime();
+
+		assertThat(SearchUtils.rangeBound(String.valueOf(time), Timestamp.class, true).getValue()).isEqualTo(
+				new Timestamp(time));
+		assertThat(SearchUtils.timeBound("2014-03-01T12:30:00", true).getValue()).isEqualTo(time);
+		assertThat(SearchUtils.timeBound("2014-03-01 12:30:00.5", true).getValue()).isEqualTo(time + 500);
+		assertThat(SearchUtils.timeBound("2014-03-01T12:30:00", true).isInclusive()).isTrue();
+		assertThat(SearchUtils.timeBound("2014-02-30", false)).isNull();
+		assertThat(SearchUtils.rangeBound("42", Long.class, true).getValue()).isEqualTo(42L);
+	}
+
+	@Test
+	public void should_return_null_when_the_value_cannot_be_converted() {
+		assertThat(SearchUtils.convert("abc", Long.class)).isNull();
+		assertThat(SearchUtils.convert("maybe", Boolean.class)).isNull();
+		assertThat(SearchUtils.convert("abc", Object.class)).isNull();
+		assertThat(SearchUtils.isConvertible(Object.class)).isFalse();
+		assertThat(SearchUtils.isConvertible(TimeUnit.class)).isTrue();
+	}
+}
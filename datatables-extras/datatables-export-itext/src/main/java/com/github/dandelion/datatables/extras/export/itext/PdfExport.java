@@ -30,14 +30,15 @@
 package com.github.dandelion.datatables.extras.export.itext;
 
 import java.io.OutputStream;
+import java.util.List;
 
 import com.github.dandelion.datatables.core.exception.ExportException;
-import com.github.dandelion.datatables.core.export.DatatablesExport;
 import com.github.dandelion.datatables.core.export.ExportConf;
 import com.github.dandelion.datatables.core.export.ExportConf.Orientation;
+import com.github.dandelion.datatables.core.export.ExportRowSource;
+import com.github.dandelion.datatables.core.export.HtmlTableRowSource;
 import com.github.dandelion.datatables.core.export.ReservedFormat;
-import com.github.dandelion.datatables.core.html.HtmlColumn;
-import com.github.dandelion.datatables.core.html.HtmlRow;
+import com.github.dandelion.datatables.core.export.RowSourceExport;
 import com.github.dandelion.datatables.core.html.HtmlTable;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
@@ -54,15 +55,24 @@ import com.itextpdf.text.pdf.PdfWriter;
  * 
  * @author Thibault Duchateau
  */
-public class PdfExport implements DatatablesExport {
+public class PdfExport implements RowSourceExport {
 
-	private HtmlTable table;
+	// Number of rows after which the table is flushed to the document
+	private static final int FLUSH_ROW_COUNT = 500;
+
+	private ExportRowSource rowSource;
 	private ExportConf exportConf;
 
 	@Override
 	public void initExport(HtmlTable table) {
-		this.table = table;
-		this.exportConf = table.getTableConfiguration().getExportConfiguration().get(ReservedFormat.PDF);
+		initExport(new HtmlTableRowSource(table, ReservedFormat.PDF), table.getTableConfiguration()
+				.getExportConfiguration().get(ReservedFormat.PDF));
+	}
+
+	@Override
+	public void initExport(ExportRowSource rowSource, ExportConf exportConf) {
+		this.rowSource = rowSource;
+		this.exportConf = exportConf;
 	}
 
 	@Override
@@ -87,7 +97,7 @@ public class PdfExport implements DatatablesExport {
 
 		} catch (DocumentException e) {
 			StringBuilder sb = new StringBuilder("Something went wrong during the PDF generation of the table '");
-			sb.append(table.getOriginalId());
+			sb.append(rowSource.getId());
 			sb.append("' and with the following export configuration: ");
 			sb.append(exportConf.toString());
 			throw new ExportException(sb.toString(), e);
@@ -108,37 +118,47 @@ public class PdfExport implements DatatablesExport {
 		PdfPCell cell = null;
 
 		// Compute the column count in order to initialize the iText table
-		int columnCount = table.getLastHeaderRow().getColumns(ReservedFormat.ALL, ReservedFormat.PDF).size();
+		int columnCount = rowSource.getHeaders().size();
 
 		if (columnCount != 0) {
 
 			PdfPTable pdfTable = new PdfPTable(columnCount);
 			pdfTable.setWidthPercentage(100f);
 
+			// Large table: rows are regularly flushed to the document instead
+			// of being all kept in memory
+			pdfTable.setComplete(false);
+
 			// Header
 			if (exportConf != null && exportConf.getIncludeHeader()) {
 
-				for (HtmlRow htmlRow : table.getHeadRows()) {
+				for (List<String> headerRow : rowSource.getHeaderRows()) {
 
-					for (HtmlColumn column : htmlRow.getColumns(ReservedFormat.ALL, ReservedFormat.PDF)) {
+					for (String header : headerRow) {
 
 						cell = new PdfPCell();
-						cell.setPhrase(new Phrase(column.getContent().toString()));
+						cell.setPhrase(new Phrase(header));
 						pdfTable.addCell(cell);
 					}
 				}
 			}
 
-			for (HtmlRow htmlRow : table.getBodyRows()) {
+			int rowCount = 0;
+			while (rowSource.next()) {
 
-				for (HtmlColumn column : htmlRow.getColumns(ReservedFormat.ALL, ReservedFormat.PDF)) {
+				for (int i = 0; i < rowSource.getColumnCount(); i++) {
 
 					cell = new PdfPCell();
-					cell.setPhrase(new Phrase(column.getContent().toString()));
+					cell.setPhrase(new Phrase(rowSource.getValue(i)));
 					pdfTable.addCell(cell);
 				}
+
+				if (++rowCount % FLUSH_ROW_COUNT == 0) {
+					document.add(pdfTable);
+				}
 			}
 
+			pdfTable.setComplete(true);
 			document.add(pdfTable);
 		}
 	}
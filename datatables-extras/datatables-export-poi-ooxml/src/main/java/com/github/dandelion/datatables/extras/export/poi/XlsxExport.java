@@ -31,6 +31,7 @@ package com.github.dandelion.datatables.extras.export.poi;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
@@ -38,11 +39,11 @@ import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import com.github.dandelion.datatables.core.exception.ExportException;
-import com.github.dandelion.datatables.core.export.DatatablesExport;
 import com.github.dandelion.datatables.core.export.ExportConf;
+import com.github.dandelion.datatables.core.export.ExportRowSource;
+import com.github.dandelion.datatables.core.export.HtmlTableRowSource;
 import com.github.dandelion.datatables.core.export.ReservedFormat;
-import com.github.dandelion.datatables.core.html.HtmlColumn;
-import com.github.dandelion.datatables.core.html.HtmlRow;
+import com.github.dandelion.datatables.core.export.RowSourceExport;
 import com.github.dandelion.datatables.core.html.HtmlTable;
 
 /**
@@ -50,15 +51,21 @@ import com.github.dandelion.datatables.core.html.HtmlTable;
  * 
  * @author Thibault Duchateau
  */
-public class XlsxExport implements DatatablesExport {
+public class XlsxExport implements RowSourceExport {
 
-	private HtmlTable table;
+	private ExportRowSource rowSource;
 	private ExportConf exportConf;
 
 	@Override
 	public void initExport(HtmlTable table) {
-		this.table = table;
-		this.exportConf = table.getTableConfiguration().getExportConfiguration().get(ReservedFormat.XLSX);
+		initExport(new HtmlTableRowSource(table, ReservedFormat.XLSX), table.getTableConfiguration()
+				.getExportConfiguration().get(ReservedFormat.XLSX));
+	}
+
+	@Override
+	public void initExport(ExportRowSource rowSource, ExportConf exportConf) {
+		this.rowSource = rowSource;
+		this.exportConf = exportConf;
 	}
 
 	@Override
@@ -75,33 +82,33 @@ public class XlsxExport implements DatatablesExport {
 			// Header
 			if (exportConf.getIncludeHeader()) {
 
-				for (HtmlRow htmlRow : table.getHeadRows()) {
+				for (List<String> headerRow : rowSource.getHeaderRows()) {
 
 					row = sheet.createRow(rowIndex++);
 					columnIndex = 0;
 
-					for (HtmlColumn column : htmlRow.getColumns(ReservedFormat.ALL, ReservedFormat.XLSX)) {
+					for (String header : headerRow) {
 						cell = row.createCell(columnIndex++);
-						cell.setCellValue(column.getContent().toString());
+						cell.setCellValue(header);
 					}
 				}
 			}
 
 			// Body
-			for (HtmlRow htmlRow : table.getBodyRows()) {
+			while (rowSource.next()) {
 
 				row = sheet.createRow(rowIndex++);
-				columnIndex = 0;
 
-				for (HtmlColumn column : htmlRow.getColumns(ReservedFormat.ALL, ReservedFormat.XLSX)) {
-					cell = row.createCell(columnIndex++);
-					cell.setCellValue(column.getContent().toString());
+				for (columnIndex = 0; columnIndex < rowSource.getColumnCount(); columnIndex++) {
+					cell = row.createCell(columnIndex);
+					cell.setCellValue(rowSource.getValue(columnIndex));
 				}
 			}
 
 			// Column auto-sizing
-			for (columnIndex = 0; columnIndex < table.getLastHeaderRow().getColumns(ReservedFormat.ALL, ReservedFormat.XLSX).size(); columnIndex++) {
-				if (exportConf.getAutoSize()) {
+			if (exportConf.getAutoSize()) {
+				int columnCount = rowSource.getHeaders().size();
+				for (columnIndex = 0; columnIndex < columnCount; columnIndex++) {
 					sheet.autoSizeColumn(columnIndex);
 				}
 			}
@@ -109,10 +116,10 @@ public class XlsxExport implements DatatablesExport {
 			workbook.write(output);
 		} catch (IOException e) {
 			StringBuilder sb = new StringBuilder("Something went wrong during the XLSX generation of the table '");
-			sb.append(table.getOriginalId());
+			sb.append(rowSource.getId());
 			sb.append("' and with the following export configuration: ");
 			sb.append(exportConf.toString());
 			throw new ExportException(sb.toString(), e);
 		}
 	}
-}
\ No newline at end of file
+}
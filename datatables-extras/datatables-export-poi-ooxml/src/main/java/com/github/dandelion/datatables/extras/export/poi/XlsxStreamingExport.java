@@ -0,0 +1,173 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2014 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.extras.export.poi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.github.dandelion.datatables.core.exception.ExportException;
+import com.github.dandelion.datatables.core.export.ExportConf;
+import com.github.dandelion.datatables.core.export.ExportRowSource;
+import com.github.dandelion.datatables.core.export.HtmlTableRowSource;
+import com.github.dandelion.datatables.core.export.ReservedFormat;
+import com.github.dandelion.datatables.core.export.RowSourceExport;
+import com.github.dandelion.datatables.core.html.HtmlTable;
+
+/**
+ * <p>
+ * Excel (XLSX) export class based on the streaming API of POI (SXSSF).
+ * 
+ * <p>
+ * Contrary to {@link XlsxExport}, only a sliding window of rows is kept in
+ * memory, older rows being flushed to temporary files. This allows to export
+ * hundreds of thousands of rows with a constant memory footprint.
+ * 
+ * <p>
+ * Since flushed rows can't be read anymore, auto-sizing is computed from the
+ * length of the values of the first exported rows only.
+ * 
+ * <p>
+ * To use it, configure it as the export class of the xlsx format, e.g.
+ * <code>export.xlsx.class=com.github.dandelion.datatables.extras.export.poi.XlsxStreamingExport</code>
+ * or {@link ExportConf#STREAMING_XLSX_CLASS}.
+ * 
+ * @since 0.10.2
+ */
+public class XlsxStreamingExport implements RowSourceExport {
+
+	// Number of rows kept in memory before being flushed to disk
+	private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
+	// Number of rows used to compute the column widths
+	private static final int AUTOSIZE_SAMPLE_SIZE = 1000;
+
+	// Maximum column width allowed by Excel, in characters
+	private static final int MAX_COLUMN_WIDTH = 255;
+
+	private ExportRowSource rowSource;
+	private ExportConf exportConf;
+
+	@Override
+	public void initExport(HtmlTable table) {
+		initExport(new HtmlTableRowSource(table, ReservedFormat.XLSX), table.getTableConfiguration()
+				.getExportConfiguration().get(ReservedFormat.XLSX));
+	}
+
+	@Override
+	public void initExport(ExportRowSource rowSource, ExportConf exportConf) {
+		this.rowSource = rowSource;
+		this.exportConf = exportConf;
+	}
+
+	@Override
+	public void processExport(OutputStream output) {
+
+		SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+		workbook.setCompressTempFiles(true);
+
+		try {
+			Sheet sheet = workbook.createSheet(exportConf.getFileName());
+			Row row = null;
+			Cell cell = null;
+			int rowIndex = 0;
+			int columnIndex;
+
+			// Maximum length of the values of each column, computed over the
+			// sampled rows
+			int[] columnWidths = new int[rowSource.getHeaders().size()];
+
+			// Header
+			if (exportConf.getIncludeHeader()) {
+
+				for (List<String> headerRow : rowSource.getHeaderRows()) {
+
+					row = sheet.createRow(rowIndex++);
+					columnIndex = 0;
+
+					for (String header : headerRow) {
+						cell = row.createCell(columnIndex);
+						cell.setCellValue(header);
+						sampleWidth(columnWidths, columnIndex++, header);
+					}
+				}
+			}
+
+			// Body
+			int sampledRows = 0;
+			while (rowSource.next()) {
+
+				row = sheet.createRow(rowIndex++);
+				boolean sampling = exportConf.getAutoSize() && sampledRows++ < AUTOSIZE_SAMPLE_SIZE;
+
+				for (columnIndex = 0; columnIndex < rowSource.getColumnCount(); columnIndex++) {
+					String value = rowSource.getValue(columnIndex);
+					cell = row.createCell(columnIndex);
+					cell.setCellValue(value);
+					if (sampling) {
+						sampleWidth(columnWidths, columnIndex, value);
+					}
+				}
+			}
+
+			// Column auto-sizing
+			if (exportConf.getAutoSize()) {
+				for (columnIndex = 0; columnIndex < columnWidths.length; columnIndex++) {
+					if (columnWidths[columnIndex] > 0) {
+						int width = Math.min(columnWidths[columnIndex] + 2, MAX_COLUMN_WIDTH);
+						sheet.setColumnWidth(columnIndex, width * 256);
+					}
+				}
+			}
+
+			workbook.write(output);
+		} catch (IOException e) {
+			StringBuilder sb = new StringBuilder("Something went wrong during the XLSX generation of the table '");
+			sb.append(rowSource.getId());
+			sb.append("' and with the following export configuration: ");
+			sb.append(exportConf.toString());
+			throw new ExportException(sb.toString(), e);
+		} finally {
+			// Deletes the temporary files backing the flushed rows
+			workbook.dispose();
+		}
+	}
+
+	private void sampleWidth(int[] columnWidths, int columnIndex, String value) {
+		if (columnIndex < columnWidths.length && value != null && value.length() > columnWidths[columnIndex]) {
+			columnWidths[columnIndex] = value.length();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2014 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.extras.export.poi;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.export.ExportConf;
+import com.github.dandelion.datatables.core.export.ExportRowSource;
+
+/**
+ * Test the streaming XLSX export.
+ */
+public class XlsxStreamingExportTest {
+
+	// More rows than the window kept in memory by the workbook
+	private static final int ROW_COUNT = 250;
+
+	@Test
+	public void should_export_more_rows_than_the_window_and_dispose_the_temporary_files() throws Exception {
+		List<String> existingFiles = temporaryFiles();
+		GeneratedRowSource rowSource = new GeneratedRowSource(ROW_COUNT);
+
+		XlsxStreamingExport export = new XlsxStreamingExport();
+		export.initExport(rowSource, new ExportConf.Builder("xlsx").fileName("persons").build());
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		export.processExport(output);
+
+		Sheet sheet = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray())).getSheet("persons");
+		assertThat(sheet.getLastRowNum()).isEqualTo(ROW_COUNT);
+		assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("Id");
+		assertThat(sheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("Name");
+		for (int i = 1; i <= ROW_COUNT; i++) {
+			assertThat(sheet.getRow(i).getCell(0).getStringCellValue()).isEqualTo(String.valueOf(i));
+			assertThat(sheet.getRow(i).getCell(1).getStringCellValue()).isEqualTo("Person " + i);
+		}
+
+		// The rows were flushed to a temporary file, deleted once exported
+		assertThat(rowSource.filesDuringExport).isNotEqualTo(existingFiles);
+		assertThat(temporaryFiles()).isEqualTo(existingFiles);
+	}
+
+	/**
+	 * @return the names of the temporary files backing the flushed rows.
+	 */
+	private static List<String> temporaryFiles() {
+		List<String> names = new ArrayList<String>();
+		String[] files = new File(System.getProperty("java.io.tmpdir")).list();
+		if (files != null) {
+			for (String name : files) {
+				if (name.startsWith("poi-sxssf-sheet")) {
+					names.add(name);
+				}
+			}
+		}
+		Collections.sort(names);
+		return names;
+	}
+
+	private static class GeneratedRowSource implements ExportRowSource {
+
+		private final int rowCount;
+		private int row;
+		private List<String> filesDuringExport;
+
+		public GeneratedRowSource(int rowCount) {
+			this.rowCount = rowCount;
+		}
+
+		@Override
+		public String getId() {
+			return "persons";
+		}
+
+		@Override
+		public String getObjectType() {
+			return null;
+		}
+
+		@Override
+		public List<String> getHeaders() {
+			return Arrays.asList("Id", "Name");
+		}
+
+		@Override
+		public List<List<String>> getHeaderRows() {
+			return Collections.singletonList(getHeaders());
+		}
+
+		@Override
+		public int getColumnCount() {
+			return 2;
+		}
+
+		@Override
+		public boolean next() {
+			if (row == rowCount) {
+				filesDuringExport = temporaryFiles();
+				return false;
+			}
+			row++;
+			return true;
+		}
+
+		@Override
+		public String getValue(int columnIndex) {
+			return columnIndex == 0 ? String.valueOf(row) : "Person " + row;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.extras.spring3.ajax;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.dandelion.datatables.core.ajax.cache.TtlCache;
+
+/**
+ * <p>
+ * Cache of row counts, where each count expires after a fixed time to live.
+ * 
+ * <p>
+ * Used by the {@link JpaCriteriasAdapter} to avoid running a full
+ * {@code COUNT(*)} on every draw of the table, since the total number of rows
+ * rarely changes between two draws. The counts may therefore be stale for up
+ * to the time to live, which should be kept short.
+ * 
+ * <p>
+ * The cache holds at most {@code maxSize} counts. When full, the least
+ * recently used count is evicted. A cache can be shared between threads and
+ * adapters.
+ * 
+ * @since 0.10.2
+ */
+public class CountCache {
+
+	/**
+	 * Default time to live of the counts, in seconds.
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE = 10;
+
+	/**
+	 * Default maximum number of counts held by the cache.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+	private final TtlCache<Object, Long> counts;
+
+	public CountCache() {
+		this(DEFAULT_TIME_TO_LIVE, TimeUnit.SECONDS);
+	}
+
+	public CountCache(long timeToLive, TimeUnit unit) {
+		this(timeToLive, unit, DEFAULT_MAX_SIZE);
+	}
+
+	public CountCache(long timeToLive, TimeUnit unit, int maxSize) {
+		this.counts = new TtlCache<Object, Long>(timeToLive, unit, maxSize) {
+
+			@Override
+			protected long currentTime() {
+				return CountCache.this.currentTime();
+			}
+		};
+	}
+
+	/**
+	 * @param key
+	 *            The key of the count, e.g. the filters applied to the rows.
+	 * @return the count stored under the key, or {@code null} if none has been
+	 *         stored or if it has expired.
+	 */
+	public Long get(Object key) {
+		return counts.get(key);
+	}
+
+	/**
+	 * Stores a count, replacing the one previously stored under the same key.
+	 * 
+	 * @param key
+	 *            The key of the count.
+	 * @param count
+	 *            The count to store.
+	 */
+	public void put(Object key, long count) {
+		counts.put(key, count);
+	}
+
+	/**
+	 * Removes all the counts, e.g. after rows have been inserted or deleted.
+	 */
+	public void clear() {
+		counts.clear();
+	}
+
+	/**
+	 * @return the number of counts currently held, including the expired ones
+	 *         not evicted yet.
+	 */
+	public int size() {
+		return counts.size();
+	}
+
+	/**
+	 * @return the current time, in nanoseconds.
+	 */
+	long currentTime() {
+		return System.nanoTime();
+	}
+}
@@ -38,6 +38,7 @@ import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
 import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriteriasParser;
 
 /**
  * <p>
@@ -70,6 +71,10 @@ import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
  * }
  * </pre>
  * 
+ * <p>
+ * A {@link DatatablesCriteriasParser} can be passed to the constructor in order
+ * to change the maximum number of columns accepted in a request.
+ * 
  * @see DatatablesParams
  * @see DatatablesCriterias
  * 
@@ -78,6 +83,16 @@ import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
  */
 public class DatatablesCriteriasMethodArgumentResolver implements HandlerMethodArgumentResolver {
 
+	private final DatatablesCriteriasParser parser;
+
+	public DatatablesCriteriasMethodArgumentResolver() {
+		this(new DatatablesCriteriasParser());
+	}
+
+	public DatatablesCriteriasMethodArgumentResolver(DatatablesCriteriasParser parser) {
+		this.parser = parser;
+	}
+
 	@Override
 	public boolean supportsParameter(MethodParameter parameter) {
 		DatatablesParams parameterAnnotation = parameter.getParameterAnnotation(DatatablesParams.class);
@@ -93,6 +108,6 @@ public class DatatablesCriteriasMethodArgumentResolver implements HandlerMethodA
 	public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
 			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
 		HttpServletRequest request = (HttpServletRequest) webRequest.getNativeRequest();
-		return DatatablesCriterias.getFromRequest(request);
+		return parser.parse(request);
 	}
 }
\ No newline at end of file
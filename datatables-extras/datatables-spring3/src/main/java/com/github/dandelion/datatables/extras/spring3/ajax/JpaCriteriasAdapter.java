@@ -0,0 +1,611 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2012 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.extras.spring3.ajax;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import com.github.dandelion.core.utils.StringUtils;
+import com.github.dandelion.datatables.core.ajax.ColumnDef;
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.ajax.DataSet;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
+import com.github.dandelion.datatables.core.ajax.PageCursor;
+import com.github.dandelion.datatables.core.util.SearchUtils;
+
+/**
+ * <p>
+ * Converts the {@link DatatablesCriterias} sent by DataTables into JPA
+ * {@link CriteriaQuery}s selecting the entities of the requested page and
+ * counting them.
+ * 
+ * <pre>
+ * &#064;RequestMapping(value = &quot;/persons&quot;)
+ * public &#064;ResponseBody DatatablesResponse&lt;Person&gt; findAll(&#064;DatatablesParams DatatablesCriterias criterias) {
+ *    DataSet&lt;Person&gt; dataSet = personAdapter.fetch(entityManager, criterias);
+ *    return DatatablesResponse.build(dataSet, criterias);
+ * }
+ * ...
+ * JpaCriteriasAdapter&lt;Person&gt; personAdapter = new JpaCriteriasAdapter&lt;Person&gt;(Person.class)
+ *       .column(&quot;id&quot;)
+ *       .column(&quot;firstName&quot;)
+ *       .column(&quot;town&quot;, &quot;address.town.name&quot;);
+ * </pre>
+ * 
+ * <p>
+ * Only the columns explicitly declared with {@link #column(String, String)}
+ * are used in the queries: each declared column name (i.e. the
+ * {@code mDataProp} sent by DataTables) is mapped to the path of an attribute
+ * of the entity, e.g. {@code address.town.name}, and the criterias referring
+ * to undeclared columns are ignored, so that a client can neither search nor
+ * sort on attributes that aren't displayed. The intermediate associations are
+ * left joined, so that the entities with a {@code null} association are still
+ * selected. The declared columns that don't match an attribute are ignored as
+ * well. The criterias are translated as follows:
+ * <ul>
+ * <li>the global search is applied to the filterable {@link String}
+ * attributes, using a case-insensitive {@code LIKE}</li>
+ * <li>an individual column search uses a case-insensitive {@code LIKE} for
+ * {@link String} attributes, and an equality with the converted value for the
+ * other types</li>
+ * <li>a range search ({@code searchFrom}/{@code searchTo}) is translated into
+ * {@code >=} and {@code <=} comparisons with the bounds converted by
+ * {@link SearchUtils#rangeBound(String, Class, boolean)}, a date-only upper
+ * bound giving a {@code <} comparison with the next day</li>
+ * <li>the sorted columns are translated into the {@code ORDER BY} clause</li>
+ * </ul>
+ * A searched value that can't be converted to the type of its attribute
+ * matches no entity.
+ * 
+ * <p>
+ * The total count and the filtered counts are cached in a {@link CountCache},
+ * keyed by the entity and the filters applied, so that the same filters don't
+ * trigger a {@code COUNT(*)} on every draw. The restriction built by
+ * {@link #toPredicate(Root, CriteriaBuilder, DatatablesCriterias)} has the
+ * same signature as Spring Data JPA's {@code Specification}, so it can also be
+ * used with a Spring Data repository.
+ * 
+ * <p>
+ * When a unique key is passed to the constructor, the adapter uses keyset
+ * pagination: the {@link DataSet} returned by
+ * {@link #fetch(EntityManager, DatatablesCriterias)} holds a
+ * {@link PageCursor} pointing after its last entity, and the next page is
+ * then sought after the sort keys of the cursor rather than skipped with an
+ * offset.
+ * 
+ * <p>
+ * An adapter can be shared between threads.
+ * 
+ * @param <T>
+ *            Type of the entities.
+ * 
+ * @since 0.10.2
+ */
+public class JpaCriteriasAdapter<T> {
+
+	private final Class<T> entityClass;
+	private final CountCache countCache;
+	private final String uniqueKey;
+	private final Map<String, String> columns = new LinkedHashMap<String, String>();
+
+	/**
+	 * Creates an adapter caching the counts for
+	 * {@value CountCache#DEFAULT_TIME_TO_LIVE} seconds.
+	 * 
+	 * @param entityClass
+	 *            The class of the entities to select.
+	 */
+	public JpaCriteriasAdapter(Class<T> entityClass) {
+		this(entityClass, new CountCache());
+	}
+
+	/**
+	 * @param entityClass
+	 *            The class of the entities to select.
+	 * @param countCache
+	 *            The cache of the counts, or {@code null} to count the
+	 *            entities on every call.
+	 */
+	public JpaCriteriasAdapter(Class<T> entityClass, CountCache countCache) {
+		this(entityClass, countCache, null);
+	}
+
+	/**
+	 * Creates an adapter using keyset pagination. The unique key is always
+	 * added as the last sort key, so that the entities are totally ordered.
+	 * The sorted attributes shouldn't be {@code null}, since no cursor is
+	 * built when one of the keys of the last entity is {@code null}.
+	 * 
+	 * @param entityClass
+	 *            The class of the entities to select.
+	 * @param countCache
+	 *            The cache of the counts, or {@code null} to count the
+	 *            entities on every call.
+	 * @param uniqueKey
+	 *            The name of a declared column whose values are unique, e.g.
+	 *            the identifier, or {@code null} to disable keyset pagination.
+	 */
+	public JpaCriteriasAdapter(Class<T> entityClass, CountCache countCache, String uniqueKey) {
+		this.entityClass = entityClass;
+		this.countCache = countCache;
+		this.uniqueKey = uniqueKey;
+	}
+
+	/**
+	 * Declares a column whose name is the path of its attribute.
+	 * 
+	 * @see #column(String, String)
+	 */
+	public JpaCriteriasAdapter<T> column(String name) {
+		return column(name, name);
+	}
+
+	/**
+	 * <p>
+	 * Declares a column that can be searched and sorted.
+	 * 
+	 * @param name
+	 *            The name of the column sent by DataTables, i.e. its
+	 *            {@code mDataProp}.
+	 * @param attribute
+	 *            The path of the attribute of the entity, e.g.
+	 *            {@code address.town.name}.
+	 */
+	public JpaCriteriasAdapter<T> column(String name, String attribute) {
+		if (StringUtils.isBlank(name) || StringUtils.isBlank(attribute)) {
+			throw new IllegalArgumentException("The name and the attribute of a column can't be blank");
+		}
+		this.columns.put(name, attribute);
+		return this;
+	}
+
+	/**
+	 * @param root
+	 *            The root of the query.
+	 * @param criteriaBuilder
+	 *            The builder used to create the restriction.
+	 * @param criterias
+	 *            The criterias sent by DataTables.
+	 * @return the restriction matching the searches of the criterias, or
+	 *         {@code null} if there is no search.
+	 */
+	public Predicate toPredicate(Root<T> root, CriteriaBuilder criteriaBuilder, DatatablesCriterias criterias) {
+		return new Restriction(root, criteriaBuilder, columns).build(criterias);
+	}
+
+	/**
+	 * @param criteriaBuilder
+	 *            The builder used to create the query.
+	 * @param criterias
+	 *            The criterias sent by DataTables.
+	 * @return the query selecting the filtered entities, sorted as requested.
+	 *         If the criterias hold a {@link PageCursor}, the entities
+	 *         following the cursor are selected. The paging must be applied on
+	 *         the resulting {@link TypedQuery}.
+	 */
+	public CriteriaQuery<T> buildPageQuery(CriteriaBuilder criteriaBuilder, DatatablesCriterias criterias) {
+		CriteriaQuery<T> query = criteriaBuilder.createQuery(entityClass);
+		Root<T> root = query.from(entityClass);
+		query.select(root);
+		restrictPage(query, root, criteriaBuilder, criterias);
+		return query;
+	}
+
+	/**
+	 * @param criteriaBuilder
+	 *            The builder used to create the query.
+	 * @param criterias
+	 *            The criterias sent by DataTables, or {@code null} to count
+	 *            all the entities.
+	 * @return the query counting the entities matching the searches.
+	 */
+	public CriteriaQuery<Long> buildCountQuery(CriteriaBuilder criteriaBuilder, DatatablesCriterias criterias) {
+		CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+		Root<T> root = query.from(entityClass);
+		query.select(criteriaBuilder.count(root));
+
+		if (criterias != null) {
+			Predicate predicate = new Restriction(root, criteriaBuilder, columns).build(criterias);
+			if (predicate != null) {
+				query.where(predicate);
+			}
+		}
+		return query;
+	}
+
+	/**
+	 * <p>
+	 * Selects the requested page along with the total and filtered counts.
+	 * <p>
+	 * The counts are read from the {@link CountCache} when available. The
+	 * filtered count is not queried when there is no search.
+	 * 
+	 * @param entityManager
+	 *            The entity manager used to run the queries.
+	 * @param criterias
+	 *            The criterias sent by DataTables.
+	 * @return the requested page along with the total and filtered counts, and
+	 *         the cursor pointing after its last entity if a unique key is
+	 *         set.
+	 */
+	public DataSet<T> fetch(EntityManager entityManager, DatatablesCriterias criterias) {
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+		long totalCount = count(entityManager, null);
+		long filteredCount = hasSearch(criterias) ? count(entityManager, criterias) : totalCount;
+		int start = criterias.getDisplayStart() != null && criterias.getDisplayStart() > 0 ? criterias
+				.getDisplayStart() : 0;
+		boolean paged = criterias.getDisplaySize() != null && criterias.getDisplaySize() >= 0;
+
+		if (uniqueKey == null) {
+			TypedQuery<T> query = entityManager.createQuery(buildPageQuery(criteriaBuilder, criterias));
+			page(query, start, criterias);
+			return new DataSet<T>(query.getResultList(), totalCount, filteredCount);
+		}
+
+		// The sort keys are selected along with the entities to build the cursor
+		CriteriaQuery<Object[]> keysetQuery = criteriaBuilder.createQuery(Object[].class);
+		Root<T> root = keysetQuery.from(entityClass);
+		PageRestriction restriction = restrictPage(keysetQuery, root, criteriaBuilder, criterias);
+		List<Selection<?>> selections = new ArrayList<Selection<?>>();
+		selections.add(root);
+		selections.addAll(restriction.sortKeys);
+		keysetQuery.multiselect(selections);
+
+		TypedQuery<Object[]> query = entityManager.createQuery(keysetQuery);
+		page(query, restriction.sought ? 0 : start, criterias);
+
+		List<T> rows = new ArrayList<T>();
+		Object[] last = null;
+		for (Object[] result : query.getResultList()) {
+			rows.add(entityClass.cast(result[0]));
+			last = result;
+		}
+
+		PageCursor cursor = null;
+		if (paged && last != null) {
+			cursor = PageCursor.create(start + rows.size(), criterias, Arrays.asList(last).subList(1, last.length));
+		}
+		return new DataSet<T>(rows, totalCount, filteredCount, cursor);
+	}
+
+	/**
+	 * Removes the cached counts of all the entities, e.g. after entities have
+	 * been inserted or deleted.
+	 */
+	public void clearCountCache() {
+		if (countCache != null) {
+			countCache.clear();
+		}
+	}
+
+	private static void page(TypedQuery<?> query, int start, DatatablesCriterias criterias) {
+		if (start > 0) {
+			query.setFirstResult(start);
+		}
+		if (criterias.getDisplaySize() != null && criterias.getDisplaySize() >= 0) {
+			query.setMaxResults(criterias.getDisplaySize());
+		}
+	}
+
+	/**
+	 * Applies the searches, the sorting and the cursor of the criterias to the
+	 * query selecting a page.
+	 */
+	private PageRestriction restrictPage(CriteriaQuery<?> query, Root<T> root, CriteriaBuilder criteriaBuilder,
+			DatatablesCriterias criterias) {
+		Restriction restriction = new Restriction(root, criteriaBuilder, columns);
+		PageRestriction pageRestriction = new PageRestriction();
+		List<Predicate> predicates = new ArrayList<Predicate>();
+		Predicate predicate = restriction.build(criterias);
+		if (predicate != null) {
+			predicates.add(predicate);
+		}
+
+		List<Boolean> descendings = new ArrayList<Boolean>();
+		List<String> names = new ArrayList<String>();
+		if (criterias.getSortingColumnDefs() != null) {
+			for (ColumnDef sortingColumnDef : criterias.getSortingColumnDefs()) {
+				Path<?> path = restriction.resolve(sortingColumnDef.getName());
+				if (path != null && !names.contains(sortingColumnDef.getName())) {
+					pageRestriction.sortKeys.add(path);
+					descendings.add(sortingColumnDef.getSortDirection() == SortDirection.DESC);
+					names.add(sortingColumnDef.getName());
+				}
+			}
+		}
+		if (uniqueKey != null && !names.contains(uniqueKey)) {
+			Path<?> path = restriction.resolve(uniqueKey);
+			if (path == null) {
+				throw new IllegalArgumentException("The unique key '" + uniqueKey
+						+ "' is not a declared column mapped to an attribute of " + entityClass.getName());
+			}
+			pageRestriction.sortKeys.add(path);
+			descendings.add(false);
+		}
+
+		PageCursor cursor = criterias.getCursor();
+		if (uniqueKey != null && cursor != null && cursor.getKeys().size() == pageRestriction.sortKeys.size()) {
+			Predicate seek = restriction.seek(pageRestriction.sortKeys, descendings, cursor.getKeys());
+			if (seek != null) {
+				predicates.add(seek);
+				pageRestriction.sought = true;
+			}
+		}
+
+		if (!predicates.isEmpty()) {
+			query.where(predicates.toArray(new Predicate[predicates.size()]));
+		}
+		List<Order> orders = new ArrayList<Order>();
+		for (int i = 0; i < pageRestriction.sortKeys.size(); i++) {
+			Path<?> path = pageRestriction.sortKeys.get(i);
+			orders.add(descendings.get(i) ? criteriaBuilder.desc(path) : criteriaBuilder.asc(path));
+		}
+		if (!orders.isEmpty()) {
+			query.orderBy(orders);
+		}
+		return pageRestriction;
+	}
+
+	private long count(EntityManager entityManager, DatatablesCriterias criterias) {
+		List<Object> key = countKey(criterias);
+		Long count = countCache != null ? countCache.get(key) : null;
+		if (count == null) {
+			count = entityManager.createQuery(buildCountQuery(entityManager.getCriteriaBuilder(), criterias))
+					.getSingleResult();
+			if (countCache != null) {
+				countCache.put(key, count);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Builds the key of a count from the entity class and the values of all the
+	 * criterias that restrict the counted entities.
+	 */
+	private List<Object> countKey(DatatablesCriterias criterias) {
+		List<Object> key = new ArrayList<Object>();
+		key.add(entityClass);
+		if (criterias != null) {
+			key.add(StringUtils.isNotBlank(criterias.getSearch()) ? criterias.getSearch() : null);
+			for (ColumnDef columnDef : columnDefs(criterias)) {
+				key.add(columnDef.getName());
+				key.add(columnDef.isFilterable());
+				key.add(columnDef.getSearch());
+				key.add(columnDef.getSearchFrom());
+				key.add(columnDef.getSearchTo());
+			}
+		}
+		return key;
+	}
+
+	private static boolean hasSearch(DatatablesCriterias criterias) {
+		if (StringUtils.isNotBlank(criterias.getSearch())) {
+			return true;
+		}
+		for (ColumnDef columnDef : columnDefs(criterias)) {
+			if (StringUtils.isNotBlank(columnDef.getSearch()) || StringUtils.isNotBlank(columnDef.getSearchFrom())
+					|| StringUtils.isNotBlank(columnDef.getSearchTo())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<ColumnDef> columnDefs(DatatablesCriterias criterias) {
+		return criterias.getColumnDefs() != null ? criterias.getColumnDefs() : Collections.<ColumnDef> emptyList();
+	}
+
+	/**
+	 * The sort keys of a page query, and whether the page is sought after a
+	 * cursor.
+	 */
+	private static class PageRestriction {
+
+		private final List<Path<?>> sortKeys = new ArrayList<Path<?>>();
+		private boolean sought;
+	}
+
+	/**
+	 * Builds the restriction of a single query, resolving the paths of the
+	 * declared columns against its root and reusing the joins between columns.
+	 */
+	private static class Restriction {
+
+		private final Root<?> root;
+		private final CriteriaBuilder criteriaBuilder;
+		private final Map<String, String> columns;
+		private final Map<String, From<?, ?>> joins = new HashMap<String, From<?, ?>>();
+		private final Map<String, Path<?>> paths = new HashMap<String, Path<?>>();
+
+		Restriction(Root<?> root, CriteriaBuilder criteriaBuilder, Map<String, String> columns) {
+			this.root = root;
+			this.criteriaBuilder = criteriaBuilder;
+			this.columns = columns;
+		}
+
+		Predicate build(DatatablesCriterias criterias) {
+			List<Predicate> predicates = new ArrayList<Predicate>();
+
+			for (ColumnDef columnDef : columnDefs(criterias)) {
+				Path<?> path = resolve(columnDef.getName());
+				if (path == null) {
+					continue;
+				}
+				if (StringUtils.isNotBlank(columnDef.getSearch())) {
+					predicates.add(path.getJavaType() == String.class ? like(path, columnDef.getSearch()) : equal(
+							path, columnDef.getSearch()));
+				}
+				if (StringUtils.isNotBlank(columnDef.getSearchFrom())) {
+					predicates.add(bound(path, columnDef.getSearchFrom(), false));
+				}
+				if (StringUtils.isNotBlank(columnDef.getSearchTo())) {
+					predicates.add(bound(path, columnDef.getSearchTo(), true));
+				}
+			}
+
+			if (StringUtils.isNotBlank(criterias.getSearch())) {
+				List<Predicate> search = new ArrayList<Predicate>();
+				for (ColumnDef columnDef : columnDefs(criterias)) {
+					Path<?> path = columnDef.isFilterable() ? resolve(columnDef.getName()) : null;
+					if (path != null && path.getJavaType() == String.class) {
+						search.add(like(path, criterias.getSearch()));
+					}
+				}
+				predicates.add(criteriaBuilder.or(search.toArray(new Predicate[search.size()])));
+			}
+
+			return predicates.isEmpty() ? null : criteriaBuilder.and(predicates.toArray(new Predicate[predicates
+					.size()]));
+		}
+
+		/**
+		 * @return the path of the attribute of the column, or {@code null} if
+		 *         the column isn't declared or doesn't match an attribute of the
+		 *         entity.
+		 */
+		Path<?> resolve(String name) {
+			String attribute = name != null ? columns.get(name) : null;
+			if (attribute == null) {
+				return null;
+			}
+			if (paths.containsKey(name)) {
+				return paths.get(name);
+			}
+
+			Path<?> path = null;
+			String[] attributes = attribute.split("\\.");
+			try {
+				// Validates the whole path first, so that no join is added for
+				// unknown attributes or collections
+				Path<?> validated = root;
+				for (String part : attributes) {
+					validated = validated.get(part);
+				}
+
+				From<?, ?> from = root;
+				StringBuilder association = new StringBuilder();
+				for (int i = 0; i < attributes.length - 1; i++) {
+					association.append(i == 0 ? "" : ".").append(attributes[i]);
+					From<?, ?> join = joins.get(association.toString());
+					if (join == null) {
+						join = from.join(attributes[i], JoinType.LEFT);
+						joins.put(association.toString(), join);
+					}
+					from = join;
+				}
+				Class<?> type = validated.getJavaType();
+				if (!Collection.class.isAssignableFrom(type) && !Map.class.isAssignableFrom(type)) {
+					path = from.get(attributes[attributes.length - 1]);
+				}
+			}
+			catch (IllegalArgumentException e) {
+				// Not an attribute of the entity
+			}
+			catch (IllegalStateException e) {
+				// Basic attribute or collection dereferenced
+			}
+			paths.put(name, path);
+			return path;
+		}
+
+		/**
+		 * @return the restriction selecting the entities following the keys
+		 *         in the sorting order, or {@code null} if a key can't be
+		 *         converted to the type of its attribute.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Predicate seek(List<Path<?>> sortKeys, List<Boolean> descendings, List<String> keys) {
+			List<Predicate> alternatives = new ArrayList<Predicate>();
+			List<Predicate> equalities = new ArrayList<Predicate>();
+			for (int i = 0; i < sortKeys.size(); i++) {
+				Path<?> path = sortKeys.get(i);
+				Object value = SearchUtils.convert(keys.get(i), path.getJavaType());
+				if (!(value instanceof Comparable)) {
+					return null;
+				}
+				Expression<Comparable> expression = (Expression<Comparable>) path;
+				List<Predicate> alternative = new ArrayList<Predicate>(equalities);
+				alternative.add(descendings.get(i) ? criteriaBuilder.lessThan(expression, (Comparable) value)
+						: criteriaBuilder.greaterThan(expression, (Comparable) value));
+				alternatives.add(criteriaBuilder.and(alternative.toArray(new Predicate[alternative.size()])));
+				equalities.add(criteriaBuilder.equal(path, value));
+			}
+			return criteriaBuilder.or(alternatives.toArray(new Predicate[alternatives.size()]));
+		}
+
+		@SuppressWarnings("unchecked")
+		private Predicate like(Path<?> path, String search) {
+			return criteriaBuilder.like(criteriaBuilder.lower((Expression<String>) path),
+					SearchUtils.likePattern(search), SearchUtils.LIKE_ESCAPE);
+		}
+
+		private Predicate equal(Path<?> path, String value) {
+			Object converted = SearchUtils.convert(value.trim(), path.getJavaType());
+			return converted != null ? criteriaBuilder.equal(path, converted) : criteriaBuilder.disjunction();
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Predicate bound(Path<?> path, String value, boolean upper) {
+			SearchUtils.Bound bound = SearchUtils.rangeBound(value.trim(), path.getJavaType(), upper);
+			if (bound == null || !(bound.getValue() instanceof Comparable)) {
+				return criteriaBuilder.disjunction();
+			}
+			Expression<Comparable> expression = (Expression<Comparable>) path;
+			Comparable converted = (Comparable) bound.getValue();
+			if (upper) {
+				return bound.isInclusive() ? criteriaBuilder.lessThanOrEqualTo(expression, converted)
+						: criteriaBuilder.lessThan(expression, converted);
+			}
+			return bound.isInclusive() ? criteriaBuilder.greaterThanOrEqualTo(expression, converted)
+					: criteriaBuilder.greaterThan(expression, converted);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2014 Dandelion
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.extras.spring3.ajax;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link CountCache}.
+ */
+public class CountCacheTest {
+
+	private long now;
+	private CountCache cache;
+
+	@Before
+	public void createCache() {
+		cache = new CountCache(10, TimeUnit.NANOSECONDS, 2) {
+
+			@Override
+			long currentTime() {
+				return now;
+			}
+		};
+	}
+
+	@Test
+	public void should_return_the_count_until_it_expires() {
+		cache.put("key", 42);
+
+		now = 9;
+		assertThat(cache.get("key")).isEqualTo(42L);
+		assertThat(cache.get("other")).isNull();
+
+		now = 10;
+		assertThat(cache.get("key")).isNull();
+		assertThat(cache.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void should_evict_the_least_recently_used_count_when_full() {
+		cache.put("first", 1);
+		cache.put("second", 2);
+		assertThat(cache.get("first")).isEqualTo(1L);
+
+		cache.put("third", 3);
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.get("first")).isEqualTo(1L);
+		assertThat(cache.get("second")).isNull();
+		assertThat(cache.get("third")).isEqualTo(3L);
+	}
+
+	@Test
+	public void should_keep_the_size_when_replacing_a_count() {
+		cache.put("first", 1);
+		cache.put("second", 2);
+		cache.put("second", 3);
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.get("first")).isEqualTo(1L);
+		assertThat(cache.get("second")).isEqualTo(3L);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_reject_a_negative_time_to_live() {
+		new CountCache(-1, TimeUnit.SECONDS);
+	}
+}
@@ -0,0 +1,270 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2014 Dandelion
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.datatables.extras.spring3.ajax;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.github.dandelion.datatables.core.ajax.ColumnDef;
+import com.github.dandelion.datatables.core.ajax.ColumnDef.SortDirection;
+import com.github.dandelion.datatables.core.ajax.DataSet;
+import com.github.dandelion.datatables.core.ajax.DatatablesCriterias;
+import com.github.dandelion.datatables.core.ajax.PageCursor;
+import com.github.dandelion.datatables.mock.Department;
+import com.github.dandelion.datatables.mock.Employee;
+
+/**
+ * Test the {@link JpaCriteriasAdapter} against an embedded H2 database.
+ */
+public class JpaCriteriasAdapterTest {
+
+	private static EntityManagerFactory entityManagerFactory;
+
+	private EntityManager entityManager;
+	private JpaCriteriasAdapter<Employee> adapter;
+	private List<ColumnDef> columnDefs;
+
+	@BeforeClass
+	public static void createDatabase() {
+		entityManagerFactory = Persistence.createEntityManagerFactory("datatables");
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		entityManager.getTransaction().begin();
+		Department sales = new Department(1L, "Sales");
+		Department it = new Department(2L, "IT");
+		entityManager.persist(sales);
+		entityManager.persist(it);
+		entityManager.persist(new Employee(1L, "Anna", 30, sales));
+		entityManager.persist(new Employee(2L, "Paul", 45, it));
+		entityManager.persist(new Employee(3L, "Joanna", 28, null));
+		entityManager.persist(new Employee(4L, "John", 52, it));
+		entityManager.persist(new Employee(5L, "50%_Off", 40, sales));
+		entityManager.getTransaction().commit();
+		entityManager.close();
+	}
+
+	@AfterClass
+	public static void dropDatabase() {
+		entityManagerFactory.close();
+	}
+
+	@Before
+	public void createAdapter() {
+		entityManager = entityManagerFactory.createEntityManager();
+		adapter = declareColumns(new JpaCriteriasAdapter<Employee>(Employee.class));
+		columnDefs = new ArrayList<ColumnDef>();
+		for (String name : new String[] { "id", "name", "age", "department.name", "unknown", "phones" }) {
+			ColumnDef columnDef = new ColumnDef();
+			columnDef.setName(name);
+			columnDef.setFilterable(true);
+			columnDefs.add(columnDef);
+		}
+	}
+
+	@After
+	public void closeEntityManager() {
+		entityManager.close();
+	}
+
+	@Test
+	public void should_fetch_a_filtered_and_sorted_page() {
+		columnDefs.get(1).setSortDirection(SortDirection.DESC);
+
+		DataSet<Employee> dataSet = adapter.fetch(entityManager, criterias("N", 1, 2, columnDefs.get(1)));
+
+		assertThat(names(dataSet)).containsExactly("Joanna", "Anna");
+		assertThat(dataSet.getTotalRecords()).isEqualTo(5L);
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(3L);
+	}
+
+	@Test
+	public void should_keep_the_entities_without_association_when_sorting_on_it() {
+		columnDefs.get(3).setSortDirection(SortDirection.ASC);
+		columnDefs.get(1).setSortDirection(SortDirection.ASC);
+
+		DataSet<Employee> dataSet = adapter.fetch(entityManager,
+				criterias(null, 0, 10, columnDefs.get(3), columnDefs.get(1)));
+
+		assertThat(names(dataSet)).hasSize(5).contains("Joanna");
+		assertThat(names(dataSet).subList(3, 5)).containsExactly("50%_Off", "Anna");
+	}
+
+	@Test
+	public void should_apply_the_column_searches() {
+		columnDefs.get(3).setSearch("it");
+		columnDefs.get(2).setSearchFrom("45");
+
+		DataSet<Employee> dataSet = adapter.fetch(entityManager, criterias(null, 0, 10, columnDefs.get(0)));
+
+		assertThat(names(dataSet)).containsExactly("Paul", "John");
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(2L);
+	}
+
+	@Test
+	public void should_escape_the_wildcards_of_the_search() {
+		DataSet<Employee> dataSet = adapter.fetch(entityManager, criterias("%_o", 0, 10));
+
+		assertThat(names(dataSet)).containsExactly("50%_Off");
+	}
+
+	@Test
+	public void should_match_nothing_when_a_value_cant_be_converted() {
+		columnDefs.get(2).setSearch("abc");
+
+		DataSet<Employee> dataSet = adapter.fetch(entityManager, criterias(null, 0, 10));
+
+		assertThat(dataSet.getRows()).isEmpty();
+		assertThat(dataSet.getTotalRecords()).isEqualTo(5L);
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(0L);
+	}
+
+	@Test
+	public void should_ignore_the_columns_that_are_not_attributes() {
+		columnDefs.get(4).setSearch("ignored");
+		columnDefs.get(5).setSearch("ignored");
+		columnDefs.get(4).setSortDirection(SortDirection.ASC);
+		columnDefs.get(5).setSortDirection(SortDirection.ASC);
+
+		DataSet<Employee> dataSet = adapter.fetch(entityManager,
+				criterias(null, 0, 10, columnDefs.get(4), columnDefs.get(5)));
+
+		assertThat(dataSet.getRows()).hasSize(5);
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(5L);
+	}
+
+	@Test
+	public void should_ignore_the_undeclared_columns() {
+		adapter = new JpaCriteriasAdapter<Employee>(Employee.class).column("name");
+		columnDefs.get(3).setSearch("it");
+		columnDefs.get(2).setSortDirection(SortDirection.DESC);
+
+		DataSet<Employee> dataSet = adapter.fetch(entityManager, criterias("o", 0, 10, columnDefs.get(2)));
+
+		assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(3L);
+		assertThat(names(dataSet)).containsOnly("Joanna", "John", "50%_Off");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_reject_an_undeclared_unique_key() {
+		adapter = new JpaCriteriasAdapter<Employee>(Employee.class, null, "id").column("name");
+
+		adapter.fetch(entityManager, criterias(null, 0, 10));
+	}
+
+	@Test
+	public void should_reuse_the_cached_counts() {
+		columnDefs.get(1).setSearch("a");
+		assertThat(adapter.fetch(entityManager, criterias(null, 0, 1)).getTotalDisplayRecords()).isEqualTo(3L);
+
+		entityManager.getTransaction().begin();
+		entityManager.persist(new Employee(6L, "Sarah", 33, null));
+		entityManager.getTransaction().commit();
+		try {
+			DataSet<Employee> dataSet = adapter.fetch(entityManager, criterias(null, 0, 1));
+			assertThat(dataSet.getTotalRecords()).isEqualTo(5L);
+			assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(3L);
+
+			adapter.clearCountCache();
+			dataSet = adapter.fetch(entityManager, criterias(null, 0, 1));
+			assertThat(dataSet.getTotalRecords()).isEqualTo(6L);
+			assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(4L);
+
+			columnDefs.get(1).setSearch("an");
+			assertThat(adapter.fetch(entityManager, criterias(null, 0, 1)).getTotalDisplayRecords()).isEqualTo(2L);
+		}
+		finally {
+			entityManager.getTransaction().begin();
+			entityManager.remove(entityManager.find(Employee.class, 6L));
+			entityManager.getTransaction().commit();
+		}
+	}
+
+	@Test
+	public void should_seek_the_next_pages_using_the_cursors() {
+		adapter = declareColumns(new JpaCriteriasAdapter<Employee>(Employee.class, null, "id"));
+		columnDefs.get(1).setSortDirection(SortDirection.DESC);
+
+		List<String> names = new ArrayList<String>();
+		PageCursor cursor = null;
+		for (int start = 0; start < 5; start += 2) {
+			DatatablesCriterias criterias = new DatatablesCriterias(null, start, 2, columnDefs,
+					Arrays.asList(columnDefs.get(1)), 1, cursor);
+			assertThat(criterias.getCursor() != null).isEqualTo(start > 0);
+
+			DataSet<Employee> dataSet = adapter.fetch(entityManager, criterias);
+			assertThat(dataSet.getTotalDisplayRecords()).isEqualTo(5L);
+			names.addAll(names(dataSet));
+			cursor = PageCursor.decode(dataSet.getCursor().encode());
+		}
+
+		assertThat(names).containsExactly("Paul", "John", "Joanna", "Anna", "50%_Off");
+		assertThat(cursor.getPosition()).isEqualTo(5);
+	}
+
+	@Test
+	public void should_not_build_a_cursor_when_a_key_is_null() {
+		adapter = declareColumns(new JpaCriteriasAdapter<Employee>(Employee.class, null, "id"));
+		columnDefs.get(3).setSortDirection(SortDirection.DESC);
+
+		DataSet<Employee> dataSet = adapter.fetch(entityManager, criterias(null, 0, 5, columnDefs.get(3)));
+
+		assertThat(dataSet.getRows()).hasSize(5);
+		assertThat(dataSet.getCursor()).isNull();
+	}
+
+	private static JpaCriteriasAdapter<Employee> declareColumns(JpaCriteriasAdapter<Employee> adapter) {
+		return adapter.column("id").column("name").column("age").column("department.name").column("unknown")
+				.column("phones");
+	}
+
+	private DatatablesCriterias criterias(String search, int start, int size, ColumnDef... sortingColumnDefs) {
+		return new DatatablesCriterias(search, start, size, columnDefs, Arrays.asList(sortingColumnDefs), 1);
+	}
+
+	private static List<String> names(DataSet<Employee> dataSet) {
+		List<String> names = new ArrayList<String>();
+		for (Employee employee : dataSet.getRows()) {
+			names.add(employee.getName());
+		}
+		return names;
+	}
+}
@@ -30,7 +30,6 @@
 package com.github.dandelion.datatables.jsp.tag;
 
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -39,7 +38,6 @@ import javax.servlet.jsp.tagext.BodyTagSupport;
 import javax.servlet.jsp.tagext.DynamicAttributes;
 
 import org.apache.commons.beanutils.NestedNullException;
-import org.apache.commons.beanutils.PropertyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +46,8 @@ import com.github.dandelion.datatables.core.configuration.ColumnConfig;
 import com.github.dandelion.datatables.core.configuration.ConfigToken;
 import com.github.dandelion.datatables.core.extension.Extension;
 import com.github.dandelion.datatables.core.html.HtmlColumn;
+import com.github.dandelion.datatables.core.util.MessageFormatCache;
+import com.github.dandelion.datatables.core.util.PropertyAccessor;
 
 /**
  * <p>
@@ -223,13 +223,11 @@ public abstract class AbstractColumnTag extends BodyTagSupport implements Dynami
 
 			Object propertyValue = null;
 			try {
-				propertyValue = PropertyUtils.getNestedProperty(parent.getCurrentObject(), this.property.trim());
+				propertyValue = PropertyAccessor.getNestedProperty(parent.getCurrentObject(), this.property.trim());
 
 				// If a MessageFormat exists, we use it to format the property
 				if (StringUtils.isNotBlank(format) && propertyValue != null) {
-
-					MessageFormat messageFormat = new MessageFormat(format);
-					return messageFormat.format(new Object[] { propertyValue });
+					return MessageFormatCache.format(format, new Object[] { propertyValue });
 				} else if (StringUtils.isBlank(format) && propertyValue != null) {
 					return propertyValue.toString();
 				} else {
@@ -38,10 +38,10 @@ import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.JspWriter;
 import javax.servlet.jsp.tagext.BodyTagSupport;
 import javax.servlet.jsp.tagext.DynamicAttributes;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +59,7 @@ import com.github.dandelion.datatables.core.export.ExportUtils;
 import com.github.dandelion.datatables.core.generator.WebResourceGenerator;
 import com.github.dandelion.datatables.core.generator.javascript.JavascriptGenerator;
 import com.github.dandelion.datatables.core.html.HtmlTable;
+import com.github.dandelion.datatables.core.util.PropertyAccessor;
 
 /**
  * <p>
@@ -191,7 +192,7 @@ public abstract class AbstractTableTag extends BodyTagSupport implements Dynamic
 
 		if (StringUtils.isNotBlank(this.rowIdBase)) {
 			try {
-				Object propertyValue = PropertyUtils.getNestedProperty(this.currentObject,
+				Object propertyValue = PropertyAccessor.getNestedProperty(this.currentObject,
 						StringUtils.escape(this.escapeXml, this.rowIdBase));
 				rowId.append(propertyValue != null ? propertyValue : "");
 			} catch (IllegalAccessException e) {
@@ -245,8 +246,10 @@ public abstract class AbstractTableTag extends BodyTagSupport implements Dynamic
 					"dandelion-datatables", DelegateLocator.DELEGATED_CONTENT_PARAM);
 			javascriptGenerator.addResource(jsResource);
 
-			// HTML generation
-			pageContext.getOut().println(this.table.toHtml());
+			// HTML generation, streamed into the JSP writer
+			JspWriter out = pageContext.getOut();
+			this.table.render(out);
+			out.println();
 
 		} catch (IOException e) {
 			throw new JspException("Unable to generate the HTML markup for the table " + id, e);
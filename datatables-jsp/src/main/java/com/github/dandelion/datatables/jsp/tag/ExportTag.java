@@ -90,6 +90,7 @@ public class ExportTag extends TagSupport {
 	private String cssClass;
 	private Boolean includeHeader;
 	private Boolean autoSize;
+	private Boolean streaming;
 	private String url;
 	private String method;
 	private String orientation;
@@ -216,6 +217,11 @@ public class ExportTag extends TagSupport {
 				conf.setAutoSize(autoSize);
 				UrlUtils.addParameter(exportUrl, ExportUtils.DDL_DT_REQUESTPARAM_EXPORT_AUTOSIZE, autoSize);
 			}
+
+			if (streaming != null) {
+				conf.setStreaming(streaming);
+				UrlUtils.addParameter(exportUrl, ExportUtils.DDL_DT_REQUESTPARAM_EXPORT_STREAMING, streaming);
+			}
 			
 			// Finalizes the export URL
 			UrlUtils.addParameter(exportUrl, ExportUtils.DDL_DT_REQUESTPARAM_EXPORT_ID, parent.getTable().getId());
@@ -258,6 +264,10 @@ public class ExportTag extends TagSupport {
 		this.autoSize = autoSize;
 	}
 
+	public void setStreaming(Boolean streaming) {
+		this.streaming = streaming;
+	}
+
 	public void setUrl(String url) {
 		this.url = url;
 	}
@@ -322,6 +322,12 @@ public class DivConfTypeAttrProcessor extends AbstractAttrProcessor {
 			UrlUtils.addParameter(exportUrl, ExportUtils.DDL_DT_REQUESTPARAM_EXPORT_AUTOSIZE, autosize);
 		}
 
+		if (hasAttribute(element, "streaming")) {
+			String streaming = getStringValue(element, "streaming");
+			conf.setStreaming(Boolean.parseBoolean(streaming));
+			UrlUtils.addParameter(exportUrl, ExportUtils.DDL_DT_REQUESTPARAM_EXPORT_STREAMING, streaming);
+		}
+
 		if (hasAttribute(element, "exportClass")) {
 			conf.setExportClass(getStringValue(element, "exportClass"));
 		}